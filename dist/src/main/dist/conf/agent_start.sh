@@ -31,7 +31,7 @@ start_remote(){
     ssh $SSH_OPTIONS $SIMULATOR_USER@$agent "rm -f agent.out"
     ssh $SSH_OPTIONS $SIMULATOR_USER@$agent "rm -f agent.err"
 
-    args="--addressIndex $agent_index --publicAddress $agent --port $AGENT_PORT"
+    args="--addressIndex $agent_index --publicAddress $agent --port $AGENT_PORT --performanceStatsIntervalSeconds $WORKER_PERFORMANCE_MONITOR_INTERVAL_SECONDS"
 
     ssh $SSH_OPTIONS $SIMULATOR_USER@$agent \
         "nohup hazelcast-simulator-$SIMULATOR_VERSION/bin/agent $args > agent.out 2> agent.err < /dev/null &"
@@ -52,7 +52,7 @@ start_local(){
     rm agent.out || true
     rm agent.err || true
 
-    args="--addressIndex 1 --publicAddress 127.0.0.1 --port $AGENT_PORT"
+    args="--addressIndex 1 --publicAddress 127.0.0.1 --port $AGENT_PORT --performanceStatsIntervalSeconds $WORKER_PERFORMANCE_MONITOR_INTERVAL_SECONDS"
 
     nohup $SIMULATOR_HOME/bin/agent $args > agent.out 2> agent.err < /dev/null &
 
@@ -90,12 +90,15 @@ function postprocess_hdr(){
     echo "Postprocessing HDR-histogram started"
 
     # merge all hdr files of each member into a hdr file which gets stored in the target_directory
-    probes=($(ls -R ${session_dir} | grep .hdr | sort | uniq))
+    # the file names are matched exactly, so the rollup logs (e.g. MapTest-getProbe.1m.hdr) are merged separately
+    # the interval logs which are rotated by the retention (e.g. MapTest-getProbe.hdr.1) are merged with their current log,
+    # since the histograms are aligned on their timestamps
+    probes=($(ls -R ${session_dir} | grep '\.hdr$' | sort | uniq))
     for probe in "${probes[@]}"
     do
         echo "Merging $probe"
 
-        hdr_files=($(find ${session_dir} | grep ${probe}))
+        hdr_files=($(find ${session_dir} -mindepth 2 \( -name "${probe}" -o -name "${probe}.1" \)))
 
         java -cp "${SIMULATOR_HOME}/lib/*" com.hazelcast.simulator.utils.HistogramLogMerger \
             "${session_dir}/${probe}" "${hdr_files[@]}"
@@ -125,6 +128,13 @@ function postprocess_hdr(){
         mv "${file_name}.hgrm.bak" "${file_name}.hgrm"
     done
 
+    # create latency heatmaps of the merged hdr files, which show multimodal latencies over time
+    merged_hdr_files=($(find "${session_dir}" -maxdepth 1 -name "*.hdr"))
+    if [ ${#merged_hdr_files[@]} -gt 0 ]; then
+        java -Djava.awt.headless=true -cp "${SIMULATOR_HOME}/lib/*" com.hazelcast.simulator.utils.HistogramHeatmap \
+            "${merged_hdr_files[@]}"
+    fi
+
     echo "Postprocessing HDR-histogram completed"
 }
 
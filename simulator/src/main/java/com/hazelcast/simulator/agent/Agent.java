@@ -50,12 +50,14 @@ public class Agent implements Closeable {
     private final Server server;
     private final Broker broker;
     private final WorkerSniffer workerSniffer;
+    private final PerformanceStatsAggregator performanceStatsAggregator;
 
     public Agent(int addressIndex,
                  String publicAddress,
                  int port,
                  int threadPoolSize,
-                 int workerLastSeenTimeoutSeconds) {
+                 int workerLastSeenTimeoutSeconds,
+                 int performanceStatsIntervalSeconds) {
         SimulatorAddress agentAddress = agentAddress(addressIndex);
 
         this.publicAddress = publicAddress;
@@ -77,7 +79,11 @@ public class Agent implements Closeable {
                 new WorkerProcessFailureHandler(publicAddress, server),
                 processManager, workerLastSeenTimeoutSeconds);
 
-        server.setProcessor(new AgentOperationProcessor(processManager, workerProcessFailureMonitor));
+        this.performanceStatsAggregator = new PerformanceStatsAggregator(server, processManager,
+                performanceStatsIntervalSeconds);
+
+        server.setProcessor(new AgentOperationProcessor(processManager, workerProcessFailureMonitor,
+                performanceStatsAggregator));
     }
 
     private void createPidFile() {
@@ -133,6 +139,7 @@ public class Agent implements Closeable {
             workerProcessFailureMonitor.shutdown();
 
             workerSniffer.stop();
+            closeQuietly(performanceStatsAggregator);
             closeQuietly(server);
             closeQuietly(broker);
 
@@ -33,6 +33,7 @@ public final class AgentCli {
     private static final Logger LOGGER = Logger.getLogger(AgentCli.class);
 
     private static final int DEFAULT_WORKER_LAST_SEEN_TIMEOUT_SECONDS = 180;
+    private static final int DEFAULT_PERFORMANCE_STATS_INTERVAL_SECONDS = 10;
 
     final Agent agent;
 
@@ -58,6 +59,12 @@ public final class AgentCli {
             "Timeout value for worker timeout detection.")
             .withRequiredArg().ofType(Integer.class).defaultsTo(DEFAULT_WORKER_LAST_SEEN_TIMEOUT_SECONDS);
 
+    private final OptionSpec<Integer> performanceStatsIntervalSecondsSpec = parser.accepts("performanceStatsIntervalSeconds",
+            "Interval for sending the aggregated performance stats of the local Workers to the Coordinator."
+                    + " Only used if the Workers are configured with AGENT_PERFORMANCE_STATS_AGGREGATION=true."
+                    + " The value 0 disables the aggregation.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(DEFAULT_PERFORMANCE_STATS_INTERVAL_SECONDS);
+
     private final OptionSet options;
 
     AgentCli(String[] args) {
@@ -82,13 +89,15 @@ public final class AgentCli {
 
         Integer threadPoolSize = options.valueOf(threadPoolSizeSpec);
         Integer workerLastSeenTimeoutSeconds = options.valueOf(workerLastSeenTimeoutSecondsSpec);
+        Integer performanceStatsIntervalSeconds = options.valueOf(performanceStatsIntervalSecondsSpec);
 
         this.agent = new Agent(
                 addressIndex,
                 publicAddress,
                 port,
                 threadPoolSize,
-                workerLastSeenTimeoutSeconds);
+                workerLastSeenTimeoutSeconds,
+                performanceStatsIntervalSeconds);
     }
 
     private static void logHeader() {
@@ -18,13 +18,17 @@ package com.hazelcast.simulator.agent;
 import com.hazelcast.simulator.agent.operations.CreateWorkerOperation;
 import com.hazelcast.simulator.agent.operations.StartTimeoutDetectionOperation;
 import com.hazelcast.simulator.agent.operations.StopTimeoutDetectionOperation;
+import com.hazelcast.simulator.agent.operations.WorkerHeartbeatOperation;
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
 import com.hazelcast.simulator.agent.workerprocess.WorkerProcessFailureMonitor;
 import com.hazelcast.simulator.agent.workerprocess.WorkerProcessManager;
+import com.hazelcast.simulator.coordinator.operations.FailureOperation;
 import com.hazelcast.simulator.protocol.OperationProcessor;
 import com.hazelcast.simulator.protocol.Promise;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.ProcessException;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.worker.operations.PerformanceStatsOperation;
 
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.ResponseType.UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
@@ -33,11 +37,14 @@ class AgentOperationProcessor implements OperationProcessor {
 
     private final WorkerProcessManager processManager;
     private final WorkerProcessFailureMonitor failureMonitor;
+    private final PerformanceStatsAggregator performanceStatsAggregator;
 
     public AgentOperationProcessor(WorkerProcessManager processManager,
-                                   WorkerProcessFailureMonitor failureMonitor) {
+                                   WorkerProcessFailureMonitor failureMonitor,
+                                   PerformanceStatsAggregator performanceStatsAggregator) {
         this.processManager = processManager;
         this.failureMonitor = failureMonitor;
+        this.performanceStatsAggregator = performanceStatsAggregator;
     }
 
     @Override
@@ -45,11 +52,25 @@ class AgentOperationProcessor implements OperationProcessor {
         if (op instanceof CreateWorkerOperation) {
             processManager.launch((CreateWorkerOperation) op, promise);
         } else if (op instanceof StartTimeoutDetectionOperation) {
-            failureMonitor.startTimeoutDetection();
+            StartTimeoutDetectionOperation startTimeoutDetectionOperation = (StartTimeoutDetectionOperation) op;
+            failureMonitor.startTimeoutDetection(startTimeoutDetectionOperation.getLastSeenTimeoutSeconds(),
+                    startTimeoutDetectionOperation.getNoProgressTimeoutSeconds());
             promise.answer(SUCCESS);
         } else if (op instanceof StopTimeoutDetectionOperation) {
             failureMonitor.stopTimeoutDetection();
             promise.answer(SUCCESS);
+        } else if (op instanceof WorkerReadyOperation) {
+            processManager.workerReady(source, (WorkerReadyOperation) op);
+            promise.answer(SUCCESS);
+        } else if (op instanceof WorkerHeartbeatOperation) {
+            processManager.heartbeat(source, (WorkerHeartbeatOperation) op);
+            promise.answer(SUCCESS);
+        } else if (op instanceof FailureOperation) {
+            failureMonitor.workerException(source, (FailureOperation) op);
+            promise.answer(SUCCESS);
+        } else if (op instanceof PerformanceStatsOperation) {
+            performanceStatsAggregator.update(source, ((PerformanceStatsOperation) op).getPerformanceStats());
+            promise.answer(SUCCESS);
         } else {
             throw new ProcessException("Unknown operation:" + op, UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR);
         }
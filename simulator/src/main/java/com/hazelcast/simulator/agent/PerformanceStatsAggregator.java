@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent;
+
+import com.hazelcast.simulator.agent.workerprocess.WorkerProcessManager;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.worker.operations.PerformanceStatsOperation;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Merges the {@link PerformanceStats} of all Workers of this Agent into a single {@link PerformanceStatsOperation} per
+ * interval, so the Coordinator receives one message per Agent instead of one message per Worker.
+ *
+ * The Workers send their stats with their own interval timer, so their updates arrive at different phases of the interval.
+ * To merge the updates of the same interval, the merged stats are sent as soon as all Workers which have reported in the
+ * previous interval have reported again. A Worker which reports a second time before that has already started its next
+ * interval, so the current interval is sent first. Only if no Worker reports, the pending stats are sent after
+ * {@link #OVERDUE_INTERVALS} intervals by the aggregator thread.
+ *
+ * The Workers only send their stats to the Agent if the <tt>AGENT_PERFORMANCE_STATS_AGGREGATION</tt> property is enabled.
+ * Otherwise they send directly to the Coordinator and this aggregator never receives anything.
+ *
+ * Merging is done by adding the values of the Workers, which is the same as the Coordinator does for Workers of
+ * different Agents. If a Worker has not reported in the last interval, only its last known operation count and total
+ * throughput are added, so the merged operation count of a test doesn't drop because of a late Worker. The last known
+ * stats of a Worker are dropped if the Worker is gone or has not reported the test for {@link #MAX_STALE_INTERVALS}
+ * intervals, e.g. because the test has completed.
+ *
+ * The aggregator thread is only started when the first stats are received, so it doesn't run if aggregation is disabled.
+ */
+public class PerformanceStatsAggregator implements Closeable {
+
+    static final int MAX_STALE_INTERVALS = 3;
+    static final double OVERDUE_INTERVALS = 1.5;
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final Logger LOGGER = Logger.getLogger(PerformanceStatsAggregator.class);
+
+    // the latest stats of every Worker per testId which have not been send to the Coordinator yet
+    private final Map<String, Map<SimulatorAddress, PerformanceStats>> pending
+            = new HashMap<String, Map<SimulatorAddress, PerformanceStats>>();
+    // the last known stats of every Worker per testId
+    private final Map<String, Map<SimulatorAddress, LastKnownStats>> lastKnown
+            = new HashMap<String, Map<SimulatorAddress, LastKnownStats>>();
+    // the Workers which have reported in the current interval
+    private final Set<SimulatorAddress> reportedWorkers = new HashSet<SimulatorAddress>();
+    // the Workers which have reported in the previous interval, so they are expected to report in the current interval
+    private final Set<SimulatorAddress> expectedWorkers = new HashSet<SimulatorAddress>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final Server server;
+    private final WorkerProcessManager processManager;
+    private final int intervalSeconds;
+    private final AggregatorThread thread = new AggregatorThread();
+
+    private long intervalIndex;
+    private long pendingSinceMillis;
+
+    public PerformanceStatsAggregator(Server server, WorkerProcessManager processManager, int intervalSeconds) {
+        this.server = server;
+        this.processManager = processManager;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @Override
+    public void close() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        if (started.get()) {
+            thread.interrupt();
+            joinThread(thread, SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        }
+        flush();
+    }
+
+    /**
+     * Stores the {@link PerformanceStats} of a Worker until the interval is complete.
+     *
+     * @param workerAddress       the {@link SimulatorAddress} of the Worker which has send the stats
+     * @param performanceStatsMap the {@link PerformanceStats} per testId
+     */
+    public void update(SimulatorAddress workerAddress, Map<String, PerformanceStats> performanceStatsMap) {
+        PerformanceStatsOperation previousInterval = null;
+        PerformanceStatsOperation currentInterval = null;
+        synchronized (this) {
+            if (reportedWorkers.contains(workerAddress)) {
+                // the Worker has started its next interval, so a Worker of the current interval is late or gone
+                previousInterval = createOperation();
+            }
+            if (pending.isEmpty()) {
+                pendingSinceMillis = System.currentTimeMillis();
+            }
+            reportedWorkers.add(workerAddress);
+
+            for (Map.Entry<String, PerformanceStats> entry : performanceStatsMap.entrySet()) {
+                String testId = entry.getKey();
+                PerformanceStats stats = entry.getValue();
+
+                getWorkerMap(pending, testId).put(workerAddress, stats);
+                getWorkerMap(lastKnown, testId).put(workerAddress, new LastKnownStats(stats, intervalIndex));
+            }
+
+            if (!expectedWorkers.isEmpty() && reportedWorkers.containsAll(expectedWorkers)) {
+                currentInterval = createOperation();
+            }
+        }
+        send(previousInterval);
+        send(currentInterval);
+        startOnFirstUpdate();
+        if (intervalSeconds < 1) {
+            // without a valid interval there is no aggregator thread, so the stats are forwarded directly
+            flush();
+        }
+    }
+
+    private void startOnFirstUpdate() {
+        if (!started.compareAndSet(false, true) || shutdown.get()) {
+            return;
+        }
+        if (intervalSeconds < 1) {
+            LOGGER.warn("PerformanceStatsAggregator has no valid interval, the stats of the Workers are forwarded directly");
+            return;
+        }
+        LOGGER.info(format("PerformanceStatsAggregator started with interval: %d seconds", intervalSeconds));
+        thread.start();
+    }
+
+    /**
+     * Sends the merged {@link PerformanceStats} of all tests with updates since the last flush to the Coordinator.
+     */
+    void flush() {
+        send(createOperation());
+    }
+
+    /**
+     * Sends the merged {@link PerformanceStats} if the current interval is overdue, e.g. because no Worker reports anymore.
+     */
+    void flushIfOverdue() {
+        PerformanceStatsOperation operation = null;
+        synchronized (this) {
+            long overdueMillis = (long) (SECONDS.toMillis(intervalSeconds) * OVERDUE_INTERVALS);
+            if (!pending.isEmpty() && System.currentTimeMillis() - pendingSinceMillis >= overdueMillis) {
+                operation = createOperation();
+            }
+        }
+        send(operation);
+    }
+
+    private void send(PerformanceStatsOperation operation) {
+        if (operation == null || operation.getPerformanceStats().isEmpty()) {
+            return;
+        }
+        server.sendCoordinator(operation);
+    }
+
+    synchronized PerformanceStatsOperation createOperation() {
+        PerformanceStatsOperation operation = new PerformanceStatsOperation();
+        for (Map.Entry<String, Map<SimulatorAddress, PerformanceStats>> entry : pending.entrySet()) {
+            String testId = entry.getKey();
+            Map<SimulatorAddress, PerformanceStats> updated = entry.getValue();
+
+            PerformanceStats merged = new PerformanceStats();
+            for (Map.Entry<SimulatorAddress, LastKnownStats> workerEntry : lastKnown.get(testId).entrySet()) {
+                PerformanceStats stats = updated.get(workerEntry.getKey());
+                if (stats == null) {
+                    // the Worker didn't report in this interval, so it only contributes its cumulative values
+                    PerformanceStats stale = workerEntry.getValue().stats;
+                    stats = new PerformanceStats(stale.getOperationCount(), 0, stale.getTotalThroughput(), 0, 0, 0);
+                }
+                merged.add(stats);
+            }
+            operation.addPerformanceStats(testId, merged);
+        }
+        pending.clear();
+        removeStaleWorkers();
+
+        expectedWorkers.clear();
+        for (SimulatorAddress workerAddress : reportedWorkers) {
+            if (processManager.getWorkerProcess(workerAddress) != null) {
+                expectedWorkers.add(workerAddress);
+            }
+        }
+        reportedWorkers.clear();
+        intervalIndex++;
+        return operation;
+    }
+
+    private void removeStaleWorkers() {
+        Iterator<Map<SimulatorAddress, LastKnownStats>> testIterator = lastKnown.values().iterator();
+        while (testIterator.hasNext()) {
+            Map<SimulatorAddress, LastKnownStats> workerMap = testIterator.next();
+            Iterator<Map.Entry<SimulatorAddress, LastKnownStats>> workerIterator = workerMap.entrySet().iterator();
+            while (workerIterator.hasNext()) {
+                Map.Entry<SimulatorAddress, LastKnownStats> workerEntry = workerIterator.next();
+                if (intervalIndex - workerEntry.getValue().intervalIndex >= MAX_STALE_INTERVALS
+                        || processManager.getWorkerProcess(workerEntry.getKey()) == null) {
+                    workerIterator.remove();
+                }
+            }
+            if (workerMap.isEmpty()) {
+                testIterator.remove();
+            }
+        }
+    }
+
+    private static <V> Map<SimulatorAddress, V> getWorkerMap(Map<String, Map<SimulatorAddress, V>> map, String testId) {
+        Map<SimulatorAddress, V> workerMap = map.get(testId);
+        if (workerMap == null) {
+            workerMap = new HashMap<SimulatorAddress, V>();
+            map.put(testId, workerMap);
+        }
+        return workerMap;
+    }
+
+    private static final class LastKnownStats {
+
+        private final PerformanceStats stats;
+        // the index of the interval in which the stats have been received
+        private final long intervalIndex;
+
+        private LastKnownStats(PerformanceStats stats, long intervalIndex) {
+            this.stats = stats;
+            this.intervalIndex = intervalIndex;
+        }
+    }
+
+    private final class AggregatorThread extends Thread {
+
+        private AggregatorThread() {
+            super("PerformanceStatsAggregator");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            // the intervals are completed by the updates of the Workers, this thread only sends the overdue intervals
+            long checkIntervalMillis = Math.max(1, SECONDS.toMillis(intervalSeconds) / 2);
+            while (!shutdown.get()) {
+                sleepMillis(checkIntervalMillis);
+                try {
+                    flushIfOverdue();
+                } catch (Exception e) {
+                    LOGGER.error("Failed to send aggregated performance stats", e);
+                }
+            }
+        }
+    }
+}
@@ -19,8 +19,39 @@ import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 
 /**
  * Starts the timeout detection for {@link com.hazelcast.simulator.agent.workerprocess.WorkerProcess} on the Simulator Agent.
+ *
+ * The timeouts are configured by the Coordinator, so they can be changed without restarting the Agents. A value of 0 means
+ * that the default of the Agent is used, a negative value disables the detection.
  */
 public class StartTimeoutDetectionOperation implements SimulatorOperation {
+
+    // the maximum time in seconds between two messages of a Worker
+    private final int lastSeenTimeoutSeconds;
+    // the maximum time in seconds a running test may not increase its iteration count
+    private final int noProgressTimeoutSeconds;
+
     public StartTimeoutDetectionOperation() {
+        this(0, 0);
+    }
+
+    public StartTimeoutDetectionOperation(int lastSeenTimeoutSeconds, int noProgressTimeoutSeconds) {
+        this.lastSeenTimeoutSeconds = lastSeenTimeoutSeconds;
+        this.noProgressTimeoutSeconds = noProgressTimeoutSeconds;
+    }
+
+    public int getLastSeenTimeoutSeconds() {
+        return lastSeenTimeoutSeconds;
+    }
+
+    public int getNoProgressTimeoutSeconds() {
+        return noProgressTimeoutSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "StartTimeoutDetectionOperation{"
+                + "lastSeenTimeoutSeconds=" + lastSeenTimeoutSeconds
+                + ", noProgressTimeoutSeconds=" + noProgressTimeoutSeconds
+                + '}';
     }
 }
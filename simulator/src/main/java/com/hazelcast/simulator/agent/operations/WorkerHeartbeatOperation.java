@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.operations;
+
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Periodic heartbeat of a Worker to its Simulator Agent.
+ *
+ * Besides signalling that the Worker is alive, it carries the iteration count of all running tests. This allows the Agent to
+ * detect Workers which are still alive, but don't make any progress (e.g. due to a deadlock or a stuck cluster).
+ */
+public class WorkerHeartbeatOperation implements SimulatorOperation {
+
+    // the iteration count per testId of all running tests
+    private final Map<String, Long> iterations = new HashMap<String, Long>();
+
+    public void addIterations(String testId, long iterationCount) {
+        iterations.put(testId, iterationCount);
+    }
+
+    public Map<String, Long> getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerHeartbeatOperation{"
+                + "iterations=" + iterations
+                + '}';
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.operations;
+
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+
+/**
+ * Signals the Simulator Agent that a Worker has completed its startup and is ready to receive operations.
+ *
+ * This replaces the polling of the <tt>worker.pid</tt> file by the Agent. It also carries the timestamps of the startup
+ * phases within the Worker JVM, so the Agent can log a complete startup timeline of the Worker.
+ */
+public class WorkerReadyOperation implements SimulatorOperation {
+
+    // the time the Worker JVM has been started (as reported by the RuntimeMXBean)
+    private final long jvmStartedMillis;
+    // the time the Worker main method has been entered
+    private final long workerStartedMillis;
+    // the time the vendor instance has been created, e.g. the Hazelcast instance has joined the cluster
+    private final long vendorInstanceCreatedMillis;
+    // the time the Worker has completed its startup
+    private final long readyMillis;
+
+    public WorkerReadyOperation(long jvmStartedMillis,
+                                long workerStartedMillis,
+                                long vendorInstanceCreatedMillis,
+                                long readyMillis) {
+        this.jvmStartedMillis = jvmStartedMillis;
+        this.workerStartedMillis = workerStartedMillis;
+        this.vendorInstanceCreatedMillis = vendorInstanceCreatedMillis;
+        this.readyMillis = readyMillis;
+    }
+
+    public long getJvmStartedMillis() {
+        return jvmStartedMillis;
+    }
+
+    public long getWorkerStartedMillis() {
+        return workerStartedMillis;
+    }
+
+    public long getVendorInstanceCreatedMillis() {
+        return vendorInstanceCreatedMillis;
+    }
+
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerReadyOperation{"
+                + "jvmStartedMillis=" + jvmStartedMillis
+                + ", workerStartedMillis=" + workerStartedMillis
+                + ", vendorInstanceCreatedMillis=" + vendorInstanceCreatedMillis
+                + ", readyMillis=" + readyMillis
+                + '}';
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerprocess;
+
+import com.hazelcast.simulator.utils.BashCommand;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.FileUtils.rename;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static java.lang.String.format;
+
+/**
+ * Manages the Application Class Data Sharing (AppCDS) archives of the Worker JVMs.
+ *
+ * The first Worker of a given archive key (Worker type, Java home and the JARs on the classpath) is started with
+ * <tt>-XX:DumpLoadedClassList</tt>. Once this Worker is ready, its class list contains all classes which are needed to
+ * start a Worker and create the vendor instance. The archive is then created in the background with <tt>-Xshare:dump</tt>
+ * and all later Workers with the same key are started with <tt>-XX:SharedArchiveFile</tt>, so they map the classes
+ * instead of loading and verifying them.
+ *
+ * The archives are stored in the Simulator home, so they are reused by later sessions. The archive key is based on the
+ * names, sizes and modification times of the JARs instead of their paths, so a changed JAR results in a new archive. Since
+ * the JVM only accepts an archive with the classpath it was created with, the classpath is stored next to the archive and
+ * an archive with a different classpath is recreated. The least recently used archives beyond {@link #MAX_ARCHIVES} are
+ * deleted. Since <tt>-Xshare:auto</tt> is used, a JVM which rejects an archive just starts without class data sharing.
+ */
+public class ClassDataSharingArchives {
+
+    static final String DUMP_CLASS_LIST_OPTION = "-XX:DumpLoadedClassList=";
+    static final String CLASS_LIST_SUFFIX = ".classlist";
+    static final String ARCHIVE_SUFFIX = ".jsa";
+    static final String CLASSPATH_SUFFIX = ".classpath";
+    static final int MAX_ARCHIVES = 10;
+
+    private static final Logger LOGGER = Logger.getLogger(ClassDataSharingArchives.class);
+
+    private final ConcurrentMap<String, Boolean> pendingArchives = new ConcurrentHashMap<String, Boolean>();
+    private final ExecutorService executor = createFixedThreadPool(1, "classDataSharingArchiver");
+    private final File archiveDirectory;
+
+    public ClassDataSharingArchives(File archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    /**
+     * Creates the archive key for a Worker.
+     *
+     * The key contains a hash of the Java home and the names, sizes and modification times of the classpath entries, since
+     * an archive can only be used by the same JVM and the same JARs it was created with. The directories of the entries are
+     * not part of the key, so the key doesn't change between sessions.
+     *
+     * @param workerType the type of the Worker
+     * @param javaHome   the Java home of the Worker JVM
+     * @param classpath  the classpath of the Worker JVM
+     * @return the archive key
+     */
+    public static String archiveKey(String workerType, String javaHome, String classpath) {
+        StringBuilder sb = new StringBuilder(javaHome);
+        for (String entry : classpath.split(File.pathSeparator)) {
+            if (entry.endsWith("/*")) {
+                File[] files = new File(entry.substring(0, entry.length() - 2)).listFiles();
+                if (files != null) {
+                    Arrays.sort(files);
+                    for (File file : files) {
+                        if (file.getName().endsWith(".jar")) {
+                            appendFile(sb, file);
+                        }
+                    }
+                }
+            } else {
+                appendFile(sb, new File(entry));
+            }
+        }
+        return format("%s-%08x", workerType, sb.toString().hashCode());
+    }
+
+    private static void appendFile(StringBuilder sb, File file) {
+        sb.append('|').append(file.getName()).append(':').append(file.length()).append(':').append(file.lastModified());
+    }
+
+    /**
+     * Returns the JVM options for a Worker with the given archive key.
+     *
+     * @param key       the archive key of the Worker
+     * @param classpath the classpath of the Worker JVM
+     * @return the options to use the archive, the options to dump the class list if the caller has to create the archive,
+     * or an empty string if the archive is currently created by another Worker
+     * (there is a single attempt per key and classpath to create the archive, so a failed attempt isn't repeated for every
+     * Worker)
+     */
+    public String getJvmOptions(String key, String classpath) {
+        String archiveOptions = getArchiveJvmOptions(key, classpath);
+        if (!archiveOptions.isEmpty()) {
+            return archiveOptions;
+        }
+        if (pendingArchives.putIfAbsent(key + File.pathSeparator + classpath, Boolean.TRUE) != null) {
+            return "";
+        }
+        ensureExistingDirectory(archiveDirectory);
+        File classList = getClassListFile(key);
+        deleteQuiet(classList);
+        LOGGER.info(format("Creating class list for AppCDS archive %s", key));
+        return DUMP_CLASS_LIST_OPTION + classList.getAbsolutePath();
+    }
+
+    /**
+     * Returns the JVM options to use the archive for a Worker with the given archive key.
+     *
+     * In contrast to {@link #getJvmOptions(String, String)} this never dumps a class list, e.g. for idle Worker JVMs which
+     * don't start a vendor instance (see {@link WorkerProcessPool}).
+     *
+     * @param key       the archive key of the Worker
+     * @param classpath the classpath of the Worker JVM
+     * @return the options to use the archive or an empty string if there is no archive for the key and classpath
+     */
+    public String getArchiveJvmOptions(String key, String classpath) {
+        File archive = getArchiveFile(key);
+        File archiveClasspath = getClasspathFile(key);
+        if (!archive.exists() || !archiveClasspath.exists() || !classpath.equals(fileAsText(archiveClasspath))) {
+            return "";
+        }
+        // the modification time is used to find the least recently used archives
+        if (!archive.setLastModified(System.currentTimeMillis())) {
+            LOGGER.debug(format("Could not update the modification time of %s", archive));
+        }
+        return "-Xshare:auto -XX:SharedArchiveFile=" + archive.getAbsolutePath();
+    }
+
+    public static boolean isDumpingClassList(String jvmOptions) {
+        return jvmOptions.startsWith(DUMP_CLASS_LIST_OPTION);
+    }
+
+    /**
+     * Creates the archive from the class list of the first Worker in the background.
+     *
+     * Must be called after the Worker is ready, so its class list contains the startup classes. The class list is still
+     * written by the running Worker, so a snapshot of all complete lines is used.
+     *
+     * @param key       the archive key of the Worker
+     * @param javaHome  the Java home of the Worker JVM
+     * @param classpath the classpath of the Worker JVM
+     */
+    public void createArchive(final String key, final String javaHome, final String classpath) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    dump(key, javaHome, classpath);
+                } catch (Exception e) {
+                    LOGGER.warn(format("Could not create AppCDS archive %s, Workers will start without it", key), e);
+                }
+            }
+        });
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    File getClassListFile(String key) {
+        return new File(archiveDirectory, key + CLASS_LIST_SUFFIX);
+    }
+
+    File getArchiveFile(String key) {
+        return new File(archiveDirectory, key + ARCHIVE_SUFFIX);
+    }
+
+    File getClasspathFile(String key) {
+        return new File(archiveDirectory, key + CLASSPATH_SUFFIX);
+    }
+
+    static String completeLines(String text) {
+        int index = text.lastIndexOf('\n');
+        return (index < 0) ? "" : text.substring(0, index + 1);
+    }
+
+    private void dump(String key, String javaHome, String classpath) {
+        File classList = getClassListFile(key);
+        if (!classList.exists()) {
+            LOGGER.warn(format("Class list %s not found, the Worker JVM doesn't support AppCDS", classList));
+            return;
+        }
+
+        File snapshot = new File(archiveDirectory, key + CLASS_LIST_SUFFIX + ".snapshot");
+        writeText(completeLines(fileAsText(classList)), snapshot);
+
+        File tmpArchive = new File(archiveDirectory, key + ARCHIVE_SUFFIX + ".tmp");
+        long started = System.currentTimeMillis();
+        new BashCommand(javaHome + "/bin/java")
+                .addParams("-Xshare:dump",
+                        "-XX:SharedClassListFile=" + snapshot.getAbsolutePath(),
+                        "-XX:SharedArchiveFile=" + tmpArchive.getAbsolutePath(),
+                        "-classpath", classpath)
+                .setThrowsException(true)
+                .execute();
+
+        // the rename makes the archive visible to new Workers in one step
+        writeText(classpath, getClasspathFile(key));
+        rename(tmpArchive, getArchiveFile(key));
+        deleteQuiet(snapshot);
+        LOGGER.info(format("Created AppCDS archive %s in %d ms", key, System.currentTimeMillis() - started));
+
+        deleteLeastRecentlyUsedArchives();
+    }
+
+    /**
+     * Deletes the least recently used archives, so only {@link #MAX_ARCHIVES} archives are kept.
+     */
+    void deleteLeastRecentlyUsedArchives() {
+        File[] archives = archiveDirectory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(ARCHIVE_SUFFIX);
+            }
+        });
+        if (archives == null || archives.length <= MAX_ARCHIVES) {
+            return;
+        }
+
+        Arrays.sort(archives, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                // the most recently used archives first
+                long lastModified1 = file1.lastModified();
+                long lastModified2 = file2.lastModified();
+                return lastModified1 > lastModified2 ? -1 : (lastModified1 == lastModified2 ? 0 : 1);
+            }
+        });
+        for (int i = MAX_ARCHIVES; i < archives.length; i++) {
+            String name = archives[i].getName();
+            String key = name.substring(0, name.length() - ARCHIVE_SUFFIX.length());
+            LOGGER.info(format("Deleting least recently used AppCDS archive %s", key));
+            deleteQuiet(archives[i]);
+            deleteQuiet(getClasspathFile(key));
+            deleteQuiet(getClassListFile(key));
+            // allows a new attempt to create the archive, if the key is used again
+            for (String pendingArchive : pendingArchives.keySet()) {
+                if (pendingArchive.startsWith(key + File.pathSeparator)) {
+                    pendingArchives.remove(pendingArchive);
+                }
+            }
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.hazelcast.simulator.agent.workerprocess;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 
 import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.System.currentTimeMillis;
 
@@ -29,7 +31,11 @@ public class WorkerProcess {
     private final SimulatorAddress address;
     private final String id;
     private final File workerHome;
+    private final CountDownLatch readyLatch = new CountDownLatch(1);
+    private final WorkerStartupTimeline startupTimeline = new WorkerStartupTimeline();
+    private final WorkerProgress progress = new WorkerProgress();
     private volatile long lastSeen = currentTimeMillis();
+    private volatile long lastSeenTimeoutReported;
     private volatile boolean oomeDetected;
     private volatile boolean isFinished;
     private volatile Process process;
@@ -64,6 +70,23 @@ public class WorkerProcess {
         this.lastSeen = timeStamp;
     }
 
+    /**
+     * Returns the last seen timestamp for which a timeout has already been reported.
+     *
+     * @return the reported last seen timestamp
+     */
+    public long getLastSeenTimeoutReported() {
+        return lastSeenTimeoutReported;
+    }
+
+    public void setLastSeenTimeoutReported(long lastSeenTimeoutReported) {
+        this.lastSeenTimeoutReported = lastSeenTimeoutReported;
+    }
+
+    public WorkerProgress getProgress() {
+        return progress;
+    }
+
     public boolean isOomeDetected() {
         return oomeDetected;
     }
@@ -80,6 +103,33 @@ public class WorkerProcess {
         isFinished = true;
     }
 
+    public WorkerStartupTimeline getStartupTimeline() {
+        return startupTimeline;
+    }
+
+    /**
+     * Signals that the Worker has completed its startup.
+     */
+    public void setReady() {
+        readyLatch.countDown();
+    }
+
+    public boolean isReady() {
+        return readyLatch.getCount() == 0;
+    }
+
+    /**
+     * Waits for the Worker to signal that it has completed its startup.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the {@link TimeUnit} of the timeout
+     * @return {@code true} if the Worker is ready, {@code false} if the timeout elapsed
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return readyLatch.await(timeout, unit);
+    }
+
     public Process getProcess() {
         return process;
     }
@@ -16,22 +16,27 @@
 package com.hazelcast.simulator.agent.workerprocess;
 
 import com.hazelcast.simulator.common.FailureType;
+import com.hazelcast.simulator.coordinator.operations.FailureOperation;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.utils.FileUtils;
 import com.hazelcast.simulator.utils.UncheckedIOException;
 import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.List;
 
 import static com.hazelcast.simulator.common.FailureType.WORKER_ABNORMAL_EXIT;
 import static com.hazelcast.simulator.common.FailureType.WORKER_EXCEPTION;
 import static com.hazelcast.simulator.common.FailureType.WORKER_NORMAL_EXIT;
+import static com.hazelcast.simulator.common.FailureType.WORKER_NO_PROGRESS;
 import static com.hazelcast.simulator.common.FailureType.WORKER_OOME;
 import static com.hazelcast.simulator.common.FailureType.WORKER_TIMEOUT;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -39,6 +44,7 @@ public class WorkerProcessFailureMonitor {
 
     private static final int DEFAULT_CHECK_INTERVAL_MILLIS = (int) SECONDS.toMillis(1);
 
+    private static final String WORKER_EXCEPTION_MESSAGE = "Worked ran into an unhandled exception";
     private static final Logger LOGGER = Logger.getLogger(WorkerProcessFailureMonitor.class);
 
     private final MonitorThread monitorThread;
@@ -66,15 +72,53 @@ public class WorkerProcessFailureMonitor {
     }
 
     public void startTimeoutDetection() {
-        if (monitorThread.lastSeenTimeoutSeconds > 0) {
-            LOGGER.info("Starting timeout detection for Workers...");
+        startTimeoutDetection(0, 0);
+    }
+
+    /**
+     * Starts the timeout detection for Workers.
+     *
+     * A timeout value of 0 uses the default of the Agent, a negative value disables the corresponding detection.
+     *
+     * @param lastSeenTimeoutSeconds   the maximum time in seconds between two messages of a Worker
+     * @param noProgressTimeoutSeconds the maximum time in seconds a running test may not increase its iteration count
+     */
+    public void startTimeoutDetection(int lastSeenTimeoutSeconds, int noProgressTimeoutSeconds) {
+        if (lastSeenTimeoutSeconds != 0) {
+            monitorThread.lastSeenTimeoutSeconds = lastSeenTimeoutSeconds;
+        }
+        if (noProgressTimeoutSeconds != 0) {
+            monitorThread.noProgressTimeoutSeconds = noProgressTimeoutSeconds;
+        }
+        if (monitorThread.lastSeenTimeoutSeconds > 0 || monitorThread.noProgressTimeoutSeconds > 0) {
+            LOGGER.info(format("Starting timeout detection for Workers (last seen timeout: %d seconds,"
+                            + " no progress timeout: %d seconds)...",
+                    monitorThread.lastSeenTimeoutSeconds, monitorThread.noProgressTimeoutSeconds));
             monitorThread.updateLastSeen();
             monitorThread.detectTimeouts = true;
         }
     }
 
+    /**
+     * Handles an exception which has been pushed by a Worker.
+     *
+     * The exception files in the Worker home are still scanned, since they are used as fallback by the Worker.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the Worker
+     * @param operation     the {@link FailureOperation} send by the Worker
+     */
+    public void workerException(SimulatorAddress workerAddress, FailureOperation operation) {
+        WorkerProcess workerProcess = monitorThread.workerProcessManager.getWorkerProcess(workerAddress);
+        if (workerProcess == null) {
+            LOGGER.warn(format("Exception of unknown Worker %s: %s", workerAddress, operation.getCause()));
+            return;
+        }
+        monitorThread.failureHandler.handle(WORKER_EXCEPTION_MESSAGE, WORKER_EXCEPTION, workerProcess,
+                operation.getTestId(), operation.getCause());
+    }
+
     public void stopTimeoutDetection() {
-        if (monitorThread.lastSeenTimeoutSeconds > 0) {
+        if (monitorThread.detectTimeouts) {
             LOGGER.info("Stopping timeout detection for Workers...");
             monitorThread.detectTimeouts = false;
         }
@@ -84,9 +128,10 @@ public class WorkerProcessFailureMonitor {
 
         private final WorkerProcessFailureHandler failureHandler;
         private final WorkerProcessManager workerProcessManager;
-        private final int lastSeenTimeoutSeconds;
         private final int checkIntervalMillis;
 
+        private volatile int lastSeenTimeoutSeconds;
+        private volatile int noProgressTimeoutSeconds = -1;
         private volatile boolean running = true;
         private volatile boolean detectTimeouts;
 
@@ -123,8 +168,10 @@ public class WorkerProcessFailureMonitor {
         }
 
         private void updateLastSeen() {
+            long timeMillis = currentTimeMillis();
             for (WorkerProcess workerProcess : workerProcessManager.getWorkerProcesses()) {
-                workerProcess.updateLastSeen();
+                workerProcess.setLastSeen(timeMillis);
+                workerProcess.getProgress().reset(timeMillis);
             }
         }
 
@@ -137,7 +184,9 @@ public class WorkerProcessFailureMonitor {
 
             detectOomeFailure(workerProcess);
 
-            //detectInactivity(workerProcess);
+            detectInactivity(workerProcess);
+
+            detectNoProgress(workerProcess);
 
             detectUnexpectedExit(workerProcess);
         }
@@ -160,8 +209,7 @@ public class WorkerProcessFailureMonitor {
                     testId = null;
                 }
 
-                failureHandler.handle("Worked ran into an unhandled exception", WORKER_EXCEPTION, workerProcess,
-                        testId, cause);
+                failureHandler.handle(WORKER_EXCEPTION_MESSAGE, WORKER_EXCEPTION, workerProcess, testId, cause);
 
                 move(exceptionFile);
             }
@@ -208,17 +256,39 @@ public class WorkerProcessFailureMonitor {
         }
 
         private void detectInactivity(WorkerProcess workerProcess) {
-            if (!detectTimeouts) {
+            int timeoutSeconds = lastSeenTimeoutSeconds;
+            if (!detectTimeouts || timeoutSeconds <= 0) {
                 return;
             }
 
-            long elapsed = MILLISECONDS.toSeconds(System.currentTimeMillis() - workerProcess.getLastSeen());
-            if (elapsed > 0 && elapsed % lastSeenTimeoutSeconds == 0) {
+            // every period of inactivity is only reported once, until the Worker has been seen again
+            long lastSeen = workerProcess.getLastSeen();
+            if (lastSeen == workerProcess.getLastSeenTimeoutReported()) {
+                return;
+            }
+
+            long elapsed = MILLISECONDS.toSeconds(currentTimeMillis() - lastSeen);
+            if (elapsed >= timeoutSeconds) {
+                workerProcess.setLastSeenTimeoutReported(lastSeen);
                 sendFailureOperation(format("Worker has not sent a message for %d seconds", elapsed), WORKER_TIMEOUT,
                         workerProcess);
             }
         }
 
+        private void detectNoProgress(WorkerProcess workerProcess) {
+            int timeoutSeconds = noProgressTimeoutSeconds;
+            if (!detectTimeouts || timeoutSeconds <= 0) {
+                return;
+            }
+
+            List<String> stalledTests = workerProcess.getProgress()
+                    .getStalledTests(currentTimeMillis(), SECONDS.toMillis(timeoutSeconds));
+            for (String testId : stalledTests) {
+                failureHandler.handle(format("Worker is alive, but test has made no progress for %d seconds", timeoutSeconds),
+                        WORKER_NO_PROGRESS, workerProcess, testId, null);
+            }
+        }
+
         private void detectUnexpectedExit(WorkerProcess workerProcess) {
             Process process = workerProcess.getProcess();
             int exitCode;
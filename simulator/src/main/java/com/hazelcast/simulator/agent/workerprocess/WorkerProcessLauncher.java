@@ -22,18 +22,23 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.simulator.agent.workerprocess.ClassDataSharingArchives.archiveKey;
+import static com.hazelcast.simulator.agent.workerprocess.ClassDataSharingArchives.isDumpingClassList;
+import static com.hazelcast.simulator.agent.workerprocess.WorkerProcessPool.poolKey;
 import static com.hazelcast.simulator.utils.BuildInfoUtils.getHazelcastVersionFromJAR;
-import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
 import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.NativeUtils.execute;
+import static java.lang.Boolean.parseBoolean;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -48,6 +53,8 @@ public class WorkerProcessLauncher {
     private static final String CLASSPATH_SEPARATOR = System.getProperty("path.separator");
     private static final Logger LOGGER = Logger.getLogger(WorkerProcessLauncher.class);
     private static final String FILE_PREFIX = "file:";
+    // the files which are read by a Worker JVM before it's claimed from the WorkerProcessPool
+    private static final String[] POOLED_WORKER_FILES = {"worker.sh", "log4j.xml"};
 
     private final AtomicBoolean javaHomePrinted = new AtomicBoolean();
 
@@ -58,6 +65,16 @@ public class WorkerProcessLauncher {
 
     private File sessionDir;
 
+    // only set if this Worker creates the class list for a new AppCDS archive
+    private String classListArchiveKey;
+    private String archiveJavaHome;
+    private String archiveClasspath;
+
+    // only set if the WorkerProcessPool is enabled
+    private String poolKey;
+    private Map<String, String> poolFiles;
+    private Map<String, String> poolEnvironment;
+
     public WorkerProcessLauncher(WorkerProcessManager processManager,
                                  WorkerParameters parameters) {
         this.processManager = processManager;
@@ -65,9 +82,10 @@ public class WorkerProcessLauncher {
         this.workerAddress = SimulatorAddress.fromString(parameters.get("WORKER_ADDRESS"));
     }
 
-    public void launch() throws Exception {
+    public WorkerProcess launch() throws Exception {
         WorkerProcess process = null;
         try {
+            long launchRequestedMillis = System.currentTimeMillis();
             sessionDir = getSessionDirectory();
             ensureExistingDirectory(sessionDir);
 
@@ -75,11 +93,27 @@ public class WorkerProcessLauncher {
             LOGGER.info(format("Starting a Java Virtual Machine for %s Worker %s", type, workerAddress));
 
             LOGGER.info("Launching Worker using: " + parameters);
-            process = startWorker();
+            process = startWorker(launchRequestedMillis);
             LOGGER.info(format("Finished starting a for %s Worker %s ", type, workerAddress));
 
             waitForWorkersStartup(process);
+            logStartupTimeline(process);
+
+            if (classListArchiveKey != null) {
+                // the class list of this Worker now contains all startup classes
+                ClassDataSharingArchives archives = processManager.getClassDataSharingArchives();
+                archives.createArchive(classListArchiveKey, archiveJavaHome, archiveClasspath);
+            }
+
+            if (poolKey != null) {
+                // the idle JVMs are started after the launch, so they don't slow down the startup of this Worker
+                processManager.getWorkerProcessPool().fill(poolKey, parameters.get("SESSION_ID"), getPoolSize(),
+                        poolFiles, poolEnvironment);
+            }
+
+            WorkerProcess result = process;
             process = null;
+            return result;
         } finally {
             if (process != null) {
                 processManager.remove(process);
@@ -94,13 +128,15 @@ public class WorkerProcessLauncher {
     }
 
 
-    private WorkerProcess startWorker() throws IOException {
+    private WorkerProcess startWorker(long launchRequestedMillis) throws IOException {
         String workerDirName = parameters.get("WORKER_DIR_NAME");
         File workerHome = ensureExistingDirectory(sessionDir, workerDirName);
 
-        copyResourcesToWorkerHome(workerDirName);
-
         WorkerProcess workerProcess = new WorkerProcess(workerAddress, workerDirName, workerHome);
+        WorkerStartupTimeline timeline = workerProcess.getStartupTimeline();
+        timeline.record("launch requested", launchRequestedMillis);
+
+        copyResourcesToWorkerHome(workerDirName);
 
         ProcessBuilder processBuilder = new ProcessBuilder(new String[]{"bash", "worker.sh"})
                 .directory(workerHome);
@@ -120,7 +156,8 @@ public class WorkerProcessLauncher {
                 sb.append(key).append("=").append(value).append("\n");
             }
         }
-        sb.append("CLASSPATH=").append(getClasspath(workerHome)).append("\n");
+        String classpath = getClasspath(workerHome);
+        sb.append("CLASSPATH=").append(classpath).append("\n");
 
         writeText(sb.toString(), new File(workerHome, "parameters"));
 
@@ -129,10 +166,26 @@ public class WorkerProcessLauncher {
         String path = javaHome + "/bin:" + environment.get("PATH");
         environment.put("PATH", path);
         environment.put("JAVA_HOME", javaHome);
-        environment.put("CLASSPATH", getClasspath(workerHome));
+        environment.put("CLASSPATH", classpath);
         environment.put("SIMULATOR_HOME", getSimulatorHome().getAbsolutePath());
+        timeline.record("classpath setup");
+
+        Process process = null;
+        if (getPoolSize() > 0) {
+            setupWorkerPool(javaHome, classpath);
+            process = processManager.getWorkerProcessPool().claim(poolKey, workerHome);
+        }
+
+        if (process == null) {
+            if (parseBoolean(parameters.get("WORKER_CLASS_DATA_SHARING"))) {
+                setupClassDataSharing(workerProcess, environment, javaHome, classpath);
+            }
 
-        Process process = processBuilder.start();
+            process = processBuilder.start();
+            timeline.record("JVM spawned");
+        } else {
+            timeline.record("idle JVM claimed");
+        }
 
         workerProcess.setProcess(process);
         processManager.add(workerAddress, workerProcess);
@@ -140,11 +193,84 @@ public class WorkerProcessLauncher {
         return workerProcess;
     }
 
-    private void waitForWorkersStartup(WorkerProcess worker) {
+    /**
+     * Adds the AppCDS options to the <tt>JVM_OPTIONS</tt> of the Worker, so they are also used by customized worker.sh files.
+     */
+    private void setupClassDataSharing(WorkerProcess workerProcess, Map<String, String> environment, String javaHome,
+                                       String classpath) {
+        ClassDataSharingArchives archives = processManager.getClassDataSharingArchives();
+        String key = archiveKey(parameters.getWorkerType(), javaHome, classpath);
+        String cdsOptions = archives.getJvmOptions(key, classpath);
+        if (cdsOptions.isEmpty()) {
+            return;
+        }
+
+        String jvmOptions = parameters.get("JVM_OPTIONS");
+        environment.put("JVM_OPTIONS", (jvmOptions == null ? "" : jvmOptions + " ") + cdsOptions);
+        if (isDumpingClassList(cdsOptions)) {
+            classListArchiveKey = key;
+            archiveJavaHome = javaHome;
+            archiveClasspath = classpath;
+        }
+        LOGGER.info(format("Using AppCDS options for Worker %s: %s", workerProcess.getAddress(), cdsOptions));
+    }
+
+    private int getPoolSize() {
+        String poolSize = parameters.get("WORKER_POOL_SIZE");
+        return (poolSize == null || poolSize.trim().isEmpty()) ? 0 : Integer.parseInt(poolSize.trim());
+    }
+
+    /**
+     * Prepares the launch settings of the idle Worker JVMs (see {@link WorkerProcessPool}).
+     *
+     * An idle JVM only gets the environment which is shared by all Workers with the same pool key. It uses an existing
+     * AppCDS archive, but never dumps a class list, since it doesn't create a vendor instance before it's claimed.
+     */
+    private void setupWorkerPool(String javaHome, String classpath) {
+        poolFiles = new HashMap<String, String>();
+        for (String fileName : POOLED_WORKER_FILES) {
+            String content = parameters.get(FILE_PREFIX + fileName);
+            if (content != null) {
+                poolFiles.put(fileName, content);
+            }
+        }
+
+        String jvmOptions = parameters.get("JVM_OPTIONS") == null ? "" : parameters.get("JVM_OPTIONS");
+        poolKey = poolKey(javaHome, classpath, jvmOptions, poolFiles);
+
+        if (parseBoolean(parameters.get("WORKER_CLASS_DATA_SHARING"))) {
+            ClassDataSharingArchives archives = processManager.getClassDataSharingArchives();
+            String archiveOptions = archives.getArchiveJvmOptions(
+                    archiveKey(parameters.getWorkerType(), javaHome, classpath), classpath);
+            if (!archiveOptions.isEmpty()) {
+                jvmOptions = jvmOptions.isEmpty() ? archiveOptions : jvmOptions + " " + archiveOptions;
+            }
+        }
+
+        poolEnvironment = new HashMap<String, String>(System.getenv());
+        poolEnvironment.put("PATH", javaHome + "/bin:" + System.getenv("PATH"));
+        poolEnvironment.put("JAVA_HOME", javaHome);
+        poolEnvironment.put("CLASSPATH", classpath);
+        poolEnvironment.put("SIMULATOR_HOME", getSimulatorHome().getAbsolutePath());
+        poolEnvironment.put("JVM_OPTIONS", jvmOptions);
+    }
+
+    /**
+     * Waits for the ready signal of the Worker (see {@link WorkerProcess#setReady()}).
+     *
+     * The wait is done in slices, so we can detect a Worker which has exited during startup. The <tt>worker.pid</tt> file is
+     * used as fallback, in case the ready signal of the Worker got lost.
+     */
+    private void waitForWorkersStartup(WorkerProcess worker) throws InterruptedException {
         int timeout = parameters.intGet("WORKER_STARTUP_TIMEOUT_SECONDS");
 
         int loopCount = (int) SECONDS.toMillis(timeout) / WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS;
         for (int i = 0; i < loopCount; i++) {
+            if (worker.awaitReady(WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS, MILLISECONDS)) {
+                LOGGER.info(format("Worker %s started", worker.getId()));
+                return;
+            }
+
             if (hasExited(worker)) {
                 throw new CreateWorkerFailedException(format(
                         "Startup of Worker %s on Agent %s failed, check log files in %s for more information!",
@@ -153,11 +279,10 @@ public class WorkerProcessLauncher {
 
             String pid = readPid(worker);
             if (pid != null) {
-                LOGGER.info(format("Worker %s started", worker.getId()));
+                LOGGER.info(format("Worker %s started (detected by PID file)", worker.getId()));
+                worker.getStartupTimeline().record("ready");
                 return;
             }
-
-            sleepMillis(WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS);
         }
 
         throw new CreateWorkerFailedException(format(
@@ -165,6 +290,12 @@ public class WorkerProcessLauncher {
                 worker.getAddress(), processManager.getPublicAddress(), timeout, worker.getWorkerHome()));
     }
 
+    private void logStartupTimeline(WorkerProcess worker) {
+        String timeline = worker.getStartupTimeline().format();
+        LOGGER.info(format("Startup timeline of Worker %s:%n%s", worker.getAddress(), timeline));
+        writeText(timeline, new File(worker.getWorkerHome(), "startup-timeline.txt"));
+    }
+
     private String getJavaHome() {
         String javaHome = System.getProperty("java.home");
         String jre = "/jre";
@@ -222,19 +353,28 @@ public class WorkerProcessLauncher {
         LOGGER.info(format("Adding Hazelcast %s and test JARs %s to classpath", hzVersionDirectory, testJarVersion));
 
         String uploadClassPath = "";
+        String workerUploadClassPath = "";
         File uploadDirectory = new File(workerHome, "upload").getAbsoluteFile();
-        if (uploadDirectory.exists() && uploadDirectory.isDirectory()) {
-            File[] files = uploadDirectory.listFiles();
-            if (files != null && files.length > 0) {
-                uploadClassPath = CLASSPATH_SEPARATOR + uploadDirectory.getAbsolutePath() + "/*";
-                LOGGER.info(format("Adding upload directory %s to classpath", uploadClassPath));
-            }
+        if (isNonEmptyDirectory(uploadDirectory)) {
+            uploadClassPath = CLASSPATH_SEPARATOR + uploadDirectory.getAbsolutePath() + "/*";
+            // the upload directory of the Worker is only added if it exists, so the classpath of Workers without uploads
+            // is the same, which is needed to share their AppCDS archive
+            workerUploadClassPath = uploadDirectory.getAbsolutePath() + "/*" + CLASSPATH_SEPARATOR;
+            LOGGER.info(format("Adding upload directory %s to classpath", uploadClassPath));
+        }
+
+        // the session lib directory is only added if it's not empty, so the classpath doesn't depend on the session and the
+        // AppCDS archive of the Workers can be reused by later sessions
+        String sessionClassPath = "";
+        File sessionLibDirectory = new File(getSessionDirectory(), "lib").getAbsoluteFile();
+        if (isNonEmptyDirectory(sessionLibDirectory)) {
+            sessionClassPath = sessionLibDirectory.getAbsolutePath() + "/*" + CLASSPATH_SEPARATOR;
         }
 
         // we have to reverse the classpath to monkey patch version specific classes
-        return new File(getSessionDirectory(), "lib/*").getAbsolutePath()
-                + CLASSPATH_SEPARATOR + workerHome.getAbsolutePath() + "/upload/*"
-                + CLASSPATH_SEPARATOR + simulatorHome + "/user-lib/*"
+        return sessionClassPath
+                + workerUploadClassPath
+                + simulatorHome + "/user-lib/*"
                 + CLASSPATH_SEPARATOR + simulatorHome + "/test-lib/" + testJarVersion + "/*"
                 + CLASSPATH_SEPARATOR + simulatorHome + "/test-lib/common/*"
                 + CLASSPATH_SEPARATOR + simulatorHome + "/hz-lib/" + hzVersionDirectory + "/*"
@@ -242,6 +382,14 @@ public class WorkerProcessLauncher {
                 + CLASSPATH_SEPARATOR + CLASSPATH;
     }
 
+    private static boolean isNonEmptyDirectory(File directory) {
+        if (!directory.exists() || !directory.isDirectory()) {
+            return false;
+        }
+        File[] files = directory.listFiles();
+        return files != null && files.length > 0;
+    }
+
     private static String directoryForVersionSpec(String versionSpec) {
         if ("bringmyown".equals(versionSpec)) {
             return null;
@@ -16,6 +16,8 @@
 package com.hazelcast.simulator.agent.workerprocess;
 
 import com.hazelcast.simulator.agent.operations.CreateWorkerOperation;
+import com.hazelcast.simulator.agent.operations.WorkerHeartbeatOperation;
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
 import com.hazelcast.simulator.coordinator.operations.FailureOperation;
 import com.hazelcast.simulator.protocol.Promise;
 import com.hazelcast.simulator.protocol.Server;
@@ -24,17 +26,20 @@ import com.hazelcast.simulator.protocol.operation.LogOperation;
 import com.hazelcast.simulator.utils.ThreadSpawner;
 import org.apache.log4j.Logger;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.simulator.common.FailureType.WORKER_CREATE_ERROR;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.workerAddress;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createScheduledThreadPool;
+import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
 import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.log4j.Level.DEBUG;
 
@@ -42,10 +47,18 @@ public class WorkerProcessManager {
 
     private static final Logger LOGGER = Logger.getLogger(WorkerProcessManager.class);
 
-    private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    // the Workers are launched concurrently; most of the time a launch thread just waits for the Worker to be ready
+    private static final int LAUNCH_THREAD_POOL_SIZE = 32;
+
+    private final ScheduledExecutorService executorService
+            = createScheduledThreadPool(LAUNCH_THREAD_POOL_SIZE, "workerLauncher");
 
     private final ConcurrentMap<SimulatorAddress, WorkerProcess> workerProcesses
             = new ConcurrentHashMap<SimulatorAddress, WorkerProcess>();
+    private final ClassDataSharingArchives classDataSharingArchives
+            = new ClassDataSharingArchives(new File(getSimulatorHome(), "cds"));
+    private final WorkerProcessPool workerProcessPool = new WorkerProcessPool(
+            new File(new File(getSimulatorHome(), WorkerProcessLauncher.WORKERS_HOME_NAME), WorkerProcessPool.POOL_DIR_NAME));
     private final Server server;
     private final SimulatorAddress agentAddress;
     private final String publicAddress;
@@ -64,6 +77,14 @@ public class WorkerProcessManager {
         return agentAddress;
     }
 
+    public ClassDataSharingArchives getClassDataSharingArchives() {
+        return classDataSharingArchives;
+    }
+
+    public WorkerProcessPool getWorkerProcessPool() {
+        return workerProcessPool;
+    }
+
     // launching is done asynchronous so we don't block the calling thread (messaging thread)
     public void launch(CreateWorkerOperation op, Promise promise) throws Exception {
         AtomicInteger remaining = new AtomicInteger(op.getWorkerParametersList().size());
@@ -82,10 +103,50 @@ public class WorkerProcessManager {
         workerProcesses.remove(process.getAddress());
     }
 
+    public WorkerProcess getWorkerProcess(SimulatorAddress workerAddress) {
+        return workerProcesses.get(workerAddress);
+    }
+
     public Collection<WorkerProcess> getWorkerProcesses() {
         return workerProcesses.values();
     }
 
+    /**
+     * Marks a Worker as ready, which completes its launch.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the Worker
+     * @param op            the {@link WorkerReadyOperation} send by the Worker
+     */
+    public void workerReady(SimulatorAddress workerAddress, WorkerReadyOperation op) {
+        WorkerProcess workerProcess = workerProcesses.get(workerAddress);
+        if (workerProcess == null) {
+            LOGGER.warn("Ready signal for unknown WorkerJVM: " + workerAddress);
+            return;
+        }
+
+        workerProcess.getStartupTimeline().record(op);
+        workerProcess.updateLastSeen();
+        workerProcess.setReady();
+    }
+
+    /**
+     * Processes the heartbeat of a Worker, which updates its last seen timestamp and the progress of its running tests.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the Worker
+     * @param op            the {@link WorkerHeartbeatOperation} send by the Worker
+     */
+    public void heartbeat(SimulatorAddress workerAddress, WorkerHeartbeatOperation op) {
+        WorkerProcess workerProcess = workerProcesses.get(workerAddress);
+        if (workerProcess == null) {
+            LOGGER.warn("Heartbeat of unknown WorkerJVM: " + workerAddress);
+            return;
+        }
+
+        long timeMillis = currentTimeMillis();
+        workerProcess.setLastSeen(timeMillis);
+        workerProcess.getProgress().update(op.getIterations(), timeMillis);
+    }
+
     public void updateLastSeenTimestamp(SimulatorAddress workerAddress) {
         WorkerProcess workerProcess = workerProcesses.get(workerAddress);
         if (workerProcess == null) {
@@ -101,6 +162,8 @@ public class WorkerProcessManager {
 
     public void shutdown() {
         executorService.shutdown();
+        classDataSharingArchives.shutdown();
+        workerProcessPool.shutdown();
         ThreadSpawner spawner = new ThreadSpawner("workerJvmManagerShutdown", true);
         for (final WorkerProcess workerProcess : new ArrayList<WorkerProcess>(workerProcesses.values())) {
             spawner.spawn(new Runnable() {
@@ -172,15 +235,15 @@ public class WorkerProcessManager {
         }
 
         private void launch() throws Exception {
-            launcher.launch();
+            WorkerProcess workerProcess = launcher.launch();
 
             int workerIndex = parameters.intGet("WORKER_INDEX");
 
             String workerType = parameters.getWorkerType();
             SimulatorAddress workerAddress = workerAddress(agentAddress.getAgentIndex(), workerIndex);
 
-            LogOperation logOperation = new LogOperation(
-                    format("Created %s Worker %s", workerType, workerAddress), DEBUG);
+            LogOperation logOperation = new LogOperation(format("Created %s Worker %s in %d ms",
+                    workerType, workerAddress, workerProcess.getStartupTimeline().getDurationMillis()), DEBUG);
 
             server.sendCoordinator(logOperation);
         }
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerprocess;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.rename;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static java.lang.String.format;
+
+/**
+ * A pool of pre-started idle Worker JVMs.
+ *
+ * After a Worker has been launched, the pool starts up to <tt>WORKER_POOL_SIZE</tt> idle JVMs with the same launch settings
+ * (Java home, classpath, JVM options, worker.sh and Log4j configuration). An idle JVM runs in its own directory below
+ * {@link #POOL_DIR_NAME}, loads the Worker classes and then waits until it's claimed. The environment of an idle JVM only
+ * contains the settings which are shared by all Workers, since it's not known yet which Worker it will become.
+ *
+ * A later Worker with the same pool key claims an idle JVM: the prepared files of the Worker home are moved into the
+ * directory of the idle JVM, which is then renamed to the Worker home. Since a rename keeps the working directory of the
+ * running JVM, all relative paths of the Worker (e.g. its log file) end up in the Worker home. Finally the path of the Worker
+ * home is sent to the JVM via stdin, so it loads the parameters of the Worker and starts it (see
+ * {@link com.hazelcast.simulator.worker.Worker#main(String[])}). So the Worker skips the JVM startup and the class loading.
+ *
+ * If the Agent dies, the idle JVMs read the end of stdin and exit.
+ */
+public class WorkerProcessPool {
+
+    public static final String POOL_DIR_NAME = "pool";
+    public static final String POOLED_ENV_KEY = "WORKER_POOLED";
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerProcessPool.class);
+
+    private final ConcurrentMap<String, Queue<IdleWorker>> idleWorkers = new ConcurrentHashMap<String, Queue<IdleWorker>>();
+    private final AtomicInteger idGenerator = new AtomicInteger();
+    private final ExecutorService executor = createFixedThreadPool(1, "workerProcessPool");
+    private final File poolDirectory;
+
+    public WorkerProcessPool(File poolDirectory) {
+        this.poolDirectory = poolDirectory;
+    }
+
+    /**
+     * Creates the pool key for a Worker.
+     *
+     * @param javaHome    the Java home of the Worker JVM
+     * @param classpath   the classpath of the Worker JVM
+     * @param jvmOptions  the JVM options of the Worker (without AppCDS options)
+     * @param workerFiles the files which are read by the Worker JVM before it's claimed (worker.sh and the Log4j configuration)
+     * @return the pool key
+     */
+    public static String poolKey(String javaHome, String classpath, String jvmOptions, Map<String, String> workerFiles) {
+        StringBuilder sb = new StringBuilder(javaHome)
+                .append('|').append(classpath)
+                .append('|').append(jvmOptions);
+        for (Map.Entry<String, String> entry : new TreeMap<String, String>(workerFiles).entrySet()) {
+            sb.append('|').append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return format("%08x", sb.toString().hashCode());
+    }
+
+    /**
+     * Claims an idle Worker JVM and hands over the Worker home to it.
+     *
+     * @param key        the pool key of the Worker
+     * @param workerHome the prepared Worker home with the parameters file
+     * @return the process of the claimed JVM or {@code null} if no idle JVM is available
+     */
+    public Process claim(String key, File workerHome) {
+        Queue<IdleWorker> queue = idleWorkers.get(key);
+        if (queue == null) {
+            return null;
+        }
+
+        IdleWorker idleWorker;
+        while ((idleWorker = queue.poll()) != null) {
+            if (hasExited(idleWorker.process)) {
+                LOGGER.warn(format("Idle Worker JVM in %s has exited, check its log files for more information",
+                        idleWorker.directory));
+                continue;
+            }
+            try {
+                handOver(idleWorker, workerHome);
+                LOGGER.info(format("Claimed idle Worker JVM for %s", workerHome));
+                return idleWorker.process;
+            } catch (Exception e) {
+                LOGGER.warn(format("Could not claim idle Worker JVM in %s", idleWorker.directory), e);
+                destroy(idleWorker);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static void handOver(IdleWorker idleWorker, File workerHome) throws IOException {
+        // the idle JVM keeps its working directory, so the files of the Worker are moved into it
+        File[] files = workerHome.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                File target = new File(idleWorker.directory, file.getName());
+                deleteQuiet(target);
+                rename(file, target);
+            }
+        }
+        deleteQuiet(workerHome);
+        rename(idleWorker.directory, workerHome);
+
+        OutputStream stdin = idleWorker.process.getOutputStream();
+        stdin.write((workerHome.getAbsolutePath() + "\n").getBytes("UTF-8"));
+        stdin.flush();
+    }
+
+    /**
+     * Starts idle Worker JVMs in the background until the pool contains the given number of idle JVMs for the key.
+     *
+     * Idle JVMs of an earlier session are destroyed, since they would waste the memory of the machine.
+     *
+     * @param key         the pool key of the Worker
+     * @param sessionId   the ID of the session
+     * @param size        the number of idle JVMs to keep for the key
+     * @param workerFiles the files which are written into the directory of an idle JVM
+     * @param environment the environment of an idle JVM
+     */
+    public void fill(final String key, final String sessionId, final int size, final Map<String, String> workerFiles,
+                     final Map<String, String> environment) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    destroyOtherSessions(sessionId);
+                    Queue<IdleWorker> queue = getQueue(key);
+                    while (queue.size() < size) {
+                        queue.add(start(sessionId, workerFiles, environment));
+                    }
+                } catch (Exception e) {
+                    LOGGER.warn("Could not start idle Worker JVM", e);
+                }
+            }
+        });
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        for (Queue<IdleWorker> queue : idleWorkers.values()) {
+            IdleWorker idleWorker;
+            while ((idleWorker = queue.poll()) != null) {
+                destroy(idleWorker);
+            }
+        }
+    }
+
+    int idleCount(String key) {
+        Queue<IdleWorker> queue = idleWorkers.get(key);
+        return queue == null ? 0 : queue.size();
+    }
+
+    private Queue<IdleWorker> getQueue(String key) {
+        Queue<IdleWorker> queue = idleWorkers.get(key);
+        if (queue == null) {
+            Queue<IdleWorker> newQueue = new ConcurrentLinkedQueue<IdleWorker>();
+            queue = idleWorkers.putIfAbsent(key, newQueue);
+            if (queue == null) {
+                queue = newQueue;
+            }
+        }
+        return queue;
+    }
+
+    private IdleWorker start(String sessionId, Map<String, String> workerFiles, Map<String, String> environment)
+            throws IOException {
+        // the directory may be left over by an earlier Agent, e.g. with a stale worker.pid file
+        File directory = new File(poolDirectory, "idle-" + idGenerator.incrementAndGet());
+        deleteQuiet(directory);
+        ensureExistingDirectory(directory);
+        for (Map.Entry<String, String> entry : workerFiles.entrySet()) {
+            writeText(entry.getValue(), new File(directory, entry.getKey()));
+        }
+
+        ProcessBuilder processBuilder = new ProcessBuilder(new String[]{"bash", "worker.sh"})
+                .directory(directory);
+        processBuilder.environment().putAll(environment);
+        processBuilder.environment().put(POOLED_ENV_KEY, "true");
+
+        Process process = processBuilder.start();
+        LOGGER.info(format("Started idle Worker JVM in %s", directory));
+        return new IdleWorker(sessionId, directory, process);
+    }
+
+    private void destroyOtherSessions(String sessionId) {
+        for (Queue<IdleWorker> queue : idleWorkers.values()) {
+            for (IdleWorker idleWorker : queue) {
+                if (!sessionId.equals(idleWorker.sessionId) && queue.remove(idleWorker)) {
+                    destroy(idleWorker);
+                }
+            }
+        }
+    }
+
+    private static void destroy(IdleWorker idleWorker) {
+        // closing stdin lets the idle JVM exit; the destroy is needed if it's still starting
+        closeQuietly(idleWorker.process.getOutputStream());
+        idleWorker.process.destroy();
+        try {
+            idleWorker.process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deleteQuiet(idleWorker.directory);
+    }
+
+    private static boolean hasExited(Process process) {
+        try {
+            process.exitValue();
+            return true;
+        } catch (IllegalThreadStateException e) {
+            return false;
+        }
+    }
+
+    private static final class IdleWorker {
+
+        private final String sessionId;
+        private final File directory;
+        private final Process process;
+
+        private IdleWorker(String sessionId, File directory, Process process) {
+            this.sessionId = sessionId;
+            this.directory = directory;
+            this.process = process;
+        }
+    }
+}
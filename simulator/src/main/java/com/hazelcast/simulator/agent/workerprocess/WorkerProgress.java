@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerprocess;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the progress of the running tests of a Worker, based on the iteration counts of its heartbeats.
+ *
+ * A test is stalled if its iteration count has not increased within the no-progress timeout. Every stall is only reported
+ * once; if the test makes progress again, a new stall will be reported again.
+ */
+public class WorkerProgress {
+
+    private final Map<String, TestProgress> tests = new HashMap<String, TestProgress>();
+
+    /**
+     * Updates the progress with the iteration counts of a heartbeat.
+     *
+     * Tests which are not contained in the heartbeat are not running anymore and are removed.
+     *
+     * @param iterations the iteration count per testId of all running tests
+     * @param timeMillis the time the heartbeat has been received
+     */
+    public synchronized void update(Map<String, Long> iterations, long timeMillis) {
+        tests.keySet().retainAll(iterations.keySet());
+
+        for (Map.Entry<String, Long> entry : iterations.entrySet()) {
+            String testId = entry.getKey();
+            long iterationCount = entry.getValue();
+
+            TestProgress progress = tests.get(testId);
+            if (progress == null) {
+                tests.put(testId, new TestProgress(iterationCount, timeMillis));
+            } else if (iterationCount != progress.iterations) {
+                progress.iterations = iterationCount;
+                progress.lastProgressMillis = timeMillis;
+                progress.stallReported = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the testIds of all tests which have not made progress within the given timeout and have not been reported yet.
+     *
+     * @param timeMillis    the current time
+     * @param timeoutMillis the no-progress timeout
+     * @return the testIds of the newly stalled tests
+     */
+    public synchronized List<String> getStalledTests(long timeMillis, long timeoutMillis) {
+        List<String> stalledTests = new LinkedList<String>();
+        for (Map.Entry<String, TestProgress> entry : tests.entrySet()) {
+            TestProgress progress = entry.getValue();
+            if (!progress.stallReported && timeMillis - progress.lastProgressMillis >= timeoutMillis) {
+                progress.stallReported = true;
+                stalledTests.add(entry.getKey());
+            }
+        }
+        return stalledTests;
+    }
+
+    /**
+     * Returns the time of the last progress of a test.
+     *
+     * @param testId the testId
+     * @return the time of the last progress or -1 if the test is not running
+     */
+    public synchronized long getLastProgressMillis(String testId) {
+        TestProgress progress = tests.get(testId);
+        return progress == null ? -1 : progress.lastProgressMillis;
+    }
+
+    /**
+     * Resets the time of the last progress of all tests, e.g. when the timeout detection is started.
+     *
+     * @param timeMillis the new time of the last progress
+     */
+    public synchronized void reset(long timeMillis) {
+        for (TestProgress progress : tests.values()) {
+            progress.lastProgressMillis = timeMillis;
+            progress.stallReported = false;
+        }
+    }
+
+    private static final class TestProgress {
+
+        private long iterations;
+        private long lastProgressMillis;
+        private boolean stallReported;
+
+        private TestProgress(long iterations, long lastProgressMillis) {
+            this.iterations = iterations;
+            this.lastProgressMillis = lastProgressMillis;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerprocess;
+
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Records the startup timeline of a single {@link WorkerProcess}.
+ *
+ * The phases are recorded by the Agent (launch requested, classpath setup, JVM spawned) and by the Worker itself
+ * (JVM started, vendor instance created, ready), which are reported by the {@link WorkerReadyOperation}.
+ */
+public class WorkerStartupTimeline {
+
+    private final List<String> phases = new ArrayList<String>();
+    private final List<Long> timestamps = new ArrayList<Long>();
+
+    public synchronized void record(String phase) {
+        record(phase, System.currentTimeMillis());
+    }
+
+    public synchronized void record(String phase, long timestampMillis) {
+        if (timestampMillis <= 0) {
+            return;
+        }
+        phases.add(phase);
+        timestamps.add(timestampMillis);
+    }
+
+    public void record(WorkerReadyOperation op) {
+        record("JVM started", op.getJvmStartedMillis());
+        record("Worker started", op.getWorkerStartedMillis());
+        record("vendor instance created", op.getVendorInstanceCreatedMillis());
+        record("ready", op.getReadyMillis());
+    }
+
+    /**
+     * Returns the duration between the first and the last recorded phase.
+     *
+     * @return the duration in milliseconds or 0 if less than two phases have been recorded
+     */
+    public synchronized long getDurationMillis() {
+        if (timestamps.size() < 2) {
+            return 0;
+        }
+        return timestamps.get(timestamps.size() - 1) - timestamps.get(0);
+    }
+
+    /**
+     * Formats the timeline with one line per phase, containing the time elapsed since the first phase and since
+     * the previous phase.
+     *
+     * @return the formatted timeline
+     */
+    public synchronized String format() {
+        if (phases.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        long first = timestamps.get(0);
+        long previous = first;
+        for (int i = 0; i < phases.size(); i++) {
+            long timestamp = timestamps.get(i);
+            sb.append(format("%-25s %8d ms (+%d ms)%n", phases.get(i), timestamp - first, timestamp - previous));
+            previous = timestamp;
+        }
+        return sb.toString();
+    }
+}
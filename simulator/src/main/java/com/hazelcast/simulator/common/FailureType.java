@@ -25,6 +25,7 @@ public enum FailureType {
     MESSAGING_EXCEPTION("messagingException", "ActiveMQ exception", true),
     WORKER_EXCEPTION("workerException", "Worker exception", false),
     WORKER_TIMEOUT("workerTimeout", "Worker timeout", false),
+    WORKER_NO_PROGRESS("workerNoProgress", "Worker no progress", false),
     WORKER_OOME("workerOOME", "Worker OOME", true),
     WORKER_ABNORMAL_EXIT("workerAbnormalExit", "Worker abnormal exit", true),
     WORKER_NORMAL_EXIT("workerNormalExit", "Worker normal exit", true),
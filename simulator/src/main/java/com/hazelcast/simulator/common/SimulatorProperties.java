@@ -202,6 +202,10 @@ public class SimulatorProperties {
         return getWorkerPingIntervalSeconds() * WORKER_TIMEOUT_FACTOR;
     }
 
+    public int getWorkerNoProgressTimeoutSeconds() {
+        return parseInt(get("WORKER_NO_PROGRESS_TIMEOUT_SECONDS", "-1"));
+    }
+
     public int getMemberWorkerShutdownDelaySeconds() {
         return parseInt(get("MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS", "5"));
     }
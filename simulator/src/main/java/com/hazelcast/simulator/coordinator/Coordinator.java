@@ -16,7 +16,9 @@
 package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.agent.workerprocess.WorkerParameters;
+import com.hazelcast.simulator.common.GitInfo;
 import com.hazelcast.simulator.common.SimulatorProperties;
+import com.hazelcast.simulator.common.TestCase;
 import com.hazelcast.simulator.coordinator.operations.RcTestRunOperation;
 import com.hazelcast.simulator.coordinator.operations.RcTestStatusOperation;
 import com.hazelcast.simulator.coordinator.operations.RcTestStopOperation;
@@ -36,6 +38,8 @@ import com.hazelcast.simulator.coordinator.tasks.StartWorkersTask;
 import com.hazelcast.simulator.coordinator.tasks.TerminateWorkersTask;
 import com.hazelcast.simulator.protocol.CoordinatorClient;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.report.ResultsStore;
+import com.hazelcast.simulator.report.TestResult;
 import com.hazelcast.simulator.utils.CommonUtils;
 import com.hazelcast.simulator.vendors.VendorDriver;
 import com.hazelcast.simulator.worker.operations.ExecuteScriptOperation;
@@ -58,6 +62,7 @@ import java.util.concurrent.Future;
 
 import static com.hazelcast.simulator.coordinator.AgentUtils.startAgents;
 import static com.hazelcast.simulator.coordinator.AgentUtils.stopAgents;
+import static com.hazelcast.simulator.utils.CommonUtils.getSimulatorVersion;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static com.hazelcast.simulator.utils.FileUtils.ensureNewDirectory;
 import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
@@ -175,6 +180,9 @@ public class Coordinator implements Closeable {
     public void close() {
         stopTests();
 
+        // the results are created before the Workers are terminated, since the layout is taken from the registry
+        List<TestResult> results = createTestResults();
+
         new TerminateWorkersTask(simulatorProperties, registry, client).run();
 
         client.close();
@@ -188,9 +196,53 @@ public class Coordinator implements Closeable {
                     parameters.getSessionId()).run();
         }
 
+        storeTestResults(results);
+
         failureCollector.logFailureInfo();
     }
 
+    private List<TestResult> createTestResults() {
+        int memberCount = 0;
+        int clientCount = 0;
+        for (WorkerData worker : registry.getWorkers()) {
+            if (worker.isMemberWorker()) {
+                memberCount++;
+            } else {
+                clientCount++;
+            }
+        }
+
+        List<TestResult> results = new ArrayList<TestResult>();
+        for (TestData test : registry.getTests()) {
+            if (test.getRunningTimeMillis() <= 0) {
+                // the test has not completed its run phase
+                continue;
+            }
+            TestCase testCase = test.getTestCase();
+            results.add(new TestResult(parameters.getSessionId(), testCase.getId())
+                    .setTestClass(testCase.getClassname())
+                    .setProperties(testCase.getProperties())
+                    .setStatus(test.getStatusString())
+                    .setStartTimeMillis(test.getStartTimeMillis())
+                    .setRunningTimeMillis(test.getRunningTimeMillis())
+                    .setOperationCount(performanceStatsCollector.get(testCase.getId(), true).getOperationCount())
+                    .setSimulatorVersion(getSimulatorVersion())
+                    .setCommitId(GitInfo.getCommitIdAbbrev())
+                    .setVendor(simulatorProperties.get("VENDOR"))
+                    .setVersionSpec(simulatorProperties.getVersionSpec())
+                    .setLayout(registry.agentCount(), memberCount, clientCount));
+        }
+        return results;
+    }
+
+    private void storeTestResults(List<TestResult> results) {
+        try {
+            new ResultsStore(outputDirectory.getParentFile()).append(outputDirectory, results);
+        } catch (Exception e) {
+            LOGGER.warn("Could not store the test results: " + e.getMessage(), e);
+        }
+    }
+
     private void stopTests() {
         Collection<TestData> tests = registry.getTests();
         for (TestData test : tests) {
@@ -431,7 +483,9 @@ public class Coordinator implements Closeable {
                 workerTags,
                 client,
                 registry,
-                parameters.getWorkerVmStartupDelayMs());
+                parameters.getWorkerVmStartupDelayMs(),
+                simulatorProperties.getWorkerLastSeenTimeoutSeconds(),
+                simulatorProperties.getWorkerNoProgressTimeoutSeconds());
     }
 
     RunTestSuiteTask createRunTestSuiteTask(TestSuite testSuite) {
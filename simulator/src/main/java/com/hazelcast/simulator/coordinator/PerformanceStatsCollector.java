@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import static com.hazelcast.simulator.protocol.core.AddressLevel.AGENT;
 import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
 import static com.hazelcast.simulator.utils.FormatUtils.formatLong;
 import static com.hazelcast.simulator.utils.FormatUtils.formatPercentage;
@@ -51,6 +52,7 @@ public class PerformanceStatsCollector {
     private static final long DISPLAY_LATENCY_AS_MICROS_MAX_VALUE = SECONDS.toMicros(1);
 
     // holds a map per Worker SimulatorAddress which contains the lastDelta PerformanceStats per testCaseId
+    // (if the Agents aggregate the stats of their Workers, the key is the Agent SimulatorAddress instead)
     private final ConcurrentMap<SimulatorAddress, WorkerPerformance> workerPerformanceInfoMap
             = new ConcurrentHashMap<SimulatorAddress, WorkerPerformance>();
 
@@ -149,8 +151,10 @@ public class PerformanceStatsCollector {
                                    Map<SimulatorAddress, PerformanceStats> agentPerformanceStatsMap) {
 
         for (Map.Entry<SimulatorAddress, WorkerPerformance> entry : workerPerformanceInfoMap.entrySet()) {
-            SimulatorAddress workerAddress = entry.getKey();
-            SimulatorAddress agentAddress = workerAddress.getParent();
+            SimulatorAddress sourceAddress = entry.getKey();
+            SimulatorAddress agentAddress = sourceAddress.getAddressLevel() == AGENT
+                    ? sourceAddress
+                    : sourceAddress.getParent();
             PerformanceStats agentPerformanceStats = agentPerformanceStatsMap.get(agentAddress);
             if (agentPerformanceStats == null) {
                 agentPerformanceStats = new PerformanceStats();
@@ -24,6 +24,7 @@ import com.hazelcast.simulator.protocol.CoordinatorClient;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.worker.operations.CreateTestOperation;
+import com.hazelcast.simulator.worker.operations.RemoveTestOperation;
 import com.hazelcast.simulator.worker.operations.StartPhaseOperation;
 import com.hazelcast.simulator.worker.operations.StopRunOperation;
 import org.apache.log4j.Logger;
@@ -54,6 +55,7 @@ import static com.hazelcast.simulator.utils.CommonUtils.sleepUntilMs;
 import static com.hazelcast.simulator.utils.FormatUtils.formatPercentage;
 import static com.hazelcast.simulator.utils.FormatUtils.padRight;
 import static com.hazelcast.simulator.utils.FormatUtils.secondsToHuman;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
@@ -70,6 +72,7 @@ public final class TestCaseRunner {
     private static final int RUN_PHASE_LOG_INTERVAL_SECONDS = 30;
     private static final int WAIT_FOR_PHASE_COMPLETION_LOG_INTERVAL_SECONDS = 30;
     private static final int WAIT_FOR_PHASE_COMPLETION_LOG_VERBOSE_DELAY_SECONDS = 300;
+    private static final int REMOVE_TEST_TIMEOUT_SECONDS = 30;
 
     private static final Logger LOGGER = Logger.getLogger(TestCaseRunner.class);
 
@@ -93,6 +96,8 @@ public final class TestCaseRunner {
     private final List<WorkerData> targets;
     private final WorkerData globalTarget;
 
+    private volatile boolean allPhasesCompleted;
+
     @SuppressWarnings("checkstyle:parameternumber")
     public TestCaseRunner(TestData test,
                           List<WorkerData> targets,
@@ -145,6 +150,9 @@ public final class TestCaseRunner {
         } catch (Exception e) {
             throw rethrow(e);
         } finally {
+            if (!allPhasesCompleted) {
+                removeTest();
+            }
             test.setCompletedStatus(hasFailure() ? FAILED : SUCCESS);
         }
 
@@ -173,6 +181,7 @@ public final class TestCaseRunner {
 
         executePhase(GLOBAL_TEARDOWN);
         executePhase(LOCAL_TEARDOWN);
+        allPhasesCompleted = true;
     }
 
     private void logDetails() {
@@ -182,13 +191,33 @@ public final class TestCaseRunner {
 
     private void createTest() {
         log("Starting Test initialization");
-        invokeOnTargets(new CreateTestOperation(testCase));
+        // every Worker gets its own index, so a distributed prepare can split the data between the Workers
+        Map<WorkerData, Future> futures = new HashMap<WorkerData, Future>();
+        for (int workerIndex = 0; workerIndex < targetCount; workerIndex++) {
+            WorkerData worker = targets.get(workerIndex);
+            futures.put(worker, client.submit(worker.getAddress(), new CreateTestOperation(testCase, workerIndex, targetCount)));
+        }
+        awaitCompletion(futures);
         log("Completed Test initialization");
     }
 
-    private void invokeOnTargets(SimulatorOperation op) {
-        Map<WorkerData, Future> futures = submitToTargets(false, op);
-        awaitCompletion(futures);
+    /**
+     * Removes an aborted test from the Workers, so they can be reused by the next test run.
+     *
+     * The Workers remove a test on their own after its last phase. The removal is best effort, since a Worker may have
+     * died, which caused the test to be aborted.
+     */
+    private void removeTest() {
+        Map<WorkerData, Future> futures = submitToTargets(false, new RemoveTestOperation(testCase.getId()));
+        long deadlineMillis = currentTimeMillis() + SECONDS.toMillis(REMOVE_TEST_TIMEOUT_SECONDS);
+        for (Map.Entry<WorkerData, Future> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get(max(0, deadlineMillis - currentTimeMillis()), MILLISECONDS);
+            } catch (Exception e) {
+                LOGGER.warn(format("Could not remove test %s from Worker %s: %s",
+                        testCase.getId(), entry.getKey().getAddress(), e.getMessage()));
+            }
+        }
     }
 
     private Map<WorkerData, Future> submitToTargets(boolean singleTarget, SimulatorOperation op) {
@@ -228,8 +257,10 @@ public final class TestCaseRunner {
         log("Starting Test " + phase.desc());
         test.setTestPhase(phase);
 
-        Map<WorkerData, Future> futures = submitToTargets(
-                phase.isGlobal(), new StartPhaseOperation(phase, testCase.getId()));
+        // the global prepare is send to all Workers, so they can run their distributed prepare methods; the other
+        // global prepare methods are only executed by the Worker with index 0, which is the globalTarget
+        boolean singleTarget = phase.isGlobal() && phase != GLOBAL_PREPARE;
+        Map<WorkerData, Future> futures = submitToTargets(singleTarget, new StartPhaseOperation(phase, testCase.getId()));
 
         waitForPhaseCompletion(phase, futures);
         log("Completed Test " + phase.desc());
@@ -317,6 +348,7 @@ public final class TestCaseRunner {
 
         // then we need to subtract the warmup.
         long durationMillis = durationWithWarmupMillis - testCase.getWarmupMillis();
+        test.setRunningTimeMillis(durationMillis);
 
         if (performanceMonitorIntervalSeconds > 0) {
             LOGGER.info(testCase.getId() + " Waiting for all performance info");
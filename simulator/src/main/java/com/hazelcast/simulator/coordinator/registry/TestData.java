@@ -35,6 +35,7 @@ public class TestData {
     private final TestCase testCase;
     private final TestSuite testSuite;
     private volatile long startTimeMillis;
+    private volatile long runningTimeMillis;
     private volatile TestPhase testPhase;
     private volatile boolean stopRequested;
     private volatile CompletedStatus completedStatus = IN_PROGRESS;
@@ -89,6 +90,19 @@ public class TestData {
         return startTimeMillis;
     }
 
+    /**
+     * Sets the running time of the run phase without warmup.
+     *
+     * @param runningTimeMillis the running time in milliseconds
+     */
+    public void setRunningTimeMillis(long runningTimeMillis) {
+        this.runningTimeMillis = runningTimeMillis;
+    }
+
+    public long getRunningTimeMillis() {
+        return runningTimeMillis;
+    }
+
     public String getStatusString() {
         TestData.CompletedStatus status = getCompletedStatus();
         if (status == IN_PROGRESS) {
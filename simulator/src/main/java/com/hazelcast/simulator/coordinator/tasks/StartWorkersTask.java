@@ -54,6 +54,8 @@ public class StartWorkersTask {
     private final CoordinatorClient client;
     private final Registry registry;
     private final int startupDelayMs;
+    private final int lastSeenTimeoutSeconds;
+    private final int noProgressTimeoutSeconds;
     private final Map<SimulatorAddress, List<WorkerParameters>> memberDeploymentPlan;
     private final Map<SimulatorAddress, List<WorkerParameters>> clientDeploymentPlan;
     private final Map<String, String> tags;
@@ -66,9 +68,22 @@ public class StartWorkersTask {
             CoordinatorClient client,
             Registry registry,
             int startupDelayMs) {
+        this(deploymentPlan, workerTags, client, registry, startupDelayMs, 0, 0);
+    }
+
+    public StartWorkersTask(
+            Map<SimulatorAddress, List<WorkerParameters>> deploymentPlan,
+            Map<String, String> workerTags,
+            CoordinatorClient client,
+            Registry registry,
+            int startupDelayMs,
+            int lastSeenTimeoutSeconds,
+            int noProgressTimeoutSeconds) {
         this.client = client;
         this.registry = registry;
         this.startupDelayMs = startupDelayMs;
+        this.lastSeenTimeoutSeconds = lastSeenTimeoutSeconds;
+        this.noProgressTimeoutSeconds = noProgressTimeoutSeconds;
         this.tags = workerTags;
         this.memberDeploymentPlan = filterByWorkerType(true, deploymentPlan);
         this.clientDeploymentPlan = filterByWorkerType(false, deploymentPlan);
@@ -83,7 +98,9 @@ public class StartWorkersTask {
         // then create all clients
         startWorkers(false, clientDeploymentPlan);
 
-        client.invokeAll(registry.getAgents(), new StartTimeoutDetectionOperation(), MINUTES.toMillis(1));
+        StartTimeoutDetectionOperation operation
+                = new StartTimeoutDetectionOperation(lastSeenTimeoutSeconds, noProgressTimeoutSeconds);
+        client.invokeAll(registry.getAgents(), operation, MINUTES.toMillis(1));
 
         echoStartComplete();
         return result;
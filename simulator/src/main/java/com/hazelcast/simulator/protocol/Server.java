@@ -154,24 +154,50 @@ public class Server implements Closeable {
     }
 
     public void sendCoordinator(SimulatorOperation op) {
+        send("coordinator", null, op);
+    }
+
+    /**
+     * Sends an operation to the Agent that owns this server. Can only be used when this server runs on a Worker.
+     *
+     * The operation is published on the 'agents' topic using the parent address of this server as target, so only the
+     * local Agent will process it.
+     *
+     * @return <tt>true</tt> if the operation has been sent, <tt>false</tt> otherwise
+     */
+    public boolean sendAgent(SimulatorOperation op) {
+        return send("agents", selfAddress.getParent(), op);
+    }
+
+    private boolean send(String topicName, SimulatorAddress target, SimulatorOperation op) {
+        if (session == null) {
+            LOGGER.warn("Can't send [" + op + "], the server hasn't been started");
+            return false;
+        }
+
         try {
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("sending [" + op + "]");
+                LOGGER.debug("sending [" + op + "] on topic [" + topicName + "]");
             }
 
-            Destination topic = session.createTopic("coordinator");
+            Destination topic = session.createTopic(topicName);
             MessageProducer producer = session.createProducer(topic);
             producer.setDeliveryMode(NON_PERSISTENT);
 
             Message message = session.createMessage();
 
             message.setStringProperty("source", selfAddressString);
+            if (target != null) {
+                message.setStringProperty("target", target.toString());
+            }
             message.setStringProperty("payload", OperationCodec.toJson(op));
             message.setIntProperty("operationType", getOperationType(op).toInt());
 
             producer.send(message);
+            return true;
         } catch (JMSException e) {
             LOGGER.error(e);
+            return false;
         }
     }
 
@@ -18,6 +18,8 @@ package com.hazelcast.simulator.protocol.operation;
 import com.hazelcast.simulator.agent.operations.CreateWorkerOperation;
 import com.hazelcast.simulator.agent.operations.StartTimeoutDetectionOperation;
 import com.hazelcast.simulator.agent.operations.StopTimeoutDetectionOperation;
+import com.hazelcast.simulator.agent.operations.WorkerHeartbeatOperation;
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
 import com.hazelcast.simulator.coordinator.operations.FailureOperation;
 import com.hazelcast.simulator.coordinator.operations.RcDownloadOperation;
 import com.hazelcast.simulator.coordinator.operations.RcInstallOperation;
@@ -33,6 +35,7 @@ import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.worker.operations.CreateTestOperation;
 import com.hazelcast.simulator.worker.operations.ExecuteScriptOperation;
 import com.hazelcast.simulator.worker.operations.PerformanceStatsOperation;
+import com.hazelcast.simulator.worker.operations.RemoveTestOperation;
 import com.hazelcast.simulator.worker.operations.StartPhaseOperation;
 import com.hazelcast.simulator.worker.operations.StopRunOperation;
 import com.hazelcast.simulator.worker.operations.TerminateWorkerOperation;
@@ -70,13 +73,16 @@ public enum OperationType {
     CREATE_WORKER(CreateWorkerOperation.class, 3000),
     START_TIMEOUT_DETECTION(StartTimeoutDetectionOperation.class, 3001),
     STOP_TIMEOUT_DETECTION(StopTimeoutDetectionOperation.class, 3002),
+    WORKER_READY(WorkerReadyOperation.class, 3003),
+    WORKER_HEARTBEAT(WorkerHeartbeatOperation.class, 3004),
 
     // Worker-Operations
     TERMINATE_WORKER(TerminateWorkerOperation.class, 4001),
     CREATE_TEST(CreateTestOperation.class, 4002),
     EXECUTE_SCRIPT(ExecuteScriptOperation.class, 4003),
     START_TEST_PHASE(StartPhaseOperation.class, 4004),
-    STOP_TEST(StopRunOperation.class, 4005);
+    STOP_TEST(StopRunOperation.class, 4005),
+    REMOVE_TEST(RemoveTestOperation.class, 4006);
 
     private final Class<? extends SimulatorOperation> classType;
     private final int classId;
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.hazelcast.simulator.report.Statistics.mannWhitneyPValue;
+import static com.hazelcast.simulator.report.Statistics.medians;
+import static com.hazelcast.simulator.report.Statistics.pooledMedian;
+import static com.hazelcast.simulator.report.Statistics.quantile;
+import static com.hazelcast.simulator.report.Statistics.resampledMedian;
+
+/**
+ * Compares the throughput and latency percentiles of a candidate with a baseline and decides if the difference is noise.
+ *
+ * Every interval of a benchmark run is a sample: the aggregated throughput per second and the latency percentiles of each
+ * interval Histogram. The samples after the warmup of all runs of a configuration are compared by their median, which is
+ * robust against single outliers like a GC pause.
+ *
+ * The intervals of a run are autocorrelated, so they are not independent samples. The confidence interval of the relative
+ * delta is determined by a block bootstrap over the runs and blocks of consecutive intervals, see
+ * {@link Statistics#resampledMedian(List, Random)}. Still, a single run says nothing about the variance between runs, e.g.
+ * by a different JIT compilation or data placement, so a verdict requires at least {@value #MIN_RUNS_FOR_VERDICT} runs of
+ * each configuration. The Mann-Whitney U test is done over the medians of the runs, which are independent, so it requires
+ * at least {@value #MIN_RUNS_FOR_P_VALUE} runs of each configuration. With fewer runs the significance is decided by the
+ * confidence interval alone.
+ *
+ * A metric is a regression if the change is significant and worse than the threshold. The bootstrap uses a fixed seed, so the
+ * comparison of the same runs always has the same result.
+ */
+public class BenchmarkComparator {
+
+    static final String THROUGHPUT = "throughput";
+    static final int MIN_RUNS_FOR_VERDICT = 2;
+    // with fewer runs the Mann-Whitney test can't reach a p-value below 0.05
+    static final int MIN_RUNS_FOR_P_VALUE = 4;
+
+    private static final long SEED = 42;
+
+    private final double threshold;
+    private final double confidence;
+    private final int iterations;
+    private final double warmupSeconds;
+
+    /**
+     * Creates a new comparator.
+     *
+     * @param threshold     the minimum relative change of a metric to be reported as regression or improvement, e.g. 0.05
+     * @param confidence    the confidence level of the confidence interval and the significance of the p-value, e.g. 0.95
+     * @param iterations    the number of bootstrap iterations
+     * @param warmupSeconds the number of seconds at the start of each run which are ignored
+     */
+    public BenchmarkComparator(double threshold, double confidence, int iterations, double warmupSeconds) {
+        this.threshold = threshold;
+        this.confidence = confidence;
+        this.iterations = iterations;
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    /**
+     * Compares all metrics which exist in the baseline and the candidate.
+     *
+     * @param baselineRuns  the (repeated) runs of the baseline
+     * @param candidateRuns the (repeated) runs of the candidate
+     * @return the {@link Comparison} per metric
+     * @throws Exception if a run could not be loaded
+     */
+    List<Comparison> compare(List<BenchmarkData> baselineRuns, List<BenchmarkData> candidateRuns) throws Exception {
+        Map<String, List<double[]>> baseline = getSamples(baselineRuns);
+        Map<String, List<double[]>> candidate = getSamples(candidateRuns);
+
+        List<Comparison> comparisons = new ArrayList<Comparison>();
+        for (Map.Entry<String, List<double[]>> entry : baseline.entrySet()) {
+            String metric = entry.getKey();
+            List<double[]> candidateSamples = candidate.get(metric);
+            if (candidateSamples == null) {
+                continue;
+            }
+            Comparison comparison = compare(metric, THROUGHPUT.equals(metric), entry.getValue(), candidateSamples);
+            if (comparison != null) {
+                comparisons.add(comparison);
+            }
+        }
+        return comparisons;
+    }
+
+    Comparison compare(String metric, boolean higherIsBetter, List<double[]> baselineRuns, List<double[]> candidateRuns) {
+        double baseline = pooledMedian(baselineRuns);
+        double candidate = pooledMedian(candidateRuns);
+        if (!(baseline > 0)) {
+            // the relative delta is not defined
+            return null;
+        }
+
+        Random random = new Random(SEED);
+        double[] deltas = new double[iterations];
+        int count = 0;
+        for (int i = 0; i < iterations; i++) {
+            double resampledBaseline = resampledMedian(baselineRuns, random);
+            double resampledCandidate = resampledMedian(candidateRuns, random);
+            if (resampledBaseline > 0) {
+                deltas[count++] = (resampledCandidate - resampledBaseline) / resampledBaseline;
+            }
+        }
+        deltas = Arrays.copyOf(deltas, count);
+        Arrays.sort(deltas);
+
+        double alpha = 1 - confidence;
+        double pValue = Double.NaN;
+        if (baselineRuns.size() >= MIN_RUNS_FOR_P_VALUE && candidateRuns.size() >= MIN_RUNS_FOR_P_VALUE) {
+            pValue = mannWhitneyPValue(medians(baselineRuns), medians(candidateRuns));
+        }
+        return new Comparison(metric, higherIsBetter, baseline, candidate, quantile(deltas, alpha / 2),
+                quantile(deltas, 1 - alpha / 2), pValue, threshold, alpha,
+                baselineRuns.size() >= MIN_RUNS_FOR_VERDICT && candidateRuns.size() >= MIN_RUNS_FOR_VERDICT);
+    }
+
+    /**
+     * Returns the samples of all metrics of the given runs.
+     *
+     * @param runs the runs of a configuration
+     * @return the samples per run by metric name
+     * @throws Exception if a run could not be loaded
+     */
+    Map<String, List<double[]>> getSamples(List<BenchmarkData> runs) throws Exception {
+        Map<String, List<double[]>> samples = new LinkedHashMap<String, List<double[]>>();
+        for (BenchmarkData run : runs) {
+            double startTime = run.getStartTime();
+            addSamples(samples, THROUGHPUT, run.getAggregatedThroughput());
+
+            for (LatencyData latency : run.getLatencies()) {
+                // the maximum of an interval is too noisy, so only the percentiles are compared
+                for (int i = 0; i < LatencyData.PERCENTILES.length; i++) {
+                    Series series = latency.getIntervals().get(i);
+                    addSamples(samples, latency.getName() + " p" + series.getName().replace("%", ""), series.shift(startTime));
+                }
+            }
+        }
+        return samples;
+    }
+
+    void addSamples(Map<String, List<double[]>> samples, String metric, Series series) {
+        List<double[]> points = series.getPoints();
+        double[] values = new double[points.size()];
+        int count = 0;
+        for (double[] point : points) {
+            if (point[0] >= warmupSeconds) {
+                values[count++] = point[1];
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+
+        List<double[]> runs = samples.get(metric);
+        if (runs == null) {
+            runs = new ArrayList<double[]>();
+            samples.put(metric, runs);
+        }
+        runs.add(Arrays.copyOf(values, count));
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import com.hazelcast.simulator.utils.HistogramLogMerger;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.worker.performance.HistogramRollup.getResolution;
+import static java.lang.String.format;
+
+/**
+ * The data of a single benchmark directory.
+ *
+ * The Worker directories and HDR files are loaded asynchronously by the given {@link ExecutorService}, so multiple
+ * benchmarks can be loaded in parallel. If the benchmark has no merged HDR files, e.g. because it was not downloaded by the
+ * Coordinator, the HDR files of the Workers are merged first.
+ */
+final class BenchmarkData {
+
+    private static final FileFilter WORKER_DIRECTORY_FILTER = new FileFilter() {
+        @Override
+        public boolean accept(File file) {
+            return WorkerData.isWorkerDirectory(file);
+        }
+    };
+
+    private final String name;
+    private final String resolution;
+    private final List<Future<WorkerData>> workerFutures = new ArrayList<Future<WorkerData>>();
+    private final List<Future<LatencyData>> latencyFutures = new ArrayList<Future<LatencyData>>();
+
+    private List<WorkerData> workers;
+    private List<LatencyData> latencies;
+
+    BenchmarkData(String name, File directory, ExecutorService executor) {
+        this(name, directory, executor, null);
+    }
+
+    /**
+     * Creates the data of a benchmark.
+     *
+     * @param name       the name of the benchmark
+     * @param directory  the session directory of the benchmark
+     * @param executor   the {@link ExecutorService} to load the data
+     * @param resolution the resolution of the histogram rollups to use for the latencies, e.g. <tt>1m</tt>;
+     *                   {@code null} to use the interval histograms
+     */
+    BenchmarkData(String name, File directory, ExecutorService executor, String resolution) {
+        this.name = name;
+        this.resolution = resolution;
+
+        File[] workerDirectories = directory.listFiles(WORKER_DIRECTORY_FILTER);
+        if (workerDirectories == null || workerDirectories.length == 0) {
+            throw new CommandLineExitException(format("Invalid benchmark %s from directory %s: no Workers found",
+                    name, directory.getAbsolutePath()));
+        }
+        Arrays.sort(workerDirectories);
+
+        for (final File workerDirectory : workerDirectories) {
+            workerFutures.add(executor.submit(new Callable<WorkerData>() {
+                @Override
+                public WorkerData call() throws Exception {
+                    return WorkerData.load(workerDirectory);
+                }
+            }));
+        }
+
+        for (Map.Entry<String, List<File>> entry : getHdrFiles(directory, workerDirectories).entrySet()) {
+            final String probe = entry.getKey();
+            final List<File> hdrFiles = entry.getValue();
+            latencyFutures.add(executor.submit(new Callable<LatencyData>() {
+                @Override
+                public LatencyData call() throws Exception {
+                    return loadLatency(probe, hdrFiles);
+                }
+            }));
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the data of all Workers, sorted by the name of the Worker.
+     *
+     * Waits until all Workers have been loaded.
+     *
+     * @return the {@link WorkerData} of all Workers
+     * @throws Exception if a Worker could not be loaded
+     */
+    synchronized List<WorkerData> getWorkers() throws Exception {
+        if (workers == null) {
+            List<WorkerData> list = new ArrayList<WorkerData>(workerFutures.size());
+            for (Future<WorkerData> future : workerFutures) {
+                list.add(get(future));
+            }
+            workers = list;
+        }
+        return workers;
+    }
+
+    /**
+     * Returns the latency data of all probes, sorted by the name of the probe.
+     *
+     * Waits until all HDR files have been loaded.
+     *
+     * @return the {@link LatencyData} of all probes
+     * @throws Exception if a HDR file could not be loaded
+     */
+    synchronized List<LatencyData> getLatencies() throws Exception {
+        if (latencies == null) {
+            List<LatencyData> list = new ArrayList<LatencyData>(latencyFutures.size());
+            for (Future<LatencyData> future : latencyFutures) {
+                list.add(get(future));
+            }
+            latencies = list;
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns the time of the first throughput or latency value, so all data of a benchmark can be plotted from 0 seconds.
+     *
+     * @return the start time of the benchmark as epoch time in seconds
+     * @throws Exception if the benchmark could not be loaded
+     */
+    double getStartTime() throws Exception {
+        double startTime = Double.MAX_VALUE;
+        for (WorkerData worker : getWorkers()) {
+            startTime = getMinX(startTime, worker.getThroughput());
+        }
+        for (LatencyData latency : getLatencies()) {
+            for (Series series : latency.getIntervals()) {
+                startTime = getMinX(startTime, series);
+            }
+        }
+        if (startTime == Double.MAX_VALUE) {
+            for (WorkerData worker : getWorkers()) {
+                for (List<Series> seriesList : worker.getMetrics().values()) {
+                    for (Series series : seriesList) {
+                        startTime = getMinX(startTime, series);
+                    }
+                }
+            }
+        }
+        return startTime == Double.MAX_VALUE ? 0 : startTime;
+    }
+
+    /**
+     * Returns the throughput of all Workers, aggregated per second.
+     *
+     * The Workers don't report at the same time, so their throughput is added per second since the start of the benchmark.
+     *
+     * @return the aggregated throughput with the seconds since the start of the benchmark as x values
+     * @throws Exception if the benchmark could not be loaded
+     */
+    Series getAggregatedThroughput() throws Exception {
+        double startTime = getStartTime();
+        SortedMap<Long, Double> aggregated = new TreeMap<Long, Double>();
+        for (WorkerData worker : getWorkers()) {
+            for (double[] point : worker.getThroughput().getPoints()) {
+                long second = (long) Math.floor(point[0] - startTime);
+                Double sum = aggregated.get(second);
+                aggregated.put(second, sum == null ? point[1] : sum + point[1]);
+            }
+        }
+
+        Series series = new Series("throughput");
+        for (Map.Entry<Long, Double> entry : aggregated.entrySet()) {
+            series.add(entry.getKey(), entry.getValue());
+        }
+        return series;
+    }
+
+    private static double getMinX(double minX, Series series) {
+        return series.isEmpty() ? minX : Math.min(minX, series.getMinX());
+    }
+
+    /**
+     * Returns the HDR files of a benchmark by their probe name.
+     *
+     * If the benchmark directory contains merged HDR files, only these are used. Otherwise the HDR files of the Workers are
+     * grouped by their name, so they can be merged.
+     */
+    private Map<String, List<File>> getHdrFiles(File directory, File[] workerDirectories) {
+        FileFilter hdrFileFilter = new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                String fileName = file.getName();
+                if (!file.isFile() || !fileName.endsWith(".hdr")) {
+                    return false;
+                }
+                String fileResolution = getResolution(fileName);
+                return resolution == null ? fileResolution == null : resolution.equals(fileResolution);
+            }
+        };
+
+        Map<String, List<File>> hdrFiles = new TreeMap<String, List<File>>();
+        File[] mergedFiles = directory.listFiles(hdrFileFilter);
+        if (mergedFiles != null && mergedFiles.length > 0) {
+            for (File hdrFile : mergedFiles) {
+                hdrFiles.put(getProbeName(hdrFile), Arrays.asList(hdrFile));
+            }
+            return hdrFiles;
+        }
+
+        Map<String, List<File>> workerFiles = new HashMap<String, List<File>>();
+        for (File workerDirectory : workerDirectories) {
+            File[] files = workerDirectory.listFiles(hdrFileFilter);
+            if (files == null) {
+                continue;
+            }
+            for (File hdrFile : files) {
+                List<File> list = workerFiles.get(getProbeName(hdrFile));
+                if (list == null) {
+                    list = new ArrayList<File>();
+                    workerFiles.put(getProbeName(hdrFile), list);
+                }
+                list.add(hdrFile);
+            }
+        }
+        hdrFiles.putAll(workerFiles);
+        return hdrFiles;
+    }
+
+    // the HDR files are named testId-probeName.hdr, which is used as probe name, so probes of different tests are not mixed
+    private String getProbeName(File hdrFile) {
+        String fileName = hdrFile.getName();
+        String suffix = resolution == null ? ".hdr" : '.' + resolution + ".hdr";
+        return fileName.substring(0, fileName.length() - suffix.length());
+    }
+
+    private static LatencyData loadLatency(String probe, List<File> hdrFiles) throws Exception {
+        if (hdrFiles.size() == 1) {
+            return LatencyData.load(probe, hdrFiles.get(0));
+        }
+
+        File mergedFile = File.createTempFile("report", ".hdr");
+        try {
+            HistogramLogMerger.merge(mergedFile, hdrFiles, 1);
+            return LatencyData.load(probe, mergedFile);
+        } finally {
+            deleteQuiet(mergedFile);
+        }
+    }
+
+    private static <E> E get(Future<E> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+}
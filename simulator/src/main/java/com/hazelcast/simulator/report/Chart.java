@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chart of the HTML report, which is rendered by the JavaScript of the report.
+ */
+final class Chart {
+
+    /**
+     * Defines the x-axis of a chart.
+     */
+    enum Type {
+        /**
+         * The x values are seconds since the start of the benchmark.
+         */
+        TIME,
+        /**
+         * The x values are percentiles, which are plotted on a logarithmic scale.
+         */
+        PERCENTILE
+    }
+
+    private final String id;
+    private final String section;
+    private final String title;
+    private final String yLabel;
+    private final Type type;
+    private final List<Series> series = new ArrayList<Series>();
+
+    Chart(String id, String section, String title, String yLabel, Type type) {
+        this.id = id;
+        this.section = section;
+        this.title = title;
+        this.yLabel = yLabel;
+        this.type = type;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getSection() {
+        return section;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    List<Series> getSeries() {
+        return series;
+    }
+
+    void add(Series newSeries) {
+        if (!newSeries.isEmpty()) {
+            series.add(newSeries);
+        }
+    }
+
+    boolean isEmpty() {
+        return series.isEmpty();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.utils.CliUtils;
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static com.hazelcast.simulator.report.BenchmarkComparator.MIN_RUNS_FOR_P_VALUE;
+import static com.hazelcast.simulator.report.BenchmarkComparator.MIN_RUNS_FOR_VERDICT;
+import static com.hazelcast.simulator.report.ReportCli.getBenchmarkGroups;
+import static com.hazelcast.simulator.utils.CommonUtils.exit;
+import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static java.lang.String.format;
+
+/**
+ * Command line interface of the {@link BenchmarkComparator}.
+ *
+ * The benchmark directories are passed as arguments, optionally followed by the name of the configuration in brackets.
+ * Benchmark directories with the same name are repeated runs of the same configuration. The first configuration is the
+ * baseline, all other configurations are compared with it:
+ * <pre>
+ *     simulator-compare --threshold 5 run1 [baseline] run2 [baseline] run3 [candidate] run4 [candidate]
+ * </pre>
+ *
+ * The intervals of a single run are not independent samples, so a verdict requires at least
+ * {@value BenchmarkComparator#MIN_RUNS_FOR_VERDICT} runs of each configuration and the p-value of the Mann-Whitney test at
+ * least {@value BenchmarkComparator#MIN_RUNS_FOR_P_VALUE} runs of each configuration.
+ *
+ * Exits with {@value #REGRESSION_EXIT_CODE} if a significant regression has been found, so it can be used as gate in a
+ * continuous integration job.
+ */
+final class CompareCli {
+
+    static final int REGRESSION_EXIT_CODE = 2;
+
+    private static final Logger LOGGER = Logger.getLogger(CompareCli.class);
+
+    private final OptionParser parser = new OptionParser();
+
+    private final OptionSpec<Double> thresholdSpec = parser.accepts("threshold",
+            "The minimum change in percent of a metric to be reported as regression or improvement.")
+            .withRequiredArg().ofType(Double.class).defaultsTo(5.0);
+
+    private final OptionSpec<Double> confidenceSpec = parser.accepts("confidence",
+            "The confidence level in percent of the confidence intervals and the Mann-Whitney test.")
+            .withRequiredArg().ofType(Double.class).defaultsTo(95.0);
+
+    private final OptionSpec<Integer> iterationsSpec = parser.accepts("iterations",
+            "The number of bootstrap iterations.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(2000);
+
+    private final OptionSpec<Integer> warmupSpec = parser.accepts("warmup",
+            "The number of seconds at the start of each run which are ignored.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(0);
+
+    private final OptionSpec<Integer> threadsSpec = parser.accepts("threads",
+            "The number of threads to load the benchmarks in parallel.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(Runtime.getRuntime().availableProcessors());
+
+    private final BenchmarkComparator comparator;
+    private final Map<String, List<File>> configurations;
+    private final int threadCount;
+
+    CompareCli(String[] args) {
+        OptionSet options = CliUtils.initOptionsWithHelp(parser, args);
+
+        double threshold = options.valueOf(thresholdSpec);
+        if (threshold < 0) {
+            throw new CommandLineExitException("--threshold can't be negative");
+        }
+        double confidence = options.valueOf(confidenceSpec);
+        if (confidence <= 0 || confidence >= 100) {
+            throw new CommandLineExitException("--confidence has to be between 0 and 100");
+        }
+        int iterations = options.valueOf(iterationsSpec);
+        if (iterations < 1) {
+            throw new CommandLineExitException("--iterations must be at least 1");
+        }
+        threadCount = options.valueOf(threadsSpec);
+        if (threadCount < 1) {
+            throw new CommandLineExitException("--threads must be at least 1");
+        }
+
+        configurations = getBenchmarkGroups(options.nonOptionArguments());
+        if (configurations.size() < 2) {
+            throw new CommandLineExitException("You have to provide a baseline and at least one candidate");
+        }
+        comparator = new BenchmarkComparator(threshold / 100, confidence / 100, iterations, options.valueOf(warmupSpec));
+    }
+
+    /**
+     * Compares all candidates with the baseline.
+     *
+     * @return {@code true} if a regression has been found, {@code false} otherwise
+     * @throws Exception if a benchmark could not be loaded
+     */
+    boolean run() throws Exception {
+        ExecutorService executor = createFixedThreadPool(threadCount, "compare");
+        try {
+            Map<String, List<BenchmarkData>> runs = new LinkedHashMap<String, List<BenchmarkData>>();
+            for (Map.Entry<String, List<File>> entry : configurations.entrySet()) {
+                List<BenchmarkData> dataList = new ArrayList<BenchmarkData>(entry.getValue().size());
+                for (File directory : entry.getValue()) {
+                    dataList.add(new BenchmarkData(entry.getKey(), directory, executor));
+                }
+                runs.put(entry.getKey(), dataList);
+            }
+
+            Iterator<Map.Entry<String, List<BenchmarkData>>> iterator = runs.entrySet().iterator();
+            Map.Entry<String, List<BenchmarkData>> baseline = iterator.next();
+            boolean regression = false;
+            while (iterator.hasNext()) {
+                Map.Entry<String, List<BenchmarkData>> candidate = iterator.next();
+                List<Comparison> comparisons = comparator.compare(baseline.getValue(), candidate.getValue());
+                regression |= log(baseline.getKey(), baseline.getValue().size(), candidate.getKey(),
+                        candidate.getValue().size(), comparisons);
+            }
+            return regression;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean log(String baseline, int baselineRuns, String candidate, int candidateRuns,
+                               List<Comparison> comparisons) {
+        LOGGER.info(format("Comparing %s (%d runs) with baseline %s (%d runs)", candidate, candidateRuns, baseline,
+                baselineRuns));
+        LOGGER.info("The intervals of a run are autocorrelated, so the confidence interval is a block bootstrap over the runs"
+                + " and blocks of consecutive intervals, and the p-value is a Mann-Whitney test over the medians of the runs");
+        if (baselineRuns < MIN_RUNS_FOR_VERDICT || candidateRuns < MIN_RUNS_FOR_VERDICT) {
+            LOGGER.warn(format("A verdict requires at least %d runs of each configuration, since a single run doesn't show the"
+                    + " variance between runs. Repeat the runs to get a verdict.", MIN_RUNS_FOR_VERDICT));
+        } else if (baselineRuns < MIN_RUNS_FOR_P_VALUE || candidateRuns < MIN_RUNS_FOR_P_VALUE) {
+            LOGGER.warn(format("The p-value requires at least %d runs of each configuration, so the verdict is based on the"
+                    + " confidence interval only. Repeat the runs to get a more reliable verdict.", MIN_RUNS_FOR_P_VALUE));
+        }
+        LOGGER.info(format("%-40s %14s %14s %9s %22s %8s  %s", "Metric", "Baseline", "Candidate", "Delta", "Confidence interval",
+                "p-value", "Verdict"));
+
+        boolean regression = false;
+        for (Comparison comparison : comparisons) {
+            if (comparison.getVerdict() == Comparison.Verdict.REGRESSION) {
+                LOGGER.error(comparison);
+                regression = true;
+            } else {
+                LOGGER.info(comparison);
+            }
+        }
+        if (comparisons.isEmpty()) {
+            LOGGER.warn(format("No common metrics found for %s and %s", baseline, candidate));
+        }
+        return regression;
+    }
+
+    public static void main(String[] args) {
+        boolean regression = false;
+        try {
+            CompareCli cli = new CompareCli(args);
+            regression = cli.run();
+        } catch (Exception e) {
+            exitWithError(LOGGER, "Could not compare benchmarks!", e);
+        }
+        if (regression) {
+            LOGGER.error("Significant regression found!");
+            exit(REGRESSION_EXIT_CODE);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import static java.lang.String.format;
+
+/**
+ * The comparison of a single metric, e.g. the throughput or a latency percentile, between a baseline and a candidate.
+ *
+ * The delta is relative to the baseline, e.g. a delta of -0.05 means the candidate has a 5% lower value.
+ */
+final class Comparison {
+
+    enum Verdict {
+        /**
+         * The candidate is significantly worse than the baseline by more than the threshold.
+         */
+        REGRESSION,
+        /**
+         * The candidate is significantly better than the baseline by more than the threshold.
+         */
+        IMPROVEMENT,
+        /**
+         * The difference is either not significant or within the threshold.
+         */
+        UNCHANGED,
+        /**
+         * There are not enough runs to decide if the difference is significant.
+         */
+        INCONCLUSIVE
+    }
+
+    private final String metric;
+    private final boolean higherIsBetter;
+    private final double baseline;
+    private final double candidate;
+    private final double delta;
+    private final double deltaLow;
+    private final double deltaHigh;
+    private final double pValue;
+    private final Verdict verdict;
+
+    Comparison(String metric, boolean higherIsBetter, double baseline, double candidate, double deltaLow, double deltaHigh,
+               double pValue, double threshold, double significance, boolean repeatedRuns) {
+        this.metric = metric;
+        this.higherIsBetter = higherIsBetter;
+        this.baseline = baseline;
+        this.candidate = candidate;
+        this.delta = (candidate - baseline) / baseline;
+        this.deltaLow = deltaLow;
+        this.deltaHigh = deltaHigh;
+        this.pValue = pValue;
+        this.verdict = repeatedRuns ? getVerdict(threshold, significance) : Verdict.INCONCLUSIVE;
+    }
+
+    String getMetric() {
+        return metric;
+    }
+
+    double getBaseline() {
+        return baseline;
+    }
+
+    double getCandidate() {
+        return candidate;
+    }
+
+    double getDelta() {
+        return delta;
+    }
+
+    double getDeltaLow() {
+        return deltaLow;
+    }
+
+    double getDeltaHigh() {
+        return deltaHigh;
+    }
+
+    double getPValue() {
+        return pValue;
+    }
+
+    Verdict getVerdict() {
+        return verdict;
+    }
+
+    // a change is significant if the confidence interval of the delta doesn't contain 0 and the Mann-Whitney test agrees,
+    // the p-value is NaN if there are not enough runs for the test
+    private Verdict getVerdict(double threshold, double significance) {
+        boolean significant = (deltaLow > 0 || deltaHigh < 0) && (Double.isNaN(pValue) || pValue < significance);
+        if (!significant || Math.abs(delta) <= threshold) {
+            return Verdict.UNCHANGED;
+        }
+        boolean better = higherIsBetter ? delta > 0 : delta < 0;
+        return better ? Verdict.IMPROVEMENT : Verdict.REGRESSION;
+    }
+
+    @Override
+    public String toString() {
+        return format("%-40s %14.2f %14.2f %+8.2f%% [%+8.2f%%, %+8.2f%%] %8s  %s", metric, baseline, candidate, delta * 100,
+                deltaLow * 100, deltaHigh * 100, Double.isNaN(pValue) ? "n/a" : format("%.4f", pValue), verdict);
+    }
+}
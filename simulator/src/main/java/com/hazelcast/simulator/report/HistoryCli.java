@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.utils.CliUtils;
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
+import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
+import static java.lang.String.format;
+
+/**
+ * Command line interface to query the trend of a metric across the runs of the {@link ResultsStore}.
+ *
+ * <pre>
+ *     simulator-history --test MapTest --property keyCount=1000 --metric latency.get.p99 --last 30
+ * </pre>
+ */
+final class HistoryCli {
+
+    private static final Logger LOGGER = Logger.getLogger(HistoryCli.class);
+
+    private final OptionParser parser = new OptionParser();
+
+    private final OptionSpec<String> directorySpec = parser.accepts("directory",
+            "The directory of the results store, which is the parent directory of the session directories.")
+            .withRequiredArg().ofType(String.class);
+
+    private final OptionSpec<String> metricSpec = parser.accepts("metric",
+            "The metric to query, e.g. throughput, latency.<probe>.p99 or gc.totalPauseMs.")
+            .withRequiredArg().ofType(String.class).defaultsTo("throughput");
+
+    private final OptionSpec<String> testSpec = parser.accepts("test",
+            "Only includes tests with this testId or (simple) test class name.")
+            .withRequiredArg().ofType(String.class);
+
+    private final OptionSpec<String> propertySpec = parser.accepts("property",
+            "Only includes tests with this test property, e.g. keyCount=1000. Can be used multiple times.")
+            .withRequiredArg().ofType(String.class);
+
+    private final OptionSpec<Integer> lastSpec = parser.accepts("last",
+            "The maximum number of (most recent) runs to show.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(30);
+
+    private final OptionSpec listMetricsSpec = parser.accepts("listMetrics",
+            "Lists the available metrics of the matching tests.");
+
+    private final ResultsStore store;
+    private final String metric;
+    private final String test;
+    private final Map<String, String> properties;
+    private final int last;
+    private final boolean listMetrics;
+
+    HistoryCli(String[] args) {
+        OptionSet options = CliUtils.initOptionsWithHelp(parser, args);
+
+        File directory = options.has(directorySpec) ? new File(options.valueOf(directorySpec)) : getUserDir();
+        store = new ResultsStore(directory);
+        metric = options.valueOf(metricSpec);
+        test = options.valueOf(testSpec);
+        properties = parseProperties(options.valuesOf(propertySpec));
+        last = options.valueOf(lastSpec);
+        if (last < 1) {
+            throw new CommandLineExitException("--last must be at least 1");
+        }
+        listMetrics = options.has(listMetricsSpec);
+    }
+
+    private void run() throws Exception {
+        List<TestResult> results = filter(store.load(), test, properties, last);
+        if (results.isEmpty()) {
+            throw new CommandLineExitException(format("No matching results found in %s", store.getFile().getAbsolutePath()));
+        }
+
+        if (listMetrics) {
+            TreeSet<String> metrics = new TreeSet<String>();
+            for (TestResult result : results) {
+                metrics.addAll(result.getMetrics().keySet());
+            }
+            for (String name : metrics) {
+                LOGGER.info(name);
+            }
+            return;
+        }
+
+        for (String line : formatTrend(results, metric)) {
+            LOGGER.info(line);
+        }
+    }
+
+    static Map<String, String> parseProperties(List<String> values) {
+        Map<String, String> properties = new LinkedHashMap<String, String>();
+        for (String value : values) {
+            int index = value.indexOf('=');
+            if (index < 1) {
+                throw new CommandLineExitException(format("Property %s has to be in the format key=value", value));
+            }
+            properties.put(value.substring(0, index), value.substring(index + 1));
+        }
+        return properties;
+    }
+
+    /**
+     * Returns the most recent results which match the given filters.
+     *
+     * @param results    all results in the order they were stored
+     * @param test       the testId or test class name to match or {@code null} to match all tests
+     * @param properties the test properties to match
+     * @param last       the maximum number of results to return
+     * @return the matching results, ordered from old to new
+     */
+    static List<TestResult> filter(List<TestResult> results, String test, Map<String, String> properties, int last) {
+        List<TestResult> filtered = new ArrayList<TestResult>();
+        for (TestResult result : results) {
+            if (matchesTest(result, test) && matchesProperties(result, properties)) {
+                filtered.add(result);
+            }
+        }
+        return filtered.subList(Math.max(0, filtered.size() - last), filtered.size());
+    }
+
+    private static boolean matchesTest(TestResult result, String test) {
+        if (test == null || test.equals(result.getTestId())) {
+            return true;
+        }
+        String testClass = result.getTestClass();
+        return testClass != null && (testClass.equals(test) || testClass.endsWith("." + test));
+    }
+
+    private static boolean matchesProperties(TestResult result, Map<String, String> properties) {
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            if (!entry.getValue().equals(result.getProperties().get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formats the value of the metric per run and its trend.
+     *
+     * The trend is the slope of the least squares line through the values, relative to the mean value, so a gradual decline
+     * over many runs is visible even if the change between two runs is lost in the noise.
+     *
+     * @param results the results to format
+     * @param metric  the metric to format
+     * @return the formatted lines
+     */
+    static List<String> formatTrend(List<TestResult> results, String metric) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        List<String> lines = new ArrayList<String>();
+        lines.add(format("%-19s  %-24s  %-20s  %-20s  %14s  %9s", "Start time", "Session", "Test", "Version", metric, "Change"));
+
+        double[] values = new double[results.size()];
+        int count = 0;
+        for (TestResult result : results) {
+            Double value = result.getMetric(metric);
+            if (value == null) {
+                continue;
+            }
+            String change = count == 0 || values[count - 1] == 0
+                    ? "" : format("%+8.2f%%", (value - values[count - 1]) * 100 / values[count - 1]);
+            values[count++] = value;
+            lines.add(format("%-19s  %-24s  %-20s  %-20s  %14.2f  %9s", dateFormat.format(new Date(result.getStartTimeMillis())),
+                    result.getSessionId(), result.getTestId(), getVersion(result), value, change));
+        }
+
+        if (count == 0) {
+            lines.add(format("No values found for metric %s, use --listMetrics to show the available metrics", metric));
+            return lines;
+        }
+
+        double[] trendValues = new double[count];
+        System.arraycopy(values, 0, trendValues, 0, count);
+        double first = trendValues[0];
+        double lastValue = trendValues[count - 1];
+        double mean = 0;
+        for (double value : trendValues) {
+            mean += value;
+        }
+        mean /= count;
+        double slope = Statistics.slope(trendValues);
+
+        lines.add(format("Runs: %d, first: %.2f, last: %.2f, change: %s, trend: %s per run (%s over all runs)", count, first,
+                lastValue, formatPercentage(lastValue - first, first), formatPercentage(slope, mean),
+                formatPercentage(slope * (count - 1), mean)));
+        return lines;
+    }
+
+    private static String getVersion(TestResult result) {
+        String version = result.getVersionSpec() == null ? "" : result.getVersionSpec();
+        return result.getCommitId() == null ? version : version + " (" + result.getCommitId() + ")";
+    }
+
+    private static String formatPercentage(double delta, double base) {
+        return base == 0 ? "n/a" : format("%+.2f%%", delta * 100 / base);
+    }
+
+    public static void main(String[] args) {
+        try {
+            HistoryCli cli = new HistoryCli(args);
+            cli.run();
+        } catch (Exception e) {
+            exitWithError(LOGGER, "Could not query results history!", e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.HistogramLogReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+
+/**
+ * The latency data of a single probe, loaded from a (merged) HDR file.
+ *
+ * The HDR file is streamed, so only a single interval Histogram and the total Histogram are kept in memory. The recorded
+ * values are nanoseconds, which are converted to microseconds.
+ */
+final class LatencyData {
+
+    static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final double MILLIS_PER_SECOND = 1000;
+    private static final int PERCENTILE_TICKS_PER_HALF_DISTANCE = 5;
+    private static final int SIGNIFICANT_VALUE_DIGITS = 3;
+
+    private final String name;
+    private final List<Series> intervals = new ArrayList<Series>();
+    private final Series distribution;
+
+    private LatencyData(String name) {
+        this.name = name;
+        this.distribution = new Series(name);
+    }
+
+    static LatencyData load(String name, File hdrFile) throws IOException {
+        LatencyData data = new LatencyData(name);
+        InputStream inputStream = new FileInputStream(hdrFile);
+        try {
+            data.load(new HistogramLogReader(inputStream));
+        } finally {
+            closeQuietly(inputStream);
+        }
+        return data;
+    }
+
+    /**
+     * Adds all interval Histograms of the given HDR files into a single Histogram.
+     *
+     * The Histograms don't need to be aligned on their timestamps for this, so the HDR files of the Workers can be used
+     * directly.
+     *
+     * @param hdrFiles the HDR files
+     * @return the total Histogram
+     * @throws IOException if a HDR file could not be read
+     */
+    static Histogram loadTotal(List<File> hdrFiles) throws IOException {
+        Histogram total = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+        for (File hdrFile : hdrFiles) {
+            InputStream inputStream = new FileInputStream(hdrFile);
+            try {
+                HistogramLogReader reader = new HistogramLogReader(inputStream);
+                EncodableHistogram encodable;
+                while ((encodable = reader.nextIntervalHistogram()) != null) {
+                    if (encodable instanceof Histogram) {
+                        total.add((Histogram) encodable);
+                    }
+                }
+            } finally {
+                closeQuietly(inputStream);
+            }
+        }
+        return total;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the percentiles and the maximum latency per interval with the epoch time in seconds as x values.
+     *
+     * @return the {@link Series} per percentile
+     */
+    List<Series> getIntervals() {
+        return intervals;
+    }
+
+    /**
+     * Returns the latency distribution of the whole benchmark with the percentiles as x values.
+     *
+     * @return the latency distribution
+     */
+    Series getDistribution() {
+        return distribution;
+    }
+
+    private void load(HistogramLogReader reader) {
+        Series[] percentileSeries = new Series[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentileSeries[i] = new Series(format(PERCENTILES[i]) + "%");
+        }
+        Series maxSeries = new Series("max");
+
+        Histogram total = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+        EncodableHistogram encodable;
+        while ((encodable = reader.nextIntervalHistogram()) != null) {
+            if (!(encodable instanceof Histogram)) {
+                continue;
+            }
+            Histogram histogram = (Histogram) encodable;
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+
+            // the interval is plotted at its end, like the throughput of the performance.csv
+            double time = histogram.getEndTimeStamp() / MILLIS_PER_SECOND;
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                percentileSeries[i].add(time, histogram.getValueAtPercentile(PERCENTILES[i]) / NANOS_PER_MICRO);
+            }
+            maxSeries.add(time, histogram.getMaxValue() / NANOS_PER_MICRO);
+        }
+
+        for (Series series : percentileSeries) {
+            intervals.add(series);
+        }
+        intervals.add(maxSeries);
+
+        if (total.getTotalCount() > 0) {
+            for (HistogramIterationValue value : total.percentiles(PERCENTILE_TICKS_PER_HALF_DISTANCE)) {
+                double percentile = value.getPercentileLevelIteratedTo();
+                // the last iteration value is the 100th percentile, which can't be plotted on a logarithmic scale
+                if (percentile < 100) {
+                    distribution.add(percentile, value.getValueIteratedTo() / NANOS_PER_MICRO);
+                }
+            }
+        }
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.utils.CliUtils;
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
+import static java.lang.String.format;
+
+/**
+ * Command line interface of the {@link ReportGenerator}.
+ *
+ * The benchmark directories are passed as arguments, optionally followed by the name of the benchmark in brackets:
+ * <pre>
+ *     simulator-report --output report 2016-06-01__10_00_00 [baseline] 2016-06-02__10_00_00 [candidate]
+ * </pre>
+ */
+final class ReportCli {
+
+    private static final Logger LOGGER = Logger.getLogger(ReportCli.class);
+
+    private final OptionParser parser = new OptionParser();
+
+    private final OptionSpec<String> outputSpec = parser.accepts("output",
+            "The directory of the generated report.")
+            .withRequiredArg().ofType(String.class).defaultsTo("report");
+
+    private final OptionSpec<Integer> threadsSpec = parser.accepts("threads",
+            "The number of threads to load the benchmarks in parallel.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(Runtime.getRuntime().availableProcessors());
+
+    private final OptionSpec<String> resolutionSpec = parser.accepts("resolution",
+            "The resolution of the histogram rollups to use for the latency charts, e.g. 1m or 1h."
+                    + " This is much faster for long running tests. By default the interval histograms are used.")
+            .withRequiredArg().ofType(String.class);
+
+    private final ReportGenerator reportGenerator;
+    private final Map<String, File> benchmarks;
+
+    ReportCli(String[] args) {
+        OptionSet options = CliUtils.initOptionsWithHelp(parser, args);
+
+        int threadCount = options.valueOf(threadsSpec);
+        if (threadCount < 1) {
+            throw new CommandLineExitException("--threads must be at least 1");
+        }
+
+        benchmarks = getBenchmarks(options.nonOptionArguments());
+        reportGenerator = new ReportGenerator(new File(options.valueOf(outputSpec)), threadCount,
+                options.valueOf(resolutionSpec));
+    }
+
+    private void run() throws Exception {
+        reportGenerator.generate(benchmarks);
+    }
+
+    static Map<String, File> getBenchmarks(List<?> arguments) {
+        Map<String, File> benchmarks = new LinkedHashMap<String, File>();
+        for (Map.Entry<String, List<File>> entry : getBenchmarkGroups(arguments).entrySet()) {
+            if (entry.getValue().size() > 1) {
+                throw new CommandLineExitException(format("Duplicate benchmark name %s", entry.getKey()));
+            }
+            benchmarks.put(entry.getKey(), entry.getValue().get(0));
+        }
+        return benchmarks;
+    }
+
+    /**
+     * Parses the benchmark directories of the command line, which are optionally followed by a name in brackets.
+     *
+     * Benchmark directories without a name are named by the directory. Multiple benchmark directories can have the same
+     * name, e.g. for repeated runs of the same configuration.
+     *
+     * @param arguments the non-option arguments of the command line
+     * @return the benchmark directories by name, in the order of the command line
+     */
+    static Map<String, List<File>> getBenchmarkGroups(List<?> arguments) {
+        Map<String, List<File>> groups = new LinkedHashMap<String, List<File>>();
+        File directory = null;
+        for (Object argument : arguments) {
+            String value = argument.toString();
+            if (value.startsWith("[") && value.endsWith("]")) {
+                if (directory == null) {
+                    throw new CommandLineExitException(format("Benchmark name %s has to follow a benchmark directory", value));
+                }
+                addBenchmark(groups, value.substring(1, value.length() - 1), directory);
+                directory = null;
+                continue;
+            }
+            if (directory != null) {
+                addBenchmark(groups, directory.getName(), directory);
+            }
+            directory = new File(value);
+            if (!directory.isDirectory()) {
+                throw new CommandLineExitException(format("Benchmark directory %s doesn't exist", directory.getAbsolutePath()));
+            }
+        }
+        if (directory != null) {
+            addBenchmark(groups, directory.getName(), directory);
+        }
+
+        if (groups.isEmpty()) {
+            throw new CommandLineExitException("You have to provide at least one benchmark directory");
+        }
+        return groups;
+    }
+
+    private static void addBenchmark(Map<String, List<File>> groups, String name, File directory) {
+        List<File> directories = groups.get(name);
+        if (directories == null) {
+            directories = new ArrayList<File>();
+            groups.put(name, directories);
+        }
+        directories.add(directory);
+    }
+
+    public static void main(String[] args) {
+        try {
+            ReportCli cli = new ReportCli(args);
+            cli.run();
+        } catch (Exception e) {
+            exitWithError(LOGGER, "Could not generate benchmark report!", e);
+        }
+    }
+}
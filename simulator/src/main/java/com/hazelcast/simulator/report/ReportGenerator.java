@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import com.google.gson.Gson;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.getResourceFile;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static java.lang.String.format;
+
+/**
+ * Generates a self-contained HTML report of one or more benchmarks.
+ *
+ * The report contains the throughput (aggregated and per Worker), the latency percentiles over time and the latency
+ * distribution per probe, the OS metrics per Agent and the GC pauses per Worker. The charts are rendered by JavaScript, which
+ * is embedded in the report together with the data, so the report can be opened without a web server or internet access.
+ * If multiple benchmarks are given, their data is plotted in the same charts to compare them.
+ *
+ * The Worker directories and HDR files of all benchmarks are loaded in parallel, see {@link BenchmarkData}.
+ */
+public class ReportGenerator {
+
+    static final String REPORT_FILE = "index.html";
+
+    // the maximum number of data points per series, so large runs don't result in a huge report
+    private static final int MAX_POINTS = 2000;
+
+    private static final Logger LOGGER = Logger.getLogger(ReportGenerator.class);
+
+    private final Map<String, Chart> charts = new LinkedHashMap<String, Chart>();
+    private final File outputDirectory;
+    private final int threadCount;
+    private final String resolution;
+
+    public ReportGenerator(File outputDirectory, int threadCount) {
+        this(outputDirectory, threadCount, null);
+    }
+
+    /**
+     * Creates a ReportGenerator.
+     *
+     * @param outputDirectory the directory of the generated report
+     * @param threadCount     the number of threads to load the benchmarks in parallel
+     * @param resolution      the resolution of the histogram rollups to use for the latency charts, e.g. <tt>1m</tt>;
+     *                        {@code null} to use the interval histograms
+     */
+    public ReportGenerator(File outputDirectory, int threadCount, String resolution) {
+        this.outputDirectory = outputDirectory;
+        this.threadCount = threadCount;
+        this.resolution = resolution;
+    }
+
+    /**
+     * Generates the HTML report of the given benchmarks.
+     *
+     * @param benchmarks the directories of the benchmarks by their name
+     * @return the generated report file
+     * @throws Exception if a benchmark could not be loaded
+     */
+    public File generate(Map<String, File> benchmarks) throws Exception {
+        ExecutorService executor = createFixedThreadPool(threadCount, "report");
+        try {
+            List<BenchmarkData> dataList = new ArrayList<BenchmarkData>(benchmarks.size());
+            for (Map.Entry<String, File> entry : benchmarks.entrySet()) {
+                dataList.add(new BenchmarkData(entry.getKey(), entry.getValue(), executor, resolution));
+            }
+
+            boolean compare = benchmarks.size() > 1;
+            for (BenchmarkData data : dataList) {
+                addCharts(data, compare);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ensureExistingDirectory(outputDirectory);
+        File reportFile = new File(outputDirectory, REPORT_FILE);
+        writeText(render(getTitle(benchmarks)), reportFile);
+        LOGGER.info(format("Report has been written to %s", reportFile.getAbsolutePath()));
+        return reportFile;
+    }
+
+    private String render(String title) {
+        List<Chart> chartList = new ArrayList<Chart>(charts.size());
+        for (Chart chart : charts.values()) {
+            if (!chart.isEmpty()) {
+                chartList.add(chart);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<String, Object>();
+        report.put("title", title);
+        report.put("charts", chartList);
+        // Gson escapes HTML characters, so a "</script>" in a benchmark name can't end the script element of the data
+        String json = escapeNonAscii(new Gson().toJson(report), "\\u%04x");
+
+        return getResourceFile("report/report.html")
+                .replace("${title}", escapeNonAscii(escapeHtml(title), "&#%d;"))
+                .replace("${style}", getResourceFile("report/report.css"))
+                .replace("${script}", getResourceFile("report/report.js"))
+                .replace("${data}", json);
+    }
+
+    private Chart getChart(String id, String section, String title, String yLabel, Chart.Type type) {
+        Chart chart = charts.get(id);
+        if (chart == null) {
+            chart = new Chart(id, section, title, yLabel, type);
+            charts.put(id, chart);
+        }
+        return chart;
+    }
+
+    private static String getTitle(Map<String, File> benchmarks) {
+        StringBuilder sb = new StringBuilder("Benchmark report");
+        String separator = ": ";
+        for (String name : benchmarks.keySet()) {
+            sb.append(separator).append(name);
+            separator = " vs. ";
+        }
+        return sb.toString();
+    }
+
+    static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    // the report is written with the platform encoding, so all non-ASCII characters are escaped
+    static String escapeNonAscii(String text, String escapeFormat) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                sb.append(c);
+            } else {
+                sb.append(format(escapeFormat, (int) c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private void addCharts(BenchmarkData data, boolean compare) throws Exception {
+        double startTime = data.getStartTime();
+        String prefix = compare ? data.getName() + " " : "";
+
+        Chart chart = getChart("throughput", "Throughput", "Throughput", "Operations/second", Chart.Type.TIME);
+        chart.add(data.getAggregatedThroughput().rename(compare ? data.getName() : "throughput").downsample(MAX_POINTS, false));
+        Chart workerChart = getChart("throughput-workers", "Throughput", "Throughput per Worker", "Operations/second",
+                Chart.Type.TIME);
+        for (WorkerData worker : data.getWorkers()) {
+            Series throughput = worker.getThroughput().shift(startTime).rename(prefix + worker.getName());
+            workerChart.add(throughput.downsample(MAX_POINTS, false));
+        }
+
+        addLatency(data, startTime, compare, prefix);
+        addMetrics(data, startTime, prefix);
+
+        Chart gcChart = getChart("gc", "GC", "GC pauses (seconds since JVM start)", "Pause (ms)", Chart.Type.TIME);
+        for (WorkerData worker : data.getWorkers()) {
+            gcChart.add(worker.getGcPauses().rename(prefix + worker.getName()).downsample(MAX_POINTS, true));
+        }
+    }
+
+    private void addLatency(BenchmarkData data, double startTime, boolean compare, String prefix) throws Exception {
+        for (LatencyData latency : data.getLatencies()) {
+            String probe = latency.getName();
+            Chart intervalChart = getChart("latency-" + probe, "Latency", "Latency " + probe, "Latency (\u00b5s)",
+                    Chart.Type.TIME);
+            for (Series series : latency.getIntervals()) {
+                intervalChart.add(series.shift(startTime).rename(prefix + series.getName()).downsample(MAX_POINTS, true));
+            }
+
+            Chart distributionChart = getChart("distribution-" + probe, "Latency", "Latency distribution " + probe,
+                    "Latency (\u00b5s)", Chart.Type.PERCENTILE);
+            distributionChart.add(latency.getDistribution().rename(compare ? data.getName() : probe));
+        }
+    }
+
+    private void addMetrics(BenchmarkData data, double startTime, String prefix) throws Exception {
+        // the OS metrics are the same for all Workers of an Agent, so only the first Worker of each Agent is used
+        Map<String, WorkerData> agents = new LinkedHashMap<String, WorkerData>();
+        for (WorkerData worker : data.getWorkers()) {
+            if (!agents.containsKey(worker.getAgent())) {
+                agents.put(worker.getAgent(), worker);
+            }
+        }
+
+        for (Map.Entry<String, WorkerData> agentEntry : agents.entrySet()) {
+            String agent = agentEntry.getKey();
+            for (Map.Entry<String, List<Series>> entry : agentEntry.getValue().getMetrics().entrySet()) {
+                Chart chart = getMetricChart(entry.getKey());
+                for (Series series : entry.getValue()) {
+                    String seriesName = prefix + agent + (series.getName().isEmpty() ? "" : " " + series.getName());
+                    chart.add(series.shift(startTime).rename(seriesName).downsample(MAX_POINTS, false));
+                }
+            }
+        }
+    }
+
+    private Chart getMetricChart(String metric) {
+        if ("cpu".equals(metric)) {
+            return getChart(metric, "OS", "CPU", "CPU (%)", Chart.Type.TIME);
+        }
+        if ("memory".equals(metric)) {
+            return getChart(metric, "OS", "Memory", "Memory (MB)", Chart.Type.TIME);
+        }
+        if ("disk".equals(metric)) {
+            return getChart(metric, "OS", "Disk", "Disk (MB/second)", Chart.Type.TIME);
+        }
+        if ("network".equals(metric)) {
+            return getChart(metric, "OS", "Network", "Network (MB/second)", Chart.Type.TIME);
+        }
+        if ("contextSwitches".equals(metric)) {
+            return getChart(metric, "OS", "Context switches", "Context switches/second", Chart.Type.TIME);
+        }
+        return getChart(metric, "OS", "Load average", "Load (1 minute)", Chart.Type.TIME);
+    }
+}
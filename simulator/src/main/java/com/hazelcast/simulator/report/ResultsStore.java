@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.HdrHistogram.Histogram;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.FileUtils.appendText;
+import static com.hazelcast.simulator.worker.performance.HistogramRollup.getResolution;
+import static java.lang.String.format;
+
+/**
+ * An append-only store of the {@link TestResult} of all Simulator runs in a directory.
+ *
+ * The results are stored as one JSON document per line in the {@value #FILE_NAME} file, which is located next to the
+ * session directories. So new runs never rewrite old results and a broken line only loses a single result.
+ */
+public class ResultsStore {
+
+    public static final String FILE_NAME = "results.jsonl";
+
+    private static final double NANOS_PER_MICRO = 1000;
+
+    private static final Logger LOGGER = Logger.getLogger(ResultsStore.class);
+
+    private final Gson gson = new Gson();
+    private final File file;
+
+    public ResultsStore(File directory) {
+        this.file = new File(directory, FILE_NAME);
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Appends the results of a Simulator run to the store.
+     *
+     * The latency statistics are added from the merged HDR files of the session directory, or from the HDR files of the
+     * Workers if they have not been merged. The GC statistics are added from the GC logs of the Workers.
+     *
+     * @param sessionDirectory the session directory of the run
+     * @param results          the {@link TestResult} of all tests of the run
+     * @throws IOException if the HDR files could not be read
+     */
+    public void append(File sessionDirectory, List<TestResult> results) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        Map<String, Double> gcStatistics = getGcStatistics(sessionDirectory);
+        StringBuilder sb = new StringBuilder();
+        for (TestResult result : results) {
+            addLatency(sessionDirectory, result);
+            result.setGc(gcStatistics);
+            sb.append(gson.toJson(result)).append('\n');
+        }
+        appendText(sb.toString(), file);
+        LOGGER.info(format("Results of %d tests have been stored in %s", results.size(), file.getAbsolutePath()));
+    }
+
+    /**
+     * Loads all results of the store in the order they were appended.
+     *
+     * Lines which can't be parsed are skipped.
+     *
+     * @return the {@link TestResult} of all stored runs
+     * @throws IOException if the store could not be read
+     */
+    public List<TestResult> load() throws IOException {
+        List<TestResult> results = new ArrayList<TestResult>();
+        if (!file.exists()) {
+            return results;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    results.add(gson.fromJson(line, TestResult.class));
+                } catch (JsonParseException e) {
+                    LOGGER.warn(format("Skipping invalid result in line %d of %s: %s", lineNumber, file, e.getMessage()));
+                }
+            }
+            return results;
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private static void addLatency(File sessionDirectory, TestResult result) throws IOException {
+        String prefix = result.getTestId() + "-";
+        Map<String, List<File>> hdrFiles = getHdrFiles(sessionDirectory, prefix);
+        if (hdrFiles.isEmpty()) {
+            File[] workerDirectories = sessionDirectory.listFiles();
+            if (workerDirectories != null) {
+                for (File workerDirectory : workerDirectories) {
+                    if (WorkerData.isWorkerDirectory(workerDirectory)) {
+                        addAll(hdrFiles, getHdrFiles(workerDirectory, prefix));
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<File>> entry : hdrFiles.entrySet()) {
+            Histogram total = LatencyData.loadTotal(entry.getValue());
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Double> statistics = new LinkedHashMap<String, Double>();
+            statistics.put("count", (double) total.getTotalCount());
+            statistics.put("mean", total.getMean() / NANOS_PER_MICRO);
+            statistics.put("p50", total.getValueAtPercentile(50) / NANOS_PER_MICRO);
+            statistics.put("p90", total.getValueAtPercentile(90) / NANOS_PER_MICRO);
+            statistics.put("p99", total.getValueAtPercentile(99) / NANOS_PER_MICRO);
+            statistics.put("p999", total.getValueAtPercentile(99.9) / NANOS_PER_MICRO);
+            statistics.put("p9999", total.getValueAtPercentile(99.99) / NANOS_PER_MICRO);
+            statistics.put("max", total.getMaxValue() / NANOS_PER_MICRO);
+            result.addLatency(entry.getKey(), statistics);
+        }
+    }
+
+    // returns the HDR files of a test by probe name, the HDR files are named testId-probeName.hdr, the rollups are ignored
+    private static Map<String, List<File>> getHdrFiles(File directory, final String prefix) {
+        Map<String, List<File>> hdrFiles = new TreeMap<String, List<File>>();
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(prefix) && name.endsWith(".hdr") && getResolution(name) == null;
+            }
+        });
+        if (files != null) {
+            for (File hdrFile : files) {
+                String fileName = hdrFile.getName();
+                String probe = fileName.substring(prefix.length(), fileName.length() - ".hdr".length());
+                List<File> list = new ArrayList<File>();
+                list.add(hdrFile);
+                hdrFiles.put(probe, list);
+            }
+        }
+        return hdrFiles;
+    }
+
+    private static void addAll(Map<String, List<File>> target, Map<String, List<File>> source) {
+        for (Map.Entry<String, List<File>> entry : source.entrySet()) {
+            List<File> list = target.get(entry.getKey());
+            if (list == null) {
+                target.put(entry.getKey(), entry.getValue());
+            } else {
+                list.addAll(entry.getValue());
+            }
+        }
+    }
+
+    private static Map<String, Double> getGcStatistics(File sessionDirectory) throws IOException {
+        Map<String, Double> statistics = new LinkedHashMap<String, Double>();
+        File[] workerDirectories = sessionDirectory.listFiles();
+        if (workerDirectories == null) {
+            return statistics;
+        }
+
+        int count = 0;
+        double totalPauseMs = 0;
+        double maxPauseMs = 0;
+        for (File workerDirectory : workerDirectories) {
+            if (!WorkerData.isWorkerDirectory(workerDirectory)) {
+                continue;
+            }
+            for (double[] point : WorkerData.load(workerDirectory).getGcPauses().getPoints()) {
+                count++;
+                totalPauseMs += point[1];
+                maxPauseMs = Math.max(maxPauseMs, point[1]);
+            }
+        }
+        if (count > 0) {
+            statistics.put("count", (double) count);
+            statistics.put("totalPauseMs", totalPauseMs);
+            statistics.put("maxPauseMs", maxPauseMs);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Math.max;
+
+/**
+ * A named series of data points of a {@link Chart}.
+ *
+ * The data points are serialized as <code>[x, y]</code> arrays, which are plotted by the JavaScript of the report.
+ */
+final class Series {
+
+    private final String name;
+    private final List<double[]> points;
+
+    Series(String name) {
+        this(name, new ArrayList<double[]>());
+    }
+
+    private Series(String name, List<double[]> points) {
+        this.name = name;
+        this.points = points;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    List<double[]> getPoints() {
+        return points;
+    }
+
+    boolean isEmpty() {
+        return points.isEmpty();
+    }
+
+    void add(double x, double y) {
+        // NaN and infinite values can't be serialized to JSON
+        if (Double.isNaN(x) || Double.isInfinite(x) || Double.isNaN(y) || Double.isInfinite(y)) {
+            return;
+        }
+        points.add(new double[]{x, y});
+    }
+
+    double getMinX() {
+        double minX = Double.MAX_VALUE;
+        for (double[] point : points) {
+            minX = Math.min(minX, point[0]);
+        }
+        return minX;
+    }
+
+    /**
+     * Creates a copy of this series with a new name.
+     *
+     * @param newName the name of the copy
+     * @return the renamed series
+     */
+    Series rename(String newName) {
+        return new Series(newName, points);
+    }
+
+    /**
+     * Creates a copy of this series with all x values shifted by the given offset.
+     *
+     * @param offset the offset to subtract from the x values
+     * @return the shifted series
+     */
+    Series shift(double offset) {
+        List<double[]> shifted = new ArrayList<double[]>(points.size());
+        for (double[] point : points) {
+            shifted.add(new double[]{point[0] - offset, point[1]});
+        }
+        return new Series(name, shifted);
+    }
+
+    /**
+     * Reduces the number of data points, so large runs don't result in huge reports and slow charts.
+     *
+     * The data points are divided into buckets of consecutive points. Every bucket is replaced by a single point with the
+     * average x value and either the average or the maximum y value.
+     *
+     * @param maxPoints the maximum number of data points
+     * @param peak      {@code true} if the maximum y value of a bucket should be kept (e.g. for latencies), {@code false} if
+     *                  the average y value should be used (e.g. for throughput)
+     * @return the downsampled series
+     */
+    Series downsample(int maxPoints, boolean peak) {
+        if (points.size() <= maxPoints) {
+            return this;
+        }
+
+        int bucketSize = (points.size() + maxPoints - 1) / maxPoints;
+        List<double[]> downsampled = new ArrayList<double[]>(maxPoints);
+        for (int start = 0; start < points.size(); start += bucketSize) {
+            int end = Math.min(start + bucketSize, points.size());
+            double sumX = 0;
+            double sumY = 0;
+            double maxY = -Double.MAX_VALUE;
+            for (int i = start; i < end; i++) {
+                double[] point = points.get(i);
+                sumX += point[0];
+                sumY += point[1];
+                maxY = max(maxY, point[1]);
+            }
+            int count = end - start;
+            downsampled.add(new double[]{sumX / count, peak ? maxY : sumY / count});
+        }
+        return new Series(name, downsampled);
+    }
+}
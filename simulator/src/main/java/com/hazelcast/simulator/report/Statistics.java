@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Statistical functions to compare the samples of benchmark runs.
+ */
+final class Statistics {
+
+    // limits the block length of a run which is (almost) a trend
+    private static final double MAX_AUTOCORRELATION = 0.95;
+
+    private Statistics() {
+    }
+
+    static double median(double[] values) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Returns the value at the given quantile of the values, using linear interpolation between the closest ranks.
+     *
+     * @param sortedValues the sorted values
+     * @param quantile     the quantile between 0 and 1
+     * @return the value at the quantile
+     */
+    static double quantile(double[] sortedValues, double quantile) {
+        if (sortedValues.length == 0) {
+            return Double.NaN;
+        }
+        double rank = quantile * (sortedValues.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sortedValues[lower] + (sortedValues[upper] - sortedValues[lower]) * (rank - lower);
+    }
+
+    /**
+     * Returns the median of all samples of the given runs.
+     *
+     * @param runs the samples per run
+     * @return the median of all samples
+     */
+    static double pooledMedian(List<double[]> runs) {
+        return median(pool(runs));
+    }
+
+    static double[] pool(List<double[]> runs) {
+        int size = 0;
+        for (double[] run : runs) {
+            size += run.length;
+        }
+        double[] pooled = new double[size];
+        int offset = 0;
+        for (double[] run : runs) {
+            System.arraycopy(run, 0, pooled, offset, run.length);
+            offset += run.length;
+        }
+        return pooled;
+    }
+
+    /**
+     * Returns the median of each run.
+     *
+     * @param runs the samples per run
+     * @return the median per run
+     */
+    static double[] medians(List<double[]> runs) {
+        double[] medians = new double[runs.size()];
+        for (int i = 0; i < medians.length; i++) {
+            medians[i] = median(runs.get(i));
+        }
+        return medians;
+    }
+
+    /**
+     * Returns the block length for the block bootstrap of the given samples of a run.
+     *
+     * The block length is at least the cube root of the number of samples, which is the common rule of thumb, and grows with
+     * the lag-1 autocorrelation of the samples, so a block spans the consecutive samples which depend on each other. The block
+     * length is limited to half of the samples, so a run still consists of more than one block.
+     *
+     * @param samples the samples of the run
+     * @return the block length
+     */
+    static int blockLength(double[] samples) {
+        int n = samples.length;
+        double autocorrelation = Math.max(0, Math.min(MAX_AUTOCORRELATION, autocorrelation(samples)));
+        double blockLength = Math.max(Math.cbrt(n), (1 + autocorrelation) / (1 - autocorrelation));
+        return Math.max(1, Math.min((int) Math.ceil(blockLength), n / 2));
+    }
+
+    /**
+     * Returns the lag-1 autocorrelation of the given samples.
+     *
+     * @param samples the samples
+     * @return the autocorrelation between -1 and 1, or 0 if it is not defined
+     */
+    static double autocorrelation(double[] samples) {
+        int n = samples.length;
+        if (n < 2) {
+            return 0;
+        }
+        double mean = 0;
+        for (double sample : samples) {
+            mean += sample;
+        }
+        mean /= n;
+
+        double variance = 0;
+        double covariance = 0;
+        for (int i = 0; i < n; i++) {
+            variance += (samples[i] - mean) * (samples[i] - mean);
+            if (i > 0) {
+                covariance += (samples[i] - mean) * (samples[i - 1] - mean);
+            }
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    /**
+     * Creates a bootstrap resample of the given runs and returns its median.
+     *
+     * The resampling is hierarchical: first the runs are resampled with replacement, then the samples of each selected run.
+     * So the variance between repeated runs is part of the result, which is usually larger than the variance between the
+     * intervals of a single run.
+     *
+     * The samples of a run are consecutive intervals, which are autocorrelated, e.g. by a GC or a rebalancing which spans
+     * several intervals. Resampling them one by one would underestimate the variance, so a run is resampled by blocks of
+     * consecutive samples (moving block bootstrap), which keeps the correlation within a block.
+     *
+     * @param runs   the samples per run
+     * @param random the {@link Random} to resample
+     * @return the median of the resample
+     */
+    static double resampledMedian(List<double[]> runs, Random random) {
+        double[][] selected = new double[runs.size()][];
+        int size = 0;
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = runs.get(random.nextInt(runs.size()));
+            size += selected[i].length;
+        }
+
+        double[] resample = new double[size];
+        int offset = 0;
+        for (double[] run : selected) {
+            int blockLength = blockLength(run);
+            int remaining = run.length;
+            while (remaining > 0) {
+                int start = random.nextInt(run.length - blockLength + 1);
+                int length = Math.min(blockLength, remaining);
+                System.arraycopy(run, start, resample, offset, length);
+                offset += length;
+                remaining -= length;
+            }
+        }
+        return median(resample);
+    }
+
+    /**
+     * Returns the slope of the least squares line through the values, which are located at the x values 0, 1, 2, ...
+     *
+     * @param values the values
+     * @return the change of the value per step
+     */
+    static double slope(double[] values) {
+        int n = values.length;
+        if (n < 2) {
+            return 0;
+        }
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0;
+        for (double value : values) {
+            meanY += value;
+        }
+        meanY /= n;
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < n; i++) {
+            covariance += (i - meanX) * (values[i] - meanY);
+            variance += (i - meanX) * (i - meanX);
+        }
+        return covariance / variance;
+    }
+
+    /**
+     * Returns the two-sided p-value of the Mann-Whitney U test of the given samples.
+     *
+     * Uses the normal approximation with tie and continuity correction, which is accurate for the number of intervals of a
+     * benchmark run.
+     *
+     * @param samples1 the first samples
+     * @param samples2 the second samples
+     * @return the probability to observe the difference if both samples have the same distribution
+     */
+    static double mannWhitneyPValue(double[] samples1, double[] samples2) {
+        int n1 = samples1.length;
+        int n2 = samples2.length;
+        if (n1 == 0 || n2 == 0) {
+            return 1;
+        }
+
+        int n = n1 + n2;
+        double[][] all = new double[n][];
+        for (int i = 0; i < n1; i++) {
+            all[i] = new double[]{samples1[i], 0};
+        }
+        for (int i = 0; i < n2; i++) {
+            all[n1 + i] = new double[]{samples2[i], 1};
+        }
+        Arrays.sort(all, new Comparator<double[]>() {
+            @Override
+            public int compare(double[] o1, double[] o2) {
+                return Double.compare(o1[0], o2[0]);
+            }
+        });
+
+        // assign average ranks to ties and sum up the ranks of the first samples
+        double rankSum1 = 0;
+        double tieCorrection = 0;
+        int i = 0;
+        while (i < n) {
+            int j = i;
+            while (j + 1 < n && all[j + 1][0] == all[i][0]) {
+                j++;
+            }
+            double rank = (i + j + 2) / 2.0;
+            int ties = j - i + 1;
+            tieCorrection += (double) ties * ties * ties - ties;
+            for (int k = i; k <= j; k++) {
+                if (all[k][1] == 0) {
+                    rankSum1 += rank;
+                }
+            }
+            i = j + 1;
+        }
+
+        double u1 = rankSum1 - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - tieCorrection / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (Math.abs(u1 - mean) - 0.5) / Math.sqrt(variance);
+        if (z <= 0) {
+            return 1;
+        }
+        return Math.min(1, 2 * (1 - normalCdf(z)));
+    }
+
+    /**
+     * Returns the cumulative distribution function of the standard normal distribution.
+     *
+     * Uses the approximation 7.1.26 of Abramowitz and Stegun for the error function, which has a maximum error of 1.5e-7.
+     *
+     * @param z the value
+     * @return the probability that a standard normal variable is less than or equal to the value
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+                * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
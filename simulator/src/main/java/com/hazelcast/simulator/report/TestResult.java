@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The summary of a single test of a Simulator run, which is stored in the {@link ResultsStore}.
+ *
+ * The latencies are stored per probe in microseconds, e.g. <tt>latency.get.p999</tt> for the 99.9th percentile. The probe
+ * name doesn't contain the testId, so the results of different runs can be compared even if the testId has changed. The GC
+ * statistics are collected over the whole session, since the GC log of a Worker can't be divided by test.
+ */
+public final class TestResult {
+
+    private final String sessionId;
+    private final String testId;
+    private String testClass;
+    private Map<String, String> properties = new TreeMap<String, String>();
+    private String status;
+    private long startTimeMillis;
+    private long runningTimeMillis;
+    private long operationCount;
+    private double throughput;
+    private String simulatorVersion;
+    private String commitId;
+    private String vendor;
+    private String versionSpec;
+    private int agentCount;
+    private int memberCount;
+    private int clientCount;
+    private Map<String, Map<String, Double>> latency = new TreeMap<String, Map<String, Double>>();
+    private Map<String, Double> gc = new TreeMap<String, Double>();
+
+    public TestResult(String sessionId, String testId) {
+        this.sessionId = sessionId;
+        this.testId = testId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public String getTestClass() {
+        return testClass;
+    }
+
+    public TestResult setTestClass(String testClass) {
+        this.testClass = testClass;
+        return this;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public TestResult setProperties(Map<String, String> properties) {
+        this.properties = new TreeMap<String, String>(properties);
+        return this;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public TestResult setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    public TestResult setStartTimeMillis(long startTimeMillis) {
+        this.startTimeMillis = startTimeMillis;
+        return this;
+    }
+
+    public long getRunningTimeMillis() {
+        return runningTimeMillis;
+    }
+
+    /**
+     * Sets the running time of the test without warmup, which is also used to calculate the throughput.
+     *
+     * @param runningTimeMillis the running time in milliseconds
+     * @return this instance
+     */
+    public TestResult setRunningTimeMillis(long runningTimeMillis) {
+        this.runningTimeMillis = runningTimeMillis;
+        updateThroughput();
+        return this;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public TestResult setOperationCount(long operationCount) {
+        this.operationCount = operationCount;
+        updateThroughput();
+        return this;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public String getSimulatorVersion() {
+        return simulatorVersion;
+    }
+
+    public TestResult setSimulatorVersion(String simulatorVersion) {
+        this.simulatorVersion = simulatorVersion;
+        return this;
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public TestResult setCommitId(String commitId) {
+        this.commitId = commitId;
+        return this;
+    }
+
+    public String getVendor() {
+        return vendor;
+    }
+
+    public TestResult setVendor(String vendor) {
+        this.vendor = vendor;
+        return this;
+    }
+
+    public String getVersionSpec() {
+        return versionSpec;
+    }
+
+    public TestResult setVersionSpec(String versionSpec) {
+        this.versionSpec = versionSpec;
+        return this;
+    }
+
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public int getClientCount() {
+        return clientCount;
+    }
+
+    public TestResult setLayout(int agentCount, int memberCount, int clientCount) {
+        this.agentCount = agentCount;
+        this.memberCount = memberCount;
+        this.clientCount = clientCount;
+        return this;
+    }
+
+    public Map<String, Map<String, Double>> getLatency() {
+        return latency;
+    }
+
+    TestResult addLatency(String probe, Map<String, Double> statistics) {
+        latency.put(probe, new TreeMap<String, Double>(statistics));
+        return this;
+    }
+
+    public Map<String, Double> getGc() {
+        return gc;
+    }
+
+    TestResult setGc(Map<String, Double> gc) {
+        this.gc = new TreeMap<String, Double>(gc);
+        return this;
+    }
+
+    /**
+     * Returns the value of a metric.
+     *
+     * Supported metrics are <tt>throughput</tt>, <tt>operationCount</tt>, <tt>runningTimeSeconds</tt>,
+     * <tt>latency.&lt;probe&gt;.&lt;statistic&gt;</tt> (e.g. <tt>latency.get.p99</tt>) and <tt>gc.&lt;statistic&gt;</tt>
+     * (e.g. <tt>gc.totalPauseMs</tt>).
+     *
+     * @param metric the name of the metric
+     * @return the value of the metric or {@code null} if this result doesn't contain the metric
+     */
+    public Double getMetric(String metric) {
+        if ("throughput".equals(metric)) {
+            return throughput;
+        }
+        if ("operationCount".equals(metric)) {
+            return (double) operationCount;
+        }
+        if ("runningTimeSeconds".equals(metric)) {
+            return runningTimeMillis / 1000d;
+        }
+        if (metric.startsWith("gc.")) {
+            return gc.get(metric.substring("gc.".length()));
+        }
+        if (metric.startsWith("latency.")) {
+            // the probe name can contain dots, so the statistic is the part after the last dot
+            String probeStatistic = metric.substring("latency.".length());
+            int index = probeStatistic.lastIndexOf('.');
+            if (index < 0) {
+                return null;
+            }
+            Map<String, Double> statistics = latency.get(probeStatistic.substring(0, index));
+            return statistics == null ? null : statistics.get(probeStatistic.substring(index + 1));
+        }
+        return null;
+    }
+
+    /**
+     * Returns all metrics of this result, which can be queried by {@link #getMetric(String)}.
+     *
+     * @return the metrics by name
+     */
+    public Map<String, Double> getMetrics() {
+        Map<String, Double> metrics = new TreeMap<String, Double>();
+        metrics.put("throughput", throughput);
+        metrics.put("operationCount", (double) operationCount);
+        metrics.put("runningTimeSeconds", runningTimeMillis / 1000d);
+        for (Map.Entry<String, Map<String, Double>> entry : latency.entrySet()) {
+            for (Map.Entry<String, Double> statistic : entry.getValue().entrySet()) {
+                metrics.put("latency." + entry.getKey() + "." + statistic.getKey(), statistic.getValue());
+            }
+        }
+        for (Map.Entry<String, Double> entry : gc.entrySet()) {
+            metrics.put("gc." + entry.getKey(), entry.getValue());
+        }
+        return metrics;
+    }
+
+    private void updateThroughput() {
+        throughput = runningTimeMillis > 0 ? operationCount * 1000d / runningTimeMillis : 0;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.worker.performance.MetricsLog;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.lang.String.format;
+
+/**
+ * The data of a single Worker directory of a benchmark.
+ *
+ * Loads the throughput from the <tt>metrics.bin</tt> or the <tt>performance.csv</tt>, the OS metrics from the
+ * <tt>dstat.csv</tt> and the GC pauses from the <tt>gc.csv</tt> of the Worker. Missing files are ignored, e.g. member Workers
+ * have no <tt>performance.csv</tt>.
+ */
+final class WorkerData {
+
+    // dstat writes some lines of meta information and column titles before the values
+    private static final int DSTAT_HEADER_LINES = 8;
+    private static final double MEGABYTE = 1024 * 1024;
+    private static final double MILLIS_PER_SECOND = 1000;
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerData.class);
+
+    private final String name;
+    private final Series throughput;
+    private final Map<String, List<Series>> metrics = new LinkedHashMap<String, List<Series>>();
+    private final Series gcPauses;
+
+    private WorkerData(String name, Series throughput, Series gcPauses) {
+        this.name = name;
+        this.throughput = throughput;
+        this.gcPauses = gcPauses;
+    }
+
+    /**
+     * Returns if the given directory is a Worker directory, e.g. <tt>A1_W1-127.0.0.1-member</tt>.
+     *
+     * The <tt>C_A</tt> prefix is supported for compatibility with old benchmarks.
+     *
+     * @param dir the directory to check
+     * @return {@code true} if the directory is a Worker directory, {@code false} otherwise
+     */
+    static boolean isWorkerDirectory(File dir) {
+        String dirName = dir.getName();
+        return dir.isDirectory() && (dirName.startsWith("A") || dirName.startsWith("C_A"));
+    }
+
+    static WorkerData load(File workerDir) throws IOException {
+        String name = workerDir.getName();
+        WorkerData data = new WorkerData(name, loadThroughput(workerDir, name), loadGcPauses(workerDir, name));
+        data.loadDstat(new File(workerDir, "dstat.csv"));
+        return data;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the Agent of this Worker, e.g. <tt>A1</tt> for <tt>A1_W1-127.0.0.1-member</tt>.
+     *
+     * @return the name of the Agent
+     */
+    String getAgent() {
+        int index = name.indexOf('_', name.startsWith("C_") ? 2 : 0);
+        return index < 0 ? name : name.substring(0, index);
+    }
+
+    /**
+     * Returns the throughput of this Worker with the epoch time in seconds as x values.
+     *
+     * @return the throughput
+     */
+    Series getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns the OS metrics of this Worker with the epoch time in seconds as x values.
+     *
+     * The {@link Series} are named by their value, e.g. <tt>user</tt> for the CPU metric. The name is empty if the metric has
+     * a single {@link Series}.
+     *
+     * @return the {@link Series} per metric
+     */
+    Map<String, List<Series>> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the GC pauses of this Worker with the seconds since the start of the JVM as x values.
+     *
+     * @return the GC pauses in milliseconds
+     */
+    Series getGcPauses() {
+        return gcPauses;
+    }
+
+    private static Series loadThroughput(File workerDir, String name) throws IOException {
+        Series series = new Series(name);
+        File metricsFile = new File(workerDir, MetricsLog.FILE_NAME);
+        if (metricsFile.isFile()) {
+            // the binary metrics log is much faster to read than the CSV file
+            MetricsLog metricsLog = MetricsLog.read(metricsFile);
+            double[] values = metricsLog.getValues("throughput");
+            if (values != null) {
+                long[] timestamps = metricsLog.getTimestamps();
+                for (int i = 0; i < values.length; i++) {
+                    series.add(timestamps[i] / MILLIS_PER_SECOND, values[i]);
+                }
+                return series;
+            }
+        }
+
+        for (String[] row : readCsv(new File(workerDir, "performance.csv"), 1)) {
+            add(series, row, 4, 1);
+        }
+        return series;
+    }
+
+    private static Series loadGcPauses(File workerDir, String name) throws IOException {
+        Series series = new Series(name);
+        for (String[] row : readCsv(new File(workerDir, "gc.csv"), 1)) {
+            if (row.length > 1 && !"-1".equals(row[1].trim())) {
+                add(series, row, 1, MILLIS_PER_SECOND);
+            }
+        }
+        return series;
+    }
+
+    private void loadDstat(File dstatFile) throws IOException {
+        Series cpuUser = new Series("user");
+        Series cpuSystem = new Series("system");
+        Series cpuWait = new Series("wait");
+        Series memoryUsed = new Series("used");
+        Series memoryCached = new Series("cached");
+        Series memoryFree = new Series("free");
+        Series diskRead = new Series("read");
+        Series diskWrite = new Series("write");
+        Series netReceive = new Series("receive");
+        Series netSend = new Series("send");
+        Series contextSwitches = new Series("");
+        Series load = new Series("");
+
+        for (String[] row : readCsv(dstatFile, DSTAT_HEADER_LINES)) {
+            add(memoryUsed, row, 1, 1 / MEGABYTE);
+            add(memoryCached, row, 3, 1 / MEGABYTE);
+            add(memoryFree, row, 4, 1 / MEGABYTE);
+            add(cpuUser, row, 5, 1);
+            add(cpuSystem, row, 6, 1);
+            add(cpuWait, row, 8, 1);
+            add(diskRead, row, 11, 1 / MEGABYTE);
+            add(diskWrite, row, 12, 1 / MEGABYTE);
+            add(netReceive, row, 13, 1 / MEGABYTE);
+            add(netSend, row, 14, 1 / MEGABYTE);
+            add(contextSwitches, row, 18, 1);
+            add(load, row, 19, 1);
+        }
+
+        addMetric("cpu", cpuUser, cpuSystem, cpuWait);
+        addMetric("memory", memoryUsed, memoryCached, memoryFree);
+        addMetric("disk", diskRead, diskWrite);
+        addMetric("network", netReceive, netSend);
+        addMetric("contextSwitches", contextSwitches);
+        addMetric("load", load);
+    }
+
+    private void addMetric(String metric, Series... seriesArray) {
+        List<Series> list = new ArrayList<Series>(seriesArray.length);
+        for (Series series : seriesArray) {
+            if (!series.isEmpty()) {
+                list.add(series);
+            }
+        }
+        if (!list.isEmpty()) {
+            metrics.put(metric, list);
+        }
+    }
+
+    // the first column of all CSV files is the time
+    private static void add(Series series, String[] row, int column, double factor) {
+        if (column >= row.length) {
+            return;
+        }
+        try {
+            series.add(Double.parseDouble(row[0].trim()), Double.parseDouble(row[column].trim()) * factor);
+        } catch (NumberFormatException e) {
+            LOGGER.debug(format("Skipping invalid value in column %d of row %s", column, row[0]));
+        }
+    }
+
+    static List<String[]> readCsv(File file, int skipLines) throws IOException {
+        List<String[]> rows = new ArrayList<String[]>();
+        if (!file.exists()) {
+            return rows;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (lineNumber++ < skipLines || line.isEmpty()) {
+                    continue;
+                }
+                rows.add(line.replace("\"", "").split(","));
+            }
+            return rows;
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package com.hazelcast.simulator.test;
 
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+
 import java.io.Serializable;
 import java.util.Random;
 
@@ -23,6 +25,9 @@ import java.util.Random;
  * <p>
  * This class is called BaseThreadState instead of ThreadState, since in most cases a test needs to subclass BaseThreadState.
  * In this case the prettier and shorter name ThreadState can be used.
+ * <p>
+ * Skewed key access can be generated with a {@link KeyDistribution} per thread state, see
+ * {@link com.hazelcast.simulator.test.distribution.KeyDistributionType}.
  */
 @SuppressWarnings("unused")
 public class BaseThreadState implements Serializable {
@@ -80,4 +85,20 @@ public class BaseThreadState implements Serializable {
     public boolean randomBoolean() {
         return random.nextBoolean();
     }
+
+    /**
+     * @param distribution the {@link KeyDistribution} to draw from. Must be confined to this thread state.
+     * @return the next key index of the distribution
+     */
+    public long nextKey(KeyDistribution distribution) {
+        return distribution.next(random);
+    }
+
+    /**
+     * @param distribution the {@link KeyDistribution} to draw from. Must be confined to this thread state.
+     * @return the next key index of the distribution as int
+     */
+    public int nextIntKey(KeyDistribution distribution) {
+        return (int) distribution.next(random);
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test;
+
+/**
+ * A value of a test which is sampled by the Worker once per performance interval and written to the metrics log, e.g. the
+ * hit ratio of a cache.
+ *
+ * Gauges are registered with {@link TestContext#registerGauge(String, Gauge)}. They are read by the performance monitor
+ * thread, so they need to be thread-safe and cheap.
+ */
+public interface Gauge {
+
+    /**
+     * Returns the current value of the gauge.
+     *
+     * @return the current value
+     */
+    double getValue();
+}
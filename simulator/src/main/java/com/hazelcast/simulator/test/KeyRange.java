@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test;
+
+import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
+import static java.lang.String.format;
+
+/**
+ * A range of keys <tt>[from, to)</tt> which is assigned to a single Worker.
+ *
+ * The keys are split into as many disjoint ranges as there are Workers running the test, where the sizes of the ranges
+ * differ at most by one. This is useful for a {@link com.hazelcast.simulator.test.annotations.Prepare} method with
+ * <tt>distributed = true</tt>, so every Worker loads its own part of the data:
+ * <pre>
+ * &#64;Prepare(distributed = true)
+ * public void prepare() {
+ *     KeyRange range = KeyRange.forWorker(testContext, keyCount);
+ *     for (long key = range.getFrom(); key &lt; range.getTo(); key++) {
+ *         map.put(key, value);
+ *     }
+ * }
+ * </pre>
+ */
+public final class KeyRange {
+
+    private final long from;
+    private final long to;
+
+    KeyRange(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Returns the range of keys of the Worker of the given {@link TestContext}.
+     *
+     * @param testContext the {@link TestContext} of the Worker
+     * @param keyCount    the total number of keys
+     * @return the range of keys of the Worker
+     */
+    public static KeyRange forWorker(TestContext testContext, long keyCount) {
+        checkNotNull(testContext, "testContext can't be null");
+        return forWorker(testContext.getWorkerIndex(), testContext.getWorkerCount(), keyCount);
+    }
+
+    /**
+     * Returns the range of keys of a Worker.
+     *
+     * @param workerIndex the index of the Worker
+     * @param workerCount the number of Workers
+     * @param keyCount    the total number of keys
+     * @return the range of keys of the Worker
+     */
+    public static KeyRange forWorker(int workerIndex, int workerCount, long keyCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be positive, but was " + workerCount);
+        }
+        if (workerIndex < 0 || workerIndex >= workerCount) {
+            throw new IllegalArgumentException(format("workerIndex must be in [0, %d), but was %d", workerCount, workerIndex));
+        }
+        if (keyCount < 0) {
+            throw new IllegalArgumentException("keyCount can't be negative, but was " + keyCount);
+        }
+
+        // the first (keyCount % workerCount) Workers get one key more than the others
+        long baseSize = keyCount / workerCount;
+        long remainder = keyCount % workerCount;
+        long from = workerIndex * baseSize + Math.min(workerIndex, remainder);
+        long size = baseSize + (workerIndex < remainder ? 1 : 0);
+        return new KeyRange(from, from + size);
+    }
+
+    /**
+     * Returns the first key of the range (inclusive).
+     *
+     * @return the first key
+     */
+    public long getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the end of the range (exclusive).
+     *
+     * @return the end of the range
+     */
+    public long getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the number of keys in the range.
+     *
+     * @return the number of keys
+     */
+    public long size() {
+        return to - from;
+    }
+
+    /**
+     * Checks if the given key is part of the range.
+     *
+     * @param key the key to check
+     * @return <tt>true</tt> if the key is part of the range, <tt>false</tt> otherwise
+     */
+    public boolean contains(long key) {
+        return key >= from && key < to;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyRange{from=" + from + ", to=" + to + '}';
+    }
+}
@@ -35,6 +35,24 @@ public interface TestContext {
      */
     String getPublicIpAddress();
 
+    /**
+     * Returns the index of this Worker within the Workers which run the test.
+     *
+     * The index is in the range <tt>[0, workerCount)</tt> and can be used together with {@link #getWorkerCount()} to let
+     * every Worker work on its own share of the data, e.g. in a {@link com.hazelcast.simulator.test.annotations.Prepare}
+     * method with <tt>distributed = true</tt>. See {@link KeyRange} for a helper to split a key space.
+     *
+     * @return the index of this Worker.
+     */
+    int getWorkerIndex();
+
+    /**
+     * Returns the number of Workers which run the test.
+     *
+     * @return the number of Workers.
+     */
+    int getWorkerCount();
+
     /**
      * Checks if the run phase or warmup phase has stopped. In most cases this method doesn't need to be called since the
      * {@link com.hazelcast.simulator.test.annotations.TimeStep} approach will take care of stopping. But in certain cases
@@ -65,4 +83,15 @@ public interface TestContext {
      * @param args the arguments
      */
     void echoCoordinator(String msg, Object... args);
+
+    /**
+     * Registers a {@link Gauge}, which is written once per performance interval as column <tt>testId.name</tt> to the
+     * metrics log of the Worker.
+     *
+     * A gauge registered with the name of an existing gauge replaces it.
+     *
+     * @param name  the name of the gauge
+     * @param gauge the gauge
+     */
+    void registerGauge(String name, Gauge gauge);
 }
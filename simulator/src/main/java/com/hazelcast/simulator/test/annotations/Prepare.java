@@ -42,4 +42,18 @@ public @interface Prepare {
      * @return <tt>true</tt> if global teardown method, <tt>false</tt> otherwise
      */
     boolean global() default false;
+
+    /**
+     * Distributed indicates that the data loading of a global prepare is split between all Workers running the test. The
+     * method is executed in the global prepare phase, but on every Worker in parallel. Each Worker should only load its own
+     * share of the data, which it can determine using {@link com.hazelcast.simulator.test.TestContext#getWorkerIndex()} and
+     * {@link com.hazelcast.simulator.test.TestContext#getWorkerCount()}, e.g. with
+     * {@link com.hazelcast.simulator.test.KeyRange#forWorker(com.hazelcast.simulator.test.TestContext, long)}.
+     *
+     * The global prepare phase completes when all Workers have completed their distributed prepare methods. A distributed
+     * prepare method is always executed in the global prepare phase, so the value of {@link #global()} is ignored.
+     *
+     * @return <tt>true</tt> if distributed prepare method, <tt>false</tt> otherwise
+     */
+    boolean distributed() default false;
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+import static com.hazelcast.simulator.utils.Preconditions.checkPositive;
+
+/**
+ * Base class for {@link KeyDistribution} implementations with a fixed number of items.
+ */
+abstract class AbstractKeyDistribution implements KeyDistribution {
+
+    protected final long itemCount;
+
+    AbstractKeyDistribution(long itemCount) {
+        this.itemCount = checkPositive(itemCount, "itemCount");
+    }
+
+    @Override
+    public final long getItemCount() {
+        return itemCount;
+    }
+
+    static long nextLong(Random random, long bound) {
+        // rounding will always be down towards 0, so the result will be exclusive the bound
+        return (long) (random.nextDouble() * bound);
+    }
+
+    static void checkFraction(double value, String name) {
+        if (value <= 0 || value > 1) {
+            throw new IllegalArgumentException(name + " must be in the range (0, 1], but was " + value);
+        }
+    }
+}
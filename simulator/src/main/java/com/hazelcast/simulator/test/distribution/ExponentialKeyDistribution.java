@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * A {@link KeyDistribution} where the popularity of the keys decays exponentially, starting with key 0 as most popular key.
+ *
+ * The decay is configured by the percentage of the calls which should hit the first fraction of the key space, e.g. 95% of
+ * the calls should return a key of the first 85.7% of the items.
+ */
+public final class ExponentialKeyDistribution extends AbstractKeyDistribution {
+
+    public static final double DEFAULT_PERCENTILE = 95;
+    public static final double DEFAULT_FRACTION = 0.8571428571;
+
+    private static final double PERCENT = 100;
+
+    private final double gamma;
+
+    public ExponentialKeyDistribution(long itemCount) {
+        this(itemCount, DEFAULT_PERCENTILE, DEFAULT_FRACTION);
+    }
+
+    /**
+     * Creates an exponential distribution.
+     *
+     * @param itemCount  the number of items
+     * @param percentile the percentage of the calls which return a key of the first fraction of the items, must be in the
+     *                   range (0, 100)
+     * @param fraction   the fraction of the items, must be in the range (0, 1]
+     */
+    public ExponentialKeyDistribution(long itemCount, double percentile, double fraction) {
+        super(itemCount);
+        if (percentile <= 0 || percentile >= PERCENT) {
+            throw new IllegalArgumentException("percentile must be in the range (0, 100), but was " + percentile);
+        }
+        checkFraction(fraction, "fraction");
+        this.gamma = -Math.log(1.0 - percentile / PERCENT) / (itemCount * fraction);
+    }
+
+    @Override
+    public long next(Random random) {
+        for (; ; ) {
+            long value = (long) (-Math.log(1.0 - random.nextDouble()) / gamma);
+            if (value < itemCount) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * A {@link KeyDistribution} with a hot set at the start of the key space. A configurable fraction of the calls returns a
+ * uniformly distributed key of the hot set, the other calls return a uniformly distributed key of the cold set.
+ */
+public final class HotspotKeyDistribution extends AbstractKeyDistribution {
+
+    public static final double DEFAULT_HOT_SET_FRACTION = 0.2;
+    public static final double DEFAULT_HOT_OPERATION_FRACTION = 0.8;
+
+    private final long hotItemCount;
+    private final long coldItemCount;
+    private final double hotOperationFraction;
+
+    public HotspotKeyDistribution(long itemCount) {
+        this(itemCount, DEFAULT_HOT_SET_FRACTION, DEFAULT_HOT_OPERATION_FRACTION);
+    }
+
+    /**
+     * Creates a hotspot distribution.
+     *
+     * @param itemCount            the number of items
+     * @param hotSetFraction       the fraction of the items which are hot, must be in the range (0, 1]
+     * @param hotOperationFraction the fraction of the calls which return a hot item, must be in the range (0, 1]
+     */
+    public HotspotKeyDistribution(long itemCount, double hotSetFraction, double hotOperationFraction) {
+        super(itemCount);
+        checkFraction(hotSetFraction, "hotSetFraction");
+        checkFraction(hotOperationFraction, "hotOperationFraction");
+        this.hotItemCount = Math.max(1, (long) (itemCount * hotSetFraction));
+        this.coldItemCount = itemCount - hotItemCount;
+        this.hotOperationFraction = hotOperationFraction;
+    }
+
+    public long getHotItemCount() {
+        return hotItemCount;
+    }
+
+    @Override
+    public long next(Random random) {
+        if (coldItemCount == 0 || random.nextDouble() < hotOperationFraction) {
+            return nextLong(random, hotItemCount);
+        }
+        return hotItemCount + nextLong(random, coldItemCount);
+    }
+}
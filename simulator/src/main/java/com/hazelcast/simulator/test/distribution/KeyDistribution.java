@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * Generates key indexes in the range <tt>[0, itemCount)</tt> according to some access pattern.
+ *
+ * Implementations are not thread-safe and are meant to be confined to a single thread, e.g. as field of a
+ * {@link com.hazelcast.simulator.test.BaseThreadState}. The {@link #next(Random)} method doesn't create any litter, so it can be
+ * used in the hot path of a timestep method without polluting the latency numbers.
+ */
+public interface KeyDistribution {
+
+    /**
+     * Returns the number of items this distribution draws from.
+     *
+     * @return the number of items
+     */
+    long getItemCount();
+
+    /**
+     * Returns the next key index.
+     *
+     * @param random the {@link Random} to draw from
+     * @return the key index in the range <tt>[0, itemCount)</tt>
+     */
+    long next(Random random);
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+/**
+ * The available {@link KeyDistribution} implementations with their default settings.
+ *
+ * Can be used as test property to make the access pattern of a test configurable, e.g.
+ * <pre>
+ *     public KeyDistributionType keyDistribution = KeyDistributionType.UNIFORM;
+ *
+ *     public class ThreadState extends BaseThreadState {
+ *         private final KeyDistribution keys = keyDistribution.newInstance(keyCount);
+ *     }
+ * </pre>
+ * Every instance is meant to be used by a single thread, so create one per {@link com.hazelcast.simulator.test.BaseThreadState}.
+ */
+public enum KeyDistributionType {
+
+    /**
+     * See {@link UniformKeyDistribution}.
+     */
+    UNIFORM {
+        @Override
+        public KeyDistribution newInstance(long itemCount) {
+            return new UniformKeyDistribution(itemCount);
+        }
+    },
+
+    /**
+     * See {@link ZipfianKeyDistribution}.
+     */
+    ZIPFIAN {
+        @Override
+        public KeyDistribution newInstance(long itemCount) {
+            return new ZipfianKeyDistribution(itemCount);
+        }
+    },
+
+    /**
+     * See {@link ScrambledZipfianKeyDistribution}.
+     */
+    SCRAMBLED_ZIPFIAN {
+        @Override
+        public KeyDistribution newInstance(long itemCount) {
+            return new ScrambledZipfianKeyDistribution(itemCount);
+        }
+    },
+
+    /**
+     * See {@link HotspotKeyDistribution}.
+     */
+    HOTSPOT {
+        @Override
+        public KeyDistribution newInstance(long itemCount) {
+            return new HotspotKeyDistribution(itemCount);
+        }
+    },
+
+    /**
+     * See {@link LatestKeyDistribution}.
+     */
+    LATEST {
+        @Override
+        public KeyDistribution newInstance(long itemCount) {
+            return new LatestKeyDistribution(itemCount);
+        }
+    },
+
+    /**
+     * See {@link ExponentialKeyDistribution}.
+     */
+    EXPONENTIAL {
+        @Override
+        public KeyDistribution newInstance(long itemCount) {
+            return new ExponentialKeyDistribution(itemCount);
+        }
+    },
+
+    /**
+     * See {@link SequentialKeyDistribution}.
+     */
+    SEQUENTIAL {
+        @Override
+        public KeyDistribution newInstance(long itemCount) {
+            return new SequentialKeyDistribution(itemCount);
+        }
+    };
+
+    /**
+     * Creates a new {@link KeyDistribution} of this type.
+     *
+     * @param itemCount the number of items
+     * @return the created {@link KeyDistribution}
+     */
+    public abstract KeyDistribution newInstance(long itemCount);
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+import static com.hazelcast.simulator.test.distribution.ZipfianKeyDistribution.checkTheta;
+import static com.hazelcast.simulator.test.distribution.ZipfianKeyDistribution.eta;
+import static com.hazelcast.simulator.test.distribution.ZipfianKeyDistribution.secondItemThreshold;
+import static com.hazelcast.simulator.test.distribution.ZipfianKeyDistribution.zeta;
+import static com.hazelcast.simulator.utils.Preconditions.checkPositive;
+
+/**
+ * A {@link KeyDistribution} which favors the most recently inserted keys: the newest key is the most popular, the key before
+ * it the second most popular and so on, following a zipfian distribution.
+ *
+ * The item count grows with every {@link #nextInsert()}. The zipfian constants are updated lazily on the next call of
+ * {@link #next(Random)}, which takes constant time (see {@link ZipfianKeyDistribution}).
+ */
+public final class LatestKeyDistribution implements KeyDistribution {
+
+    private final double theta;
+    private final double alpha;
+    private final double secondItemThreshold;
+
+    private long itemCount;
+    private long zetaItemCount;
+    private double zetaN;
+    private double eta;
+
+    public LatestKeyDistribution(long itemCount) {
+        this(itemCount, ZipfianKeyDistribution.DEFAULT_THETA);
+    }
+
+    /**
+     * Creates a latest distribution.
+     *
+     * @param itemCount the initial number of items
+     * @param theta     the skew of the distribution, must be in the range (0, 1); a higher value means more skew
+     */
+    public LatestKeyDistribution(long itemCount, double theta) {
+        checkTheta(theta);
+        this.itemCount = checkPositive(itemCount, "itemCount");
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.secondItemThreshold = secondItemThreshold(theta);
+    }
+
+    @Override
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Returns the key index for a new item and makes it the latest item.
+     *
+     * @return the key index of the inserted item
+     */
+    public long nextInsert() {
+        return itemCount++;
+    }
+
+    @Override
+    public long next(Random random) {
+        if (zetaItemCount != itemCount) {
+            zetaN = zeta(itemCount, theta);
+            eta = eta(itemCount, theta, zetaN);
+            zetaItemCount = itemCount;
+        }
+        return itemCount - 1 - ZipfianKeyDistribution.next(random.nextDouble(), itemCount, zetaN, eta, alpha,
+                secondItemThreshold);
+    }
+}
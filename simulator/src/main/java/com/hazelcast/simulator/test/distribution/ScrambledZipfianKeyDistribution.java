@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * A {@link KeyDistribution} with the same skew as the {@link ZipfianKeyDistribution}, but with the popular keys scattered over
+ * the key space by hashing the zipfian key index. So the hot keys are spread over the partitions instead of being clustered at
+ * the start of the key space.
+ *
+ * Since the hash is reduced modulo the item count, a few keys may collide and some keys may never be returned.
+ */
+public final class ScrambledZipfianKeyDistribution extends AbstractKeyDistribution {
+
+    private static final long FNV_OFFSET_BASIS_64 = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME_64 = 1099511628211L;
+    private static final int BYTES_PER_LONG = 8;
+    private static final int BITS_PER_BYTE = 8;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final ZipfianKeyDistribution zipfian;
+
+    public ScrambledZipfianKeyDistribution(long itemCount) {
+        this(itemCount, ZipfianKeyDistribution.DEFAULT_THETA);
+    }
+
+    public ScrambledZipfianKeyDistribution(long itemCount, double theta) {
+        super(itemCount);
+        this.zipfian = new ZipfianKeyDistribution(itemCount, theta);
+    }
+
+    @Override
+    public long next(Random random) {
+        return (hashFNV64(zipfian.next(random)) & Long.MAX_VALUE) % itemCount;
+    }
+
+    /**
+     * Returns the 64 bit FNV-1a hash of the bytes of a value, from the lowest to the highest byte.
+     *
+     * @param value the value to hash
+     * @return the hash
+     */
+    public static long hashFNV64(long value) {
+        long hash = FNV_OFFSET_BASIS_64;
+        for (int i = 0; i < BYTES_PER_LONG; i++) {
+            hash ^= value & BYTE_MASK;
+            hash *= FNV_PRIME_64;
+            value >>>= BITS_PER_BYTE;
+        }
+        return hash;
+    }
+}
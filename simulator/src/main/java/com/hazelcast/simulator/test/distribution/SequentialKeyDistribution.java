@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * A {@link KeyDistribution} which returns the keys in order, starting again at key 0 after the last key.
+ *
+ * The given {@link Random} is ignored.
+ */
+public final class SequentialKeyDistribution extends AbstractKeyDistribution {
+
+    private long next;
+
+    public SequentialKeyDistribution(long itemCount) {
+        super(itemCount);
+    }
+
+    @Override
+    public long next(Random random) {
+        long value = next;
+        next = (value + 1 == itemCount) ? 0 : value + 1;
+        return value;
+    }
+}
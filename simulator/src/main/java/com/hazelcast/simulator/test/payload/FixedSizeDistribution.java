@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.payload;
+
+import java.util.Random;
+
+import static com.hazelcast.simulator.test.payload.SizeDistributions.checkSize;
+
+/**
+ * A {@link SizeDistribution} which always returns the same size.
+ */
+public final class FixedSizeDistribution implements SizeDistribution {
+
+    private final int size;
+
+    public FixedSizeDistribution(int size) {
+        this.size = checkSize(size, "size");
+    }
+
+    @Override
+    public int getMinSize() {
+        return size;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return size;
+    }
+
+    @Override
+    public int next(Random random) {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "fixed(" + size + ')';
+    }
+}
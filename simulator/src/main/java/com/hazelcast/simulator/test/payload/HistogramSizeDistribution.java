@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.payload;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.hazelcast.simulator.test.payload.SizeDistributions.checkSize;
+
+/**
+ * A {@link SizeDistribution} based on an empirical histogram, e.g. the sizes of the values of a production system.
+ *
+ * The histogram consists of sizes with a weight each. The probability of a size is its weight divided by the sum of all
+ * weights.
+ */
+public final class HistogramSizeDistribution implements SizeDistribution {
+
+    private final int[] sizes;
+    private final double[] weights;
+    private final double[] cumulativeWeights;
+    private final int minSize;
+    private final int maxSize;
+
+    public HistogramSizeDistribution(int[] sizes, double[] weights) {
+        if (sizes.length == 0 || sizes.length != weights.length) {
+            throw new IllegalArgumentException(String.format("Expected the same non-zero number of sizes and weights,"
+                    + " but found %d sizes and %d weights", sizes.length, weights.length));
+        }
+        this.sizes = sizes.clone();
+        this.weights = weights.clone();
+        this.cumulativeWeights = new double[sizes.length];
+
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        double total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            checkSize(sizes[i], "size");
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("weight can't be negative, but was " + weights[i]);
+            }
+            total += weights[i];
+            cumulativeWeights[i] = total;
+            min = Math.min(min, sizes[i]);
+            max = Math.max(max, sizes[i]);
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The sum of the weights must be positive");
+        }
+        this.minSize = min;
+        this.maxSize = max;
+    }
+
+    @Override
+    public int getMinSize() {
+        return minSize;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int next(Random random) {
+        double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // an exact match is the upper bound of the bucket, so the next bucket with a weight is taken
+            index++;
+        }
+        while (weights[index] == 0) {
+            index++;
+        }
+        return sizes[index];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("histogram(");
+        for (int i = 0; i < sizes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(sizes[i]).append(':').append(weights[i]);
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.payload;
+
+import java.util.Random;
+
+import static com.hazelcast.simulator.test.payload.SizeDistributions.checkRange;
+import static java.lang.Math.exp;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+
+/**
+ * A {@link SizeDistribution} with a log-normal distribution, which is typical for real world payloads: most values are
+ * around the median, but there is a long tail of large values.
+ *
+ * The distribution is defined by its median and the standard deviation <tt>sigma</tt> of the natural logarithm of the
+ * size. A sigma of 0.5 means that about two thirds of the sizes are within a factor of 1.65 of the median. Sizes outside of
+ * <tt>[minSize, maxSize]</tt> are clamped.
+ */
+public final class LogNormalSizeDistribution implements SizeDistribution {
+
+    private final int median;
+    private final double sigma;
+    private final double mu;
+    private final int minSize;
+    private final int maxSize;
+
+    public LogNormalSizeDistribution(int median, double sigma, int minSize, int maxSize) {
+        checkRange(minSize, maxSize);
+        if (median < 1) {
+            throw new IllegalArgumentException("median must be positive, but was " + median);
+        }
+        if (sigma < 0) {
+            throw new IllegalArgumentException("sigma can't be negative, but was " + sigma);
+        }
+        this.median = median;
+        this.sigma = sigma;
+        this.mu = log(median);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int getMinSize() {
+        return minSize;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int next(Random random) {
+        long size = round(exp(mu + sigma * random.nextGaussian()));
+        return (int) max(minSize, min(maxSize, size));
+    }
+
+    @Override
+    public String toString() {
+        return "lognormal(" + median + ',' + sigma + ',' + minSize + ',' + maxSize + ')';
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.payload;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+import static java.lang.String.format;
+
+/**
+ * Generates payloads with a configurable {@link SizeDistribution}, compressibility and entropy.
+ *
+ * The content of all payloads is taken from a slab which is generated once. A payload is a region of the slab with a size
+ * from the {@link SizeDistribution} at a random offset. So no random content has to be generated per payload, and the
+ * payloads can be taken without any allocation by {@link #nextBytes(Random, byte[])}, or as a view on the slab by
+ * {@link #nextBuffer(Random)}. With {@link #newPool(Random, int)} a fixed set of byte arrays can be created upfront, which
+ * can be reused during the run phase, so the load generator itself doesn't produce garbage.
+ *
+ * The content of the slab is controlled by:
+ * <ul>
+ * <li><tt>compressibility</tt>: the fraction of every block of {@value #BLOCK_SIZE} bytes which repeats the random
+ * content at the start of the block. With 0 all content is random, with 0.5 a compressor can remove about half of it.</li>
+ * <li><tt>entropyBits</tt>: the number of random bits per byte in the range <tt>[1, 8]</tt>. With 8 every byte value
+ * is possible, with 4 only 16 different byte values are used.</li>
+ * </ul>
+ *
+ * This class is immutable and thread-safe; the {@link Random} is passed in, so every thread should use its own.
+ */
+public final class PayloadGenerator {
+
+    static final int BLOCK_SIZE = 128;
+    static final int DEFAULT_SLAB_SIZE = 1 << 20;
+
+    private final SizeDistribution sizeDistribution;
+    private final double compressibility;
+    private final int entropyBits;
+    private final byte[] slab;
+    private final ByteBuffer slabBuffer;
+
+    /**
+     * Creates a generator for fully random payloads.
+     *
+     * @param sizeDistribution the {@link SizeDistribution} of the payloads
+     */
+    public PayloadGenerator(SizeDistribution sizeDistribution) {
+        this(sizeDistribution, 0, 8, new Random().nextLong());
+    }
+
+    /**
+     * Creates a generator with the given content settings.
+     *
+     * @param sizeDistribution the {@link SizeDistribution} of the payloads
+     * @param compressibility  the fraction of the content which is repeated, in the range <tt>[0, 1)</tt>
+     * @param entropyBits      the number of random bits per byte, in the range <tt>[1, 8]</tt>
+     * @param seed             the seed for the content of the slab
+     */
+    public PayloadGenerator(SizeDistribution sizeDistribution, double compressibility, int entropyBits, long seed) {
+        this(sizeDistribution, compressibility, entropyBits, seed, DEFAULT_SLAB_SIZE);
+    }
+
+    PayloadGenerator(SizeDistribution sizeDistribution, double compressibility, int entropyBits, long seed, int slabSize) {
+        if (compressibility < 0 || compressibility >= 1) {
+            throw new IllegalArgumentException("compressibility must be in the range [0, 1), but was " + compressibility);
+        }
+        if (entropyBits < 1 || entropyBits > 8) {
+            throw new IllegalArgumentException("entropyBits must be in the range [1, 8], but was " + entropyBits);
+        }
+        if ((long) slabSize + sizeDistribution.getMaxSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(format("maxSize %d is too large", sizeDistribution.getMaxSize()));
+        }
+        this.sizeDistribution = sizeDistribution;
+        this.compressibility = compressibility;
+        this.entropyBits = entropyBits;
+        // the slab is larger than the maximum size, so even the largest payload can start at different offsets
+        this.slab = generateSlab(new Random(seed), slabSize + sizeDistribution.getMaxSize(), compressibility, entropyBits);
+        this.slabBuffer = ByteBuffer.wrap(slab).asReadOnlyBuffer();
+    }
+
+    public SizeDistribution getSizeDistribution() {
+        return sizeDistribution;
+    }
+
+    public double getCompressibility() {
+        return compressibility;
+    }
+
+    public int getEntropyBits() {
+        return entropyBits;
+    }
+
+    /**
+     * Returns the size of the next payload.
+     *
+     * @param random the {@link Random} to use
+     * @return the size of the next payload
+     */
+    public int nextSize(Random random) {
+        return sizeDistribution.next(random);
+    }
+
+    /**
+     * Returns a new byte array with the next payload.
+     *
+     * @param random the {@link Random} to use
+     * @return the payload
+     */
+    public byte[] nextBytes(Random random) {
+        byte[] payload = new byte[nextSize(random)];
+        System.arraycopy(slab, nextOffset(random, payload.length), payload, 0, payload.length);
+        return payload;
+    }
+
+    /**
+     * Copies the next payload into the given byte array, without allocating anything.
+     *
+     * @param random the {@link Random} to use
+     * @param target the byte array to write the payload to, which should be at least as large as the maximum size
+     * @return the size of the payload
+     * @throws IllegalArgumentException if the payload doesn't fit into the target
+     */
+    public int nextBytes(Random random, byte[] target) {
+        int size = nextSize(random);
+        if (size > target.length) {
+            throw new IllegalArgumentException(format("Payload of %d bytes doesn't fit into a target of %d bytes", size,
+                    target.length));
+        }
+        System.arraycopy(slab, nextOffset(random, size), target, 0, size);
+        return size;
+    }
+
+    /**
+     * Returns the next payload as read-only view on the slab, so the content isn't copied.
+     *
+     * @param random the {@link Random} to use
+     * @return the payload
+     */
+    public ByteBuffer nextBuffer(Random random) {
+        int size = nextSize(random);
+        ByteBuffer buffer = slabBuffer.duplicate();
+        int offset = nextOffset(random, size);
+        buffer.limit(offset + size);
+        buffer.position(offset);
+        return buffer.slice();
+    }
+
+    /**
+     * Creates a pool of payloads which can be reused, so no payloads have to be created during the run phase.
+     *
+     * @param random the {@link Random} to use
+     * @param count  the number of payloads
+     * @return the payloads
+     */
+    public byte[][] newPool(Random random, int count) {
+        byte[][] pool = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            pool[i] = nextBytes(random);
+        }
+        return pool;
+    }
+
+    byte[] getSlab() {
+        return slab;
+    }
+
+    private int nextOffset(Random random, int size) {
+        return random.nextInt(slab.length - size + 1);
+    }
+
+    static byte[] generateSlab(Random random, int length, double compressibility, int entropyBits) {
+        byte[] slab = new byte[length];
+        int randomLength = max(1, (int) round(BLOCK_SIZE * (1 - compressibility)));
+        int mask = (1 << entropyBits) - 1;
+        for (int blockStart = 0; blockStart < length; blockStart += BLOCK_SIZE) {
+            int blockEnd = min(length, blockStart + BLOCK_SIZE);
+            int randomEnd = min(blockEnd, blockStart + randomLength);
+            for (int i = blockStart; i < randomEnd; i++) {
+                slab[i] = (byte) (random.nextInt() & mask);
+            }
+            // the rest of the block repeats the random content, which a compressor can replace by a reference
+            for (int i = randomEnd; i < blockEnd; i++) {
+                slab[i] = slab[i - randomLength];
+            }
+        }
+        return slab;
+    }
+}
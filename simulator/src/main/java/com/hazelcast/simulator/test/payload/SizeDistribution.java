@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.payload;
+
+import java.util.Random;
+
+/**
+ * Generates the sizes of payloads.
+ *
+ * Implementations are immutable; the {@link Random} is passed in, so a single instance can be shared by all threads.
+ */
+public interface SizeDistribution {
+
+    /**
+     * Returns the minimum size which can be returned by {@link #next(Random)}.
+     *
+     * @return the minimum size
+     */
+    int getMinSize();
+
+    /**
+     * Returns the maximum size which can be returned by {@link #next(Random)}.
+     *
+     * @return the maximum size
+     */
+    int getMaxSize();
+
+    /**
+     * Returns the next size.
+     *
+     * @param random the {@link Random} to use
+     * @return a size in the range <tt>[minSize, maxSize]</tt>
+     */
+    int next(Random random);
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.payload;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Creates {@link SizeDistribution} instances from a textual definition, so they can be configured by a test property.
+ *
+ * The supported definitions are:
+ * <ul>
+ * <li><tt>fixed(size)</tt>, see {@link FixedSizeDistribution}</li>
+ * <li><tt>uniform(minSize,maxSize)</tt>, see {@link UniformSizeDistribution}</li>
+ * <li><tt>lognormal(median,sigma,minSize,maxSize)</tt>, see {@link LogNormalSizeDistribution}</li>
+ * <li><tt>histogram(size:weight,size:weight,...)</tt>, see {@link HistogramSizeDistribution}</li>
+ * </ul>
+ * A plain number is the same as <tt>fixed(number)</tt>.
+ */
+public final class SizeDistributions {
+
+    private static final Pattern DEFINITION_PATTERN = Pattern.compile("\\s*(\\w+)\\s*\\((.*)\\)\\s*");
+
+    private SizeDistributions() {
+    }
+
+    /**
+     * Parses a {@link SizeDistribution} definition.
+     *
+     * @param definition the definition
+     * @return the created {@link SizeDistribution}
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static SizeDistribution parse(String definition) {
+        if (definition.trim().matches("\\d+")) {
+            return new FixedSizeDistribution(Integer.parseInt(definition.trim()));
+        }
+
+        Matcher matcher = DEFINITION_PATTERN.matcher(definition);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(format("Invalid size distribution '%s'", definition));
+        }
+        String type = matcher.group(1).toLowerCase();
+        String[] args = matcher.group(2).split(",");
+        try {
+            if ("fixed".equals(type)) {
+                checkArgCount(definition, args, 1);
+                return new FixedSizeDistribution(parseInt(args[0]));
+            } else if ("uniform".equals(type)) {
+                checkArgCount(definition, args, 2);
+                return new UniformSizeDistribution(parseInt(args[0]), parseInt(args[1]));
+            } else if ("lognormal".equals(type)) {
+                checkArgCount(definition, args, 4);
+                return new LogNormalSizeDistribution(parseInt(args[0]), Double.parseDouble(args[1].trim()),
+                        parseInt(args[2]), parseInt(args[3]));
+            } else if ("histogram".equals(type)) {
+                return parseHistogram(args);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(format("Invalid number in size distribution '%s'", definition), e);
+        }
+        throw new IllegalArgumentException(format("Unknown size distribution '%s' in '%s'", type, definition));
+    }
+
+    static int checkSize(int size, String name) {
+        if (size < 0) {
+            throw new IllegalArgumentException(name + " can't be negative, but was " + size);
+        }
+        return size;
+    }
+
+    static void checkRange(int minSize, int maxSize) {
+        checkSize(minSize, "minSize");
+        if (maxSize < minSize) {
+            throw new IllegalArgumentException(format("maxSize %d can't be smaller than minSize %d", maxSize, minSize));
+        }
+    }
+
+    private static SizeDistribution parseHistogram(String[] args) {
+        int[] sizes = new int[args.length];
+        double[] weights = new double[args.length];
+        for (int i = 0; i < args.length; i++) {
+            String[] bucket = args[i].split(":");
+            if (bucket.length != 2) {
+                throw new IllegalArgumentException(format("Invalid histogram bucket '%s', expected size:weight", args[i]));
+            }
+            sizes[i] = parseInt(bucket[0]);
+            weights[i] = Double.parseDouble(bucket[1].trim());
+        }
+        return new HistogramSizeDistribution(sizes, weights);
+    }
+
+    private static void checkArgCount(String definition, String[] args, int expected) {
+        if (args.length != expected) {
+            throw new IllegalArgumentException(format("Expected %d arguments in size distribution '%s', but found %d",
+                    expected, definition, args.length));
+        }
+    }
+
+    private static int parseInt(String value) {
+        return Integer.parseInt(value.trim());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.payload;
+
+import java.util.Random;
+
+import static com.hazelcast.simulator.test.payload.SizeDistributions.checkRange;
+
+/**
+ * A {@link SizeDistribution} where every size in the range <tt>[minSize, maxSize]</tt> has the same probability.
+ */
+public final class UniformSizeDistribution implements SizeDistribution {
+
+    private final int minSize;
+    private final int maxSize;
+
+    public UniformSizeDistribution(int minSize, int maxSize) {
+        checkRange(minSize, maxSize);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int getMinSize() {
+        return minSize;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int next(Random random) {
+        // the range is computed as long, so [0, Integer.MAX_VALUE] doesn't overflow
+        return minSize + (int) (random.nextDouble() * ((long) maxSize - minSize + 1));
+    }
+
+    @Override
+    public String toString() {
+        return "uniform(" + minSize + ',' + maxSize + ')';
+    }
+}
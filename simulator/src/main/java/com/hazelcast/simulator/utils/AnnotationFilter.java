@@ -45,14 +45,23 @@ public interface AnnotationFilter<A extends Annotation> {
 
     class PrepareFilter implements AnnotationFilter<Prepare> {
         private final boolean isGlobal;
+        private final boolean isDistributed;
 
         public PrepareFilter(boolean isGlobal) {
+            this(isGlobal, false);
+        }
+
+        public PrepareFilter(boolean isGlobal, boolean isDistributed) {
             this.isGlobal = isGlobal;
+            this.isDistributed = isDistributed;
         }
 
         @Override
-        public boolean allowed(Prepare verify) {
-            return verify.global() == isGlobal;
+        public boolean allowed(Prepare prepare) {
+            if (prepare.distributed()) {
+                return isDistributed;
+            }
+            return !isDistributed && prepare.global() == isGlobal;
         }
     }
 
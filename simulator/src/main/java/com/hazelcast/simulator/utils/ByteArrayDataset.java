@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
+import static com.hazelcast.simulator.utils.Preconditions.checkPositive;
+import static java.lang.String.format;
+
+/**
+ * A set of random byte arrays which is cached in a memory-mapped file, so it doesn't have to be generated in every run.
+ *
+ * The dataset is identified by its parameters and the seed of the {@link Random} which generates it. The first run
+ * generates the data into a file in the <tt>datasets</tt> directory of the SIMULATOR_HOME. Later runs with the same
+ * parameters map the file back. The byte arrays can then be read with {@link #getBuffer(int)} without copying, or be
+ * copied into a new byte array with {@link #get(int)}.
+ *
+ * The file starts with a header with the parameters, followed by the offsets of the byte arrays and their content. A file
+ * with a header which doesn't match the parameters or with the wrong size is generated again.
+ *
+ * This class is thread-safe.
+ */
+public final class ByteArrayDataset {
+
+    static final String DIRECTORY_NAME = "datasets";
+
+    private static final Logger LOGGER = Logger.getLogger(ByteArrayDataset.class);
+
+    private static final int MAGIC = 0x53494d42;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 32;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final int count;
+    private final File file;
+    private final ByteBuffer buffer;
+    private final int dataOffset;
+    private final boolean generated;
+
+    private ByteArrayDataset(int count, File file, ByteBuffer buffer, boolean generated) {
+        this.count = count;
+        this.file = file;
+        this.buffer = buffer;
+        this.dataOffset = HEADER_LENGTH + (count + 1) * 4;
+        this.generated = generated;
+    }
+
+    /**
+     * Returns the dataset with the given parameters from the <tt>datasets</tt> directory of the SIMULATOR_HOME.
+     *
+     * The dataset is generated if it doesn't exist yet.
+     *
+     * @param count     the number of byte arrays
+     * @param minLength the minimum length of a byte array (inclusive)
+     * @param maxLength the maximum length of a byte array (inclusive)
+     * @param seed      the seed of the {@link Random} which generates the byte arrays
+     * @return the dataset
+     */
+    public static ByteArrayDataset getOrCreate(int count, int minLength, int maxLength, long seed) {
+        return getOrCreate(new File(getSimulatorHome(), DIRECTORY_NAME), count, minLength, maxLength, seed);
+    }
+
+    static ByteArrayDataset getOrCreate(File directory, int count, int minLength, int maxLength, long seed) {
+        checkPositive(count, "count");
+        if (minLength < 0 || minLength > maxLength) {
+            throw new IllegalArgumentException(format("Invalid length range [%d, %d]", minLength, maxLength));
+        }
+        long fileLength = HEADER_LENGTH + (count + 1L) * 4 + (long) count * maxLength;
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(format("Dataset of %d byte arrays with a maximum length of %d is too large",
+                    count, maxLength));
+        }
+
+        ensureExistingDirectory(directory);
+        File file = new File(directory, format("bytes-%d-%d-%d-%d.dataset", count, minLength, maxLength, seed));
+        try {
+            ByteBuffer buffer = map(file, count, minLength, maxLength, seed);
+            if (buffer != null) {
+                return new ByteArrayDataset(count, file, buffer, false);
+            }
+
+            generate(directory, file, count, minLength, maxLength, seed);
+            buffer = map(file, count, minLength, maxLength, seed);
+            if (buffer == null) {
+                throw new UncheckedIOException("Generated dataset is invalid: " + file.getAbsolutePath());
+            }
+            return new ByteArrayDataset(count, file, buffer, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load dataset " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Returns the number of byte arrays in this dataset.
+     *
+     * @return the number of byte arrays
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the length of a byte array.
+     *
+     * @param index the index of the byte array
+     * @return the length of the byte array
+     */
+    public int length(int index) {
+        checkIndex(index);
+        return offset(index + 1) - offset(index);
+    }
+
+    /**
+     * Returns a read-only view on the content of a byte array, without copying it.
+     *
+     * @param index the index of the byte array
+     * @return a {@link ByteBuffer} with the content of the byte array
+     */
+    public ByteBuffer getBuffer(int index) {
+        checkIndex(index);
+        ByteBuffer view = buffer.duplicate();
+        view.limit(dataOffset + offset(index + 1));
+        view.position(dataOffset + offset(index));
+        return view.slice();
+    }
+
+    /**
+     * Returns a copy of a byte array.
+     *
+     * @param index the index of the byte array
+     * @return the byte array
+     */
+    public byte[] get(int index) {
+        ByteBuffer view = getBuffer(index);
+        byte[] result = new byte[view.remaining()];
+        view.get(result);
+        return result;
+    }
+
+    /**
+     * Returns copies of all byte arrays of this dataset.
+     *
+     * @return the byte arrays
+     */
+    public byte[][] toArrays() {
+        byte[][] result = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    boolean isGenerated() {
+        return generated;
+    }
+
+    private int offset(int index) {
+        return buffer.getInt(HEADER_LENGTH + index * 4);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(format("Index %d is out of range [0, %d)", index, count));
+        }
+    }
+
+    private static ByteBuffer map(File file, int count, int minLength, int maxLength, long seed) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size < HEADER_LENGTH + (count + 1L) * 4) {
+                return logInvalid(file, "file is too small");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != count
+                    || buffer.getInt(12) != minLength || buffer.getInt(16) != maxLength || buffer.getLong(24) != seed) {
+                return logInvalid(file, "header doesn't match");
+            }
+            int dataLength = buffer.getInt(HEADER_LENGTH + count * 4);
+            if (size != HEADER_LENGTH + (count + 1L) * 4 + dataLength) {
+                return logInvalid(file, "file has the wrong size");
+            }
+
+            LOGGER.info(format("Mapped dataset %s (%d bytes)", file.getAbsolutePath(), size));
+            return buffer;
+        } finally {
+            // the mapping stays valid after the channel is closed
+            closeQuietly(raf);
+        }
+    }
+
+    private static ByteBuffer logInvalid(File file, String reason) {
+        LOGGER.warn(format("Dataset %s is invalid (%s) and will be generated again", file.getAbsolutePath(), reason));
+        return null;
+    }
+
+    private static void generate(File directory, File file, int count, int minLength, int maxLength, long seed)
+            throws IOException {
+        long started = System.nanoTime();
+
+        Random random = new Random(seed);
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            int length = minLength + random.nextInt(maxLength - minLength + 1);
+            offsets[i + 1] = offsets[i] + length;
+        }
+        int dataOffset = HEADER_LENGTH + (count + 1) * 4;
+        int fileLength = dataOffset + offsets[count];
+
+        // multiple Workers on the same machine could generate the same dataset, so it's written to a temporary file first
+        File tmpFile = File.createTempFile(file.getName(), ".tmp", directory);
+        RandomAccessFile raf = new RandomAccessFile(tmpFile, "rw");
+        try {
+            raf.setLength(fileLength);
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileLength);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(minLength).putInt(maxLength).putInt(0).putLong(seed);
+            for (int offset : offsets) {
+                buffer.putInt(offset);
+            }
+            // the content of all byte arrays is a single random stream, so it can be written in large chunks
+            byte[] chunk = new byte[CHUNK_SIZE];
+            while (buffer.hasRemaining()) {
+                int length = Math.min(chunk.length, buffer.remaining());
+                random.nextBytes(chunk);
+                buffer.put(chunk, 0, length);
+            }
+            buffer.force();
+        } finally {
+            closeQuietly(raf);
+        }
+
+        if (!tmpFile.renameTo(file)) {
+            deleteQuiet(tmpFile);
+            if (!file.exists()) {
+                throw new IOException(format("Could not rename %s to %s", tmpFile.getAbsolutePath(), file.getAbsolutePath()));
+            }
+        }
+
+        long durationMs = (System.nanoTime() - started) / 1000000;
+        LOGGER.info(format("Generated dataset %s (%d bytes) in %d ms", file.getAbsolutePath(), fileLength, durationMs));
+    }
+}
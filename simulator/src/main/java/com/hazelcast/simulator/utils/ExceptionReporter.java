@@ -19,6 +19,8 @@ import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.simulator.utils.CommonUtils.throwableToString;
@@ -26,23 +28,71 @@ import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
 import static com.hazelcast.simulator.utils.FileUtils.rename;
 import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
- * Responsible for writing an exception to a file. Every exception file will have a unique name.
+ * Responsible for reporting an exception to the Agent.
+ *
+ * If a {@link Publisher} is set, the exception is pushed directly to the Agent. Otherwise, or if publishing fails, the
+ * exception is written to a file. Every exception file will have a unique name.
+ *
+ * Exceptions are deduplicated by their stack signature (the testId, the exception classes and the stack frames). The first
+ * exception of a signature is always reported immediately. Further exceptions with the same signature are only counted and
+ * reported at most once per {@link #DUPLICATE_REPORT_INTERVAL_MILLIS}, including the number of suppressed exceptions.
+ * On top of that the number of these repeated reports per second is limited by {@link #MAX_REPORTS_PER_SECOND}.
+ * The suppressed exceptions which have not been reported yet are reported by {@link #flush()}.
  */
 public final class ExceptionReporter {
 
     static final int MAX_EXCEPTION_COUNT = 1000;
+    static final int MAX_SIGNATURE_COUNT = 1000;
+    static final int MAX_REPORTS_PER_SECOND = 10;
+    static final long DUPLICATE_REPORT_INTERVAL_MILLIS = SECONDS.toMillis(10);
 
     static final AtomicLong FAILURE_ID = new AtomicLong(0);
+    static final AtomicLong EXCEPTION_COUNT = new AtomicLong(0);
+    static final ConcurrentMap<String, Signature> SIGNATURES = new ConcurrentHashMap<String, Signature>();
 
     private static final Logger LOGGER = Logger.getLogger(ExceptionReporter.class);
+    private static final RateLimiter RATE_LIMITER = new RateLimiter();
+
+    private static volatile Publisher publisher;
+
+    /**
+     * Pushes a reported exception to the Agent.
+     */
+    public interface Publisher {
+
+        /**
+         * Publishes a reported exception.
+         *
+         * @param testId the id of the test that caused the exception, can be <tt>null</tt>
+         * @param cause  the formatted exception
+         * @return <tt>true</tt> if the exception has been published, <tt>false</tt> if it should be written to a file instead
+         */
+        boolean publish(String testId, String cause);
+    }
 
     private ExceptionReporter() {
     }
 
+    public static void setPublisher(Publisher publisher) {
+        ExceptionReporter.publisher = publisher;
+    }
+
+    /**
+     * Returns the number of exceptions which have been passed to {@link #report(String, Throwable)}, including the
+     * deduplicated and rate limited ones.
+     *
+     * @return the number of exceptions
+     */
+    public static long getExceptionCount() {
+        return EXCEPTION_COUNT.get();
+    }
+
     /**
-     * Writes the cause to file.
+     * Reports the cause to the Agent.
      *
      * @param testId the id of the test that caused the exception. Is allowed to be <tt>null</tt> if it is not known which test
      *               caused the problem.
@@ -54,17 +104,70 @@ public final class ExceptionReporter {
             return;
         }
 
-        long exceptionCount = FAILURE_ID.incrementAndGet();
+        long exceptionCount = EXCEPTION_COUNT.incrementAndGet();
 
-        if (exceptionCount > MAX_EXCEPTION_COUNT) {
-            LOGGER.warn("Exception #" + exceptionCount + " detected. The maximum number of exceptions has been exceeded, so it"
+        long suppressedCount = 0;
+        Signature signature = getSignature(testId, cause);
+        if (signature != null) {
+            suppressedCount = signature.tryReport(System.currentTimeMillis());
+            if (suppressedCount < 0) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug(format("Exception #%d detected, suppressed since it has been reported recently: %s",
+                            exceptionCount, cause));
+                }
+                return;
+            }
+        }
+
+        String causeString = throwableToString(cause);
+        if (suppressedCount > 0) {
+            causeString += format("Suppressed %d exceptions with the same stack trace since the last report%s",
+                    suppressedCount, NEW_LINE);
+        }
+        publish(testId, causeString, cause);
+    }
+
+    /**
+     * Reports the number of suppressed exceptions of all stack signatures which have not been reported yet.
+     *
+     * Should be called before the Worker shuts down, so no suppressed exceptions get lost.
+     */
+    public static void flush() {
+        for (Signature signature : SIGNATURES.values()) {
+            long suppressedCount = signature.takeSuppressedCount();
+            if (suppressedCount > 0) {
+                String causeString = format("Suppressed %d exceptions with the same stack trace since the last report:%s%s",
+                        suppressedCount, NEW_LINE, signature.getCause());
+                publish(signature.getTestId(), causeString, null);
+            }
+        }
+    }
+
+    private static void publish(String testId, String causeString, Throwable cause) {
+        long failureId = FAILURE_ID.incrementAndGet();
+
+        if (failureId > MAX_EXCEPTION_COUNT) {
+            LOGGER.warn("Exception #" + failureId + " detected. The maximum number of exceptions has been exceeded, so it"
                     + " won't be reported to the Agent.", cause);
             return;
         }
 
-        LOGGER.warn("Exception #" + exceptionCount + " detected", cause);
+        if (cause != null) {
+            LOGGER.warn("Exception #" + failureId + " detected", cause);
+        } else {
+            LOGGER.warn("Exception #" + failureId + " detected: " + causeString);
+        }
+
+        Publisher currentPublisher = publisher;
+        if (currentPublisher != null && currentPublisher.publish(testId, causeString)) {
+            return;
+        }
+
+        writeExceptionFile(failureId, testId, causeString);
+    }
 
-        String targetFileName = exceptionCount + ".exception";
+    private static void writeExceptionFile(long failureId, String testId, String cause) {
+        String targetFileName = failureId + ".exception";
 
         File dir = getUserDir();
         File tmpFile = new File(dir, targetFileName + ".tmp");
@@ -77,15 +180,120 @@ public final class ExceptionReporter {
             return;
         }
 
-        writeText(testId + NEW_LINE + throwableToString(cause), tmpFile);
+        writeText(testId + NEW_LINE + cause, tmpFile);
 
         File file = new File(dir, targetFileName);
         LOGGER.info(file.getAbsolutePath());
         rename(tmpFile, file);
     }
 
+    private static Signature getSignature(String testId, Throwable cause) {
+        String key = stackSignature(testId, cause);
+        Signature signature = SIGNATURES.get(key);
+        if (signature != null) {
+            return signature;
+        }
+        if (SIGNATURES.size() >= MAX_SIGNATURE_COUNT) {
+            // we don't track any more signatures, so the exception is just reported
+            return null;
+        }
+        Signature newSignature = new Signature(testId, throwableToString(cause));
+        signature = SIGNATURES.putIfAbsent(key, newSignature);
+        return signature == null ? newSignature : signature;
+    }
+
+    static String stackSignature(String testId, Throwable cause) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(testId);
+        Throwable throwable = cause;
+        // the depth is limited to protect against cyclic causes
+        for (int depth = 0; throwable != null && depth < 10; depth++) {
+            sb.append('|').append(throwable.getClass().getName());
+            for (StackTraceElement element : throwable.getStackTrace()) {
+                sb.append(';').append(element.getClassName()).append('.').append(element.getMethodName())
+                        .append(':').append(element.getLineNumber());
+            }
+            throwable = throwable.getCause();
+        }
+        return sb.toString();
+    }
+
     // just for testing
     public static void reset() {
         FAILURE_ID.set(0);
+        EXCEPTION_COUNT.set(0);
+        SIGNATURES.clear();
+        RATE_LIMITER.reset();
+        publisher = null;
+    }
+
+    static final class Signature {
+
+        private final String testId;
+        private final String cause;
+
+        private boolean reported;
+        private long lastReportMillis;
+        private long suppressedCount;
+
+        Signature(String testId, String cause) {
+            this.testId = testId;
+            this.cause = cause;
+        }
+
+        String getTestId() {
+            return testId;
+        }
+
+        String getCause() {
+            return cause;
+        }
+
+        /**
+         * Checks if an exception with this signature should be reported.
+         *
+         * The first exception of a signature is always reported, so a failure can't get lost in a burst of other exceptions.
+         *
+         * @param nowMillis the current time
+         * @return the number of suppressed exceptions since the last report or <tt>-1</tt> if the exception is suppressed
+         */
+        synchronized long tryReport(long nowMillis) {
+            if (reported
+                    && (nowMillis - lastReportMillis < DUPLICATE_REPORT_INTERVAL_MILLIS || !RATE_LIMITER.tryAcquire(nowMillis))) {
+                suppressedCount++;
+                return -1;
+            }
+            long result = suppressedCount;
+            suppressedCount = 0;
+            reported = true;
+            lastReportMillis = nowMillis;
+            return result;
+        }
+
+        synchronized long takeSuppressedCount() {
+            long result = suppressedCount;
+            suppressedCount = 0;
+            return result;
+        }
+    }
+
+    private static final class RateLimiter {
+
+        private long currentSecond;
+        private int count;
+
+        synchronized boolean tryAcquire(long nowMillis) {
+            long second = nowMillis / SECONDS.toMillis(1);
+            if (second != currentSecond) {
+                currentSecond = second;
+                count = 0;
+            }
+            return ++count <= MAX_REPORTS_PER_SECOND;
+        }
+
+        synchronized void reset() {
+            currentSecond = 0;
+            count = 0;
+        }
     }
 }
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.HistogramLogReader;
+import org.apache.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+import static java.lang.Math.log;
+import static java.lang.Math.log10;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.lang.String.format;
+
+/**
+ * Converts the interval Histograms of a HDR file into a latency heatmap.
+ *
+ * The heatmap is a matrix of time columns and latency buckets, which contains the number of recorded values per cell. In
+ * contrast to percentiles over time it shows a multimodal latency distribution, e.g. a fast local and a slow remote path,
+ * and when a second mode appears, e.g. during a migration.
+ *
+ * The latency buckets are logarithmic, with a fixed number of buckets per decade of microseconds. Every interval Histogram is
+ * added to the time column which contains the middle of its interval. If there are more intervals than columns, multiple
+ * intervals are added to a single column, so the size of the heatmap doesn't depend on the duration of the test.
+ *
+ * The heatmap is written as CSV file with a row per time column and as PNG image with a logarithmic color scale.
+ */
+@SuppressWarnings("checkstyle:magicnumber")
+public final class HistogramHeatmap {
+
+    static final String CSV_SUFFIX = "-heatmap.csv";
+    static final String PNG_SUFFIX = "-heatmap.png";
+
+    private static final Logger LOGGER = Logger.getLogger(HistogramHeatmap.class);
+
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final int MAX_IMAGE_WIDTH = 1200;
+    private static final int MAX_IMAGE_HEIGHT = 600;
+    private static final int MARGIN_LEFT = 70;
+    private static final int MARGIN_BOTTOM = 30;
+    private static final int MARGIN_TOP = 10;
+    private static final int MARGIN_RIGHT = 10;
+    private static final int X_LABEL_COUNT = 6;
+
+    private final int bucketsPerDecade;
+    private final int maxColumns;
+
+    private long startMillis;
+    private long columnMillis;
+    private int minBucket;
+    private long[][] counts;
+
+    /**
+     * Creates a HistogramHeatmap.
+     *
+     * @param bucketsPerDecade the number of latency buckets per decade of microseconds
+     * @param maxColumns       the maximum number of time columns
+     */
+    public HistogramHeatmap(int bucketsPerDecade, int maxColumns) {
+        if (bucketsPerDecade < 1) {
+            throw new IllegalArgumentException("bucketsPerDecade has to be at least 1");
+        }
+        if (maxColumns < 1) {
+            throw new IllegalArgumentException("maxColumns has to be at least 1");
+        }
+        this.bucketsPerDecade = bucketsPerDecade;
+        this.maxColumns = maxColumns;
+    }
+
+    /**
+     * Loads the interval Histograms of a HDR file.
+     *
+     * The HDR file is read twice: once to determine the time and latency range and once to fill the heatmap, so the
+     * Histograms don't have to be kept in memory.
+     *
+     * @param hdrFile the HDR file
+     * @throws IOException if the HDR file could not be read
+     */
+    public void load(File hdrFile) throws IOException {
+        long endMillis = Long.MIN_VALUE;
+        int maxBucket = Integer.MIN_VALUE;
+        int intervalCount = 0;
+        startMillis = Long.MAX_VALUE;
+        minBucket = Integer.MAX_VALUE;
+
+        InputStream inputStream = new FileInputStream(hdrFile);
+        try {
+            HistogramLogReader reader = new HistogramLogReader(inputStream);
+            Histogram histogram;
+            while ((histogram = nextHistogram(reader)) != null) {
+                intervalCount++;
+                startMillis = min(startMillis, histogram.getStartTimeStamp());
+                endMillis = max(endMillis, histogram.getEndTimeStamp());
+                if (histogram.getTotalCount() > 0) {
+                    minBucket = min(minBucket, getBucket(histogram.getMinNonZeroValue()));
+                    maxBucket = max(maxBucket, getBucket(histogram.getMaxValue()));
+                }
+            }
+        } finally {
+            closeQuietly(inputStream);
+        }
+
+        if (maxBucket == Integer.MIN_VALUE) {
+            counts = new long[0][0];
+            return;
+        }
+
+        int columnCount = min(maxColumns, intervalCount);
+        columnMillis = max(1, (long) ceil((endMillis - startMillis) / (double) columnCount));
+        columnCount = (int) min(columnCount, (endMillis - startMillis + columnMillis - 1) / columnMillis);
+        counts = new long[max(1, columnCount)][maxBucket - minBucket + 1];
+
+        inputStream = new FileInputStream(hdrFile);
+        try {
+            HistogramLogReader reader = new HistogramLogReader(inputStream);
+            Histogram histogram;
+            while ((histogram = nextHistogram(reader)) != null) {
+                add(histogram);
+            }
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
+    private void add(Histogram histogram) {
+        long middleMillis = (histogram.getStartTimeStamp() + histogram.getEndTimeStamp()) / 2;
+        int column = (int) min(counts.length - 1, max(0, (middleMillis - startMillis) / columnMillis));
+        for (HistogramIterationValue value : histogram.recordedValues()) {
+            counts[column][getBucket(value.getValueIteratedTo()) - minBucket] += value.getCountAtValueIteratedTo();
+        }
+    }
+
+    private static Histogram nextHistogram(HistogramLogReader reader) {
+        while (true) {
+            EncodableHistogram histogram = reader.nextIntervalHistogram();
+            if (histogram == null || histogram instanceof Histogram) {
+                return (Histogram) histogram;
+            }
+        }
+    }
+
+    // returns the absolute bucket of a latency in nanoseconds; bucket 0 starts at 1 microsecond
+    private int getBucket(long valueNanos) {
+        double micros = max(1, valueNanos / NANOS_PER_MICRO);
+        return (int) floor(log10(micros) * bucketsPerDecade);
+    }
+
+    public int getColumnCount() {
+        return counts.length;
+    }
+
+    public int getBucketCount() {
+        return counts.length == 0 ? 0 : counts[0].length;
+    }
+
+    public long getCount(int column, int bucket) {
+        return counts[column][bucket];
+    }
+
+    /**
+     * Returns the start of a time column in seconds since the start of the HDR file.
+     *
+     * @param column the time column
+     * @return the start of the column in seconds
+     */
+    public double getColumnStartSeconds(int column) {
+        return column * columnMillis / 1000.0;
+    }
+
+    /**
+     * Returns the upper bound of a latency bucket.
+     *
+     * @param bucket the latency bucket
+     * @return the exclusive upper bound in microseconds
+     */
+    public double getBucketUpperBoundMicros(int bucket) {
+        return pow(10, (minBucket + bucket + 1) / (double) bucketsPerDecade);
+    }
+
+    /**
+     * Writes the heatmap as CSV file with a row per time column and a column per latency bucket.
+     *
+     * @param file the CSV file
+     */
+    public void writeCsv(File file) {
+        StringBuilder sb = new StringBuilder("\"Time\"");
+        for (int bucket = 0; bucket < getBucketCount(); bucket++) {
+            sb.append(",\"<").append(formatMicros(getBucketUpperBoundMicros(bucket))).append('"');
+        }
+        sb.append('\n');
+        for (int column = 0; column < getColumnCount(); column++) {
+            sb.append(format(Locale.US, "%.3f", getColumnStartSeconds(column)));
+            for (long count : counts[column]) {
+                sb.append(',').append(count);
+            }
+            sb.append('\n');
+        }
+        writeText(sb.toString(), file);
+    }
+
+    /**
+     * Renders the heatmap as PNG image, with the time on the x-axis and the latency on the y-axis.
+     *
+     * The color of a cell is scaled logarithmically by its count, so rare slow latencies are still visible next to the
+     * large number of fast latencies.
+     *
+     * @param file the PNG file
+     * @throws IOException if the image could not be written
+     */
+    public void writePng(File file) throws IOException {
+        int columnCount = max(1, getColumnCount());
+        int bucketCount = max(1, getBucketCount());
+        int cellWidth = max(1, MAX_IMAGE_WIDTH / columnCount);
+        int cellHeight = max(1, MAX_IMAGE_HEIGHT / bucketCount);
+        int plotWidth = columnCount * cellWidth;
+        int plotHeight = bucketCount * cellHeight;
+
+        BufferedImage image = new BufferedImage(MARGIN_LEFT + plotWidth + MARGIN_RIGHT, MARGIN_TOP + plotHeight + MARGIN_BOTTOM,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+            double maxLogCount = log(getMaxCount() + 1);
+            for (int column = 0; column < getColumnCount(); column++) {
+                for (int bucket = 0; bucket < getBucketCount(); bucket++) {
+                    long count = counts[column][bucket];
+                    if (count == 0) {
+                        continue;
+                    }
+                    graphics.setColor(getColor(log(count + 1) / maxLogCount));
+                    // the lowest latencies are at the bottom
+                    int y = MARGIN_TOP + plotHeight - (bucket + 1) * cellHeight;
+                    graphics.fillRect(MARGIN_LEFT + column * cellWidth, y, cellWidth, cellHeight);
+                }
+            }
+
+            drawAxes(graphics, plotWidth, plotHeight, cellWidth, cellHeight);
+        } finally {
+            graphics.dispose();
+        }
+
+        if (!ImageIO.write(image, "png", file)) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    private void drawAxes(Graphics2D graphics, int plotWidth, int plotHeight, int cellWidth, int cellHeight) {
+        graphics.setColor(Color.BLACK);
+        graphics.drawRect(MARGIN_LEFT, MARGIN_TOP, plotWidth, plotHeight);
+
+        // a label per decade of latency
+        for (int bucket = 0; bucket < getBucketCount(); bucket++) {
+            if ((minBucket + bucket) % bucketsPerDecade == 0) {
+                int y = MARGIN_TOP + plotHeight - bucket * cellHeight;
+                graphics.drawLine(MARGIN_LEFT - 4, y, MARGIN_LEFT, y);
+                graphics.drawString(formatMicros(pow(10, (minBucket + bucket) / (double) bucketsPerDecade)), 4, y + 4);
+            }
+        }
+
+        int step = max(1, getColumnCount() / X_LABEL_COUNT);
+        for (int column = 0; column < getColumnCount(); column += step) {
+            int x = MARGIN_LEFT + column * cellWidth;
+            graphics.drawLine(x, MARGIN_TOP + plotHeight, x, MARGIN_TOP + plotHeight + 4);
+            graphics.drawString(format(Locale.US, "%.0fs", getColumnStartSeconds(column)), x, MARGIN_TOP + plotHeight + 18);
+        }
+    }
+
+    private long getMaxCount() {
+        long maxCount = 0;
+        for (long[] column : counts) {
+            for (long count : column) {
+                maxCount = max(maxCount, count);
+            }
+        }
+        return maxCount;
+    }
+
+    // returns a color from light yellow for the smallest to dark red for the largest counts
+    private static Color getColor(double fraction) {
+        float value = (float) min(1, max(0, fraction));
+        return new Color(1f - 0.5f * value, 1f - 0.9f * value, 0.6f * (1f - value));
+    }
+
+    private static String formatMicros(double micros) {
+        if (micros >= 1000000) {
+            return format(Locale.US, "%.3gs", micros / 1000000);
+        }
+        if (micros >= 1000) {
+            return format(Locale.US, "%.3gms", micros / 1000);
+        }
+        return format(Locale.US, "%.3gus", micros);
+    }
+
+    public static void main(String[] args) {
+        try {
+            run(args);
+        } catch (Exception e) {
+            exitWithError(LOGGER, "Could not create latency heatmap!", e);
+        }
+    }
+
+    static void run(String[] args) throws IOException {
+        OptionParser parser = new OptionParser();
+        OptionSpec<Integer> bucketsSpec = parser.accepts("bucketsPerDecade",
+                "The number of latency buckets per decade of microseconds.")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(10);
+        OptionSpec<Integer> columnsSpec = parser.accepts("columns",
+                "The maximum number of time columns.")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(600);
+
+        OptionSet options = CliUtils.initOptionsWithHelp(parser, args);
+        List<?> hdrFiles = options.nonOptionArguments();
+        if (hdrFiles.isEmpty()) {
+            throw new CommandLineExitException("You have to provide at least one HDR file");
+        }
+
+        for (Object argument : hdrFiles) {
+            File hdrFile = new File(argument.toString());
+            if (!hdrFile.isFile()) {
+                throw new CommandLineExitException(format("HDR file %s doesn't exist", hdrFile.getAbsolutePath()));
+            }
+            HistogramHeatmap heatmap = new HistogramHeatmap(options.valueOf(bucketsSpec), options.valueOf(columnsSpec));
+            heatmap.load(hdrFile);
+
+            String baseName = hdrFile.getName().endsWith(".hdr")
+                    ? hdrFile.getName().substring(0, hdrFile.getName().length() - ".hdr".length())
+                    : hdrFile.getName();
+            heatmap.writeCsv(new File(hdrFile.getParentFile(), baseName + CSV_SUFFIX));
+            heatmap.writePng(new File(hdrFile.getParentFile(), baseName + PNG_SUFFIX));
+            LOGGER.info(format("Created latency heatmap of %s with %d columns and %d buckets", hdrFile.getName(),
+                    heatmap.getColumnCount(), heatmap.getBucketCount()));
+        }
+    }
+}
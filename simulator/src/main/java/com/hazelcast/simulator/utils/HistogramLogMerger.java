@@ -16,68 +16,221 @@
 
 package com.hazelcast.simulator.utils;
 
+import org.HdrHistogram.EncodableHistogram;
 import org.HdrHistogram.Histogram;
 import org.HdrHistogram.HistogramLogReader;
 import org.HdrHistogram.HistogramLogWriter;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
 
 /**
- * The HistogramLogMerger merges the Histograms of multiple HDR files. This will be done based under the assumption that
- * every histogram spans the same duration.
+ * The HistogramLogMerger merges the Histograms of multiple HDR files.
  *
- * It works like this; from each HistogramLogReader a Histogram is read and merged into a final Histogram and this Histogram
- * is written into the merged HDR. Once round is complete, the next Histogram is retrieved. The different HDR files don't need
- * to have the same length; as soon as a HDR is finished, it is ignored and this continues till all HDR files are fully processed.
+ * The Histograms are aligned on their timestamps: the time is divided into windows of equal length and every Histogram is
+ * added to the window which contains the middle of its interval. So a Worker which has started late or has missed an interval
+ * doesn't shift the Histograms of the other Workers. The window length is the longest interval of the first Histograms of the
+ * HDR files, rounded to whole seconds, which is the interval of the performance monitor of the Workers.
+ *
+ * The HDR files are streamed, so only a single Histogram per HDR file is kept in memory. The HDR files are divided into
+ * groups, which are merged in parallel. Each group produces a stream of partially merged windows, which are merged into the
+ * final windows by the calling thread.
  */
 public final class HistogramLogMerger {
 
+    // the capacity of the queue of partially merged windows per group
+    private static final int QUEUE_CAPACITY = 16;
+    private static final long MIN_WINDOW_MILLIS = 1000;
+
+    private static final Window END = new Window(-1, null);
+
     private HistogramLogMerger() {
     }
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws Exception {
         File outputFile = new File(args[0]);
+        List<File> inputFiles = new ArrayList<File>(args.length - 1);
+        for (int k = 1; k < args.length; k++) {
+            inputFiles.add(new File(args[k]));
+        }
+
+        merge(outputFile, inputFiles, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Merges the Histograms of the given HDR files into a single HDR file.
+     *
+     * @param outputFile  the merged HDR file
+     * @param inputFiles  the HDR files to merge
+     * @param threadCount the maximum number of threads to merge the HDR files in parallel
+     * @return the number of written windows
+     * @throws Exception if the HDR files could not be read or written
+     */
+    public static int merge(File outputFile, List<File> inputFiles, int threadCount) throws Exception {
         deleteQuiet(outputFile);
         ensureExistingFile(outputFile);
 
-        HistogramLogReader[] readers = new HistogramLogReader[args.length - 1];
-        for (int k = 1; k < args.length; k++) {
-            String inputFile = args[k];
-            readers[k - 1] = new HistogramLogReader(inputFile);
+        List<LogInput> inputs = new ArrayList<LogInput>(inputFiles.size());
+        try {
+            for (File inputFile : inputFiles) {
+                LogInput input = new LogInput(inputFile);
+                if (input.peek() != null) {
+                    inputs.add(input);
+                } else {
+                    closeQuietly(input);
+                }
+            }
+            return mergeInputs(outputFile, inputs, threadCount);
+        } finally {
+            closeQuietly(inputs);
         }
+    }
 
-        HistogramLogWriter writer = new HistogramLogWriter(outputFile);
-        writer.outputComment("[Latency histograms for " + getBaseName(outputFile) + ']');
+    private static int mergeInputs(File outputFile, List<LogInput> inputs, int threadCount) throws Exception {
+        PrintStream printStream = new PrintStream(new FileOutputStream(outputFile), false, "UTF-8");
+        try {
+            int windowCount = merge(new HistogramLogWriter(printStream), getBaseName(outputFile), inputs, threadCount);
+            if (printStream.checkError()) {
+                throw new IOException("Failed to write merged HDR file " + outputFile);
+            }
+            return windowCount;
+        } finally {
+            closeQuietly(printStream);
+        }
+    }
+
+    private static int merge(HistogramLogWriter writer, String name, List<LogInput> inputs, int threadCount)
+            throws Exception {
+        writer.outputComment("[Latency histograms for " + name + ']');
+        if (inputs.isEmpty()) {
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            return 0;
+        }
+
+        long windowMillis = getWindowMillis(inputs);
+        long startMillis = getFirstWindow(inputs, windowMillis) * windowMillis;
+        writer.setBaseTime(startMillis);
+        writer.outputStartTime(startMillis);
         writer.outputLogFormatVersion();
         writer.outputLegend();
 
-        for (; ; ) {
-            Histogram merged = null;
-            for (HistogramLogReader reader : readers) {
-                Histogram histogram = (Histogram) reader.nextIntervalHistogram();
-                if (histogram == null) {
-                    continue;
+        List<GroupMerger> groups = createGroups(inputs, windowMillis, max(1, min(threadCount, inputs.size())));
+        for (GroupMerger group : groups) {
+            group.start();
+        }
+
+        int windowCount = 0;
+        try {
+            Window[] heads = new Window[groups.size()];
+            for (int i = 0; i < heads.length; i++) {
+                heads[i] = groups.get(i).take();
+            }
+
+            for (; ; ) {
+                long index = Long.MAX_VALUE;
+                for (Window head : heads) {
+                    if (head != END) {
+                        index = min(index, head.index);
+                    }
+                }
+                if (index == Long.MAX_VALUE) {
+                    break;
                 }
 
-                if (merged == null) {
-                    merged = new Histogram(
-                            histogram.getLowestDiscernibleValue(),
-                            histogram.getHighestTrackableValue(),
-                            histogram.getNumberOfSignificantValueDigits());
+                Histogram merged = null;
+                for (int i = 0; i < heads.length; i++) {
+                    if (heads[i] != END && heads[i].index == index) {
+                        merged = add(merged, heads[i].histogram);
+                        heads[i] = groups.get(i).take();
+                    }
                 }
-                merged.add(histogram);
+
+                merged.setStartTimeStamp(index * windowMillis);
+                merged.setEndTimeStamp((index + 1) * windowMillis);
+                writer.outputIntervalHistogram(merged);
+                windowCount++;
             }
+        } finally {
+            for (GroupMerger group : groups) {
+                group.interrupt();
+            }
+        }
 
-            if (merged == null) {
-                break;
+        for (GroupMerger group : groups) {
+            group.join();
+            if (group.failure != null) {
+                throw new IOException("Failed to merge HDR files", group.failure);
             }
+        }
+        return windowCount;
+    }
+
+    static long getWindowMillis(List<LogInput> inputs) {
+        long intervalMillis = 0;
+        for (LogInput input : inputs) {
+            Histogram histogram = input.peek();
+            intervalMillis = max(intervalMillis, histogram.getEndTimeStamp() - histogram.getStartTimeStamp());
+        }
+        long windowMillis = Math.round(intervalMillis / (double) MIN_WINDOW_MILLIS) * MIN_WINDOW_MILLIS;
+        return max(windowMillis, MIN_WINDOW_MILLIS);
+    }
+
+    private static long getFirstWindow(List<LogInput> inputs, long windowMillis) {
+        long firstWindow = Long.MAX_VALUE;
+        for (LogInput input : inputs) {
+            firstWindow = min(firstWindow, getWindow(input.peek(), windowMillis));
+        }
+        return firstWindow;
+    }
+
+    static long getWindow(Histogram histogram, long windowMillis) {
+        long middleMillis = histogram.getStartTimeStamp() + (histogram.getEndTimeStamp() - histogram.getStartTimeStamp()) / 2;
+        return middleMillis / windowMillis;
+    }
+
+    private static List<GroupMerger> createGroups(List<LogInput> inputs, long windowMillis, int groupCount) {
+        List<List<LogInput>> groupInputs = new ArrayList<List<LogInput>>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            groupInputs.add(new LinkedList<LogInput>());
+        }
+        for (int i = 0; i < inputs.size(); i++) {
+            groupInputs.get(i % groupCount).add(inputs.get(i));
+        }
+
+        List<GroupMerger> groups = new ArrayList<GroupMerger>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(new GroupMerger(i, groupInputs.get(i), windowMillis));
+        }
+        return groups;
+    }
 
-            writer.outputIntervalHistogram(merged);
+    private static Histogram add(Histogram merged, Histogram histogram) {
+        if (merged == null) {
+            merged = new Histogram(histogram.getLowestDiscernibleValue(), histogram.getHighestTrackableValue(),
+                    histogram.getNumberOfSignificantValueDigits());
+            // the Histograms of different Workers can have a different range
+            merged.setAutoResize(true);
         }
+        merged.add(histogram);
+        return merged;
     }
 
     private static String getBaseName(File file) {
@@ -85,4 +238,124 @@ public final class HistogramLogMerger {
         int pos = name.lastIndexOf('.');
         return pos == -1 ? name : name.substring(0, pos);
     }
+
+    /**
+     * A window of merged Histograms.
+     */
+    private static final class Window {
+
+        private final long index;
+        private final Histogram histogram;
+
+        private Window(long index, Histogram histogram) {
+            this.index = index;
+            this.histogram = histogram;
+        }
+    }
+
+    /**
+     * Streams the Histograms of a single HDR file.
+     */
+    static final class LogInput implements Closeable {
+
+        private final File file;
+        private final InputStream inputStream;
+        private final HistogramLogReader reader;
+        private Histogram next;
+
+        LogInput(File file) throws IOException {
+            this.file = file;
+            this.inputStream = new FileInputStream(file);
+            this.reader = new HistogramLogReader(inputStream);
+        }
+
+        Histogram peek() {
+            if (next == null) {
+                EncodableHistogram histogram = reader.nextIntervalHistogram();
+                if (histogram != null && !(histogram instanceof Histogram)) {
+                    throw new IllegalArgumentException(format("HDR file %s contains unsupported %s", file,
+                            histogram.getClass().getSimpleName()));
+                }
+                next = (Histogram) histogram;
+            }
+            return next;
+        }
+
+        Histogram poll() {
+            Histogram histogram = peek();
+            next = null;
+            return histogram;
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Merges the windows of a group of HDR files and passes them in order of their index to the calling thread.
+     */
+    private static final class GroupMerger extends Thread {
+
+        private final BlockingQueue<Window> queue = new ArrayBlockingQueue<Window>(QUEUE_CAPACITY);
+        private final List<LogInput> inputs;
+        private final long windowMillis;
+
+        private volatile Throwable failure;
+
+        private GroupMerger(int groupIndex, List<LogInput> inputs, long windowMillis) {
+            super("HistogramLogMerger-" + groupIndex);
+            setDaemon(true);
+            this.inputs = inputs;
+            this.windowMillis = windowMillis;
+        }
+
+        private Window take() throws InterruptedException {
+            return queue.take();
+        }
+
+        @Override
+        public void run() {
+            try {
+                long lastIndex = Long.MIN_VALUE;
+                for (; ; ) {
+                    long index = Long.MAX_VALUE;
+                    for (LogInput input : inputs) {
+                        Histogram histogram = input.peek();
+                        if (histogram != null) {
+                            index = min(index, getWindow(histogram, windowMillis));
+                        }
+                    }
+                    if (index == Long.MAX_VALUE) {
+                        break;
+                    }
+                    // a Histogram which is out of order is added to the current window, so the windows stay ordered
+                    index = max(index, lastIndex + 1);
+
+                    Histogram merged = null;
+                    for (LogInput input : inputs) {
+                        Histogram histogram = input.peek();
+                        while (histogram != null && getWindow(histogram, windowMillis) <= index) {
+                            merged = add(merged, input.poll());
+                            histogram = input.peek();
+                        }
+                    }
+                    if (merged != null) {
+                        queue.put(new Window(index, merged));
+                        lastIndex = index;
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                failure = t;
+            }
+            try {
+                queue.put(END);
+            } catch (InterruptedException ignore) {
+                EmptyStatement.ignore(ignore);
+            }
+        }
+    }
 }
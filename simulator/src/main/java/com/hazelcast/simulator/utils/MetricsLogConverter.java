@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import com.hazelcast.simulator.worker.performance.MetricsLog;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static java.lang.String.format;
+
+/**
+ * Converts the binary {@link MetricsLog} of a Worker into a CSV file, e.g. <tt>metrics.bin</tt> into <tt>metrics.csv</tt>.
+ *
+ * The CSV file has a row per interval and a column per metric. The first column is the epoch time in seconds, like in the
+ * <tt>performance.csv</tt> of the Worker. Metrics without a value in an interval have an empty cell.
+ */
+public final class MetricsLogConverter {
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsLogConverter.class);
+    private static final double MILLIS_PER_SECOND = 1000;
+
+    private MetricsLogConverter() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            if (args.length == 0) {
+                throw new CommandLineExitException("You have to provide at least one metrics log");
+            }
+            for (String arg : args) {
+                File metricsFile = new File(arg);
+                File csvFile = convert(metricsFile);
+                LOGGER.info(format("Converted %s to %s", metricsFile.getAbsolutePath(), csvFile.getAbsolutePath()));
+            }
+        } catch (Exception e) {
+            exitWithError(LOGGER, "Could not convert metrics log!", e);
+        }
+    }
+
+    /**
+     * Converts a metrics log into a CSV file next to it.
+     *
+     * @param metricsFile the metrics log
+     * @return the CSV file
+     * @throws IOException if the metrics log could not be read
+     */
+    public static File convert(File metricsFile) throws IOException {
+        String name = metricsFile.getName();
+        int index = name.lastIndexOf('.');
+        File csvFile = new File(metricsFile.getParentFile(), (index > 0 ? name.substring(0, index) : name) + ".csv");
+        writeText(toCsv(MetricsLog.read(metricsFile)), csvFile);
+        return csvFile;
+    }
+
+    static String toCsv(MetricsLog metricsLog) {
+        List<String> names = metricsLog.getNames();
+        StringBuilder sb = new StringBuilder("epoch");
+        for (String name : names) {
+            sb.append(',').append(name);
+        }
+        sb.append('\n');
+
+        long[] timestamps = metricsLog.getTimestamps();
+        for (int row = 0; row < timestamps.length; row++) {
+            sb.append(format(Locale.US, "%.3f", timestamps[row] / MILLIS_PER_SECOND));
+            for (String name : names) {
+                sb.append(',');
+                double value = metricsLog.getValues(name)[row];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                if (metricsLog.isLong(name)) {
+                    sb.append((long) value);
+                } else {
+                    sb.append(format(Locale.US, "%.3f", value));
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -44,4 +44,11 @@ public final class Preconditions {
         }
         return argument;
     }
+
+    public static long checkPositive(long argument, String variable) {
+        if (argument <= 0) {
+            throw new IllegalArgumentException(format("'%s' must be larger than zero", variable));
+        }
+        return argument;
+    }
 }
@@ -15,30 +15,41 @@
  */
 package com.hazelcast.simulator.worker;
 
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
+import com.hazelcast.simulator.agent.workerprocess.WorkerProcessPool;
 import com.hazelcast.simulator.common.ShutdownThread;
+import com.hazelcast.simulator.coordinator.operations.FailureOperation;
 import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.vendors.VendorDriver;
 import com.hazelcast.simulator.worker.operations.TerminateWorkerOperation;
+import com.hazelcast.simulator.worker.performance.HistogramLogSettings;
 import com.hazelcast.simulator.worker.performance.PerformanceMonitor;
+import com.hazelcast.simulator.worker.performance.StallDetector;
 import com.hazelcast.simulator.worker.testcontainer.TestManager;
 import org.apache.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.simulator.agent.workerprocess.WorkerProcessPool.POOLED_ENV_KEY;
+import static com.hazelcast.simulator.common.FailureType.WORKER_EXCEPTION;
 import static com.hazelcast.simulator.common.GitInfo.getBuildTime;
 import static com.hazelcast.simulator.common.GitInfo.getCommitIdAbbrev;
 import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
 import static com.hazelcast.simulator.utils.CommonUtils.getSimulatorVersion;
+import static com.hazelcast.simulator.utils.EmptyStatement.ignore;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
 import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
@@ -48,22 +59,36 @@ import static com.hazelcast.simulator.utils.NativeUtils.getInputArgs;
 import static com.hazelcast.simulator.utils.NativeUtils.getPID;
 import static com.hazelcast.simulator.utils.SimulatorUtils.localIp;
 import static com.hazelcast.simulator.vendors.VendorDriver.loadVendorDriver;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Double.parseDouble;
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
 
 public class Worker {
 
     private static final String DASHES = "---------------------------";
     private static final Logger LOGGER = Logger.getLogger(Worker.class);
+    // the classes which are loaded by an idle Worker JVM, while it waits to be claimed
+    private static final String[] PRELOADED_CLASSES = {
+            "com.hazelcast.simulator.protocol.Server",
+            "com.hazelcast.simulator.worker.testcontainer.TestManager",
+            "com.hazelcast.simulator.worker.performance.PerformanceMonitor",
+            "com.hazelcast.simulator.vendors.HazelcastDriver",
+            "com.hazelcast.core.Hazelcast",
+            "com.hazelcast.client.HazelcastClient",
+    };
 
     private final AtomicBoolean shutdownStarted = new AtomicBoolean();
     private final String publicAddress;
     private final PerformanceMonitor performanceMonitor;
+    private final WorkerHeartbeat heartbeat;
     private final Server server;
     private final TestManager testManager;
     private final VendorDriver vendorDriver;
     private final Map<String, String> parameters;
     private final SimulatorAddress workerAddress;
+    private final long workerStartedMillis = currentTimeMillis();
     private ShutdownThread shutdownThread;
 
     public Worker(Map<String, String> parameters) throws Exception {
@@ -78,7 +103,10 @@ public class Worker {
                 .setBrokerURL(localIp(), parseInt(parameters.get("AGENT_PORT")))
                 .setSelfAddress(workerAddress);
 
-        this.testManager = new TestManager(server, vendorDriver);
+        HistogramLogSettings histogramLogSettings = HistogramLogSettings.fromParameters(
+                parameters.get("WORKER_HISTOGRAM_ROLLUP_SECONDS"),
+                parameters.get("WORKER_HISTOGRAM_RETENTION_SECONDS"));
+        this.testManager = new TestManager(server, vendorDriver, histogramLogSettings);
 
         ScriptExecutor scriptExecutor = new ScriptExecutor(vendorDriver);
 
@@ -87,32 +115,58 @@ public class Worker {
         Runtime.getRuntime().addShutdownHook(new WorkerShutdownThread(true));
 
         int interval = Integer.parseInt(parameters.get("WORKER_PERFORMANCE_MONITOR_INTERVAL_SECONDS"));
-        this.performanceMonitor = new PerformanceMonitor(server, testManager, interval);
+        boolean aggregatedByAgent = parseBoolean(parameters.get("AGENT_PERFORMANCE_STATS_AGGREGATION"));
+        StallDetector stallDetector = new StallDetector(getUserDir(),
+                parseInt(parameters.get("WORKER_STALL_TIMEOUT_SECONDS")),
+                parseDouble(parameters.get("WORKER_STALL_THROUGHPUT_FRACTION")));
+        this.performanceMonitor = new PerformanceMonitor(server, testManager, interval, aggregatedByAgent, stallDetector);
+
+        int heartbeatIntervalSeconds = parseInt(parameters.get("WORKER_PING_INTERVAL_SECONDS"));
+        this.heartbeat = new WorkerHeartbeat(server, testManager, heartbeatIntervalSeconds);
     }
 
     public void start() throws Exception {
         logInterestingJvmSettings();
 
         server.start();
+        // from now on exceptions are pushed to the Agent; the exception files are only used as fallback
+        ExceptionReporter.setPublisher(new AgentExceptionPublisher(server, workerAddress));
 
         performanceMonitor.start();
 
         vendorDriver.createVendorInstance();
+        long vendorInstanceCreatedMillis = currentTimeMillis();
 
         // we need to signal start after everything has completed. Otherwise messages could be send on the agent topic
         // without the agent being subscribed.
+        server.sendAgent(new WorkerReadyOperation(
+                ManagementFactory.getRuntimeMXBean().getStartTime(),
+                workerStartedMillis,
+                vendorInstanceCreatedMillis,
+                currentTimeMillis()));
+        // the PID file is kept as fallback for the ready signal
         writeText("" + getPID(), new File(getUserDir(), "worker.pid"));
 
+        // the heartbeat is started after the ready signal, so the Agent knows the Worker when the first heartbeat arrives
+        heartbeat.start();
+
         logHeader("Successfully started Worker #" + workerAddress);
     }
 
     public void shutdown(TerminateWorkerOperation op) {
         LOGGER.warn("Terminating worker");
+        // the suppressed exceptions are pushed to the Agent before the connection is closed
+        flushExceptions();
         closeQuietly(server);
         shutdownThread = new WorkerShutdownThread(op.isRealShutdown());
         shutdownThread.start();
     }
 
+    private static void flushExceptions() {
+        ExceptionReporter.flush();
+        LOGGER.info(format("Detected %d exceptions", ExceptionReporter.getExceptionCount()));
+    }
+
     // just for testing
     void awaitShutdown() throws Exception {
         if (shutdownThread != null) {
@@ -126,6 +180,10 @@ public class Worker {
 
     public static void main(String[] args) {
         try {
+            if (parseBoolean(System.getenv(POOLED_ENV_KEY))) {
+                awaitClaim();
+            }
+
             log("Hazelcast Simulator Worker");
             log("Version: %s, Commit: %s, Build Time: %s", getSimulatorVersion(), getCommitIdAbbrev(), getBuildTime());
             log("SIMULATOR_HOME: %s%n", getSimulatorHome().getAbsolutePath());
@@ -140,6 +198,29 @@ public class Worker {
         }
     }
 
+    /**
+     * Waits until this idle Worker JVM is claimed by the Agent (see {@link WorkerProcessPool}).
+     *
+     * The Agent has moved the directory of this JVM to the Worker home and sends its path via stdin. It's used as
+     * <tt>user.dir</tt>, so the parameters are loaded from the Worker home. The JVM exits if the Agent closes stdin.
+     */
+    private static void awaitClaim() throws IOException {
+        for (String className : PRELOADED_CLASSES) {
+            try {
+                Class.forName(className);
+            } catch (ClassNotFoundException ignored) {
+                ignore(ignored);
+            }
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
+        String workerHome = reader.readLine();
+        if (workerHome == null) {
+            System.exit(0);
+        }
+        System.setProperty("user.dir", workerHome);
+    }
+
     @NotNull
     private static Map<String, String> loadParameters() throws IOException {
         Properties p = new Properties();
@@ -200,8 +281,29 @@ public class Worker {
 
         @Override
         public void doRun() {
+            // falls back to exception files if the Worker is killed without TerminateWorkerOperation
+            flushExceptions();
             closeQuietly(vendorDriver);
             closeQuietly(performanceMonitor);
+            closeQuietly(heartbeat);
+        }
+    }
+
+    private static final class AgentExceptionPublisher implements ExceptionReporter.Publisher {
+
+        private final Server server;
+        private final SimulatorAddress workerAddress;
+
+        private AgentExceptionPublisher(Server server, SimulatorAddress workerAddress) {
+            this.server = server;
+            this.workerAddress = workerAddress;
+        }
+
+        @Override
+        public boolean publish(String testId, String cause) {
+            FailureOperation operation = new FailureOperation("Worker ran into an unhandled exception", WORKER_EXCEPTION,
+                    workerAddress, workerAddress.getParent().toString(), null, testId, cause);
+            return server.sendAgent(operation);
         }
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker;
+
+import com.hazelcast.simulator.agent.operations.WorkerHeartbeatOperation;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.worker.testcontainer.TestContainer;
+import com.hazelcast.simulator.worker.testcontainer.TestManager;
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Periodically sends a {@link WorkerHeartbeatOperation} with the iteration counts of all running tests to the Agent.
+ *
+ * The Agent uses the heartbeats to detect Workers which are not responding anymore or which don't make any progress.
+ */
+public class WorkerHeartbeat implements Closeable {
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final Logger LOGGER = Logger.getLogger(WorkerHeartbeat.class);
+
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final Server server;
+    private final TestManager testManager;
+    private final int intervalSeconds;
+    private final HeartbeatThread thread = new HeartbeatThread();
+
+    /**
+     * Creates a WorkerHeartbeat.
+     *
+     * @param server          the {@link Server} used to send the {@link WorkerHeartbeatOperation}
+     * @param testManager     the {@link TestManager} containing the tests to report
+     * @param intervalSeconds the interval in seconds between heartbeats; a value smaller than 1 disables the heartbeat
+     */
+    public WorkerHeartbeat(Server server, TestManager testManager, int intervalSeconds) {
+        this.server = server;
+        this.testManager = testManager;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public void start() {
+        if (intervalSeconds < 1) {
+            LOGGER.info("WorkerHeartbeat disabled");
+            return;
+        }
+        LOGGER.info(format("WorkerHeartbeat enabled with interval: %d seconds", intervalSeconds));
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        thread.interrupt();
+        joinThread(thread, SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+    }
+
+    WorkerHeartbeatOperation createOperation() {
+        WorkerHeartbeatOperation operation = new WorkerHeartbeatOperation();
+        for (TestContainer container : testManager.getContainers()) {
+            if (container.isRunning()) {
+                operation.addIterations(container.getTestCase().getId(), container.iteration());
+            }
+        }
+        return operation;
+    }
+
+    private final class HeartbeatThread extends Thread {
+
+        private HeartbeatThread() {
+            super("WorkerHeartbeat");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long intervalMillis = SECONDS.toMillis(intervalSeconds);
+            while (!shutdown.get()) {
+                try {
+                    server.sendAgent(createOperation());
+                } catch (Exception e) {
+                    LOGGER.error("Failed to send heartbeat", e);
+                }
+                sleepMillis(intervalMillis);
+            }
+        }
+    }
+}
@@ -43,17 +43,43 @@ public class CreateTestOperation implements SimulatorOperation {
     @SerializedName("properties")
     private final Map<String, String> properties;
 
+    /**
+     * The index of the receiving Worker within the Workers which run the test.
+     */
+    @SerializedName("workerIndex")
+    private final int workerIndex;
+
+    /**
+     * The number of Workers which run the test.
+     */
+    @SerializedName("workerCount")
+    private final int workerCount;
+
     public CreateTestOperation(TestCase testCase) {
+        this(testCase, 0, 1);
+    }
+
+    public CreateTestOperation(TestCase testCase, int workerIndex, int workerCount) {
         this.testId = testCase.getId();
         this.properties = testCase.getProperties();
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
     }
 
     public TestCase getTestCase() {
         return new TestCase(testId, properties);
     }
 
+    public int getWorkerIndex() {
+        return workerIndex;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
     @Override
     public String toString() {
-        return "CreateTestOperation{testId='" + testId + "'}";
+        return "CreateTestOperation{testId='" + testId + "', workerIndex=" + workerIndex + ", workerCount=" + workerCount + '}';
     }
 }
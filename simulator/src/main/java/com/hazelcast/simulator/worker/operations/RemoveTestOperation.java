@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.operations;
+
+import com.google.gson.annotations.SerializedName;
+import com.hazelcast.simulator.common.TestPhase;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+
+/**
+ * Removes a Simulator Test from the Worker.
+ *
+ * A test is removed automatically after its {@link TestPhase#LOCAL_TEARDOWN} phase. If a test is aborted before, e.g.
+ * because of a critical failure, the Coordinator sends this operation so the Worker can be reused for the next test run
+ * without being restarted.
+ */
+public class RemoveTestOperation implements SimulatorOperation {
+
+    /**
+     * The name of the test to remove.
+     */
+    @SerializedName("testId")
+    private final String testId;
+
+    public RemoveTestOperation(String testId) {
+        this.testId = testId;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    @Override
+    public String toString() {
+        return "RemoveTestOperation{testId='" + testId + "'}";
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+
+/**
+ * A {@link HistogramLogWriter} which buffers the written Histograms until it is flushed.
+ *
+ * The {@link HistogramLogWriter} writes every line directly to its file, which causes multiple file system operations per
+ * Histogram. This writer is flushed by the {@link PerformanceMonitor} once per interval instead.
+ */
+final class BufferedHistogramLogWriter extends HistogramLogWriter {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final PrintStream printStream;
+
+    BufferedHistogramLogWriter(PrintStream printStream) {
+        super(printStream);
+        this.printStream = printStream;
+    }
+
+    static BufferedHistogramLogWriter create(File file) throws FileNotFoundException {
+        return new BufferedHistogramLogWriter(new PrintStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)));
+    }
+
+    void flush() {
+        printStream.flush();
+    }
+}
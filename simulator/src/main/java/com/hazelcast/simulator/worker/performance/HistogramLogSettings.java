@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+
+/**
+ * Settings for the HDR histogram logs which are written by the {@link TestPerformanceTracker}.
+ *
+ * The interval log contains a histogram per probe per performance monitor interval. For long running tests this log grows
+ * quickly, so it can be limited by a retention or disabled completely. The rollup logs contain the same histograms
+ * aggregated over a coarser resolution, e.g. one histogram per minute or hour, which keeps them small enough to process
+ * the latencies of tests which run for days.
+ */
+public final class HistogramLogSettings {
+
+    /**
+     * Keeps the complete interval log and writes no rollups.
+     */
+    public static final HistogramLogSettings DEFAULT = new HistogramLogSettings(new int[0], -1);
+
+    private final int[] rollupSeconds;
+    private final int retentionSeconds;
+
+    /**
+     * Creates the settings of the histogram logs.
+     *
+     * @param rollupSeconds    the resolutions of the rollup logs in seconds
+     * @param retentionSeconds the time in seconds the interval log has to cover at least; a negative value keeps the complete
+     *                         interval log and {@code 0} disables the interval log
+     */
+    public HistogramLogSettings(int[] rollupSeconds, int retentionSeconds) {
+        for (int seconds : rollupSeconds) {
+            if (seconds < 1) {
+                throw new IllegalArgumentException(format("Histogram rollup resolution has to be at least 1 second, was %d",
+                        seconds));
+            }
+        }
+        this.rollupSeconds = Arrays.copyOf(rollupSeconds, rollupSeconds.length);
+        this.retentionSeconds = retentionSeconds;
+    }
+
+    /**
+     * Creates the settings from the Worker parameters.
+     *
+     * @param rollupSeconds    a comma separated list of rollup resolutions in seconds; can be {@code null} or empty
+     * @param retentionSeconds the retention of the interval log in seconds; {@code null} keeps the complete interval log
+     * @return the {@link HistogramLogSettings}
+     */
+    public static HistogramLogSettings fromParameters(String rollupSeconds, String retentionSeconds) {
+        List<Integer> resolutions = new ArrayList<Integer>();
+        if (rollupSeconds != null) {
+            for (String value : rollupSeconds.split(",")) {
+                if (!value.trim().isEmpty()) {
+                    resolutions.add(parseInt(value.trim()));
+                }
+            }
+        }
+        int[] resolutionArray = new int[resolutions.size()];
+        for (int i = 0; i < resolutionArray.length; i++) {
+            resolutionArray[i] = resolutions.get(i);
+        }
+        int retention = retentionSeconds == null || retentionSeconds.trim().isEmpty() ? -1 : parseInt(retentionSeconds.trim());
+        return new HistogramLogSettings(resolutionArray, retention);
+    }
+
+    public int[] getRollupSeconds() {
+        return Arrays.copyOf(rollupSeconds, rollupSeconds.length);
+    }
+
+    public int getRetentionSeconds() {
+        return retentionSeconds;
+    }
+
+    public boolean isIntervalLogEnabled() {
+        return retentionSeconds != 0;
+    }
+}
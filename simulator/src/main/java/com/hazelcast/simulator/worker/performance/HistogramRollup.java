@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.Closeable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Aggregates the interval histograms of a probe into a histogram per period and writes them to a rollup log.
+ *
+ * The periods are aligned to the base time of the log, so the rollups of different Workers cover the same periods and can
+ * be merged. An interval histogram is added to the period which contains its start time. The histogram of a period is
+ * written when the first interval of the next period is added or when the rollup is closed.
+ *
+ * The rollup logs are named <tt>testId-probeName.resolution.hdr</tt>, e.g. <tt>MapTest-getProbe.1m.hdr</tt>.
+ */
+public final class HistogramRollup implements Closeable {
+
+    private static final Pattern ROLLUP_FILE_PATTERN = Pattern.compile(".+\\.(\\d+[smhd])\\.hdr");
+
+    private final BufferedHistogramLogWriter writer;
+    private final long baseTimeMillis;
+    private final long periodMillis;
+
+    private Histogram histogram;
+    private long period;
+
+    HistogramRollup(BufferedHistogramLogWriter writer, long baseTimeMillis, int resolutionSeconds) {
+        this.writer = writer;
+        this.baseTimeMillis = baseTimeMillis;
+        this.periodMillis = SECONDS.toMillis(resolutionSeconds);
+    }
+
+    void add(Histogram intervalHistogram) {
+        long intervalPeriod = Math.max(0, intervalHistogram.getStartTimeStamp() - baseTimeMillis) / periodMillis;
+        if (histogram != null && intervalPeriod != period) {
+            flush();
+        }
+
+        if (histogram == null) {
+            histogram = intervalHistogram.copy();
+            histogram.setStartTimeStamp(intervalHistogram.getStartTimeStamp());
+            period = intervalPeriod;
+        } else {
+            histogram.add(intervalHistogram);
+        }
+        histogram.setEndTimeStamp(intervalHistogram.getEndTimeStamp());
+    }
+
+    /**
+     * Writes the histogram of the current period, even if the period has not completed yet.
+     */
+    void flush() {
+        if (histogram == null) {
+            return;
+        }
+        writer.outputIntervalHistogram(histogram);
+        writer.flush();
+        histogram = null;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        writer.close();
+    }
+
+    /**
+     * Returns the label of a rollup resolution, which is used in the name of the rollup log.
+     *
+     * @param resolutionSeconds the resolution in seconds
+     * @return the label, e.g. <tt>1m</tt> for 60 seconds or <tt>90s</tt> for 90 seconds
+     */
+    public static String getResolutionLabel(int resolutionSeconds) {
+        if (resolutionSeconds % DAYS.toSeconds(1) == 0) {
+            return resolutionSeconds / DAYS.toSeconds(1) + "d";
+        }
+        if (resolutionSeconds % HOURS.toSeconds(1) == 0) {
+            return resolutionSeconds / HOURS.toSeconds(1) + "h";
+        }
+        if (resolutionSeconds % MINUTES.toSeconds(1) == 0) {
+            return resolutionSeconds / MINUTES.toSeconds(1) + "m";
+        }
+        return resolutionSeconds + "s";
+    }
+
+    /**
+     * Returns the resolution label of a HDR file.
+     *
+     * @param fileName the name of the HDR file
+     * @return the resolution label of a rollup log or {@code null} if the file is an interval log
+     */
+    public static String getResolution(String fileName) {
+        Matcher matcher = ROLLUP_FILE_PATTERN.matcher(fileName);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+}
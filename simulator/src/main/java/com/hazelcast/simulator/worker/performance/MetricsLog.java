@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.lang.String.format;
+
+/**
+ * The metrics of a Worker per interval, which are written by the {@link PerformanceMonitor} into the <tt>metrics.bin</tt>.
+ *
+ * The binary format is columnar, so a metric can be read without parsing text and similar values are stored next to each
+ * other:
+ * <pre>
+ * file      := magic:int block*
+ * block     := rowCount:varlong timestamp{rowCount} columnCount:varlong column{columnCount}
+ * timestamp := zigzag varlong of the difference to the previous timestamp of the block in milliseconds
+ * column    := name:UTF type:byte bitmap:byte{(rowCount + 7) / 8} value*
+ * value     := zigzag varlong of the difference to the previous value of the column (type 0, long)
+ *            | IEEE 754 double (type 1, double)
+ * </pre>
+ * The bitmap marks the rows which have a value for the column, e.g. a test doesn't have values before it has started.
+ *
+ * The metrics are named:
+ * <ul>
+ * <li><tt>operations</tt>, <tt>operationsDelta</tt> and <tt>throughput</tt> for all tests of the Worker</li>
+ * <li><tt>testId.operations</tt>, <tt>testId.operationsDelta</tt> and <tt>testId.throughput</tt> per test</li>
+ * <li><tt>testId.probeName.count</tt>, <tt>.mean</tt>, <tt>.p50</tt>, <tt>.p90</tt>, <tt>.p99</tt>, <tt>.p999</tt> and
+ * <tt>.max</tt> per probe, with the latencies in nanoseconds</li>
+ * </ul>
+ */
+public final class MetricsLog {
+
+    public static final String FILE_NAME = "metrics.bin";
+
+    static final int MAGIC = 0x534d4c31;
+    static final byte TYPE_LONG = 0;
+    static final byte TYPE_DOUBLE = 1;
+
+    private static final int VAR_BITS = 7;
+    private static final int VAR_MASK = 0x7f;
+    private static final int VAR_MORE = 0x80;
+
+    private final Map<String, double[]> columns = new LinkedHashMap<String, double[]>();
+    private final Set<String> longColumns = new HashSet<String>();
+    private long[] timestamps = new long[0];
+
+    private MetricsLog() {
+    }
+
+    /**
+     * Reads a metrics log.
+     *
+     * An incomplete block at the end of the file, e.g. of a Worker which has been killed, is ignored.
+     *
+     * @param file the metrics log file
+     * @return the {@link MetricsLog}
+     * @throws IOException if the file could not be read or is not a metrics log
+     */
+    public static MetricsLog read(File file) throws IOException {
+        MetricsLog log = new MetricsLog();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(format("%s is not a metrics log", file.getAbsolutePath()));
+            }
+            while (true) {
+                try {
+                    log.readBlock(in);
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        } finally {
+            closeQuietly(in);
+        }
+        return log;
+    }
+
+    private void readBlock(DataInputStream in) throws IOException {
+        int rowCount = (int) readVarLong(in);
+        long[] blockTimestamps = new long[rowCount];
+        long previous = 0;
+        for (int row = 0; row < rowCount; row++) {
+            previous += unZigZag(readVarLong(in));
+            blockTimestamps[row] = previous;
+        }
+
+        Map<String, double[]> blockColumns = new LinkedHashMap<String, double[]>();
+        Set<String> blockLongColumns = new HashSet<String>();
+        long columnCount = readVarLong(in);
+        for (long i = 0; i < columnCount; i++) {
+            String name = in.readUTF();
+            byte type = in.readByte();
+            byte[] bitmap = new byte[(rowCount + 7) / 8];
+            in.readFully(bitmap);
+
+            double[] values = new double[rowCount];
+            long previousValue = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if ((bitmap[row / 8] & (1 << (row % 8))) == 0) {
+                    values[row] = Double.NaN;
+                } else if (type == TYPE_LONG) {
+                    previousValue += unZigZag(readVarLong(in));
+                    values[row] = previousValue;
+                } else {
+                    values[row] = in.readDouble();
+                }
+            }
+            blockColumns.put(name, values);
+            if (type == TYPE_LONG) {
+                blockLongColumns.add(name);
+            }
+        }
+
+        // the block is only added once it has been read completely
+        append(blockTimestamps, blockColumns);
+        longColumns.addAll(blockLongColumns);
+    }
+
+    private void append(long[] blockTimestamps, Map<String, double[]> blockColumns) {
+        int offset = timestamps.length;
+        int rowCount = offset + blockTimestamps.length;
+        timestamps = Arrays.copyOf(timestamps, rowCount);
+        System.arraycopy(blockTimestamps, 0, timestamps, offset, blockTimestamps.length);
+
+        for (Map.Entry<String, double[]> entry : columns.entrySet()) {
+            double[] values = Arrays.copyOf(entry.getValue(), rowCount);
+            double[] blockValues = blockColumns.remove(entry.getKey());
+            if (blockValues == null) {
+                Arrays.fill(values, offset, rowCount, Double.NaN);
+            } else {
+                System.arraycopy(blockValues, 0, values, offset, blockValues.length);
+            }
+            entry.setValue(values);
+        }
+        for (Map.Entry<String, double[]> entry : blockColumns.entrySet()) {
+            double[] values = new double[rowCount];
+            Arrays.fill(values, 0, offset, Double.NaN);
+            System.arraycopy(entry.getValue(), 0, values, offset, entry.getValue().length);
+            columns.put(entry.getKey(), values);
+        }
+    }
+
+    public int getRowCount() {
+        return timestamps.length;
+    }
+
+    /**
+     * Returns the epoch time of the rows in milliseconds.
+     *
+     * @return the timestamps
+     */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * Returns the names of the metrics in the order of their first appearance.
+     *
+     * @return the names of the metrics
+     */
+    public List<String> getNames() {
+        return new ArrayList<String>(columns.keySet());
+    }
+
+    /**
+     * Returns the values of a metric per row.
+     *
+     * @param name the name of the metric
+     * @return the values, with {@link Double#NaN} for the rows without a value, or {@code null} if the metric doesn't exist
+     */
+    public double[] getValues(String name) {
+        return columns.get(name);
+    }
+
+    /**
+     * Returns if a metric has integer values, e.g. an operation count or a latency.
+     *
+     * @param name the name of the metric
+     * @return {@code true} if the metric has integer values, {@code false} otherwise
+     */
+    public boolean isLong(String name) {
+        return longColumns.contains(name);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~VAR_MASK) != 0) {
+            out.writeByte((int) ((remaining & VAR_MASK) | VAR_MORE));
+            remaining >>>= VAR_BITS;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & VAR_MASK) << shift;
+            if ((b & VAR_MORE) == 0) {
+                return value;
+            }
+            shift += VAR_BITS;
+            if (shift >= Long.SIZE) {
+                throw new IOException("Malformed variable length value");
+            }
+        }
+    }
+}
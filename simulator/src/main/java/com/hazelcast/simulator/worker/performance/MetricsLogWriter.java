@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import com.hazelcast.simulator.utils.UncheckedIOException;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
+import static com.hazelcast.simulator.worker.performance.MetricsLog.MAGIC;
+import static com.hazelcast.simulator.worker.performance.MetricsLog.TYPE_DOUBLE;
+import static com.hazelcast.simulator.worker.performance.MetricsLog.TYPE_LONG;
+import static java.lang.String.format;
+
+/**
+ * Writes the metrics of a Worker per interval in the columnar binary format of the {@link MetricsLog}.
+ *
+ * The rows are collected in memory and written as a block of columns. When the writer is flushed before the block is full,
+ * the incomplete block is written and it is overwritten by the next flush, until the block is full. So the file always
+ * contains all flushed rows, while a block still holds the rows of many intervals. Every block contains the names of its
+ * columns, so metrics can appear or disappear between blocks, e.g. when a test starts or completes.
+ */
+public final class MetricsLogWriter implements Closeable {
+
+    static final int DEFAULT_BLOCK_ROWS = 60;
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final Map<String, Column> columns = new LinkedHashMap<String, Column>();
+    private final File file;
+    private final long[] timestamps;
+    private FileOutputStream fileOut;
+    private DataOutputStream out;
+    // the position of the current block in the file, it is rewritten until it is full
+    private long blockPosition;
+    private int rowCount;
+    private boolean closed;
+
+    public MetricsLogWriter(File file) {
+        this(file, DEFAULT_BLOCK_ROWS);
+    }
+
+    public MetricsLogWriter(File file, int blockRows) {
+        this.file = checkNotNull(file, "file can't be null");
+        this.timestamps = new long[blockRows];
+    }
+
+    /**
+     * Starts a new row, the values of the row are set by the following calls of the set methods.
+     *
+     * @param timeMillis the epoch time of the row in milliseconds
+     */
+    public void addRow(long timeMillis) {
+        if (rowCount == timestamps.length) {
+            writeBlock();
+            nextBlock();
+        }
+        timestamps[rowCount++] = timeMillis;
+    }
+
+    public void set(String name, long value) {
+        getColumn(name, TYPE_LONG).longs[rowCount - 1] = value;
+    }
+
+    public void set(String name, double value) {
+        getColumn(name, TYPE_DOUBLE).doubles[rowCount - 1] = value;
+    }
+
+    private Column getColumn(String name, byte type) {
+        if (rowCount == 0) {
+            throw new IllegalStateException("No row has been added");
+        }
+        Column column = columns.get(name);
+        if (column == null) {
+            column = new Column(type, timestamps.length);
+            columns.put(name, column);
+        } else if (column.type != type) {
+            throw new IllegalArgumentException(format("Metric %s has a different type", name));
+        }
+        column.present[rowCount - 1] = true;
+        return column;
+    }
+
+    /**
+     * Writes the collected rows as block, even if the block is not full yet.
+     *
+     * The incomplete block is overwritten by the next flush, so the writer can be flushed after every interval.
+     */
+    public void flush() {
+        writeBlock();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            writeBlock();
+        } finally {
+            closed = true;
+            closeQuietly(out);
+        }
+    }
+
+    private void writeBlock() {
+        if (rowCount == 0 || closed) {
+            return;
+        }
+        try {
+            if (out == null) {
+                fileOut = new FileOutputStream(file);
+                out = new DataOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE));
+                out.writeInt(MAGIC);
+                out.flush();
+                blockPosition = fileOut.getChannel().position();
+            }
+            fileOut.getChannel().position(blockPosition);
+
+            MetricsLog.writeVarLong(out, rowCount);
+            long previous = 0;
+            for (int row = 0; row < rowCount; row++) {
+                MetricsLog.writeVarLong(out, MetricsLog.zigZag(timestamps[row] - previous));
+                previous = timestamps[row];
+            }
+
+            MetricsLog.writeVarLong(out, columns.size());
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out, rowCount);
+            }
+            out.flush();
+            // a block only grows, but the file is truncated anyway so it never ends with a stale block
+            fileOut.getChannel().truncate(fileOut.getChannel().position());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private void nextBlock() {
+        if (out != null) {
+            try {
+                blockPosition = fileOut.getChannel().position();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write to " + file.getAbsolutePath(), e);
+            }
+        }
+        rowCount = 0;
+        columns.clear();
+    }
+
+    private static final class Column {
+
+        private final byte type;
+        private final boolean[] present;
+        private final long[] longs;
+        private final double[] doubles;
+
+        private Column(byte type, int capacity) {
+            this.type = type;
+            this.present = new boolean[capacity];
+            this.longs = type == TYPE_LONG ? new long[capacity] : null;
+            this.doubles = type == TYPE_DOUBLE ? new double[capacity] : null;
+        }
+
+        // writes the type, a bitmap of the rows with a value and the values; long values are delta encoded
+        private void write(DataOutputStream out, int rowCount) throws IOException {
+            out.writeByte(type);
+
+            byte[] bitmap = new byte[(rowCount + 7) / 8];
+            for (int row = 0; row < rowCount; row++) {
+                if (present[row]) {
+                    bitmap[row / 8] |= 1 << (row % 8);
+                }
+            }
+            out.write(bitmap);
+
+            long previous = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (!present[row]) {
+                    continue;
+                }
+                if (type == TYPE_LONG) {
+                    MetricsLog.writeVarLong(out, MetricsLog.zigZag(longs[row] - previous));
+                    previous = longs[row];
+                } else {
+                    out.writeDouble(doubles[row]);
+                }
+            }
+        }
+    }
+}
@@ -15,30 +15,44 @@
  */
 package com.hazelcast.simulator.worker.performance;
 
+import com.hazelcast.simulator.utils.UncheckedIOException;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
-import java.text.DecimalFormat;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
-import static com.hazelcast.simulator.utils.FileUtils.appendText;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Responsible for writing to performance stats to disk in csv format.
+ *
+ * The file is opened once and the lines are buffered, so writing the stats doesn't cause file system operations for every
+ * line. The {@link PerformanceMonitor} flushes all writers once per interval, after the stats of all tests have been written.
  */
-final class PerformanceLogWriter {
+final class PerformanceLogWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int FRACTION_DIGITS = 3;
+    private static final long FRACTION_SCALE = 1000;
 
-    private final StringBuffer sb = new StringBuffer();
-    private final DecimalFormat format = new DecimalFormat("#.###");
+    private final StringBuilder sb = new StringBuilder();
     private final File file;
-    private boolean headerWritten;
+    private Writer writer;
+    private boolean closed;
 
     PerformanceLogWriter(File file) {
         this.file = checkNotNull(file, "file can't be null");
     }
 
-    private void writeHeader() {
-        String columns = "epoch,timestamp,operations,operations-delta,operations/second\n";
-        appendText(columns, file);
+    private void open() throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8"), BUFFER_SIZE);
+        writer.write("epoch,timestamp,operations,operations-delta,operations/second\n");
     }
 
     void write(long timeMillis,
@@ -46,20 +60,69 @@ final class PerformanceLogWriter {
                long operationsTotal,
                long operationsDelta,
                double operationsPerSecond) {
-
-        if (!headerWritten) {
-            writeHeader();
-            headerWritten = true;
+        if (closed) {
+            return;
         }
 
         sb.setLength(0);
         // ms are expressed in epoch time after the decimal point
-        sb.append(format.format(timeMillis * 1d / SECONDS.toMillis(1)));
+        appendScaled(sb, timeMillis * FRACTION_SCALE / SECONDS.toMillis(1));
         sb.append(',').append(timestamp);
         sb.append(',').append(operationsTotal);
         sb.append(',').append(operationsDelta);
-        sb.append(',').append(format.format(operationsPerSecond));
+        sb.append(',');
+        appendScaled(sb, Math.round(operationsPerSecond * FRACTION_SCALE));
         sb.append('\n');
-        appendText(sb.toString(), file);
+
+        try {
+            if (writer == null) {
+                open();
+            }
+            writer.append(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to " + file.getAbsolutePath(), e);
+        }
+    }
+
+    void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not flush " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(writer);
+    }
+
+    // appends a value with three fraction digits without trailing zeros, which is the format of the former DecimalFormat("#.###")
+    static void appendScaled(StringBuilder sb, long scaledValue) {
+        long value = scaledValue;
+        if (value < 0) {
+            sb.append('-');
+            value = -value;
+        }
+        sb.append(value / FRACTION_SCALE);
+
+        long fraction = value % FRACTION_SCALE;
+        if (fraction == 0) {
+            return;
+        }
+        int digits = FRACTION_DIGITS;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        sb.append('.');
+        for (int i = String.valueOf(fraction).length(); i < digits; i++) {
+            sb.append('0');
+        }
+        sb.append(fraction);
     }
 }
@@ -29,6 +29,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
 import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
@@ -54,13 +55,43 @@ public class PerformanceMonitor implements Closeable {
     private final TestManager testManager;
     private final Server server;
     private final int updateIntervalSeconds;
+    private final boolean aggregatedByAgent;
+    private final StallDetector stallDetector;
 
     public PerformanceMonitor(Server server,
                               TestManager testManager,
                               int updateIntervalSeconds) {
+        this(server, testManager, updateIntervalSeconds, false);
+    }
+
+    public PerformanceMonitor(Server server,
+                              TestManager testManager,
+                              int updateIntervalSeconds,
+                              boolean aggregatedByAgent) {
+        this(server, testManager, updateIntervalSeconds, aggregatedByAgent, null);
+    }
+
+    /**
+     * Creates a PerformanceMonitor.
+     *
+     * @param server                the {@link Server} used to send the {@link PerformanceStatsOperation}
+     * @param testManager           the {@link TestManager} containing the tests to monitor
+     * @param updateIntervalSeconds the interval in seconds between updates; a value smaller than 1 disables the monitor
+     * @param aggregatedByAgent     {@code true} if the stats should be send to the local Agent, which merges the stats of all
+     *                              its Workers before sending them to the Coordinator. {@code false} if the stats should be
+     *                              send directly to the Coordinator.
+     * @param stallDetector         the {@link StallDetector} to check the tests for stalls; can be {@code null}
+     */
+    public PerformanceMonitor(Server server,
+                              TestManager testManager,
+                              int updateIntervalSeconds,
+                              boolean aggregatedByAgent,
+                              StallDetector stallDetector) {
         this.testManager = testManager;
         this.server = server;
         this.updateIntervalSeconds = updateIntervalSeconds;
+        this.aggregatedByAgent = aggregatedByAgent;
+        this.stallDetector = stallDetector != null && stallDetector.isEnabled() ? stallDetector : null;
         this.thread = new PerformanceMonitorThread();
         thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
             @Override
@@ -75,7 +106,8 @@ public class PerformanceMonitor implements Closeable {
             LOGGER.info("PerformanceMonitor disabled");
             return;
         }
-        LOGGER.info(format("PerformanceMonitor enabled with interval: %d seconds", updateIntervalSeconds));
+        LOGGER.info(format("PerformanceMonitor enabled with interval: %d seconds (aggregated by Agent: %s)",
+                updateIntervalSeconds, aggregatedByAgent));
         thread.start();
     }
 
@@ -86,6 +118,14 @@ public class PerformanceMonitor implements Closeable {
         }
         LOGGER.info("Shutting down WorkerPerformanceMonitor");
         joinThread(thread, MINUTES.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        closeQuietly(stallDetector);
+        closeQuietly(thread.globalPerformanceLogWriter);
+        closeQuietly(thread.metricsLogWriter);
+
+        // completes the performance and histogram logs of the tests which are still on the Worker
+        for (TestContainer container : testManager.getContainers()) {
+            container.getTestPerformanceTracker().close();
+        }
     }
 
     /**
@@ -95,6 +135,7 @@ public class PerformanceMonitor implements Closeable {
 
         private final long scanIntervalNanos = SECONDS.toNanos(1);
         private final PerformanceLogWriter globalPerformanceLogWriter;
+        private final MetricsLogWriter metricsLogWriter;
         private final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
         private final long updateIntervalMillis;
         private final List<TestContainer> dirtyContainers = new ArrayList<TestContainer>();
@@ -104,6 +145,7 @@ public class PerformanceMonitor implements Closeable {
             setDaemon(true);
             this.updateIntervalMillis = SECONDS.toMillis(updateIntervalSeconds);
             this.globalPerformanceLogWriter = new PerformanceLogWriter(new File(getUserDir(), "performance.csv"));
+            this.metricsLogWriter = new MetricsLogWriter(new File(getUserDir(), MetricsLog.FILE_NAME));
         }
 
         @Override
@@ -114,6 +156,10 @@ public class PerformanceMonitor implements Closeable {
 
                 updateTrackers(currentTimeMillis);
 
+                if (stallDetector != null) {
+                    stallDetector.check(testManager.getContainers(), dirtyContainers, currentTimeMillis);
+                }
+
                 if (!dirtyContainers.isEmpty()) {
                     coordinatorUpdate();
                     persist(currentTimeMillis);
@@ -152,7 +198,13 @@ public class PerformanceMonitor implements Closeable {
                 operation.addPerformanceStats(container.getTestCase().getId(), tracker.createPerformanceStats());
             }
 
-            if (operation.getPerformanceStats().size() > 0) {
+            if (operation.getPerformanceStats().isEmpty()) {
+                return;
+            }
+
+            if (aggregatedByAgent) {
+                server.sendAgent(operation);
+            } else {
                 server.sendCoordinator(operation);
             }
         }
@@ -163,9 +215,11 @@ public class PerformanceMonitor implements Closeable {
             long globalOperationsCount = 0;
             double globalIntervalThroughput = 0;
 
+            metricsLogWriter.addRow(currentTimestamp);
             for (TestContainer container : dirtyContainers) {
                 TestPerformanceTracker tracker = container.getTestPerformanceTracker();
                 tracker.persist(currentTimestamp, dateString);
+                tracker.addMetrics(metricsLogWriter);
 
                 globalIntervalOperationCount += tracker.intervalOperationCount();
                 globalOperationsCount += tracker.totalOperationCount();
@@ -179,6 +233,17 @@ public class PerformanceMonitor implements Closeable {
                     globalOperationsCount,
                     globalIntervalOperationCount,
                     globalIntervalThroughput);
+            metricsLogWriter.set("operations", globalOperationsCount);
+            metricsLogWriter.set("operationsDelta", globalIntervalOperationCount);
+            metricsLogWriter.set("throughput", globalIntervalThroughput);
+
+            // the logs are flushed once per interval, after the stats of all tests have been written
+            for (TestContainer container : dirtyContainers) {
+                container.getTestPerformanceTracker().flush();
+            }
+            globalPerformanceLogWriter.flush();
+            // rewrites the incomplete block, so the metrics log covers the same intervals as the performance.csv
+            metricsLogWriter.flush();
         }
     }
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
+import static java.lang.String.format;
+
+/**
+ * Captures the evidence of a stalled Simulator Test: several thread dumps of the Worker and a stack sampling profile of the
+ * runner threads of the test.
+ *
+ * The thread dumps are taken at the start, in the middle and at the end of the sampling period, so a deadlock or a hot spot
+ * can be told apart from a thread which is just slow. All files are written to the Worker home, so they are downloaded
+ * together with the other Worker artifacts.
+ */
+class StallCapture implements Runnable {
+
+    static final int THREAD_DUMP_COUNT = 3;
+    static final int SAMPLING_PERIOD_MILLIS = 2500;
+
+    private static final int SAMPLE_INTERVAL_MILLIS = 20;
+    private static final int MAX_SAMPLED_FRAMES = 10;
+    private static final Logger LOGGER = Logger.getLogger(StallCapture.class);
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Map<String, Integer> stackSamples = new HashMap<String, Integer>();
+    private final File directory;
+    private final String testId;
+    private final Collection<String> runningTestIds;
+    private final String reason;
+    private final String filePrefix;
+    private final int samplingPeriodMillis;
+
+    private int sampleCount;
+
+    StallCapture(File directory, String testId, Collection<String> runningTestIds, int captureIndex, String reason,
+                 int samplingPeriodMillis) {
+        this.directory = directory;
+        this.testId = testId;
+        this.runningTestIds = runningTestIds;
+        this.reason = reason;
+        this.filePrefix = "stall-" + testId + "-" + captureIndex;
+        this.samplingPeriodMillis = samplingPeriodMillis;
+    }
+
+    @Override
+    public void run() {
+        LOGGER.warn(format("Detected stall of test %s: %s (capturing thread dumps and stack samples to %s*)",
+                testId, reason, filePrefix));
+        try {
+            List<Thread> runnerThreads = getRunnerThreads(testId, runningTestIds);
+            for (int i = 1; i <= THREAD_DUMP_COUNT; i++) {
+                writeText(threadDump(), new File(directory, filePrefix + "-threaddump-" + i + ".txt"));
+                if (i < THREAD_DUMP_COUNT) {
+                    sample(runnerThreads);
+                }
+            }
+            writeText(stackSamplingProfile(runnerThreads.size()), new File(directory, filePrefix + "-samples.txt"));
+        } catch (Exception e) {
+            LOGGER.error("Failed to capture stall of test " + testId, e);
+        }
+    }
+
+    private void sample(List<Thread> runnerThreads) {
+        long endMillis = System.currentTimeMillis() + samplingPeriodMillis;
+        while (System.currentTimeMillis() < endMillis) {
+            for (Thread thread : runnerThreads) {
+                StackTraceElement[] stackTrace = thread.getStackTrace();
+                if (stackTrace.length > 0) {
+                    String stack = formatStack(stackTrace);
+                    Integer count = stackSamples.get(stack);
+                    stackSamples.put(stack, count == null ? 1 : count + 1);
+                }
+            }
+            sampleCount++;
+            sleepMillis(SAMPLE_INTERVAL_MILLIS);
+        }
+    }
+
+    String stackSamplingProfile(int threadCount) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<Map.Entry<String, Integer>>(stackSamples.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Integer>>() {
+            @Override
+            public int compare(Map.Entry<String, Integer> o1, Map.Entry<String, Integer> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+
+        long totalSamples = 0;
+        for (Map.Entry<String, Integer> entry : entries) {
+            totalSamples += entry.getValue();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(format("Stack samples of test %s: %s", testId, reason)).append(NEW_LINE);
+        sb.append(format("%d runner threads, %d samples per thread, %d ms interval", threadCount, sampleCount,
+                SAMPLE_INTERVAL_MILLIS)).append(NEW_LINE);
+        for (Map.Entry<String, Integer> entry : entries) {
+            int count = entry.getValue();
+            sb.append(NEW_LINE).append(format("%d samples (%.1f%%)", count, count * 100d / totalSamples)).append(NEW_LINE);
+            sb.append(entry.getKey());
+        }
+        return sb.toString();
+    }
+
+    private String threadDump() {
+        ThreadInfo[] threadInfos = threadMXBean.dumpAllThreads(
+                threadMXBean.isObjectMonitorUsageSupported(), threadMXBean.isSynchronizerUsageSupported());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(format("Thread dump of Worker during stall of test %s: %s", testId, reason)).append(NEW_LINE);
+        long[] deadlockedThreads = threadMXBean.findDeadlockedThreads();
+        if (deadlockedThreads != null) {
+            sb.append(format("Found %d deadlocked threads", deadlockedThreads.length)).append(NEW_LINE);
+        }
+        for (ThreadInfo threadInfo : threadInfos) {
+            sb.append(NEW_LINE);
+            formatThreadInfo(sb, threadInfo);
+        }
+        return sb.toString();
+    }
+
+    // the runner threads are named <testId>[-<executionGroup>]-(warmup|run)Thread-<n> by the TimeStepRunStrategy
+    static Pattern getRunnerThreadNamePattern(String testId) {
+        return Pattern.compile(Pattern.quote(testId) + "(-[^-]+)?-(warmup|run)?Thread-\\d+");
+    }
+
+    // the execution group is a Java identifier, so it can't contain a dash; but the threads of the test "map-foo" still look
+    // like the threads of the execution group "foo" of the test "map", so threads of other running tests are skipped
+    static List<Thread> getRunnerThreads(String testId, Collection<String> runningTestIds) {
+        Pattern namePattern = getRunnerThreadNamePattern(testId);
+        List<Pattern> otherNamePatterns = new ArrayList<Pattern>();
+        for (String runningTestId : runningTestIds) {
+            if (!runningTestId.equals(testId) && runningTestId.startsWith(testId + "-")) {
+                otherNamePatterns.add(getRunnerThreadNamePattern(runningTestId));
+            }
+        }
+
+        List<Thread> threads = new LinkedList<Thread>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (namePattern.matcher(name).matches() && !matchesAny(otherNamePatterns, name)) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String name) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String formatStack(StackTraceElement[] stackTrace) {
+        StringBuilder sb = new StringBuilder();
+        int frames = Math.min(stackTrace.length, MAX_SAMPLED_FRAMES);
+        for (int i = 0; i < frames; i++) {
+            sb.append("\tat ").append(stackTrace[i]).append(NEW_LINE);
+        }
+        return sb.toString();
+    }
+
+    // ThreadInfo.toString() only prints the top 8 frames, so we format the complete stack trace ourselves
+    static void formatThreadInfo(StringBuilder sb, ThreadInfo threadInfo) {
+        sb.append('"').append(threadInfo.getThreadName()).append('"')
+                .append(" Id=").append(threadInfo.getThreadId())
+                .append(' ').append(threadInfo.getThreadState());
+        if (threadInfo.getLockName() != null) {
+            sb.append(" on ").append(threadInfo.getLockName());
+        }
+        if (threadInfo.getLockOwnerName() != null) {
+            sb.append(" owned by \"").append(threadInfo.getLockOwnerName()).append("\" Id=").append(threadInfo.getLockOwnerId());
+        }
+        sb.append(NEW_LINE);
+
+        StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+        MonitorInfo[] lockedMonitors = threadInfo.getLockedMonitors();
+        for (int i = 0; i < stackTrace.length; i++) {
+            sb.append("\tat ").append(stackTrace[i]).append(NEW_LINE);
+            for (MonitorInfo monitorInfo : lockedMonitors) {
+                if (monitorInfo.getLockedStackDepth() == i) {
+                    sb.append("\t-  locked ").append(monitorInfo).append(NEW_LINE);
+                }
+            }
+        }
+
+        LockInfo[] lockedSynchronizers = threadInfo.getLockedSynchronizers();
+        if (lockedSynchronizers.length > 0) {
+            sb.append(NEW_LINE).append("\tLocked synchronizers:").append(NEW_LINE);
+            for (LockInfo lockInfo : lockedSynchronizers) {
+                sb.append("\t- ").append(lockInfo).append(NEW_LINE);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import com.hazelcast.simulator.worker.testcontainer.TestContainer;
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Detects stalls of running Simulator Tests and captures thread dumps and stack samples of them via {@link StallCapture}.
+ *
+ * A test is stalled if:
+ * <ul>
+ * <li>its iteration count has not increased for the configured stall timeout</li>
+ * <li>its interval throughput drops below the configured fraction of its average interval throughput</li>
+ * </ul>
+ * Every stall is captured once, until the test makes progress again. The number of captures per test is limited, so a test
+ * which is constantly slow doesn't flood the Worker home.
+ *
+ * The detector is driven by the {@link PerformanceMonitor}, so it doesn't need a thread of its own. The captures are done
+ * asynchronously, so the PerformanceMonitor is not delayed.
+ */
+public class StallDetector implements Closeable {
+
+    static final int MAX_CAPTURES_PER_TEST = 3;
+    // the average throughput is only meaningful after a few intervals
+    static final int MIN_THROUGHPUT_INTERVALS = 5;
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final Logger LOGGER = Logger.getLogger(StallDetector.class);
+
+    private final Map<String, TestState> testStates = new HashMap<String, TestState>();
+    private final ExecutorService executor = createFixedThreadPool(1, "stallCapture");
+    private final File directory;
+    private final long stallTimeoutMillis;
+    private final double throughputDropFraction;
+    private final int samplingPeriodMillis;
+
+    private Set<String> runningTestIds = new HashSet<String>();
+
+    /**
+     * Creates a StallDetector.
+     *
+     * @param directory              the directory to write the captures to
+     * @param stallTimeoutSeconds    the time in seconds without increasing iteration count, before a test is considered
+     *                               stalled; a value smaller than 1 disables this detection
+     * @param throughputDropFraction the fraction of the average interval throughput, below which a test is considered
+     *                               stalled; a value of 0 disables this detection
+     */
+    public StallDetector(File directory, int stallTimeoutSeconds, double throughputDropFraction) {
+        this(directory, stallTimeoutSeconds, throughputDropFraction, StallCapture.SAMPLING_PERIOD_MILLIS);
+    }
+
+    StallDetector(File directory, int stallTimeoutSeconds, double throughputDropFraction, int samplingPeriodMillis) {
+        this.directory = directory;
+        this.stallTimeoutMillis = SECONDS.toMillis(stallTimeoutSeconds);
+        this.throughputDropFraction = throughputDropFraction;
+        this.samplingPeriodMillis = samplingPeriodMillis;
+    }
+
+    public boolean isEnabled() {
+        return stallTimeoutMillis > 0 || throughputDropFraction > 0;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks all running tests for stalls.
+     *
+     * @param containers        all {@link TestContainer} of the Worker
+     * @param updatedContainers the {@link TestContainer} whose {@link TestPerformanceTracker} has completed an interval
+     * @param currentTimeMillis the current time
+     */
+    public void check(Collection<TestContainer> containers, Collection<TestContainer> updatedContainers,
+                      long currentTimeMillis) {
+        Set<String> testIds = new HashSet<String>();
+        for (TestContainer container : containers) {
+            if (!container.isRunning()) {
+                continue;
+            }
+            String testId = container.getTestCase().getId();
+            testIds.add(testId);
+
+            checkProgress(testId, container.iteration(), currentTimeMillis);
+            if (updatedContainers.contains(container)) {
+                checkThroughput(testId, container.getTestPerformanceTracker().intervalThroughput());
+            }
+        }
+        testStates.keySet().retainAll(testIds);
+        runningTestIds = testIds;
+    }
+
+    int getCaptureCount(String testId) {
+        TestState state = testStates.get(testId);
+        return state == null ? 0 : state.captures;
+    }
+
+    private TestState getState(String testId, long iterations, long currentTimeMillis) {
+        TestState state = testStates.get(testId);
+        if (state == null) {
+            state = new TestState(iterations, currentTimeMillis);
+            testStates.put(testId, state);
+        }
+        return state;
+    }
+
+    void checkProgress(String testId, long iterations, long currentTimeMillis) {
+        TestState state = getState(testId, iterations, currentTimeMillis);
+        if (iterations != state.iterations) {
+            state.iterations = iterations;
+            state.lastProgressMillis = currentTimeMillis;
+            state.progressStallCaptured = false;
+            return;
+        }
+
+        // tests without any iterations are not tracked, since not all tests are counting their iterations
+        if (stallTimeoutMillis <= 0 || iterations == 0 || state.progressStallCaptured) {
+            return;
+        }
+
+        long stalledMillis = currentTimeMillis - state.lastProgressMillis;
+        if (stalledMillis >= stallTimeoutMillis) {
+            state.progressStallCaptured = true;
+            capture(testId, state, format("iteration count %d has not increased for %d ms", iterations, stalledMillis));
+        }
+    }
+
+    void checkThroughput(String testId, double intervalThroughput) {
+        TestState state = testStates.get(testId);
+        if (throughputDropFraction <= 0 || state == null) {
+            return;
+        }
+
+        double averageThroughput = state.throughputIntervals == 0 ? 0 : state.throughputSum / state.throughputIntervals;
+        boolean dropped = state.throughputIntervals >= MIN_THROUGHPUT_INTERVALS
+                && intervalThroughput < averageThroughput * throughputDropFraction;
+        if (!dropped) {
+            // the dropped intervals are not added, so the average is not pulled down by the stall itself
+            state.throughputSum += intervalThroughput;
+            state.throughputIntervals++;
+            state.throughputStallCaptured = false;
+            return;
+        }
+
+        if (!state.throughputStallCaptured) {
+            state.throughputStallCaptured = true;
+            capture(testId, state, format("interval throughput %.2f ops/s dropped below %.0f%% of average %.2f ops/s",
+                    intervalThroughput, throughputDropFraction * 100, averageThroughput));
+        }
+    }
+
+    private void capture(String testId, TestState state, String reason) {
+        if (state.captures >= MAX_CAPTURES_PER_TEST) {
+            LOGGER.warn(format("Detected stall of test %s: %s (maximum number of captures reached)", testId, reason));
+            return;
+        }
+        state.captures++;
+        executor.execute(new StallCapture(directory, testId, runningTestIds, state.captures, reason,
+                samplingPeriodMillis));
+    }
+
+    private static final class TestState {
+
+        private long iterations;
+        private long lastProgressMillis;
+        private boolean progressStallCaptured;
+
+        private double throughputSum;
+        private long throughputIntervals;
+        private boolean throughputStallCaptured;
+
+        private int captures;
+
+        private TestState(long iterations, long lastProgressMillis) {
+            this.iterations = iterations;
+            this.lastProgressMillis = lastProgressMillis;
+        }
+    }
+}
@@ -17,19 +17,25 @@ package com.hazelcast.simulator.worker.performance;
 
 import com.hazelcast.simulator.probes.Probe;
 import com.hazelcast.simulator.probes.impl.HdrProbe;
+import com.hazelcast.simulator.test.Gauge;
 import com.hazelcast.simulator.test.TestException;
 import com.hazelcast.simulator.worker.testcontainer.TestContainer;
 import org.HdrHistogram.Histogram;
-import org.HdrHistogram.HistogramLogWriter;
+import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
+import static com.hazelcast.simulator.utils.FileUtils.rename;
+import static com.hazelcast.simulator.worker.performance.HistogramRollup.getResolutionLabel;
 import static com.hazelcast.simulator.worker.performance.PerformanceStats.INTERVAL_LATENCY_PERCENTILE;
+import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -42,13 +48,22 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * This class has a shitty design due to conflated concerns due to file writing and remoting sending the histograms.
  * This is caused by the Recorder that gets reset when getIntervalHistogram is called. Meaning that writing to file
  * and sending to remote, needs to rely on the same set of Histograms to write/send.
+ *
+ * Besides the interval log, the histograms are aggregated into rollup logs with the resolutions of the
+ * {@link HistogramLogSettings}. If the interval log has a retention, it is rotated to <tt>testId-probeName.hdr.1</tt> once
+ * it covers the retention, so the interval logs cover between one and two times the retention.
  */
 public final class TestPerformanceTracker {
 
+    private static final Logger LOGGER = Logger.getLogger(TestPerformanceTracker.class);
     private static final long ONE_SECOND_IN_MILLIS = SECONDS.toMillis(1);
 
     private final TestContainer testContainer;
-    private final Map<String, HistogramLogWriter> histogramLogWriterMap = new HashMap<String, HistogramLogWriter>();
+    private final Map<String, BufferedHistogramLogWriter> histogramLogWriterMap
+            = new HashMap<String, BufferedHistogramLogWriter>();
+    private final Map<String, Long> histogramLogStartMap = new HashMap<String, Long>();
+    private final Map<String, List<HistogramRollup>> histogramRollupMap = new HashMap<String, List<HistogramRollup>>();
+    private final HistogramLogSettings histogramLogSettings;
     private final PerformanceLogWriter performanceLogWriter;
     private final long warmupMillis;
     private long lastUpdateMillis;
@@ -64,9 +79,11 @@ public final class TestPerformanceTracker {
     private double intervalThroughput;
     private double totalThroughput;
     private long nextUpdateMillis;
+    private boolean closed;
 
-    public TestPerformanceTracker(TestContainer container) {
+    public TestPerformanceTracker(TestContainer container, HistogramLogSettings histogramLogSettings) {
         this.testContainer = container;
+        this.histogramLogSettings = histogramLogSettings;
         this.warmupMillis = container.getTestCase().getWarmupMillis();
         this.performanceLogWriter = new PerformanceLogWriter(
                 new File(getUserDir(), "performance-" + container.getTestCase().getId() + ".csv"));
@@ -137,7 +154,6 @@ public final class TestPerformanceTracker {
 
             HdrProbe hdrProbe = (HdrProbe) probe;
             Histogram intervalHistogram = hdrProbe.getRecorder().getIntervalHistogram();
-            System.out.println(new Date(lastUpdateMillis) + "-" + new Date(currentTimeMillis));
             intervalHistogram.setStartTimeStamp(lastUpdateMillis);
             intervalHistogram.setEndTimeStamp(currentTimeMillis);
             intervalHistograms.put(probeName, intervalHistogram);
@@ -195,7 +211,7 @@ public final class TestPerformanceTracker {
         return intervalThroughput;
     }
 
-    void persist(long currentTimeMillis, String currentTimeString) {
+    synchronized void persist(long currentTimeMillis, String currentTimeString) {
         performanceLogWriter.write(
                 currentTimeMillis,
                 currentTimeString,
@@ -203,16 +219,126 @@ public final class TestPerformanceTracker {
                 intervalOperationCount,
                 intervalThroughput);
 
+        if (closed) {
+            // the histogram logs have already been completed
+            return;
+        }
+
         // dumps all the Histograms that have been collected to file.
         for (Map.Entry<String, Histogram> histogramEntry : intervalHistogramMap.entrySet()) {
             String probeName = histogramEntry.getKey();
-            HistogramLogWriter histogramLogWriter = histogramLogWriterMap.get(probeName);
-            if (histogramLogWriter == null) {
-                histogramLogWriter = createHistogramLogWriter(probeName);
-                histogramLogWriterMap.put(probeName, histogramLogWriter);
-            }
             Histogram intervalHistogram = histogramEntry.getValue();
-            histogramLogWriter.outputIntervalHistogram(intervalHistogram);
+            if (histogramLogSettings.isIntervalLogEnabled()) {
+                long intervalStartMillis = intervalHistogram.getStartTimeStamp();
+                getHistogramLogWriter(probeName, intervalStartMillis).outputIntervalHistogram(intervalHistogram);
+            }
+            for (HistogramRollup rollup : getHistogramRollups(probeName)) {
+                rollup.add(intervalHistogram);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending rollups and closes the performance log and all histogram logs.
+     *
+     * Is called when the test is removed from the Worker, so the last period of the rollups is not lost.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        for (List<HistogramRollup> rollups : histogramRollupMap.values()) {
+            for (HistogramRollup rollup : rollups) {
+                rollup.close();
+            }
+        }
+        for (BufferedHistogramLogWriter histogramLogWriter : histogramLogWriterMap.values()) {
+            histogramLogWriter.close();
+        }
+        performanceLogWriter.close();
+    }
+
+    /**
+     * Flushes the performance log and the interval histogram logs.
+     *
+     * Is called by the {@link PerformanceMonitor} after the stats of all tests have been persisted.
+     */
+    synchronized void flush() {
+        performanceLogWriter.flush();
+        for (BufferedHistogramLogWriter histogramLogWriter : histogramLogWriterMap.values()) {
+            histogramLogWriter.flush();
+        }
+    }
+
+    private BufferedHistogramLogWriter getHistogramLogWriter(String probeName, long intervalStartMillis) {
+        BufferedHistogramLogWriter histogramLogWriter = histogramLogWriterMap.get(probeName);
+        long retentionMillis = SECONDS.toMillis(histogramLogSettings.getRetentionSeconds());
+        if (histogramLogWriter != null && retentionMillis > 0
+                && intervalStartMillis - histogramLogStartMap.get(probeName) >= retentionMillis) {
+            histogramLogWriter.close();
+            File latencyFile = getLatencyFile(testContainer.getTestCase().getId(), probeName, null);
+            File previousFile = new File(latencyFile.getParentFile(), latencyFile.getName() + ".1");
+            deleteQuiet(previousFile);
+            rename(latencyFile, previousFile);
+            histogramLogWriter = null;
+        }
+
+        if (histogramLogWriter == null) {
+            histogramLogWriter = createHistogramLogWriter(probeName, null);
+            histogramLogWriterMap.put(probeName, histogramLogWriter);
+            histogramLogStartMap.put(probeName, intervalStartMillis);
+        }
+        return histogramLogWriter;
+    }
+
+    private List<HistogramRollup> getHistogramRollups(String probeName) {
+        List<HistogramRollup> rollups = histogramRollupMap.get(probeName);
+        if (rollups == null) {
+            rollups = new ArrayList<HistogramRollup>();
+            for (int resolutionSeconds : histogramLogSettings.getRollupSeconds()) {
+                String resolution = getResolutionLabel(resolutionSeconds);
+                BufferedHistogramLogWriter histogramLogWriter = createHistogramLogWriter(probeName, resolution);
+                rollups.add(new HistogramRollup(histogramLogWriter, startMeasuringTime(), resolutionSeconds));
+            }
+            histogramRollupMap.put(probeName, rollups);
+        }
+        return rollups;
+    }
+
+    /**
+     * Adds the performance values and the latencies of the last interval and the gauges of the test to the current row of the
+     * metrics log.
+     *
+     * @param metricsLogWriter the {@link MetricsLogWriter} of the Worker
+     */
+    void addMetrics(MetricsLogWriter metricsLogWriter) {
+        String testId = testContainer.getTestCase().getId();
+        metricsLogWriter.set(testId + ".operations", totalOperationCount);
+        metricsLogWriter.set(testId + ".operationsDelta", intervalOperationCount);
+        metricsLogWriter.set(testId + ".throughput", intervalThroughput);
+
+        for (Map.Entry<String, Histogram> entry : intervalHistogramMap.entrySet()) {
+            String prefix = testId + '.' + entry.getKey() + '.';
+            Histogram histogram = entry.getValue();
+            metricsLogWriter.set(prefix + "count", histogram.getTotalCount());
+            metricsLogWriter.set(prefix + "mean", histogram.getMean());
+            metricsLogWriter.set(prefix + "p50", histogram.getValueAtPercentile(50));
+            metricsLogWriter.set(prefix + "p90", histogram.getValueAtPercentile(90));
+            metricsLogWriter.set(prefix + "p99", histogram.getValueAtPercentile(99));
+            metricsLogWriter.set(prefix + "p999", histogram.getValueAtPercentile(99.9));
+            metricsLogWriter.set(prefix + "max", histogram.getMaxValue());
+        }
+
+        for (Map.Entry<String, Gauge> entry : testContainer.getGauges().entrySet()) {
+            String name = testId + '.' + entry.getKey();
+            try {
+                metricsLogWriter.set(name, entry.getValue().getValue());
+            } catch (RuntimeException e) {
+                // a failing gauge must not break the metrics of the other tests, the interval is left empty
+                LOGGER.warn(format("Could not read gauge %s", name), e);
+            }
         }
     }
 
@@ -226,14 +352,15 @@ public final class TestPerformanceTracker {
                 intervalLatencyMaxNanos);
     }
 
-    HistogramLogWriter createHistogramLogWriter(String probeName) {
+    private BufferedHistogramLogWriter createHistogramLogWriter(String probeName, String resolution) {
         String testId = testContainer.getTestCase().getId();
         try {
-            File latencyFile = getLatencyFile(testId, probeName);
-            HistogramLogWriter histogramLogWriter = new HistogramLogWriter(latencyFile);
+            File latencyFile = getLatencyFile(testId, probeName, resolution);
+            BufferedHistogramLogWriter histogramLogWriter = BufferedHistogramLogWriter.create(latencyFile);
             histogramLogWriter.setBaseTime(startMeasuringTime());
             histogramLogWriter.outputStartTime(startMeasuringTime());
-            histogramLogWriter.outputComment("[Latency histograms for " + testId + '.' + probeName + ']');
+            histogramLogWriter.outputComment("[Latency histograms for " + testId + '.' + probeName
+                    + (resolution == null ? "" : " per " + resolution) + ']');
             histogramLogWriter.outputLogFormatVersion();
             histogramLogWriter.outputLegend();
             return histogramLogWriter;
@@ -242,7 +369,8 @@ public final class TestPerformanceTracker {
         }
     }
 
-    private static File getLatencyFile(String testId, String probeName) {
-        return new File(getUserDir(), testId + '-' + probeName + ".hdr");
+    private static File getLatencyFile(String testId, String probeName, String resolution) {
+        String suffix = resolution == null ? ".hdr" : '.' + resolution + ".hdr";
+        return new File(getUserDir(), testId + '-' + probeName + suffix);
     }
 }
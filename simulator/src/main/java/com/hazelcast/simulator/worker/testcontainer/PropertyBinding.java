@@ -68,6 +68,8 @@ public class PropertyBinding {
     public boolean recordJitter;
     // configures the minimum value for the jitter sample to be recorded.
     public int recordJitterThresholdNs = DEFAULT_RECORD_JITTER_THRESHOLD_NS;
+    // flag to keep the data of the test on the Workers, so the next run of the test can skip the prepare phases
+    public boolean reuseData;
 
     // this can be removed as soon as the @InjectMetronome/worker functionality is dropped
     private MetronomeConstructor workerMetronomeConstructor;
@@ -18,6 +18,7 @@ package com.hazelcast.simulator.worker.testcontainer;
 import com.hazelcast.simulator.common.TestCase;
 import com.hazelcast.simulator.common.TestPhase;
 import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.Gauge;
 import com.hazelcast.simulator.test.TestContext;
 import com.hazelcast.simulator.test.annotations.Prepare;
 import com.hazelcast.simulator.test.annotations.Run;
@@ -27,8 +28,10 @@ import com.hazelcast.simulator.test.annotations.TimeStep;
 import com.hazelcast.simulator.test.annotations.Verify;
 import com.hazelcast.simulator.utils.AnnotatedMethodRetriever;
 import com.hazelcast.simulator.utils.AnnotationFilter;
+import com.hazelcast.simulator.utils.AnnotationFilter.PrepareFilter;
 import com.hazelcast.simulator.utils.AnnotationFilter.TeardownFilter;
 import com.hazelcast.simulator.utils.AnnotationFilter.VerifyFilter;
+import com.hazelcast.simulator.worker.performance.HistogramLogSettings;
 import com.hazelcast.simulator.worker.performance.TestPerformanceTracker;
 
 import java.lang.annotation.Annotation;
@@ -89,6 +92,11 @@ public class TestContainer {
     }
 
     public TestContainer(TestContextImpl testContext, Object givenTestInstance, TestCase testCase, Object vendorInstance) {
+        this(testContext, givenTestInstance, testCase, vendorInstance, HistogramLogSettings.DEFAULT);
+    }
+
+    public TestContainer(TestContextImpl testContext, Object givenTestInstance, TestCase testCase, Object vendorInstance,
+                         HistogramLogSettings histogramLogSettings) {
         this.testContext = checkNotNull(testContext, "testContext can't null!");
         this.testCase = checkNotNull(testCase, "testCase can't be null!");
         this.propertyBinding = new PropertyBinding(testCase)
@@ -111,7 +119,7 @@ public class TestContainer {
 
         propertyBinding.ensureNoUnusedProperties();
 
-        this.testPerformanceTracker = new TestPerformanceTracker(this);
+        this.testPerformanceTracker = new TestPerformanceTracker(this, histogramLogSettings);
     }
 
     public TestPhase getCurrentPhase() {
@@ -166,10 +174,29 @@ public class TestContainer {
         return runStrategy == null ? 0 : runStrategy.iterations();
     }
 
+    public boolean isReuseData() {
+        return propertyBinding.reuseData;
+    }
+
+    /**
+     * Returns the key of the data of this test, which is used to find the data kept on the Worker by a previous run.
+     *
+     * Tests with the same class and the same <tt>name</tt> property share their data.
+     *
+     * @return the key of the data of this test
+     */
+    public String getDataKey() {
+        return testCase.getClassname() + ":" + testCase.getProperty("name");
+    }
+
     public Map<String, Probe> getProbeMap() {
         return propertyBinding.getProbeMap();
     }
 
+    public Map<String, Gauge> getGauges() {
+        return testContext.getGauges();
+    }
+
     public void invoke(TestPhase testPhase) throws Exception {
         if (!currentPhase.compareAndSet(null, testPhase)) {
             throw new IllegalStateException(format("Tried to start %s for test %s, but %s is still running!", testPhase,
@@ -200,8 +227,8 @@ public class TestContainer {
         try {
             registerSetupTask();
 
-            registerPrepareTasks(false);
-            registerPrepareTasks(true);
+            registerLocalPrepareTask();
+            registerGlobalPrepareTask();
 
             taskPerPhaseMap.put(RUN, new Callable() {
                 @Override
@@ -310,14 +337,28 @@ public class TestContainer {
         taskPerPhaseMap.put(testPhase, toCallable(methods));
     }
 
-    private void registerPrepareTasks(boolean global) {
-        List<Method> localPrepareMethods = new AnnotatedMethodRetriever(testClass, Prepare.class)
+    private void registerLocalPrepareTask() {
+        taskPerPhaseMap.put(LOCAL_PREPARE, toCallable(findPrepareMethods(new PrepareFilter(false))));
+    }
+
+    private void registerGlobalPrepareTask() {
+        // the global prepare phase is started on all Workers; the Worker with index 0 is responsible for the global
+        // prepare methods, while the distributed prepare methods are executed by every Worker
+        List<Method> methods = new ArrayList<Method>();
+        if (testContext.getWorkerIndex() == 0) {
+            methods.addAll(findPrepareMethods(new PrepareFilter(true)));
+        }
+        methods.addAll(findPrepareMethods(new PrepareFilter(true, true)));
+
+        taskPerPhaseMap.put(GLOBAL_PREPARE, toCallable(methods));
+    }
+
+    private List<Method> findPrepareMethods(PrepareFilter filter) {
+        return new AnnotatedMethodRetriever(testClass, Prepare.class)
                 .withoutArgs()
                 .withPublicNonStaticModifier()
-                .withFilter(new AnnotationFilter.PrepareFilter(global))
+                .withFilter(filter)
                 .findAll();
-
-        taskPerPhaseMap.put(global ? GLOBAL_PREPARE : LOCAL_PREPARE, toCallable(localPrepareMethods));
     }
 
     private Callable toCallable(List<Method> methods) {
@@ -17,8 +17,13 @@ package com.hazelcast.simulator.worker.testcontainer;
 
 import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.protocol.operation.LogOperation;
+import com.hazelcast.simulator.test.Gauge;
 import com.hazelcast.simulator.test.TestContext;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
 import static java.lang.String.format;
 
 public class TestContextImpl implements TestContext {
@@ -26,14 +31,27 @@ public class TestContextImpl implements TestContext {
     private final String testId;
     private final String publicIpAddress;
     private final Server server;
+    private final int workerIndex;
+    private final int workerCount;
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<String, Gauge>();
     private volatile boolean stopped;
 
     public TestContextImpl(String testId,
                            String publicIpAddress,
                            Server server) {
+        this(testId, publicIpAddress, server, 0, 1);
+    }
+
+    public TestContextImpl(String testId,
+                           String publicIpAddress,
+                           Server server,
+                           int workerIndex,
+                           int workerCount) {
         this.testId = testId;
         this.publicIpAddress = publicIpAddress;
         this.server = server;
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
     }
 
     @Override
@@ -46,6 +64,16 @@ public class TestContextImpl implements TestContext {
         return publicIpAddress;
     }
 
+    @Override
+    public int getWorkerIndex() {
+        return workerIndex;
+    }
+
+    @Override
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
     @Override
     public boolean isStopped() {
         return stopped;
@@ -61,4 +89,19 @@ public class TestContextImpl implements TestContext {
         String message = format(msg, args);
         server.sendCoordinator(new LogOperation(message));
     }
+
+    @Override
+    public void registerGauge(String name, Gauge gauge) {
+        checkNotNull(name, "name can't be null");
+        gauges.put(name, checkNotNull(gauge, "gauge can't be null"));
+    }
+
+    /**
+     * Returns the registered {@link Gauge} instances by name.
+     *
+     * @return the gauges, sorted by name
+     */
+    public Map<String, Gauge> getGauges() {
+        return gauges;
+    }
 }
@@ -22,12 +22,16 @@ import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.vendors.VendorDriver;
 import com.hazelcast.simulator.worker.operations.CreateTestOperation;
+import com.hazelcast.simulator.worker.operations.RemoveTestOperation;
 import com.hazelcast.simulator.worker.operations.StartPhaseOperation;
 import com.hazelcast.simulator.worker.operations.StopRunOperation;
+import com.hazelcast.simulator.worker.performance.HistogramLogSettings;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -38,6 +42,11 @@ import static java.lang.String.format;
  * Responsible for managing the TestContainers.
  *
  * So creating them, starting their phases, and termination.
+ *
+ * The Worker can be reused for many test runs, e.g. when using the Coordinator Remote. A test is removed after its last
+ * phase or by a {@link RemoveTestOperation} if it has been aborted. Tests with the <tt>reuseData</tt> property skip their
+ * teardown phases, so their data is kept on the Worker. The next run of a test with the same data key (see
+ * {@link TestContainer#getDataKey()}) and <tt>reuseData</tt> enabled then skips its prepare phases.
  */
 public class TestManager {
 
@@ -45,12 +54,22 @@ public class TestManager {
     private static final String DASHES = "---------------------------";
 
     private final ConcurrentMap<String, TestContainer> tests = new ConcurrentHashMap<String, TestContainer>();
+    // the data keys of the tests which have kept their data on this Worker
+    private final Set<String> reusableData = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    // the testIds of the tests which reuse the data of a previous run
+    private final Set<String> testsReusingData = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     private final Server server;
     private final VendorDriver vendorDriver;
+    private final HistogramLogSettings histogramLogSettings;
 
     public TestManager(Server server, VendorDriver vendorDriver) {
+        this(server, vendorDriver, HistogramLogSettings.DEFAULT);
+    }
+
+    public TestManager(Server server, VendorDriver vendorDriver, HistogramLogSettings histogramLogSettings) {
         this.server = server;
         this.vendorDriver = vendorDriver;
+        this.histogramLogSettings = histogramLogSettings;
     }
 
     public Collection<TestContainer> getContainers() {
@@ -71,13 +90,37 @@ public class TestManager {
 
         LOGGER.info(format("%s Initializing test %s %s%n%s", DASHES, testId, DASHES, testCase));
 
-        TestContextImpl testContext = new TestContextImpl(testId, null, server);
+        TestContextImpl testContext = new TestContextImpl(
+                testId, null, server, operation.getWorkerIndex(), operation.getWorkerCount());
 
-        testContainer = new TestContainer(testContext, testCase, vendorDriver.getInstance());
+        testContainer = new TestContainer(testContext, null, testCase, vendorDriver.getInstance(), histogramLogSettings);
+
+        if (testContainer.isReuseData() && reusableData.contains(testContainer.getDataKey())) {
+            LOGGER.info(format("Test %s reuses the data of a previous run, the prepare phases will be skipped", testId));
+            testsReusingData.add(testId);
+        }
 
         tests.put(testId, testContainer);
     }
 
+    public void removeTest(RemoveTestOperation op) {
+        String testId = op.getTestId();
+
+        TestContainer testContainer = tests.remove(testId);
+        testsReusingData.remove(testId);
+        if (testContainer == null) {
+            // the test has already been removed after its last phase
+            return;
+        }
+
+        LOGGER.info(format("%s Removing %s %s", DASHES, testId, DASHES));
+
+        testContainer.getTestContext().stop();
+        testContainer.getTestPerformanceTracker().close();
+        // the test has been aborted, so we don't know the state of its data
+        reusableData.remove(testContainer.getDataKey());
+    }
+
     public void stopRun(StopRunOperation op) {
         String testId = op.getTestId();
 
@@ -120,6 +163,15 @@ public class TestManager {
         @Override
         @SuppressWarnings("PMD.AvoidCatchingThrowable")
         public final void run() {
+            if (isSkipped()) {
+                LOGGER.info(format("%s Skipping %s of %s (reuseData) %s", DASHES, testPhase.desc(), testId, DASHES));
+                promise.answer("ok");
+                if (testPhase == getLastTestPhase()) {
+                    removeCompletedTest();
+                }
+                return;
+            }
+
             LOGGER.info(format("%s Starting %s of %s %s", DASHES, testPhase.desc(), testId, DASHES));
             try {
                 testContainer.invoke(testPhase);
@@ -131,9 +183,36 @@ public class TestManager {
                 ExceptionReporter.report(testId, t);
             } finally {
                 if (testPhase == getLastTestPhase()) {
-                    tests.remove(testId);
+                    removeCompletedTest();
                 }
             }
         }
+
+        private boolean isSkipped() {
+            switch (testPhase) {
+                case LOCAL_PREPARE:
+                case GLOBAL_PREPARE:
+                    return testsReusingData.contains(testId);
+                case GLOBAL_TEARDOWN:
+                case LOCAL_TEARDOWN:
+                    return testContainer.isReuseData();
+                default:
+                    return false;
+            }
+        }
+
+        private void removeCompletedTest() {
+            String dataKey = testContainer.getDataKey();
+            if (testContainer.isReuseData()) {
+                reusableData.add(dataKey);
+            } else {
+                // the teardown of the test has been executed, so its data is gone
+                reusableData.remove(dataKey);
+            }
+
+            testsReusingData.remove(testId);
+            tests.remove(testId);
+            testContainer.getTestPerformanceTracker().close();
+        }
     }
 }
@@ -0,0 +1,370 @@
+/*
+ * Renders the charts of the benchmark report as inline SVG, so the report works without internet access.
+ *
+ * The data is defined by the REPORT variable: a title and a list of charts, each with an id, section, title, yLabel,
+ * type (TIME or PERCENTILE) and a list of series with [x, y] points.
+ */
+(function () {
+    'use strict';
+
+    var SVG_NS = 'http://www.w3.org/2000/svg';
+    var WIDTH = 760;
+    var HEIGHT = 320;
+    var MARGIN = {top: 10, right: 20, bottom: 40, left: 70};
+    var COLORS = ['#1f77b4', '#ff7f0e', '#2ca02c', '#d62728', '#9467bd', '#8c564b', '#e377c2', '#7f7f7f', '#bcbd22',
+        '#17becf'];
+    var PERCENTILE_TICKS = [0, 90, 99, 99.9, 99.99, 99.999, 99.9999];
+
+    var tooltip = document.getElementById('tooltip');
+    var chartCount = 0;
+
+    // percentiles are plotted on a logarithmic scale of the remaining fraction, so the tail gets most of the space
+    function percentileToX(percentile) {
+        return -Math.log(1 - percentile / 100) / Math.LN10;
+    }
+
+    function formatNumber(value) {
+        var abs = Math.abs(value);
+        if (abs >= 1e9) {
+            return (value / 1e9).toFixed(1) + 'G';
+        }
+        if (abs >= 1e6) {
+            return (value / 1e6).toFixed(1) + 'M';
+        }
+        if (abs >= 1e4) {
+            return (value / 1e3).toFixed(1) + 'K';
+        }
+        if (abs >= 100 || value === Math.round(value)) {
+            return String(Math.round(value));
+        }
+        return value.toFixed(2);
+    }
+
+    function formatTime(seconds) {
+        var s = Math.round(seconds);
+        var minutes = Math.floor(s / 60);
+        var rest = s % 60;
+        return minutes > 0 ? minutes + 'm' + (rest < 10 ? '0' : '') + rest + 's' : s + 's';
+    }
+
+    function niceTicks(min, max, count) {
+        var span = max - min;
+        if (span <= 0) {
+            return [min];
+        }
+        var step = Math.pow(10, Math.floor(Math.log(span / count) / Math.LN10));
+        var error = span / count / step;
+        if (error >= 7.5) {
+            step *= 10;
+        } else if (error >= 3.5) {
+            step *= 5;
+        } else if (error >= 1.5) {
+            step *= 2;
+        }
+        var ticks = [];
+        for (var tick = Math.ceil(min / step) * step; tick <= max + step / 1e6; tick += step) {
+            ticks.push(tick);
+        }
+        return ticks;
+    }
+
+    function element(name, attributes, parent) {
+        var node = document.createElementNS(SVG_NS, name);
+        for (var key in attributes) {
+            if (attributes.hasOwnProperty(key)) {
+                node.setAttribute(key, attributes[key]);
+            }
+        }
+        if (parent) {
+            parent.appendChild(node);
+        }
+        return node;
+    }
+
+    function Chart(chart, container) {
+        this.chart = chart;
+        this.clipId = 'clip-' + chartCount++;
+        this.percentile = chart.type === 'PERCENTILE';
+        this.hidden = {};
+        this.series = [];
+        for (var i = 0; i < chart.series.length; i++) {
+            var points = [];
+            var source = chart.series[i].points;
+            for (var j = 0; j < source.length; j++) {
+                points.push([this.percentile ? percentileToX(source[j][0]) : source[j][0], source[j][1]]);
+            }
+            this.series.push({name: chart.series[i].name, points: points, color: COLORS[i % COLORS.length]});
+        }
+
+        var div = document.createElement('div');
+        div.className = 'chart';
+        var title = document.createElement('h3');
+        title.appendChild(document.createTextNode(chart.title));
+        div.appendChild(title);
+        this.svg = element('svg', {width: WIDTH, height: HEIGHT}, div);
+        this.legend = document.createElement('div');
+        this.legend.className = 'legend';
+        div.appendChild(this.legend);
+        container.appendChild(div);
+
+        this.createLegend();
+        this.resetZoom();
+        this.addListeners();
+    }
+
+    Chart.prototype.visibleSeries = function () {
+        var visible = [];
+        for (var i = 0; i < this.series.length; i++) {
+            if (!this.hidden[i]) {
+                visible.push(this.series[i]);
+            }
+        }
+        return visible;
+    };
+
+    Chart.prototype.resetZoom = function () {
+        var minX = Infinity;
+        var maxX = -Infinity;
+        var visible = this.visibleSeries();
+        for (var i = 0; i < visible.length; i++) {
+            var points = visible[i].points;
+            for (var j = 0; j < points.length; j++) {
+                minX = Math.min(minX, points[j][0]);
+                maxX = Math.max(maxX, points[j][0]);
+            }
+        }
+        if (minX === Infinity) {
+            minX = 0;
+            maxX = 1;
+        }
+        this.minX = this.percentile ? 0 : minX;
+        this.maxX = maxX > this.minX ? maxX : this.minX + 1;
+        this.render();
+    };
+
+    Chart.prototype.scaleX = function (x) {
+        return MARGIN.left + (x - this.minX) / (this.maxX - this.minX) * (WIDTH - MARGIN.left - MARGIN.right);
+    };
+
+    Chart.prototype.invertX = function (px) {
+        return this.minX + (px - MARGIN.left) / (WIDTH - MARGIN.left - MARGIN.right) * (this.maxX - this.minX);
+    };
+
+    Chart.prototype.scaleY = function (y) {
+        return HEIGHT - MARGIN.bottom - (y - this.minY) / (this.maxY - this.minY) * (HEIGHT - MARGIN.top - MARGIN.bottom);
+    };
+
+    Chart.prototype.updateY = function (visible) {
+        var maxY = 0;
+        for (var i = 0; i < visible.length; i++) {
+            var points = visible[i].points;
+            for (var j = 0; j < points.length; j++) {
+                if (points[j][0] >= this.minX && points[j][0] <= this.maxX) {
+                    maxY = Math.max(maxY, points[j][1]);
+                }
+            }
+        }
+        this.minY = 0;
+        this.maxY = maxY > 0 ? maxY * 1.05 : 1;
+    };
+
+    Chart.prototype.render = function () {
+        var svg = this.svg;
+        while (svg.firstChild) {
+            svg.removeChild(svg.firstChild);
+        }
+        var visible = this.visibleSeries();
+        this.updateY(visible);
+
+        var grid = element('g', {'class': 'grid'}, svg);
+        var axis = element('g', {'class': 'axis'}, svg);
+        var bottom = HEIGHT - MARGIN.bottom;
+
+        var yTicks = niceTicks(this.minY, this.maxY, 6);
+        for (var i = 0; i < yTicks.length; i++) {
+            var y = this.scaleY(yTicks[i]);
+            element('line', {x1: MARGIN.left, x2: WIDTH - MARGIN.right, y1: y, y2: y}, grid);
+            element('text', {x: MARGIN.left - 6, y: y + 4, 'text-anchor': 'end'}, axis).textContent = formatNumber(yTicks[i]);
+        }
+
+        var xTicks = this.xTicks();
+        for (i = 0; i < xTicks.length; i++) {
+            var x = this.scaleX(xTicks[i].value);
+            element('line', {x1: x, x2: x, y1: MARGIN.top, y2: bottom}, grid);
+            element('text', {x: x, y: bottom + 16, 'text-anchor': 'middle'}, axis).textContent = xTicks[i].label;
+        }
+
+        element('path', {d: 'M' + MARGIN.left + ',' + MARGIN.top + 'V' + bottom + 'H' + (WIDTH - MARGIN.right)}, axis);
+        element('text', {x: (WIDTH + MARGIN.left - MARGIN.right) / 2, y: HEIGHT - 4, 'text-anchor': 'middle'}, axis)
+            .textContent = this.percentile ? 'Percentile' : 'Time';
+        element('text', {
+            x: -(MARGIN.top + bottom) / 2, y: 14, 'text-anchor': 'middle', transform: 'rotate(-90)'
+        }, axis).textContent = this.chart.yLabel;
+
+        element('clipPath', {id: this.clipId}, svg).appendChild(element('rect', {
+            x: MARGIN.left, y: MARGIN.top, width: WIDTH - MARGIN.left - MARGIN.right, height: bottom - MARGIN.top
+        }));
+        var lines = element('g', {'clip-path': 'url(#' + this.clipId + ')'}, svg);
+        for (i = 0; i < visible.length; i++) {
+            var path = [];
+            var points = visible[i].points;
+            for (var j = 0; j < points.length; j++) {
+                path.push((j === 0 ? 'M' : 'L') + this.scaleX(points[j][0]).toFixed(1) + ','
+                    + this.scaleY(points[j][1]).toFixed(1));
+            }
+            element('path', {'class': 'line', d: path.join(''), stroke: visible[i].color}, lines);
+        }
+
+        this.selection = element('rect', {'class': 'selection', y: MARGIN.top, height: bottom - MARGIN.top, width: 0}, svg);
+        this.marker = element('line', {y1: MARGIN.top, y2: bottom, stroke: '#aaa', visibility: 'hidden'}, svg);
+    };
+
+    Chart.prototype.xTicks = function () {
+        var ticks = [];
+        var i;
+        if (this.percentile) {
+            for (i = 0; i < PERCENTILE_TICKS.length; i++) {
+                var value = percentileToX(PERCENTILE_TICKS[i]);
+                if (value >= this.minX && value <= this.maxX) {
+                    ticks.push({value: value, label: PERCENTILE_TICKS[i] + '%'});
+                }
+            }
+            return ticks;
+        }
+        var values = niceTicks(this.minX, this.maxX, 8);
+        for (i = 0; i < values.length; i++) {
+            ticks.push({value: values[i], label: formatTime(values[i])});
+        }
+        return ticks;
+    };
+
+    Chart.prototype.formatX = function (x) {
+        if (this.percentile) {
+            return (100 * (1 - Math.pow(10, -x))).toFixed(4) + '%';
+        }
+        return formatTime(x);
+    };
+
+    Chart.prototype.createLegend = function () {
+        var self = this;
+        for (var i = 0; i < this.series.length; i++) {
+            var span = document.createElement('span');
+            var color = document.createElement('i');
+            color.style.background = this.series[i].color;
+            span.appendChild(color);
+            span.appendChild(document.createTextNode(this.series[i].name));
+            span.onclick = (function (index, entry) {
+                return function () {
+                    self.hidden[index] = !self.hidden[index];
+                    entry.className = self.hidden[index] ? 'hidden' : '';
+                    self.render();
+                };
+            })(i, span);
+            this.legend.appendChild(span);
+        }
+    };
+
+    Chart.prototype.addListeners = function () {
+        var self = this;
+        var dragStart = null;
+
+        function mouseX(event) {
+            var rect = self.svg.getBoundingClientRect();
+            return Math.max(MARGIN.left, Math.min(WIDTH - MARGIN.right, event.clientX - rect.left));
+        }
+
+        this.svg.addEventListener('mousedown', function (event) {
+            dragStart = mouseX(event);
+            event.preventDefault();
+        });
+        this.svg.addEventListener('mousemove', function (event) {
+            var px = mouseX(event);
+            if (dragStart !== null) {
+                self.selection.setAttribute('x', Math.min(dragStart, px));
+                self.selection.setAttribute('width', Math.abs(px - dragStart));
+            }
+            self.showTooltip(px, event);
+        });
+        this.svg.addEventListener('mouseup', function (event) {
+            var px = mouseX(event);
+            if (dragStart !== null && Math.abs(px - dragStart) > 5) {
+                var from = self.invertX(Math.min(dragStart, px));
+                var to = self.invertX(Math.max(dragStart, px));
+                self.minX = from;
+                self.maxX = to;
+                self.render();
+            } else if (self.selection) {
+                self.selection.setAttribute('width', 0);
+            }
+            dragStart = null;
+        });
+        this.svg.addEventListener('mouseleave', function () {
+            dragStart = null;
+            self.selection.setAttribute('width', 0);
+            self.marker.setAttribute('visibility', 'hidden');
+            tooltip.style.display = 'none';
+        });
+        this.svg.addEventListener('dblclick', function () {
+            self.resetZoom();
+        });
+    };
+
+    Chart.prototype.showTooltip = function (px, event) {
+        var x = this.invertX(px);
+        var visible = this.visibleSeries();
+        var rows = [];
+        for (var i = 0; i < visible.length; i++) {
+            var nearest = this.nearest(visible[i].points, x);
+            if (nearest) {
+                rows.push('<span style="color:' + visible[i].color + '">&#9632;</span> ' + escapeHtml(visible[i].name)
+                    + ': ' + formatNumber(nearest[1]));
+            }
+        }
+        if (rows.length === 0) {
+            return;
+        }
+        this.marker.setAttribute('x1', px);
+        this.marker.setAttribute('x2', px);
+        this.marker.setAttribute('visibility', 'visible');
+        tooltip.innerHTML = '<b>' + this.formatX(x) + '</b><br>' + rows.join('<br>');
+        tooltip.style.display = 'block';
+        tooltip.style.left = (event.pageX + 15) + 'px';
+        tooltip.style.top = (event.pageY + 15) + 'px';
+    };
+
+    // binary search for the point with the x value closest to the given x value
+    Chart.prototype.nearest = function (points, x) {
+        if (points.length === 0) {
+            return null;
+        }
+        var low = 0;
+        var high = points.length - 1;
+        while (high - low > 1) {
+            var middle = (low + high) >> 1;
+            if (points[middle][0] < x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return Math.abs(points[low][0] - x) <= Math.abs(points[high][0] - x) ? points[low] : points[high];
+    };
+
+    function escapeHtml(text) {
+        return String(text).replace(/&/g, '&amp;').replace(/</g, '&lt;').replace(/>/g, '&gt;');
+    }
+
+    var report = document.getElementById('report');
+    var sections = {};
+    for (var i = 0; i < REPORT.charts.length; i++) {
+        var section = REPORT.charts[i].section;
+        if (!sections.hasOwnProperty(section)) {
+            var header = document.createElement('h2');
+            header.appendChild(document.createTextNode(section));
+            report.appendChild(header);
+            sections[section] = document.createElement('div');
+            report.appendChild(sections[section]);
+        }
+        new Chart(REPORT.charts[i], sections[section]);
+    }
+})();
@@ -3,18 +3,24 @@ package com.hazelcast.simulator.agent;
 import com.hazelcast.simulator.agent.operations.CreateWorkerOperation;
 import com.hazelcast.simulator.agent.operations.StartTimeoutDetectionOperation;
 import com.hazelcast.simulator.agent.operations.StopTimeoutDetectionOperation;
+import com.hazelcast.simulator.agent.operations.WorkerHeartbeatOperation;
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
 import com.hazelcast.simulator.agent.workerprocess.WorkerParameters;
 import com.hazelcast.simulator.agent.workerprocess.WorkerProcessFailureMonitor;
 import com.hazelcast.simulator.agent.workerprocess.WorkerProcessManager;
+import com.hazelcast.simulator.coordinator.operations.FailureOperation;
 import com.hazelcast.simulator.protocol.Promise;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.ProcessException;
 import com.hazelcast.simulator.worker.operations.CreateTestOperation;
+import com.hazelcast.simulator.worker.operations.PerformanceStatsOperation;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
 
+import static com.hazelcast.simulator.common.FailureType.WORKER_EXCEPTION;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -23,6 +29,7 @@ public class AgentOperationProcessorTest {
     private AgentOperationProcessor processor;
     private WorkerProcessManager processManager;
     private WorkerProcessFailureMonitor failureMonitor;
+    private PerformanceStatsAggregator performanceStatsAggregator;
     private Promise promise;
     private SimulatorAddress source;
 
@@ -30,7 +37,8 @@ public class AgentOperationProcessorTest {
     public void before() {
         processManager = mock(WorkerProcessManager.class);
         failureMonitor = mock(WorkerProcessFailureMonitor.class);
-        processor = new AgentOperationProcessor(processManager, failureMonitor);
+        performanceStatsAggregator = mock(PerformanceStatsAggregator.class);
+        processor = new AgentOperationProcessor(processManager, failureMonitor, performanceStatsAggregator);
         promise = mock(Promise.class);
         source = SimulatorAddress.coordinatorAddress();
     }
@@ -46,11 +54,11 @@ public class AgentOperationProcessorTest {
 
     @Test
     public void testStartTimeoutDetectionOperation() throws Exception {
-        StartTimeoutDetectionOperation op = new StartTimeoutDetectionOperation();
+        StartTimeoutDetectionOperation op = new StartTimeoutDetectionOperation(180, 300);
 
         processor.process(op, source, promise);
 
-        verify(failureMonitor).startTimeoutDetection();
+        verify(failureMonitor).startTimeoutDetection(180, 300);
     }
 
     @Test
@@ -62,6 +70,49 @@ public class AgentOperationProcessorTest {
         verify(failureMonitor).stopTimeoutDetection();
     }
 
+    @Test
+    public void testWorkerReadyOperation() throws Exception {
+        WorkerReadyOperation op = new WorkerReadyOperation(1, 2, 3, 4);
+        SimulatorAddress workerAddress = SimulatorAddress.workerAddress(1, 1);
+
+        processor.process(op, workerAddress, promise);
+
+        verify(processManager).workerReady(workerAddress, op);
+    }
+
+    @Test
+    public void testWorkerHeartbeatOperation() throws Exception {
+        WorkerHeartbeatOperation op = new WorkerHeartbeatOperation();
+        op.addIterations("testId", 100);
+        SimulatorAddress workerAddress = SimulatorAddress.workerAddress(1, 1);
+
+        processor.process(op, workerAddress, promise);
+
+        verify(processManager).heartbeat(workerAddress, op);
+    }
+
+    @Test
+    public void testFailureOperation() throws Exception {
+        SimulatorAddress workerAddress = SimulatorAddress.workerAddress(1, 1);
+        FailureOperation op = new FailureOperation("expected", WORKER_EXCEPTION, workerAddress, "A1", null, "testId",
+                "cause");
+
+        processor.process(op, workerAddress, promise);
+
+        verify(failureMonitor).workerException(workerAddress, op);
+    }
+
+    @Test
+    public void testPerformanceStatsOperation() throws Exception {
+        PerformanceStatsOperation op = new PerformanceStatsOperation();
+        op.addPerformanceStats("testId", new PerformanceStats());
+        SimulatorAddress workerAddress = SimulatorAddress.workerAddress(1, 1);
+
+        processor.process(op, workerAddress, promise);
+
+        verify(performanceStatsAggregator).update(workerAddress, op.getPerformanceStats());
+    }
+
     @Test(expected = ProcessException.class)
     public void testUnknownOperation() throws Exception {
         CreateTestOperation op = mock(CreateTestOperation.class);
@@ -0,0 +1,287 @@
+package com.hazelcast.simulator.agent;
+
+import com.hazelcast.simulator.agent.workerprocess.WorkerProcess;
+import com.hazelcast.simulator.agent.workerprocess.WorkerProcessManager;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.utils.AssertTask;
+import com.hazelcast.simulator.worker.operations.PerformanceStatsOperation;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.agent.PerformanceStatsAggregator.MAX_STALE_INTERVALS;
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.workerAddress;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PerformanceStatsAggregatorTest {
+
+    private static final double ASSERT_EQUALS_DELTA = 0.1;
+    // the aggregator thread must not flush during a test
+    private static final int INTERVAL_SECONDS = 3600;
+
+    private static final String TEST_ID_1 = "testId1";
+    private static final String TEST_ID_2 = "testId2";
+
+    private final SimulatorAddress a1w1 = workerAddress(1, 1);
+    private final SimulatorAddress a1w2 = workerAddress(1, 2);
+
+    private Server server;
+    private WorkerProcessManager processManager;
+    private PerformanceStatsAggregator aggregator;
+
+    @Before
+    public void before() {
+        server = mock(Server.class);
+        processManager = mock(WorkerProcessManager.class);
+        when(processManager.getWorkerProcess(a1w1)).thenReturn(mock(WorkerProcess.class));
+        when(processManager.getWorkerProcess(a1w2)).thenReturn(mock(WorkerProcess.class));
+        aggregator = new PerformanceStatsAggregator(server, processManager, INTERVAL_SECONDS);
+    }
+
+    @After
+    public void after() {
+        aggregator.close();
+    }
+
+    @Test
+    public void testCreateOperation_whenEmpty() {
+        PerformanceStatsOperation operation = aggregator.createOperation();
+
+        assertTrue(operation.getPerformanceStats().isEmpty());
+    }
+
+    @Test
+    public void testCreateOperation_mergesWorkers() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        Map<String, PerformanceStats> performanceStatsMap = new HashMap<String, PerformanceStats>();
+        performanceStatsMap.put(TEST_ID_1, new PerformanceStats(2000, 200, 150, 1400.0d, 1300, 3000));
+        performanceStatsMap.put(TEST_ID_2, new PerformanceStats(500, 10, 5, 100.0d, 200, 300));
+        aggregator.update(a1w2, performanceStatsMap);
+
+        Map<String, PerformanceStats> merged = aggregator.createOperation().getPerformanceStats();
+
+        assertEquals(2, merged.size());
+
+        PerformanceStats stats = merged.get(TEST_ID_1);
+        assertEquals(3000, stats.getOperationCount());
+        assertEquals(300, stats.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
+        assertEquals(200, stats.getTotalThroughput(), ASSERT_EQUALS_DELTA);
+        assertEquals(1400.0d, stats.getIntervalLatencyAvgNanos(), ASSERT_EQUALS_DELTA);
+        assertEquals(1500, stats.getIntervalLatency999PercentileNanos());
+        assertEquals(3000, stats.getIntervalLatencyMaxNanos());
+
+        assertEquals(500, merged.get(TEST_ID_2).getOperationCount());
+    }
+
+    @Test
+    public void testUpdate_whenWorkerReportsAgain_thenPreviousIntervalIsSent() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        verify(server, never()).sendCoordinator(any(PerformanceStatsOperation.class));
+
+        // the second update sends the previous interval and completes the next one, since the Worker is the only one
+        update(a1w1, TEST_ID_1, new PerformanceStats(1500, 50, 60, 1000.0d, 1100, 1200));
+
+        List<PerformanceStatsOperation> sent = getAllSent();
+        assertEquals(2, sent.size());
+        assertEquals(1000, sent.get(0).getPerformanceStats().get(TEST_ID_1).getOperationCount());
+        PerformanceStats stats = sent.get(1).getPerformanceStats().get(TEST_ID_1);
+        assertEquals(1500, stats.getOperationCount());
+        assertEquals(50, stats.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
+    }
+
+    @Test
+    public void testUpdate_whenAllExpectedWorkersReported_thenIntervalIsSent() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        update(a1w2, TEST_ID_1, new PerformanceStats(2000, 200, 150, 1400.0d, 1300, 3000));
+        aggregator.flush();
+
+        update(a1w2, TEST_ID_1, new PerformanceStats(2200, 200, 150, 1400.0d, 1300, 3000));
+        verify(server, times(1)).sendCoordinator(any(PerformanceStatsOperation.class));
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(1100, 100, 50, 1200.0d, 1500, 2000));
+        verify(server, times(2)).sendCoordinator(any(PerformanceStatsOperation.class));
+
+        PerformanceStats stats = getLastSent().get(TEST_ID_1);
+        assertEquals(3300, stats.getOperationCount());
+        assertEquals(300, stats.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
+    }
+
+    @Test
+    public void testUpdate_whenWorkerIsGone_thenIntervalIsSentWithoutIt() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        update(a1w2, TEST_ID_1, new PerformanceStats(2000, 200, 150, 1400.0d, 1300, 3000));
+        when(processManager.getWorkerProcess(a1w2)).thenReturn(null);
+        aggregator.flush();
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(1100, 100, 50, 1200.0d, 1500, 2000));
+
+        verify(server, times(2)).sendCoordinator(any(PerformanceStatsOperation.class));
+        assertEquals(1100, getLastSent().get(TEST_ID_1).getOperationCount());
+    }
+
+    @Test
+    public void testFlushIfOverdue_whenNotOverdue() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+
+        aggregator.flushIfOverdue();
+
+        verify(server, never()).sendCoordinator(any(PerformanceStatsOperation.class));
+    }
+
+    @Test
+    public void testFlushIfOverdue_isCalledByAggregatorThread() {
+        aggregator.close();
+        aggregator = new PerformanceStatsAggregator(server, processManager, 1);
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                verify(server, times(1)).sendCoordinator(any(PerformanceStatsOperation.class));
+            }
+        });
+    }
+
+    @Test
+    public void testCreateOperation_staleWorkerOnlyAddsCumulativeValues() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        update(a1w2, TEST_ID_1, new PerformanceStats(2000, 200, 150, 1400.0d, 1300, 3000));
+        aggregator.createOperation();
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(1100, 10, 45, 900.0d, 1000, 1100));
+        PerformanceStats stats = flushAndGetLastSent().get(TEST_ID_1);
+
+        assertEquals(3100, stats.getOperationCount());
+        assertEquals(10, stats.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
+        assertEquals(195, stats.getTotalThroughput(), ASSERT_EQUALS_DELTA);
+        assertEquals(1100, stats.getIntervalLatencyMaxNanos());
+    }
+
+    @Test
+    public void testCreateOperation_testWithoutUpdateIsNotSendAgain() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        aggregator.createOperation();
+
+        update(a1w1, TEST_ID_2, new PerformanceStats(500, 10, 5, 100.0d, 200, 300));
+        Map<String, PerformanceStats> merged = flushAndGetLastSent();
+
+        assertNull(merged.get(TEST_ID_1));
+        assertEquals(500, merged.get(TEST_ID_2).getOperationCount());
+    }
+
+    @Test
+    public void testCreateOperation_staleWorkerIsRemovedAfterMaxStaleIntervals() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        update(a1w2, TEST_ID_1, new PerformanceStats(2000, 200, 150, 1400.0d, 1300, 3000));
+        aggregator.createOperation();
+
+        for (int i = 0; i < MAX_STALE_INTERVALS; i++) {
+            update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+            aggregator.createOperation();
+        }
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        PerformanceStats stats = flushAndGetLastSent().get(TEST_ID_1);
+
+        assertEquals(1000, stats.getOperationCount());
+    }
+
+    @Test
+    public void testCreateOperation_reusedTestIdDoesNotContainStaleWorkers() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        update(a1w2, TEST_ID_1, new PerformanceStats(2000, 200, 150, 1400.0d, 1300, 3000));
+        for (int i = 0; i <= MAX_STALE_INTERVALS; i++) {
+            aggregator.createOperation();
+        }
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(10, 10, 10, 100.0d, 100, 100));
+        PerformanceStats stats = flushAndGetLastSent().get(TEST_ID_1);
+
+        assertEquals(10, stats.getOperationCount());
+    }
+
+    @Test
+    public void testCreateOperation_removedWorkerIsNotAdded() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+        update(a1w2, TEST_ID_1, new PerformanceStats(2000, 200, 150, 1400.0d, 1300, 3000));
+        aggregator.createOperation();
+
+        when(processManager.getWorkerProcess(a1w2)).thenReturn(null);
+        aggregator.createOperation();
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(1100, 10, 45, 900.0d, 1000, 1100));
+        PerformanceStats stats = flushAndGetLastSent().get(TEST_ID_1);
+
+        assertEquals(1100, stats.getOperationCount());
+    }
+
+    @Test
+    public void testUpdate_whenNoValidInterval_thenForwardedDirectly() {
+        aggregator.close();
+        aggregator = new PerformanceStatsAggregator(server, processManager, 0);
+
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+
+        verify(server, times(1)).sendCoordinator(any(PerformanceStatsOperation.class));
+    }
+
+    @Test
+    public void testFlush() {
+        update(a1w1, TEST_ID_1, new PerformanceStats(1000, 100, 50, 1200.0d, 1500, 2000));
+
+        aggregator.flush();
+        aggregator.flush();
+
+        verify(server, times(1)).sendCoordinator(any(PerformanceStatsOperation.class));
+    }
+
+    @Test
+    public void testFlush_whenEmpty() {
+        aggregator.flush();
+
+        verify(server, never()).sendCoordinator(any(PerformanceStatsOperation.class));
+    }
+
+    /**
+     * Sends the pending stats, if they have not been sent by an update, and returns the last sent stats.
+     */
+    private Map<String, PerformanceStats> flushAndGetLastSent() {
+        aggregator.flush();
+        return getLastSent();
+    }
+
+    private Map<String, PerformanceStats> getLastSent() {
+        List<PerformanceStatsOperation> sent = getAllSent();
+        return sent.get(sent.size() - 1).getPerformanceStats();
+    }
+
+    private List<PerformanceStatsOperation> getAllSent() {
+        ArgumentCaptor<PerformanceStatsOperation> captor = ArgumentCaptor.forClass(PerformanceStatsOperation.class);
+        verify(server, atLeastOnce()).sendCoordinator(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private void update(SimulatorAddress workerAddress, String testId, PerformanceStats performanceStats) {
+        Map<String, PerformanceStats> performanceStatsMap = new HashMap<String, PerformanceStats>();
+        performanceStatsMap.put(testId, performanceStats);
+        aggregator.update(workerAddress, performanceStatsMap);
+    }
+}
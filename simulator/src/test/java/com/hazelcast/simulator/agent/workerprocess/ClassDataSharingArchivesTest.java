@@ -0,0 +1,188 @@
+package com.hazelcast.simulator.agent.workerprocess;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static com.hazelcast.simulator.agent.workerprocess.ClassDataSharingArchives.MAX_ARCHIVES;
+import static com.hazelcast.simulator.agent.workerprocess.ClassDataSharingArchives.archiveKey;
+import static com.hazelcast.simulator.agent.workerprocess.ClassDataSharingArchives.completeLines;
+import static com.hazelcast.simulator.agent.workerprocess.ClassDataSharingArchives.isDumpingClassList;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClassDataSharingArchivesTest {
+
+    private static final String KEY = "member-00000001";
+    private static final String CLASSPATH = "lib/*:hz-lib/3.8/*";
+
+    private File archiveDirectory;
+    private ClassDataSharingArchives archives;
+
+    @Before
+    public void before() {
+        archiveDirectory = createTmpDirectory();
+        archives = new ClassDataSharingArchives(archiveDirectory);
+    }
+
+    @After
+    public void after() {
+        archives.shutdown();
+        deleteQuiet(archiveDirectory);
+    }
+
+    @Test
+    public void testArchiveKey() {
+        String key = archiveKey("member", "/usr/lib/jvm/java", "lib/*:hz-lib/3.8/*");
+
+        assertTrue(key.startsWith("member-"));
+        assertEquals(key, archiveKey("member", "/usr/lib/jvm/java", "lib/*:hz-lib/3.8/*"));
+        assertNotEquals(key, archiveKey("member", "/usr/lib/jvm/java8", "lib/*:hz-lib/3.8/*"));
+        assertNotEquals(key, archiveKey("client", "/usr/lib/jvm/java", "lib/*:hz-lib/3.8/*"));
+    }
+
+    @Test
+    public void testArchiveKey_isIndependentOfTheJarDirectory() {
+        File session1 = createJar("session1", "hazelcast.jar", "content");
+        File session2 = createJar("session2", "hazelcast.jar", "content");
+        setSameLastModified(session1, session2);
+
+        assertEquals(archiveKey("member", "java", jarDirectory(session1)), archiveKey("member", "java", jarDirectory(session2)));
+    }
+
+    @Test
+    public void testArchiveKey_whenJarChanged() {
+        File session1 = createJar("session1", "hazelcast.jar", "content");
+        File session2 = createJar("session2", "hazelcast.jar", "changed content");
+        setSameLastModified(session1, session2);
+
+        assertNotEquals(archiveKey("member", "java", jarDirectory(session1)),
+                archiveKey("member", "java", jarDirectory(session2)));
+    }
+
+    @Test
+    public void testGetJvmOptions_firstWorkerDumpsClassList() {
+        String jvmOptions = archives.getJvmOptions(KEY, CLASSPATH);
+
+        assertTrue(isDumpingClassList(jvmOptions));
+        assertTrue(jvmOptions.endsWith(archives.getClassListFile(KEY).getAbsolutePath()));
+    }
+
+    @Test
+    public void testGetJvmOptions_whileArchiveIsPending() {
+        archives.getJvmOptions(KEY, CLASSPATH);
+
+        assertEquals("", archives.getJvmOptions(KEY, CLASSPATH));
+    }
+
+    @Test
+    public void testGetJvmOptions_whenArchiveExists() {
+        ensureExistingFile(archives.getArchiveFile(KEY));
+        writeText(CLASSPATH, archives.getClasspathFile(KEY));
+
+        String jvmOptions = archives.getJvmOptions(KEY, CLASSPATH);
+
+        assertFalse(isDumpingClassList(jvmOptions));
+        assertTrue(jvmOptions.contains("-Xshare:auto"));
+        assertTrue(jvmOptions.endsWith("-XX:SharedArchiveFile=" + archives.getArchiveFile(KEY).getAbsolutePath()));
+    }
+
+    @Test
+    public void testGetJvmOptions_whenArchiveHasDifferentClasspath_thenRecreated() {
+        ensureExistingFile(archives.getArchiveFile(KEY));
+        writeText("other/lib/*:hz-lib/3.8/*", archives.getClasspathFile(KEY));
+
+        String jvmOptions = archives.getJvmOptions(KEY, CLASSPATH);
+
+        assertTrue(isDumpingClassList(jvmOptions));
+    }
+
+    @Test
+    public void testDeleteLeastRecentlyUsedArchives() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < MAX_ARCHIVES + 2; i++) {
+            File archive = archives.getArchiveFile("member-" + i);
+            ensureExistingFile(archive);
+            ensureExistingFile(archives.getClasspathFile("member-" + i));
+            assertTrue(archive.setLastModified(now - SECONDS.toMillis(i)));
+        }
+
+        archives.deleteLeastRecentlyUsedArchives();
+
+        for (int i = 0; i < MAX_ARCHIVES; i++) {
+            assertTrue(archives.getArchiveFile("member-" + i).exists());
+        }
+        for (int i = MAX_ARCHIVES; i < MAX_ARCHIVES + 2; i++) {
+            assertFalse(archives.getArchiveFile("member-" + i).exists());
+            assertFalse(archives.getClasspathFile("member-" + i).exists());
+        }
+    }
+
+    @Test
+    public void testDeleteLeastRecentlyUsedArchives_thenDeletedArchiveIsRecreated() {
+        long now = System.currentTimeMillis();
+        assertTrue(isDumpingClassList(archives.getJvmOptions("member-" + MAX_ARCHIVES, CLASSPATH)));
+        for (int i = 0; i <= MAX_ARCHIVES; i++) {
+            File archive = archives.getArchiveFile("member-" + i);
+            ensureExistingFile(archive);
+            writeText(CLASSPATH, archives.getClasspathFile("member-" + i));
+            assertTrue(archive.setLastModified(now - SECONDS.toMillis(i)));
+        }
+
+        archives.deleteLeastRecentlyUsedArchives();
+
+        assertTrue(isDumpingClassList(archives.getJvmOptions("member-" + MAX_ARCHIVES, CLASSPATH)));
+    }
+
+    @Test
+    public void testGetArchiveJvmOptions() {
+        assertEquals("", archives.getArchiveJvmOptions(KEY, CLASSPATH));
+
+        ensureExistingFile(archives.getArchiveFile(KEY));
+        writeText(CLASSPATH, archives.getClasspathFile(KEY));
+
+        String jvmOptions = archives.getArchiveJvmOptions(KEY, CLASSPATH);
+
+        assertTrue(jvmOptions.contains("-XX:SharedArchiveFile=" + archives.getArchiveFile(KEY).getAbsolutePath()));
+    }
+
+    @Test
+    public void testGetArchiveJvmOptions_doesNotBlockTheClassListDump() {
+        assertEquals("", archives.getArchiveJvmOptions(KEY, CLASSPATH));
+
+        assertTrue(isDumpingClassList(archives.getJvmOptions(KEY, CLASSPATH)));
+    }
+
+    private File createJar(String directory, String name, String content) {
+        File jar = new File(ensureExistingDirectory(archiveDirectory, directory), name);
+        ensureExistingFile(jar);
+        writeText(content, jar);
+        return jar;
+    }
+
+    private static String jarDirectory(File jar) {
+        return jar.getParentFile().getAbsolutePath() + "/*";
+    }
+
+    private static void setSameLastModified(File jar1, File jar2) {
+        assertTrue(jar2.setLastModified(jar1.lastModified()));
+    }
+
+    @Test
+    public void testCompleteLines() {
+        assertEquals("", completeLines(""));
+        assertEquals("", completeLines("java/lang/Object"));
+        assertEquals("java/lang/Object\n", completeLines("java/lang/Object\njava/lang/Str"));
+        assertEquals("java/lang/Object\njava/lang/String\n", completeLines("java/lang/Object\njava/lang/String\n"));
+    }
+}
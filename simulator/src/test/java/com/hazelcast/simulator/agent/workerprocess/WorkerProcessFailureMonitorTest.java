@@ -1,6 +1,7 @@
 package com.hazelcast.simulator.agent.workerprocess;
 
 import com.hazelcast.simulator.common.FailureType;
+import com.hazelcast.simulator.coordinator.operations.FailureOperation;
 import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.utils.AssertTask;
@@ -10,12 +11,14 @@ import org.junit.Test;
 import org.mockito.verification.VerificationMode;
 
 import java.io.File;
+import java.util.Collections;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.setupFakeEnvironment;
 import static com.hazelcast.simulator.TestEnvironmentUtils.tearDownFakeEnvironment;
 import static com.hazelcast.simulator.common.FailureType.WORKER_ABNORMAL_EXIT;
 import static com.hazelcast.simulator.common.FailureType.WORKER_EXCEPTION;
 import static com.hazelcast.simulator.common.FailureType.WORKER_NORMAL_EXIT;
+import static com.hazelcast.simulator.common.FailureType.WORKER_NO_PROGRESS;
 import static com.hazelcast.simulator.common.FailureType.WORKER_OOME;
 import static com.hazelcast.simulator.common.FailureType.WORKER_TIMEOUT;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.workerAddress;
@@ -136,6 +139,28 @@ public class WorkerProcessFailureMonitorTest {
         assertThatExceptionFileDoesNotExist(exceptionFile);
     }
 
+    @Test
+    public void testWorkerException() {
+        WorkerProcess workerProcess = addRunningWorkerProcess();
+        FailureOperation operation = new FailureOperation("expected", WORKER_EXCEPTION, workerProcess.getAddress(), "A1",
+                null, "testId", "cause");
+
+        workerProcessFailureMonitor.workerException(workerProcess.getAddress(), operation);
+
+        verify(failureHandler).handle(anyString(), eq(WORKER_EXCEPTION), eq(workerProcess), eq("testId"), eq("cause"));
+    }
+
+    @Test
+    public void testWorkerException_whenUnknownWorker() {
+        SimulatorAddress workerAddress = createWorkerAddress();
+        FailureOperation operation = new FailureOperation("expected", WORKER_EXCEPTION, workerAddress, "A1",
+                null, "testId", "cause");
+
+        workerProcessFailureMonitor.workerException(workerAddress, operation);
+
+        verifyZeroInteractions(failureHandler);
+    }
+
     @Test
     public void testRun_shouldDetectException_withEmptyTestId() {
         WorkerProcess workerProcess = addRunningWorkerProcess();
@@ -184,7 +209,7 @@ public class WorkerProcessFailureMonitorTest {
         assertFailureType(failureHandler, WORKER_OOME);
     }
 
-    //@Test
+    @Test
     public void testRun_shouldDetectInactivity() {
         WorkerProcess workerProcess = addRunningWorkerProcess();
 
@@ -193,7 +218,68 @@ public class WorkerProcessFailureMonitorTest {
 
         sleepMillis(DEFAULT_SLEEP_TIME);
 
-        assertFailureTypeAtLeastOnce(failureHandler, WORKER_TIMEOUT);
+        assertFailureType(failureHandler, WORKER_TIMEOUT);
+    }
+
+    @Test
+    public void testRun_shouldDetectInactivityAgain_afterWorkerHasBeenSeen() {
+        WorkerProcess workerProcess = addRunningWorkerProcess();
+
+        workerProcessFailureMonitor.startTimeoutDetection();
+        workerProcess.setLastSeen(currentTimeMillis() - HOURS.toMillis(1));
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        workerProcess.setLastSeen(currentTimeMillis() - HOURS.toMillis(2));
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        assertFailureTypeAtLeastOnce(failureHandler, WORKER_TIMEOUT, times(2));
+    }
+
+    @Test
+    public void testRun_shouldDetectInactivity_withTimeoutOfStartOperation() {
+        WorkerProcess workerProcess = addRunningWorkerProcess();
+
+        workerProcessFailureMonitor = new WorkerProcessFailureMonitor(failureHandler, workerProcessManager, -1,
+                DEFAULT_CHECK_INTERVAL);
+        workerProcessFailureMonitor.start();
+
+        workerProcessFailureMonitor.startTimeoutDetection(DEFAULT_LAST_SEEN_TIMEOUT_SECONDS, -1);
+        workerProcess.setLastSeen(currentTimeMillis() - HOURS.toMillis(1));
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        assertFailureType(failureHandler, WORKER_TIMEOUT);
+    }
+
+    @Test
+    public void testRun_shouldDetectNoProgress() {
+        WorkerProcess workerProcess = addRunningWorkerProcess();
+
+        workerProcessFailureMonitor.startTimeoutDetection(-1, DEFAULT_LAST_SEEN_TIMEOUT_SECONDS);
+        workerProcess.getProgress().update(Collections.singletonMap("testId", 100L), currentTimeMillis() - HOURS.toMillis(1));
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        verify(failureHandler).handle(anyString(), eq(WORKER_NO_PROGRESS), eq(workerProcess), eq("testId"), any(String.class));
+        verifyNoMoreInteractions(failureHandler);
+    }
+
+    @Test
+    public void testRun_shouldNotDetectNoProgress_ifTestMakesProgress() {
+        WorkerProcess workerProcess = addRunningWorkerProcess();
+
+        workerProcessFailureMonitor.startTimeoutDetection(-1, DEFAULT_LAST_SEEN_TIMEOUT_SECONDS);
+        workerProcess.getProgress().update(Collections.singletonMap("testId", 100L), currentTimeMillis());
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        workerProcess.getProgress().update(Collections.singletonMap("testId", 200L), currentTimeMillis());
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        verifyZeroInteractions(failureHandler);
     }
 
     @Test
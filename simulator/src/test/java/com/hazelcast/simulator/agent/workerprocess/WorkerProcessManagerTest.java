@@ -1,5 +1,7 @@
 package com.hazelcast.simulator.agent.workerprocess;
 
+import com.hazelcast.simulator.agent.operations.WorkerHeartbeatOperation;
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
 import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import org.junit.Before;
@@ -11,6 +13,7 @@ import static com.hazelcast.simulator.protocol.core.SimulatorAddress.coordinator
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.workerAddress;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doThrow;
@@ -101,6 +104,51 @@ public class WorkerProcessManagerTest {
         assertEquals(secondLastSeen, workerProcess2.getLastSeen());
     }
 
+    @Test
+    public void testHeartbeat() {
+        long firstLastSeen = workerProcess1.getLastSeen();
+        long secondLastSeen = workerProcess2.getLastSeen();
+        WorkerHeartbeatOperation op = new WorkerHeartbeatOperation();
+        op.addIterations("testId", 100);
+
+        sleepMillis(100);
+        workerProcessManager.heartbeat(workerAddress1, op);
+
+        assertNotEquals(firstLastSeen, workerProcess1.getLastSeen());
+        assertEquals(workerProcess1.getLastSeen(), workerProcess1.getProgress().getLastProgressMillis("testId"));
+        assertEquals(secondLastSeen, workerProcess2.getLastSeen());
+    }
+
+    @Test
+    public void testHeartbeat_whenUnknownWorker_thenDoNotUpdate() {
+        long firstLastSeen = workerProcess1.getLastSeen();
+        WorkerHeartbeatOperation op = new WorkerHeartbeatOperation();
+
+        sleepMillis(100);
+        workerProcessManager.heartbeat(workerAddress(2, 1), op);
+
+        assertEquals(firstLastSeen, workerProcess1.getLastSeen());
+    }
+
+    @Test
+    public void testWorkerReady() {
+        WorkerReadyOperation op = new WorkerReadyOperation(1000, 2000, 3000, 4000);
+
+        workerProcessManager.workerReady(workerAddress1, op);
+
+        assertTrue(workerProcess1.isReady());
+        assertFalse(workerProcess2.isReady());
+        assertEquals(3000, workerProcess1.getStartupTimeline().getDurationMillis());
+    }
+
+    @Test
+    public void testWorkerReady_whenUnknownWorker_thenDoNothing() {
+        workerProcessManager.workerReady(workerAddress(2, 1), new WorkerReadyOperation(1000, 2000, 3000, 4000));
+
+        assertFalse(workerProcess1.isReady());
+        assertFalse(workerProcess2.isReady());
+    }
+
     @Test
     public void testShutdown() {
         workerProcessManager.shutdown();
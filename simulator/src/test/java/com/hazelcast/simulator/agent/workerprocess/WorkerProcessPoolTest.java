@@ -0,0 +1,127 @@
+package com.hazelcast.simulator.agent.workerprocess;
+
+import com.hazelcast.simulator.utils.AssertTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.simulator.agent.workerprocess.WorkerProcessPool.poolKey;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerProcessPoolTest {
+
+    // the script writes the received Worker home into its working directory, like the Worker writes its files
+    private static final String WORKER_SCRIPT = "read home\necho \"$home\" > claimed\nsleep 60\n";
+
+    private File directory;
+    private WorkerProcessPool pool;
+    private Map<String, String> workerFiles;
+    private Map<String, String> environment;
+    private Process claimed;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        pool = new WorkerProcessPool(new File(directory, "pool"));
+
+        workerFiles = new HashMap<String, String>();
+        workerFiles.put("worker.sh", WORKER_SCRIPT);
+        environment = new HashMap<String, String>(System.getenv());
+    }
+
+    @After
+    public void after() {
+        if (claimed != null) {
+            claimed.destroy();
+        }
+        pool.shutdown();
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testPoolKey() {
+        String key = poolKey("/java", "lib/*", "-Xmx1g", workerFiles);
+
+        assertEquals(key, poolKey("/java", "lib/*", "-Xmx1g", new HashMap<String, String>(workerFiles)));
+        assertNotEquals(key, poolKey("/java", "lib/*", "-Xmx2g", workerFiles));
+        assertNotEquals(key, poolKey("/java", "other-lib/*", "-Xmx1g", workerFiles));
+        assertNotEquals(key, poolKey("/java", "lib/*", "-Xmx1g", new HashMap<String, String>()));
+    }
+
+    @Test
+    public void testClaim_whenPoolIsEmpty() {
+        assertNull(pool.claim("key", new File(directory, "worker")));
+    }
+
+    @Test
+    public void testClaim() {
+        fillAndAwait("key", "session", 2);
+
+        final File workerHome = ensureExistingDirectory(new File(directory, "session"), "worker");
+        writeText("WORKER_INDEX=1\n", new File(workerHome, "parameters"));
+
+        claimed = pool.claim("key", workerHome);
+
+        assertNotNull(claimed);
+        assertEquals(1, pool.idleCount("key"));
+        assertEquals("WORKER_INDEX=1\n", fileAsText(new File(workerHome, "parameters")));
+        assertEquals(WORKER_SCRIPT, fileAsText(new File(workerHome, "worker.sh")));
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                File claimedFile = new File(workerHome, "claimed");
+                assertTrue(claimedFile.exists());
+                assertEquals(workerHome.getAbsolutePath() + "\n", fileAsText(claimedFile));
+            }
+        });
+    }
+
+    @Test
+    public void testClaim_whenIdleWorkerHasExited() {
+        workerFiles.put("worker.sh", "touch started\nexit 1\n");
+        fillAndAwait("key", "session", 1);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(new File(directory, "pool/idle-1/started").exists());
+            }
+        });
+        sleepSeconds(1);
+
+        assertNull(pool.claim("key", new File(directory, "worker")));
+        assertEquals(0, pool.idleCount("key"));
+    }
+
+    @Test
+    public void testFill_destroysIdleWorkersOfOtherSessions() {
+        fillAndAwait("key", "session1", 1);
+        fillAndAwait("otherKey", "session2", 1);
+
+        assertEquals(0, pool.idleCount("key"));
+    }
+
+    private void fillAndAwait(final String key, String sessionId, final int size) {
+        pool.fill(key, sessionId, size, workerFiles, environment);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(size, pool.idleCount(key));
+            }
+        });
+    }
+}
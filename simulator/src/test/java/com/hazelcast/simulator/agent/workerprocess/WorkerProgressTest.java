@@ -0,0 +1,90 @@
+package com.hazelcast.simulator.agent.workerprocess;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerProgressTest {
+
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    private final WorkerProgress progress = new WorkerProgress();
+
+    @Test
+    public void testGetStalledTests_whenEmpty() {
+        assertTrue(progress.getStalledTests(5000, TIMEOUT_MILLIS).isEmpty());
+    }
+
+    @Test
+    public void testGetStalledTests_whenNoProgress() {
+        progress.update(iterations("testId", 100), 1000);
+        progress.update(iterations("testId", 100), 1500);
+
+        assertTrue(progress.getStalledTests(1999, TIMEOUT_MILLIS).isEmpty());
+        assertEquals(singletonList("testId"), progress.getStalledTests(2000, TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void testGetStalledTests_reportedOnlyOnce() {
+        progress.update(iterations("testId", 100), 1000);
+
+        assertEquals(1, progress.getStalledTests(5000, TIMEOUT_MILLIS).size());
+        assertTrue(progress.getStalledTests(6000, TIMEOUT_MILLIS).isEmpty());
+    }
+
+    @Test
+    public void testGetStalledTests_reportedAgainAfterProgress() {
+        progress.update(iterations("testId", 100), 1000);
+        progress.getStalledTests(5000, TIMEOUT_MILLIS);
+
+        progress.update(iterations("testId", 200), 6000);
+
+        assertTrue(progress.getStalledTests(6500, TIMEOUT_MILLIS).isEmpty());
+        assertEquals(singletonList("testId"), progress.getStalledTests(7000, TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void testUpdate_progressIsTrackedPerTest() {
+        Map<String, Long> iterations = new HashMap<String, Long>();
+        iterations.put("test1", 100L);
+        iterations.put("test2", 100L);
+        progress.update(iterations, 1000);
+
+        iterations.put("test2", 200L);
+        progress.update(iterations, 1800);
+
+        List<String> stalledTests = progress.getStalledTests(2000, TIMEOUT_MILLIS);
+        assertEquals(singletonList("test1"), stalledTests);
+        assertEquals(1800, progress.getLastProgressMillis("test2"));
+    }
+
+    @Test
+    public void testUpdate_removesCompletedTests() {
+        progress.update(iterations("testId", 100), 1000);
+        progress.update(Collections.<String, Long>emptyMap(), 1500);
+
+        assertEquals(-1, progress.getLastProgressMillis("testId"));
+        assertTrue(progress.getStalledTests(5000, TIMEOUT_MILLIS).isEmpty());
+    }
+
+    @Test
+    public void testReset() {
+        progress.update(iterations("testId", 100), 1000);
+
+        progress.reset(5000);
+
+        assertEquals(5000, progress.getLastProgressMillis("testId"));
+        assertTrue(progress.getStalledTests(5500, TIMEOUT_MILLIS).isEmpty());
+    }
+
+    private static Map<String, Long> iterations(String testId, long iterationCount) {
+        return Collections.singletonMap(testId, iterationCount);
+    }
+}
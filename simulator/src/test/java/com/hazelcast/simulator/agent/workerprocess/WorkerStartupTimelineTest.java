@@ -0,0 +1,48 @@
+package com.hazelcast.simulator.agent.workerprocess;
+
+import com.hazelcast.simulator.agent.operations.WorkerReadyOperation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerStartupTimelineTest {
+
+    private final WorkerStartupTimeline timeline = new WorkerStartupTimeline();
+
+    @Test
+    public void testGetDurationMillis_whenEmpty() {
+        assertEquals(0, timeline.getDurationMillis());
+        assertEquals("", timeline.format());
+    }
+
+    @Test
+    public void testGetDurationMillis_whenSinglePhase() {
+        timeline.record("launch requested", 1000);
+
+        assertEquals(0, timeline.getDurationMillis());
+    }
+
+    @Test
+    public void testRecord_withWorkerReadyOperation() {
+        timeline.record("launch requested", 1000);
+        timeline.record("JVM spawned", 1200);
+        timeline.record(new WorkerReadyOperation(1300, 1500, 4500, 4600));
+
+        assertEquals(3600, timeline.getDurationMillis());
+
+        String formatted = timeline.format();
+        assertTrue(formatted.contains("JVM spawned"));
+        assertTrue(formatted.contains("vendor instance created"));
+        assertTrue(formatted.contains("(+3000 ms)"));
+    }
+
+    @Test
+    public void testRecord_ignoresMissingTimestamps() {
+        timeline.record("launch requested", 1000);
+        timeline.record(new WorkerReadyOperation(0, 0, 0, 2000));
+
+        assertEquals(1000, timeline.getDurationMillis());
+        assertEquals(2, timeline.format().split("\n").length);
+    }
+}
@@ -207,6 +207,11 @@ public class SimulatorPropertiesTest {
         assertEquals(180, simulatorProperties.getWorkerLastSeenTimeoutSeconds());
     }
 
+    @Test
+    public void testGetWorkerNoProgressTimeoutSeconds() {
+        assertEquals(-1, simulatorProperties.getWorkerNoProgressTimeoutSeconds());
+    }
+
     @Test
     public void testGetCoordinatorPort() {
         assertEquals(0, simulatorProperties.getCoordinatorPort());
@@ -174,6 +174,27 @@ public class PerformanceStatsCollectorTest {
         assertPerfStatEquals(aggregateAll(a1w1Stats, a2w1Stats), totalStats);
     }
 
+    @Test
+    public void testCalculatePerformanceStats_aggregatedByAgent() {
+        PerformanceStats a1Stats = new PerformanceStats(300, 30, 300.0, 60, 110, 210);
+        PerformanceStats a2Stats = new PerformanceStats(700, 70, 700.0, 80, 120, 230);
+
+        update(a1, TEST_CASE_ID_1, a1Stats);
+        update(a2, TEST_CASE_ID_1, a2Stats);
+
+        PerformanceStats totalStats = new PerformanceStats();
+        Map<SimulatorAddress, PerformanceStats> agentStats = new HashMap<SimulatorAddress, PerformanceStats>();
+
+        performanceStatsCollector.calculatePerformanceStats(TEST_CASE_ID_1, totalStats, agentStats);
+
+        assertEquals(2, agentStats.size());
+
+        assertPerfStatEquals(a1Stats, agentStats.get(a1));
+        assertPerfStatEquals(a2Stats, agentStats.get(a2));
+
+        assertPerfStatEquals(aggregateAll(a1Stats, a2Stats), totalStats);
+    }
+
     private void assertPerfStatEquals(PerformanceStats expected, PerformanceStats actual) {
         assertEquals(expected.getOperationCount(), actual.getOperationCount());
         assertEquals(expected.getIntervalThroughput(), actual.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
@@ -26,7 +26,7 @@ public class RunTestSuiteTaskTest {
 //    public static void prepareEnvironment() throws Exception {
 //        setupFakeEnvironment();
 //
-//        agent = new Agent(1, localIp(), SimulatorProperties.DEFAULT_AGENT_PORT, 10, 60);
+//        agent = new Agent(1, localIp(), SimulatorProperties.DEFAULT_AGENT_PORT, 10, 60, 10);
 //        agent.start();
 //        componentRegistry = new ComponentRegistry();
 //        componentRegistry.addAgent(localIp(), localIp());
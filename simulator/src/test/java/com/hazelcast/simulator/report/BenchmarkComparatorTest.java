@@ -0,0 +1,163 @@
+package com.hazelcast.simulator.report;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BenchmarkComparatorTest {
+
+    private static final double DELTA = 0.0001;
+    private static final int SAMPLES = 60;
+
+    private final BenchmarkComparator comparator = new BenchmarkComparator(0.05, 0.95, 500, 0);
+
+    @Test
+    public void testCompare_noise() {
+        List<double[]> baseline = runs(1000, 0.02, 1, 2);
+        List<double[]> candidate = runs(1000, 0.02, 3, 4);
+
+        Comparison comparison = comparator.compare("throughput", true, baseline, candidate);
+
+        assertEquals(Comparison.Verdict.UNCHANGED, comparison.getVerdict());
+        assertTrue(comparison.getDeltaLow() < 0.05);
+        assertTrue(comparison.getDeltaHigh() > -0.05);
+    }
+
+    @Test
+    public void testCompare_throughputRegression() {
+        List<double[]> baseline = runs(1000, 0.02, 1, 2);
+        List<double[]> candidate = runs(800, 0.02, 3, 4);
+
+        Comparison comparison = comparator.compare("throughput", true, baseline, candidate);
+
+        assertEquals(Comparison.Verdict.REGRESSION, comparison.getVerdict());
+        assertEquals(-0.2, comparison.getDelta(), 0.02);
+        assertTrue(comparison.getDeltaLow() <= comparison.getDelta());
+        assertTrue(comparison.getDeltaHigh() >= comparison.getDelta());
+        assertTrue(comparison.getDeltaHigh() < 0);
+        // the Mann-Whitney test over the run medians needs more runs
+        assertTrue(Double.isNaN(comparison.getPValue()));
+    }
+
+    @Test
+    public void testCompare_throughputRegression_withPValue() {
+        List<double[]> baseline = runs(1000, 0.02, 1, 2, 5, 6);
+        List<double[]> candidate = runs(800, 0.02, 3, 4, 7, 8);
+
+        Comparison comparison = comparator.compare("throughput", true, baseline, candidate);
+
+        assertEquals(Comparison.Verdict.REGRESSION, comparison.getVerdict());
+        assertTrue(comparison.getPValue() < 0.05);
+    }
+
+    @Test
+    public void testCompare_throughputImprovement() {
+        List<double[]> baseline = runs(1000, 0.02, 1, 2);
+        List<double[]> candidate = runs(1200, 0.02, 3, 4);
+
+        Comparison comparison = comparator.compare("throughput", true, baseline, candidate);
+
+        assertEquals(Comparison.Verdict.IMPROVEMENT, comparison.getVerdict());
+    }
+
+    @Test
+    public void testCompare_latencyRegression() {
+        List<double[]> baseline = runs(1000, 0.02, 1, 2);
+        List<double[]> candidate = runs(1200, 0.02, 3, 4);
+
+        Comparison comparison = comparator.compare("MapTest-get p99", false, baseline, candidate);
+
+        assertEquals(Comparison.Verdict.REGRESSION, comparison.getVerdict());
+    }
+
+    @Test
+    public void testCompare_significantButWithinThreshold() {
+        List<double[]> baseline = runs(1000, 0.001, 1, 2);
+        List<double[]> candidate = runs(980, 0.001, 3, 4);
+
+        Comparison comparison = comparator.compare("throughput", true, baseline, candidate);
+
+        assertTrue(comparison.getDeltaHigh() < 0);
+        assertEquals(Comparison.Verdict.UNCHANGED, comparison.getVerdict());
+    }
+
+    @Test
+    public void testCompare_largeDifferenceButNotSignificant() {
+        List<double[]> baseline = Arrays.asList(new double[]{1000, 500, 1500}, new double[]{900, 1300, 600});
+        List<double[]> candidate = Arrays.asList(new double[]{800, 1400, 300}, new double[]{1200, 500, 900});
+
+        Comparison comparison = comparator.compare("throughput", true, baseline, candidate);
+
+        assertEquals(Comparison.Verdict.UNCHANGED, comparison.getVerdict());
+    }
+
+    @Test
+    public void testCompare_singleRun_isInconclusive() {
+        // a single run of each configuration doesn't show the variance between runs
+        List<double[]> baseline = runs(1000, 0.02, 1);
+        List<double[]> candidate = runs(800, 0.02, 3);
+
+        Comparison comparison = comparator.compare("throughput", true, baseline, candidate);
+
+        assertEquals(Comparison.Verdict.INCONCLUSIVE, comparison.getVerdict());
+        assertEquals(-0.2, comparison.getDelta(), 0.02);
+        assertTrue(comparison.getDeltaHigh() < 0);
+    }
+
+    @Test
+    public void testCompare_isReproducible() {
+        List<double[]> baseline = runs(1000, 0.05, 1, 2);
+        List<double[]> candidate = runs(950, 0.05, 3, 4);
+
+        Comparison comparison1 = comparator.compare("throughput", true, baseline, candidate);
+        Comparison comparison2 = comparator.compare("throughput", true, baseline, candidate);
+
+        assertEquals(comparison1.getDeltaLow(), comparison2.getDeltaLow(), DELTA);
+        assertEquals(comparison1.getDeltaHigh(), comparison2.getDeltaHigh(), DELTA);
+    }
+
+    @Test
+    public void testCompare_zeroBaseline() {
+        List<double[]> baseline = Collections.singletonList(new double[]{0, 0, 0});
+        List<double[]> candidate = Collections.singletonList(new double[]{1, 1, 1});
+
+        assertNull(comparator.compare("throughput", true, baseline, candidate));
+    }
+
+    @Test
+    public void testGetSamples_ignoresWarmup() throws Exception {
+        BenchmarkComparator warmupComparator = new BenchmarkComparator(0.05, 0.95, 100, 2);
+        Series throughput = new Series("throughput");
+        for (int i = 0; i < 5; i++) {
+            throughput.add(i, i * 100);
+        }
+        Map<String, List<double[]>> samples = new LinkedHashMap<String, List<double[]>>();
+
+        warmupComparator.addSamples(samples, "throughput", throughput);
+
+        assertEquals(1, samples.get("throughput").size());
+        assertEquals(Arrays.toString(new double[]{200, 300, 400}), Arrays.toString(samples.get("throughput").get(0)));
+    }
+
+    // creates runs with normally distributed samples, the seeds make the runs independent but reproducible
+    private static List<double[]> runs(double mean, double relativeStdDev, long... seeds) {
+        double[][] runs = new double[seeds.length][];
+        for (int i = 0; i < seeds.length; i++) {
+            Random random = new Random(seeds[i]);
+            runs[i] = new double[SAMPLES];
+            for (int k = 0; k < SAMPLES; k++) {
+                runs[i][k] = mean * (1 + random.nextGaussian() * relativeStdDev);
+            }
+        }
+        return Arrays.asList(runs);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistoryCliTest {
+
+    private static final Map<String, String> NO_PROPERTIES = Collections.emptyMap();
+
+    @Test
+    public void testParseProperties() {
+        Map<String, String> properties = HistoryCli.parseProperties(Arrays.asList("keyCount=1000", "name=a=b"));
+
+        assertEquals("1000", properties.get("keyCount"));
+        assertEquals("a=b", properties.get("name"));
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testParseProperties_invalid() {
+        HistoryCli.parseProperties(Collections.singletonList("keyCount"));
+    }
+
+    @Test
+    public void testFilter_byTestClass() {
+        List<TestResult> results = Arrays.asList(
+                createResult("s1", "MapTest", "com.hazelcast.simulator.tests.map.MapTest", "1000", 100),
+                createResult("s1", "QueueTest", "com.hazelcast.simulator.tests.queue.QueueTest", "1000", 100));
+
+        assertEquals(1, HistoryCli.filter(results, "MapTest", NO_PROPERTIES, 10).size());
+        assertEquals(1, HistoryCli.filter(results, "com.hazelcast.simulator.tests.queue.QueueTest", NO_PROPERTIES, 10).size());
+        assertEquals(0, HistoryCli.filter(results, "Test", NO_PROPERTIES, 10).size());
+        assertEquals(2, HistoryCli.filter(results, null, NO_PROPERTIES, 10).size());
+    }
+
+    @Test
+    public void testFilter_byTestId() {
+        List<TestResult> results = Collections.singletonList(createResult("s1", "map", "com.example.MapTest", "1000", 100));
+
+        assertEquals(1, HistoryCli.filter(results, "map", NO_PROPERTIES, 10).size());
+    }
+
+    @Test
+    public void testFilter_byProperty() {
+        List<TestResult> results = Arrays.asList(
+                createResult("s1", "MapTest", "com.example.MapTest", "1000", 100),
+                createResult("s2", "MapTest", "com.example.MapTest", "2000", 100));
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("keyCount", "2000");
+
+        List<TestResult> filtered = HistoryCli.filter(results, null, properties, 10);
+
+        assertEquals(1, filtered.size());
+        assertEquals("s2", filtered.get(0).getSessionId());
+    }
+
+    @Test
+    public void testFilter_last() {
+        List<TestResult> results = new ArrayList<TestResult>();
+        for (int i = 0; i < 5; i++) {
+            results.add(createResult("s" + i, "MapTest", "com.example.MapTest", "1000", 100));
+        }
+
+        List<TestResult> filtered = HistoryCli.filter(results, null, NO_PROPERTIES, 2);
+
+        assertEquals(2, filtered.size());
+        assertEquals("s3", filtered.get(0).getSessionId());
+        assertEquals("s4", filtered.get(1).getSessionId());
+    }
+
+    @Test
+    public void testFormatTrend() {
+        List<TestResult> results = new ArrayList<TestResult>();
+        for (int i = 0; i < 5; i++) {
+            results.add(createResult("s" + i, "MapTest", "com.example.MapTest", "1000", 1000 - i * 10));
+        }
+
+        List<String> lines = HistoryCli.formatTrend(results, "throughput");
+
+        assertEquals(7, lines.size());
+        assertTrue(lines.get(2).contains("990.00"));
+        assertTrue(lines.get(2).contains("-1.00%"));
+        String summary = lines.get(6);
+        assertTrue(summary, summary.contains("Runs: 5, first: 1000.00, last: 960.00, change: -4.00%"));
+        // the slope is -10 per run and the mean is 980
+        assertTrue(summary, summary.contains("trend: -1.02% per run (-4.08% over all runs)"));
+    }
+
+    @Test
+    public void testFormatTrend_unknownMetric() {
+        List<TestResult> results = Collections.singletonList(createResult("s1", "MapTest", "com.example.MapTest", "1000", 100));
+
+        List<String> lines = HistoryCli.formatTrend(results, "unknown");
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("No values found for metric unknown"));
+    }
+
+    private static TestResult createResult(String sessionId, String testId, String testClass, String keyCount,
+                                           long operationCount) {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("class", testClass);
+        properties.put("keyCount", keyCount);
+        return new TestResult(sessionId, testId)
+                .setTestClass(testClass)
+                .setProperties(properties)
+                .setOperationCount(operationCount)
+                .setRunningTimeMillis(1000);
+    }
+}
@@ -0,0 +1,86 @@
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+
+public class ReportCliTest {
+
+    private File directory;
+    private String benchmark1;
+    private String benchmark2;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        benchmark1 = ensureExistingDirectory(new File(directory, "benchmark1")).getPath();
+        benchmark2 = ensureExistingDirectory(new File(directory, "benchmark2")).getPath();
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testGetBenchmarks_withoutNames() {
+        Map<String, File> benchmarks = ReportCli.getBenchmarks(Arrays.asList(benchmark1, benchmark2));
+
+        Iterator<Map.Entry<String, File>> iterator = benchmarks.entrySet().iterator();
+        assertEquals("benchmark1", iterator.next().getKey());
+        assertEquals("benchmark2", iterator.next().getKey());
+    }
+
+    @Test
+    public void testGetBenchmarks_withNames() {
+        Map<String, File> benchmarks = ReportCli.getBenchmarks(Arrays.asList(benchmark1, "[baseline]", benchmark2));
+
+        assertEquals(2, benchmarks.size());
+        assertEquals(new File(benchmark1), benchmarks.get("baseline"));
+        assertEquals(new File(benchmark2), benchmarks.get("benchmark2"));
+    }
+
+    @Test
+    public void testGetBenchmarkGroups_repeatedRuns() {
+        List<?> arguments = Arrays.asList(benchmark1, "[baseline]", benchmark2, "[baseline]", benchmark1, "[candidate]");
+
+        Map<String, List<File>> groups = ReportCli.getBenchmarkGroups(arguments);
+
+        assertEquals(2, groups.size());
+        assertEquals(Arrays.asList(new File(benchmark1), new File(benchmark2)), groups.get("baseline"));
+        assertEquals(Arrays.asList(new File(benchmark1)), groups.get("candidate"));
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testGetBenchmarks_noBenchmarks() {
+        ReportCli.getBenchmarks(Collections.emptyList());
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testGetBenchmarks_nameWithoutDirectory() {
+        ReportCli.getBenchmarks(Arrays.asList("[baseline]", benchmark1));
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testGetBenchmarks_directoryNotFound() {
+        ReportCli.getBenchmarks(Arrays.asList(new File(directory, "notFound").getPath()));
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testGetBenchmarks_duplicateName() {
+        ReportCli.getBenchmarks(Arrays.asList(benchmark1, "[baseline]", benchmark2, "[baseline]"));
+    }
+}
@@ -0,0 +1,185 @@
+package com.hazelcast.simulator.report;
+
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReportGeneratorTest {
+
+    private static final long START_SECONDS = 1500000000;
+    private static final int INTERVALS = 5;
+
+    private File directory;
+    private File outputDirectory;
+    private ReportGenerator reportGenerator;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        outputDirectory = new File(directory, "report");
+        reportGenerator = new ReportGenerator(outputDirectory, 2);
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        File benchmark = createBenchmark("benchmark", false);
+
+        File reportFile = reportGenerator.generate(singletonBenchmark("benchmark", benchmark));
+
+        assertEquals(new File(outputDirectory, ReportGenerator.REPORT_FILE), reportFile);
+        String report = fileAsText(reportFile);
+        assertFalse(report.contains("${"));
+        assertTrue(report.contains("<title>Benchmark report: benchmark</title>"));
+        assertTrue(report.contains("\"id\":\"throughput\""));
+        assertTrue(report.contains("\"id\":\"throughput-workers\""));
+        assertTrue(report.contains("\"name\":\"A1_W1-127.0.0.1-client\""));
+        assertTrue(report.contains("\"name\":\"A2_W1-127.0.0.2-client\""));
+        assertTrue(report.contains("\"id\":\"latency-MapTest-get\""));
+        assertTrue(report.contains("\"id\":\"distribution-MapTest-get\""));
+        assertTrue(report.contains("\"type\":\"PERCENTILE\""));
+        assertTrue(report.contains("\"id\":\"cpu\""));
+        assertTrue(report.contains("\"name\":\"A1 user\""));
+        assertTrue(report.contains("\"id\":\"gc\""));
+    }
+
+    @Test
+    public void testGenerate_aggregatesThroughputAndStartsAtZero() throws Exception {
+        File benchmark = createBenchmark("benchmark", false);
+
+        String report = fileAsText(reportGenerator.generate(singletonBenchmark("benchmark", benchmark)));
+
+        // both Workers report 100 operations/second, so the aggregated throughput is 200 operations/second
+        assertTrue(report.contains("\"name\":\"throughput\",\"points\":[[0.0,200.0],[1.0,200.0]"));
+    }
+
+    @Test
+    public void testGenerate_withMergedHdrFile() throws Exception {
+        File benchmark = createBenchmark("benchmark", true);
+
+        String report = fileAsText(reportGenerator.generate(singletonBenchmark("benchmark", benchmark)));
+
+        assertTrue(report.contains("\"id\":\"latency-MapTest-put\""));
+        assertFalse(report.contains("\"id\":\"latency-MapTest-get\""));
+    }
+
+    @Test
+    public void testGenerate_compareBenchmarks() throws Exception {
+        Map<String, File> benchmarks = new LinkedHashMap<String, File>();
+        benchmarks.put("baseline", createBenchmark("benchmark1", false));
+        benchmarks.put("candidate", createBenchmark("benchmark2", false));
+
+        String report = fileAsText(reportGenerator.generate(benchmarks));
+
+        assertTrue(report.contains("<title>Benchmark report: baseline vs. candidate</title>"));
+        assertTrue(report.contains("\"name\":\"baseline\""));
+        assertTrue(report.contains("\"name\":\"candidate\""));
+        assertTrue(report.contains("\"name\":\"baseline A1_W1-127.0.0.1-client\""));
+        assertTrue(report.contains("\"name\":\"candidate 99%\""));
+    }
+
+    @Test
+    public void testGenerate_escapesBenchmarkName() throws Exception {
+        File benchmark = createBenchmark("benchmark", false);
+
+        String report = fileAsText(reportGenerator.generate(singletonBenchmark("</script>\u00e9", benchmark)));
+
+        assertTrue(report.contains("<title>Benchmark report: &lt;/script&gt;&#233;</title>"));
+        assertFalse(report.contains("</script>\\u00e9"));
+        assertTrue(report.contains("\\u003c/script\\u003e\\u00e9"));
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testGenerate_noWorkers() throws Exception {
+        File benchmark = ensureExistingDirectory(new File(directory, "empty"));
+
+        reportGenerator.generate(singletonBenchmark("empty", benchmark));
+    }
+
+    @Test
+    public void testEscapeHtml() {
+        assertEquals("&lt;a href=&quot;x&quot;&gt;&amp;&lt;/a&gt;", ReportGenerator.escapeHtml("<a href=\"x\">&</a>"));
+    }
+
+    private static Map<String, File> singletonBenchmark(String name, File benchmark) {
+        Map<String, File> benchmarks = new LinkedHashMap<String, File>();
+        benchmarks.put(name, benchmark);
+        return benchmarks;
+    }
+
+    private File createBenchmark(String name, boolean mergedHdrFile) throws FileNotFoundException {
+        File benchmark = ensureExistingDirectory(new File(directory, name));
+        createWorker(benchmark, "A1_W1-127.0.0.1-client");
+        createWorker(benchmark, "A2_W1-127.0.0.2-client");
+        if (mergedHdrFile) {
+            createHdrFile(new File(benchmark, "MapTest-put.hdr"));
+        }
+        return benchmark;
+    }
+
+    private void createWorker(File benchmark, String workerName) throws FileNotFoundException {
+        File workerDirectory = ensureExistingDirectory(new File(benchmark, workerName));
+
+        StringBuilder performance = new StringBuilder("epoch,timestamp,operations,operations-delta,operations/second\n");
+        StringBuilder dstat = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            dstat.append("\"dstat header\"\n");
+        }
+        for (int i = 0; i < INTERVALS; i++) {
+            long seconds = START_SECONDS + i;
+            performance.append(seconds).append(".000,00:00:0").append(i).append(',').append(i * 100).append(",100,100.00\n");
+            dstat.append(seconds).append(",1048576,0,0,1048576,10,5,85,0,0,0,0,0,0,0,0,0,0,1000,0.5,0.4,0.3\n");
+        }
+        writeText(performance.toString(), new File(workerDirectory, "performance.csv"));
+        writeText(dstat.toString(), new File(workerDirectory, "dstat.csv"));
+        writeText("time,pause\n1.5,0.01\n2.5,-1\n", new File(workerDirectory, "gc.csv"));
+
+        createHdrFile(new File(workerDirectory, "MapTest-get.hdr"));
+    }
+
+    private static void createHdrFile(File file) throws FileNotFoundException {
+        long startMillis = START_SECONDS * 1000;
+        PrintStream printStream = new PrintStream(file);
+        try {
+            HistogramLogWriter writer = new HistogramLogWriter(printStream);
+            writer.setBaseTime(startMillis);
+            writer.outputStartTime(startMillis);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+
+            for (int i = 0; i < INTERVALS; i++) {
+                Histogram histogram = new Histogram(3);
+                for (int k = 1; k <= 100; k++) {
+                    histogram.recordValue(k * 1000);
+                }
+                histogram.setStartTimeStamp(startMillis + i * 1000);
+                histogram.setEndTimeStamp(startMillis + (i + 1) * 1000);
+                writer.outputIntervalHistogram(histogram);
+            }
+        } finally {
+            printStream.close();
+        }
+    }
+}
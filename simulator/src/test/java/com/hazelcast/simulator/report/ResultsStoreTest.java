@@ -0,0 +1,181 @@
+package com.hazelcast.simulator.report;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.FileUtils.appendText;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ResultsStoreTest {
+
+    private static final double DELTA = 0.0001;
+
+    private File directory;
+    private File sessionDirectory;
+    private ResultsStore store;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        sessionDirectory = ensureExistingDirectory(new File(directory, "2016-06-01__10_00_00"));
+        store = new ResultsStore(directory);
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testLoad_whenEmpty() throws Exception {
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    public void testAppend_whenEmpty() throws Exception {
+        store.append(sessionDirectory, Collections.<TestResult>emptyList());
+
+        assertFalse(store.getFile().exists());
+    }
+
+    @Test
+    public void testAppendAndLoad() throws Exception {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("class", "com.hazelcast.simulator.tests.map.MapTest");
+        properties.put("keyCount", "1000");
+        TestResult result = new TestResult("session1", "MapTest")
+                .setTestClass("com.hazelcast.simulator.tests.map.MapTest")
+                .setProperties(properties)
+                .setStatus("completed")
+                .setStartTimeMillis(1000)
+                .setRunningTimeMillis(10000)
+                .setOperationCount(50000)
+                .setSimulatorVersion("0.10")
+                .setCommitId("abc123")
+                .setVendor("hazelcast3")
+                .setVersionSpec("maven=3.8")
+                .setLayout(2, 4, 1);
+
+        store.append(sessionDirectory, Collections.singletonList(result));
+        store.append(sessionDirectory, Collections.singletonList(new TestResult("session2", "MapTest")));
+
+        List<TestResult> results = store.load();
+        assertEquals(2, results.size());
+
+        TestResult loaded = results.get(0);
+        assertEquals("session1", loaded.getSessionId());
+        assertEquals("MapTest", loaded.getTestId());
+        assertEquals("com.hazelcast.simulator.tests.map.MapTest", loaded.getTestClass());
+        assertEquals("1000", loaded.getProperties().get("keyCount"));
+        assertEquals("completed", loaded.getStatus());
+        assertEquals(1000, loaded.getStartTimeMillis());
+        assertEquals(10000, loaded.getRunningTimeMillis());
+        assertEquals(50000, loaded.getOperationCount());
+        assertEquals(5000, loaded.getThroughput(), DELTA);
+        assertEquals("0.10", loaded.getSimulatorVersion());
+        assertEquals("abc123", loaded.getCommitId());
+        assertEquals("hazelcast3", loaded.getVendor());
+        assertEquals("maven=3.8", loaded.getVersionSpec());
+        assertEquals(2, loaded.getAgentCount());
+        assertEquals(4, loaded.getMemberCount());
+        assertEquals(1, loaded.getClientCount());
+
+        assertEquals("session2", results.get(1).getSessionId());
+    }
+
+    @Test
+    public void testLoad_skipsInvalidLines() throws Exception {
+        store.append(sessionDirectory, Collections.singletonList(new TestResult("session1", "MapTest")));
+        appendText("{invalid\n\n", store.getFile());
+        store.append(sessionDirectory, Collections.singletonList(new TestResult("session2", "MapTest")));
+
+        List<TestResult> results = store.load();
+
+        assertEquals(2, results.size());
+        assertEquals("session2", results.get(1).getSessionId());
+    }
+
+    @Test
+    public void testAppend_addsLatencyOfMergedHdrFile() throws Exception {
+        createHdrFile(new File(sessionDirectory, "MapTest-get.hdr"), 1000);
+        createHdrFile(new File(sessionDirectory, "OtherTest-get.hdr"), 5000);
+
+        store.append(sessionDirectory, Collections.singletonList(new TestResult("session", "MapTest")));
+
+        TestResult result = store.load().get(0);
+        assertEquals(1, result.getLatency().size());
+        assertEquals(100, result.getMetric("latency.get.count"), DELTA);
+        assertEquals(1000, result.getMetric("latency.get.max"), 1);
+        assertEquals(990, result.getMetric("latency.get.p99"), 1);
+    }
+
+    @Test
+    public void testAppend_addsLatencyOfWorkerHdrFiles() throws Exception {
+        createHdrFile(new File(ensureExistingDirectory(new File(sessionDirectory, "A1_W1-127.0.0.1-member")), "MapTest-get.hdr"),
+                1000);
+        createHdrFile(new File(ensureExistingDirectory(new File(sessionDirectory, "A1_W2-127.0.0.1-member")), "MapTest-get.hdr"),
+                2000);
+
+        store.append(sessionDirectory, Collections.singletonList(new TestResult("session", "MapTest")));
+
+        TestResult result = store.load().get(0);
+        assertEquals(200, result.getMetric("latency.get.count"), DELTA);
+        assertEquals(2000, result.getMetric("latency.get.max"), 2);
+    }
+
+    @Test
+    public void testAppend_addsGcStatistics() throws Exception {
+        File worker1 = ensureExistingDirectory(new File(sessionDirectory, "A1_W1-127.0.0.1-member"));
+        File worker2 = ensureExistingDirectory(new File(sessionDirectory, "A1_W2-127.0.0.1-member"));
+        writeText("time,pause\n1.0,0.010\n2.0,0.030\n", new File(worker1, "gc.csv"));
+        writeText("time,pause\n1.0,0.020\n", new File(worker2, "gc.csv"));
+
+        store.append(sessionDirectory, Arrays.asList(new TestResult("session", "test1"), new TestResult("session", "test2")));
+
+        for (TestResult result : store.load()) {
+            assertEquals(3, result.getMetric("gc.count"), DELTA);
+            assertEquals(60, result.getMetric("gc.totalPauseMs"), DELTA);
+            assertEquals(30, result.getMetric("gc.maxPauseMs"), DELTA);
+        }
+    }
+
+    // records 100 evenly distributed latencies up to the given maximum in two intervals
+    private static void createHdrFile(File file, int maxMicros) throws FileNotFoundException {
+        PrintStream printStream = new PrintStream(file);
+        try {
+            HistogramLogWriter writer = new HistogramLogWriter(printStream);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+
+            for (int i = 0; i < 2; i++) {
+                Histogram histogram = new Histogram(3);
+                for (int k = 1; k <= 50; k++) {
+                    histogram.recordValue((k * 2 - i) * maxMicros * 10L);
+                }
+                histogram.setStartTimeStamp(i * 1000);
+                histogram.setEndTimeStamp((i + 1) * 1000);
+                writer.outputIntervalHistogram(histogram);
+            }
+        } finally {
+            printStream.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.hazelcast.simulator.report;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SeriesTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testAdd_ignoresInvalidValues() {
+        Series series = new Series("series");
+        series.add(1, Double.NaN);
+        series.add(Double.POSITIVE_INFINITY, 1);
+
+        assertTrue(series.isEmpty());
+    }
+
+    @Test
+    public void testShift() {
+        Series series = createSeries(10, 11, 12);
+
+        Series shifted = series.shift(10);
+
+        assertEquals(10, series.getMinX(), DELTA);
+        assertEquals(0, shifted.getMinX(), DELTA);
+        assertEquals("series", shifted.getName());
+    }
+
+    @Test
+    public void testRename() {
+        Series renamed = createSeries(1, 2).rename("renamed");
+
+        assertEquals("renamed", renamed.getName());
+        assertEquals(2, renamed.getPoints().size());
+    }
+
+    @Test
+    public void testDownsample_whenSmallEnough() {
+        Series series = createSeries(1, 2, 3);
+
+        assertSame(series, series.downsample(3, false));
+    }
+
+    @Test
+    public void testDownsample_average() {
+        List<double[]> points = createSeries(0, 1, 2, 3, 4).downsample(2, false).getPoints();
+
+        assertEquals(2, points.size());
+        assertPoint(points.get(0), 1, 10);
+        assertPoint(points.get(1), 3.5, 35);
+    }
+
+    @Test
+    public void testDownsample_peak() {
+        List<double[]> points = createSeries(0, 1, 2, 3, 4).downsample(2, true).getPoints();
+
+        assertEquals(2, points.size());
+        assertPoint(points.get(0), 1, 20);
+        assertPoint(points.get(1), 3.5, 40);
+    }
+
+    // creates a series with y = 10 * x
+    private static Series createSeries(double... xValues) {
+        Series series = new Series("series");
+        for (double x : xValues) {
+            series.add(x, x * 10);
+        }
+        return series;
+    }
+
+    private static void assertPoint(double[] point, double expectedX, double expectedY) {
+        assertEquals(expectedX, point[0], DELTA);
+        assertEquals(expectedY, point[1], DELTA);
+    }
+}
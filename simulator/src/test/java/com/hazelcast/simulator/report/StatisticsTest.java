@@ -0,0 +1,151 @@
+package com.hazelcast.simulator.report;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StatisticsTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(Statistics.class);
+    }
+
+    @Test
+    public void testMedian() {
+        assertEquals(2, Statistics.median(new double[]{3, 1, 2}), DELTA);
+        assertEquals(2.5, Statistics.median(new double[]{4, 1, 3, 2}), DELTA);
+        assertTrue(Double.isNaN(Statistics.median(new double[0])));
+    }
+
+    @Test
+    public void testMedian_doesNotModifyValues() {
+        double[] values = {3, 1, 2};
+
+        Statistics.median(values);
+
+        assertArrayEquals(new double[]{3, 1, 2}, values, DELTA);
+    }
+
+    @Test
+    public void testQuantile() {
+        double[] sorted = {10, 20, 30, 40, 50};
+
+        assertEquals(10, Statistics.quantile(sorted, 0), DELTA);
+        assertEquals(30, Statistics.quantile(sorted, 0.5), DELTA);
+        assertEquals(45, Statistics.quantile(sorted, 0.875), DELTA);
+        assertEquals(50, Statistics.quantile(sorted, 1), DELTA);
+        assertTrue(Double.isNaN(Statistics.quantile(new double[0], 0.5)));
+    }
+
+    @Test
+    public void testPool() {
+        List<double[]> runs = Arrays.asList(new double[]{1, 2}, new double[]{3});
+
+        assertArrayEquals(new double[]{1, 2, 3}, Statistics.pool(runs), DELTA);
+        assertEquals(2, Statistics.pooledMedian(runs), DELTA);
+    }
+
+    @Test
+    public void testResampledMedian_usesOnlyExistingValues() {
+        List<double[]> runs = Arrays.asList(new double[]{1, 1, 1}, new double[]{5, 5, 5});
+        Random random = new Random(0);
+
+        for (int i = 0; i < 100; i++) {
+            double median = Statistics.resampledMedian(runs, random);
+            assertTrue(median == 1 || median == 3 || median == 5);
+        }
+    }
+
+    @Test
+    public void testResampledMedian_singleValue() {
+        List<double[]> runs = Collections.singletonList(new double[]{7});
+
+        assertEquals(7, Statistics.resampledMedian(runs, new Random(0)), DELTA);
+    }
+
+    @Test
+    public void testMedians() {
+        List<double[]> runs = Arrays.asList(new double[]{3, 1, 2}, new double[]{5});
+
+        assertArrayEquals(new double[]{2, 5}, Statistics.medians(runs), DELTA);
+    }
+
+    @Test
+    public void testAutocorrelation() {
+        assertEquals(0.5, Statistics.autocorrelation(new double[]{1, 2, 3, 4, 5, 6}), DELTA);
+        assertEquals(-0.75, Statistics.autocorrelation(new double[]{1, -1, 1, -1}), DELTA);
+        assertEquals(0, Statistics.autocorrelation(new double[]{5, 5, 5}), DELTA);
+        assertEquals(0, Statistics.autocorrelation(new double[]{5}), DELTA);
+    }
+
+    @Test
+    public void testBlockLength() {
+        double[] alternating = new double[64];
+        double[] trend = new double[60];
+        for (int i = 0; i < alternating.length; i++) {
+            alternating[i] = i % 2;
+        }
+        for (int i = 0; i < trend.length; i++) {
+            trend[i] = i;
+        }
+
+        // uncorrelated samples use the cube root of the number of samples
+        assertEquals(4, Statistics.blockLength(alternating));
+        // correlated samples use longer blocks, but a run has at least two blocks
+        assertEquals(30, Statistics.blockLength(trend));
+        assertEquals(1, Statistics.blockLength(new double[]{7}));
+    }
+
+    @Test
+    public void testSlope() {
+        assertEquals(0, Statistics.slope(new double[]{5}), DELTA);
+        assertEquals(2, Statistics.slope(new double[]{1, 3, 5, 7}), DELTA);
+        assertEquals(-0.5, Statistics.slope(new double[]{2, 1, 1}), DELTA);
+    }
+
+    @Test
+    public void testMannWhitneyPValue_sameSamples() {
+        double[] samples = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        assertEquals(1, Statistics.mannWhitneyPValue(samples, samples.clone()), DELTA);
+    }
+
+    @Test
+    public void testMannWhitneyPValue_allTies() {
+        assertEquals(1, Statistics.mannWhitneyPValue(new double[]{5, 5, 5}, new double[]{5, 5}), DELTA);
+    }
+
+    @Test
+    public void testMannWhitneyPValue_empty() {
+        assertEquals(1, Statistics.mannWhitneyPValue(new double[0], new double[]{1}), DELTA);
+    }
+
+    @Test
+    public void testMannWhitneyPValue_differentSamples() {
+        double[] samples1 = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        double[] samples2 = {11, 12, 13, 14, 15, 16, 17, 18, 19, 20};
+
+        // U = 0, mean = 50, variance = 175, so z = 49.5 / sqrt(175) = 3.742
+        assertEquals(0.000183, Statistics.mannWhitneyPValue(samples1, samples2), 0.00001);
+        assertEquals(0.000183, Statistics.mannWhitneyPValue(samples2, samples1), 0.00001);
+    }
+
+    @Test
+    public void testNormalCdf() {
+        assertEquals(0.5, Statistics.normalCdf(0), DELTA);
+        assertEquals(0.975, Statistics.normalCdf(1.959964), DELTA);
+        assertEquals(0.025, Statistics.normalCdf(-1.959964), DELTA);
+        assertEquals(0.841345, Statistics.normalCdf(1), DELTA);
+    }
+}
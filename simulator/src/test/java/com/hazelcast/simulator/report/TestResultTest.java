@@ -0,0 +1,81 @@
+package com.hazelcast.simulator.report;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestResultTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testThroughput() {
+        TestResult result = new TestResult("session", "test")
+                .setOperationCount(1000)
+                .setRunningTimeMillis(4000);
+
+        assertEquals(250, result.getThroughput(), DELTA);
+        assertEquals(250, result.getMetric("throughput"), DELTA);
+        assertEquals(1000, result.getMetric("operationCount"), DELTA);
+        assertEquals(4, result.getMetric("runningTimeSeconds"), DELTA);
+    }
+
+    @Test
+    public void testThroughput_withoutRunningTime() {
+        TestResult result = new TestResult("session", "test").setOperationCount(1000);
+
+        assertEquals(0, result.getThroughput(), DELTA);
+    }
+
+    @Test
+    public void testGetMetric_latency() {
+        TestResult result = createResult();
+
+        assertEquals(99, result.getMetric("latency.get.p99"), DELTA);
+        assertEquals(5, result.getMetric("latency.map.put.p50"), DELTA);
+        assertNull(result.getMetric("latency.get.p50"));
+        assertNull(result.getMetric("latency.unknown.p99"));
+        assertNull(result.getMetric("latency.get"));
+    }
+
+    @Test
+    public void testGetMetric_gc() {
+        TestResult result = createResult();
+
+        assertEquals(42, result.getMetric("gc.totalPauseMs"), DELTA);
+        assertNull(result.getMetric("gc.unknown"));
+    }
+
+    @Test
+    public void testGetMetric_unknown() {
+        assertNull(createResult().getMetric("unknown"));
+    }
+
+    @Test
+    public void testGetMetrics() {
+        Map<String, Double> metrics = createResult().getMetrics();
+
+        assertEquals(6, metrics.size());
+        assertEquals(99, metrics.get("latency.get.p99"), DELTA);
+        assertEquals(5, metrics.get("latency.map.put.p50"), DELTA);
+        assertEquals(42, metrics.get("gc.totalPauseMs"), DELTA);
+    }
+
+    private static TestResult createResult() {
+        Map<String, Double> get = new HashMap<String, Double>();
+        get.put("p99", 99.0);
+        Map<String, Double> put = new HashMap<String, Double>();
+        put.put("p50", 5.0);
+        Map<String, Double> gc = new HashMap<String, Double>();
+        gc.put("totalPauseMs", 42.0);
+
+        return new TestResult("session", "test")
+                .addLatency("get", get)
+                .addLatency("map.put", put)
+                .setGc(gc);
+    }
+}
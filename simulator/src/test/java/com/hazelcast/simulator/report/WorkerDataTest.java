@@ -0,0 +1,115 @@
+package com.hazelcast.simulator.report;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerDataTest {
+
+    private static final double DELTA = 0.0001;
+
+    private File directory;
+    private File workerDirectory;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        workerDirectory = ensureExistingDirectory(new File(directory, "A1_W2-127.0.0.1-member"));
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testIsWorkerDirectory() {
+        File oldWorkerDirectory = ensureExistingDirectory(new File(directory, "C_A1_W1-127.0.0.1-member"));
+        File otherDirectory = ensureExistingDirectory(new File(directory, "report"));
+
+        assertTrue(WorkerData.isWorkerDirectory(workerDirectory));
+        assertTrue(WorkerData.isWorkerDirectory(oldWorkerDirectory));
+        assertFalse(WorkerData.isWorkerDirectory(otherDirectory));
+        assertFalse(WorkerData.isWorkerDirectory(new File(directory, "A1.txt")));
+    }
+
+    @Test
+    public void testLoad_whenEmpty() throws Exception {
+        WorkerData data = WorkerData.load(workerDirectory);
+
+        assertEquals("A1_W2-127.0.0.1-member", data.getName());
+        assertEquals("A1", data.getAgent());
+        assertTrue(data.getThroughput().isEmpty());
+        assertTrue(data.getGcPauses().isEmpty());
+        assertTrue(data.getMetrics().isEmpty());
+    }
+
+    @Test
+    public void testGetAgent_oldWorkerDirectory() throws Exception {
+        File oldWorkerDirectory = ensureExistingDirectory(new File(directory, "C_A2_W1-127.0.0.1-member"));
+
+        assertEquals("C_A2", WorkerData.load(oldWorkerDirectory).getAgent());
+    }
+
+    @Test
+    public void testLoad_throughput() throws Exception {
+        writeText("epoch,timestamp,operations,operations-delta,operations/second\n"
+                + "1500000001.500,00:00:01,100,100,100.00\n"
+                + "1500000002.500,00:00:02,300,200,200.00\n", new File(workerDirectory, "performance.csv"));
+
+        List<double[]> points = WorkerData.load(workerDirectory).getThroughput().getPoints();
+
+        assertEquals(2, points.size());
+        assertEquals(1500000001.5, points.get(0)[0], DELTA);
+        assertEquals(100, points.get(0)[1], DELTA);
+        assertEquals(200, points.get(1)[1], DELTA);
+    }
+
+    @Test
+    public void testLoad_gcPauses() throws Exception {
+        writeText("time,pause\n1.0,0.025\n2.0,-1\ninvalid,0.1\n", new File(workerDirectory, "gc.csv"));
+
+        List<double[]> points = WorkerData.load(workerDirectory).getGcPauses().getPoints();
+
+        assertEquals(1, points.size());
+        assertEquals(1, points.get(0)[0], DELTA);
+        assertEquals(25, points.get(0)[1], DELTA);
+    }
+
+    @Test
+    public void testLoad_dstat() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            sb.append("\"header\"\n");
+        }
+        sb.append("1500000000,2097152,0,1048576,3145728,20,10,65,5,0,0,1048576,2097152,3145728,4194304,0,0,0,5000,1.5\n");
+        // a truncated row only contributes the existing columns
+        sb.append("1500000005,2097152,0,1048576,3145728,30\n");
+        writeText(sb.toString(), new File(workerDirectory, "dstat.csv"));
+
+        WorkerData data = WorkerData.load(workerDirectory);
+
+        List<Series> cpu = data.getMetrics().get("cpu");
+        assertEquals(3, cpu.size());
+        assertEquals("user", cpu.get(0).getName());
+        assertEquals(2, cpu.get(0).getPoints().size());
+        assertEquals(30, cpu.get(0).getPoints().get(1)[1], DELTA);
+        assertEquals(1, cpu.get(1).getPoints().size());
+
+        assertEquals(2, data.getMetrics().get("memory").get(0).getPoints().get(0)[1], DELTA);
+        assertEquals(4, data.getMetrics().get("network").get(1).getPoints().get(0)[1], DELTA);
+        assertEquals(5000, data.getMetrics().get("contextSwitches").get(0).getPoints().get(0)[1], DELTA);
+        assertEquals(1.5, data.getMetrics().get("load").get(0).getPoints().get(0)[1], DELTA);
+    }
+}
@@ -1,8 +1,10 @@
 package com.hazelcast.simulator.test;
 
+import com.hazelcast.simulator.test.distribution.SequentialKeyDistribution;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class BaseThreadStateTest {
@@ -52,4 +54,13 @@ public class BaseThreadStateTest {
     public void randomLong() {
         double whatever = state.randomLong();
     }
+
+    @Test
+    public void nextKey() {
+        SequentialKeyDistribution distribution = new SequentialKeyDistribution(2);
+
+        assertEquals(0, state.nextKey(distribution));
+        assertEquals(1, state.nextIntKey(distribution));
+        assertEquals(0, state.nextKey(distribution));
+    }
 }
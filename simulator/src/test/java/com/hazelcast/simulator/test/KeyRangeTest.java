@@ -0,0 +1,97 @@
+package com.hazelcast.simulator.test;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KeyRangeTest {
+
+    @Test
+    public void testForWorker_whenEvenlyDivisible() {
+        assertRange(KeyRange.forWorker(0, 4, 100), 0, 25);
+        assertRange(KeyRange.forWorker(1, 4, 100), 25, 50);
+        assertRange(KeyRange.forWorker(3, 4, 100), 75, 100);
+    }
+
+    @Test
+    public void testForWorker_whenRemainder_thenFirstWorkersGetOneKeyMore() {
+        assertRange(KeyRange.forWorker(0, 3, 11), 0, 4);
+        assertRange(KeyRange.forWorker(1, 3, 11), 4, 8);
+        assertRange(KeyRange.forWorker(2, 3, 11), 8, 11);
+    }
+
+    @Test
+    public void testForWorker_whenMoreWorkersThanKeys() {
+        assertRange(KeyRange.forWorker(0, 3, 1), 0, 1);
+        assertRange(KeyRange.forWorker(1, 3, 1), 1, 1);
+        assertRange(KeyRange.forWorker(2, 3, 1), 1, 1);
+    }
+
+    @Test
+    public void testForWorker_rangesAreDisjointAndCoverAllKeys() {
+        long keyCount = 1000003;
+        int workerCount = 7;
+
+        long expectedFrom = 0;
+        for (int workerIndex = 0; workerIndex < workerCount; workerIndex++) {
+            KeyRange range = KeyRange.forWorker(workerIndex, workerCount, keyCount);
+            assertEquals(expectedFrom, range.getFrom());
+            expectedFrom = range.getTo();
+        }
+        assertEquals(keyCount, expectedFrom);
+    }
+
+    @Test
+    public void testForWorker_withTestContext() {
+        TestContext testContext = mock(TestContext.class);
+        when(testContext.getWorkerIndex()).thenReturn(1);
+        when(testContext.getWorkerCount()).thenReturn(2);
+
+        assertRange(KeyRange.forWorker(testContext, 10), 5, 10);
+    }
+
+    @Test
+    public void testContains() {
+        KeyRange range = KeyRange.forWorker(1, 4, 100);
+
+        assertFalse(range.contains(24));
+        assertTrue(range.contains(25));
+        assertTrue(range.contains(49));
+        assertFalse(range.contains(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForWorker_whenWorkerCountZero() {
+        KeyRange.forWorker(0, 0, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForWorker_whenWorkerIndexTooLarge() {
+        KeyRange.forWorker(2, 2, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForWorker_whenWorkerIndexNegative() {
+        KeyRange.forWorker(-1, 2, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForWorker_whenKeyCountNegative() {
+        KeyRange.forWorker(0, 2, -1);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("KeyRange{from=25, to=50}", KeyRange.forWorker(1, 4, 100).toString());
+    }
+
+    private static void assertRange(KeyRange range, long expectedFrom, long expectedTo) {
+        assertEquals(expectedFrom, range.getFrom());
+        assertEquals(expectedTo, range.getTo());
+        assertEquals(expectedTo - expectedFrom, range.size());
+    }
+}
@@ -0,0 +1,40 @@
+package com.hazelcast.simulator.test.distribution;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExponentialKeyDistributionTest {
+
+    private final Random random = new Random(42);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidPercentile() {
+        new ExponentialKeyDistribution(100, 100, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidFraction() {
+        new ExponentialKeyDistribution(100, 95, 0);
+    }
+
+    @Test
+    public void testNext() {
+        ExponentialKeyDistribution distribution = new ExponentialKeyDistribution(1000, 90, 0.1);
+
+        int samples = 100000;
+        int head = 0;
+        for (int i = 0; i < samples; i++) {
+            long key = distribution.next(random);
+            assertTrue(key >= 0);
+            assertTrue(key < 1000);
+            if (key < 100) {
+                head++;
+            }
+        }
+        assertEquals(0.9, (double) head / samples, 0.01);
+    }
+}
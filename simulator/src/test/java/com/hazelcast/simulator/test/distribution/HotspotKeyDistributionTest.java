@@ -0,0 +1,60 @@
+package com.hazelcast.simulator.test.distribution;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HotspotKeyDistributionTest {
+
+    private final Random random = new Random(42);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidHotSetFraction() {
+        new HotspotKeyDistribution(100, 0, 0.8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidHotOperationFraction() {
+        new HotspotKeyDistribution(100, 0.2, 1.5);
+    }
+
+    @Test
+    public void testNext() {
+        HotspotKeyDistribution distribution = new HotspotKeyDistribution(1000, 0.1, 0.9);
+        assertEquals(100, distribution.getHotItemCount());
+
+        int samples = 100000;
+        int hot = 0;
+        for (int i = 0; i < samples; i++) {
+            long key = distribution.next(random);
+            assertTrue(key >= 0);
+            assertTrue(key < 1000);
+            if (key < 100) {
+                hot++;
+            }
+        }
+        assertEquals(0.9, (double) hot / samples, 0.01);
+    }
+
+    @Test
+    public void testNext_allItemsHot() {
+        HotspotKeyDistribution distribution = new HotspotKeyDistribution(10, 1, 0.5);
+
+        for (int i = 0; i < 1000; i++) {
+            long key = distribution.next(random);
+            assertTrue(key >= 0);
+            assertTrue(key < 10);
+        }
+    }
+
+    @Test
+    public void testNext_atLeastOneHotItem() {
+        HotspotKeyDistribution distribution = new HotspotKeyDistribution(3, 0.1, 1);
+
+        assertEquals(1, distribution.getHotItemCount());
+        assertEquals(0, distribution.next(random));
+    }
+}
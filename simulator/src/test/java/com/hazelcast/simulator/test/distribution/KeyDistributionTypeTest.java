@@ -0,0 +1,52 @@
+package com.hazelcast.simulator.test.distribution;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyDistributionTypeTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testNewInstance() {
+        for (KeyDistributionType type : KeyDistributionType.values()) {
+            KeyDistribution distribution = type.newInstance(100);
+
+            assertEquals(type.name(), 100, distribution.getItemCount());
+            for (int i = 0; i < 10000; i++) {
+                long key = distribution.next(random);
+                assertTrue(type.name(), key >= 0);
+                assertTrue(type.name(), key < 100);
+            }
+        }
+    }
+
+    @Test
+    public void testScrambledZipfian_scattersPopularKeys() {
+        KeyDistribution distribution = KeyDistributionType.SCRAMBLED_ZIPFIAN.newInstance(1000000);
+
+        int[] counts = new int[10];
+        Set<Long> keys = new HashSet<Long>();
+        for (int i = 0; i < 10000; i++) {
+            long key = distribution.next(random);
+            keys.add(key);
+            counts[(int) (key / 100000)]++;
+        }
+
+        // the hot keys should not all be clustered at the start of the key space
+        assertTrue(counts[0] < 9000);
+        assertTrue(keys.size() < 10000);
+    }
+
+    @Test
+    public void testHashFNV64_isDeterministic() {
+        assertEquals(ScrambledZipfianKeyDistribution.hashFNV64(42), ScrambledZipfianKeyDistribution.hashFNV64(42));
+        assertTrue(ScrambledZipfianKeyDistribution.hashFNV64(1) != ScrambledZipfianKeyDistribution.hashFNV64(2));
+    }
+}
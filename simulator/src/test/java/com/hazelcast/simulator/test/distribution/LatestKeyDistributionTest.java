@@ -0,0 +1,62 @@
+package com.hazelcast.simulator.test.distribution;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatestKeyDistributionTest {
+
+    private final Random random = new Random(42);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_zeroItemCount() {
+        new LatestKeyDistribution(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidTheta() {
+        new LatestKeyDistribution(10, 1.5);
+    }
+
+    @Test
+    public void testNextInsert() {
+        LatestKeyDistribution distribution = new LatestKeyDistribution(10);
+
+        assertEquals(10, distribution.nextInsert());
+        assertEquals(11, distribution.nextInsert());
+        assertEquals(12, distribution.getItemCount());
+    }
+
+    @Test
+    public void testNext_favorsLatestItems() {
+        LatestKeyDistribution distribution = new LatestKeyDistribution(1000);
+
+        int latest = 0;
+        for (int i = 0; i < 10000; i++) {
+            long key = distribution.next(random);
+            assertTrue(key >= 0);
+            assertTrue(key < 1000);
+            if (key >= 990) {
+                latest++;
+            }
+        }
+        // with 1000 items the 10 most popular items get about 40% of the calls
+        assertTrue("expected many keys to be close to the latest key, but was " + latest, latest > 3000);
+    }
+
+    @Test
+    public void testNext_followsInserts() {
+        LatestKeyDistribution distribution = new LatestKeyDistribution(1);
+        assertEquals(0, distribution.next(random));
+
+        for (int i = 0; i < 1000; i++) {
+            long inserted = distribution.nextInsert();
+            long key = distribution.next(random);
+            assertTrue(key >= 0);
+            assertTrue(key <= inserted);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hazelcast.simulator.test.distribution;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SequentialKeyDistributionTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_zeroItemCount() {
+        new SequentialKeyDistribution(0);
+    }
+
+    @Test
+    public void testNext() {
+        SequentialKeyDistribution distribution = new SequentialKeyDistribution(3);
+
+        assertEquals(0, distribution.next(null));
+        assertEquals(1, distribution.next(null));
+        assertEquals(2, distribution.next(null));
+        assertEquals(0, distribution.next(null));
+    }
+}
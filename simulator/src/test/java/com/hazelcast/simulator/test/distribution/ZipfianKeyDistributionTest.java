@@ -0,0 +1,114 @@
+package com.hazelcast.simulator.test.distribution;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hazelcast.simulator.test.distribution.ZipfianKeyDistribution.DEFAULT_THETA;
+import static com.hazelcast.simulator.test.distribution.ZipfianKeyDistribution.zeta;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ZipfianKeyDistributionTest {
+
+    private final Random random = new Random(42);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_zeroItemCount() {
+        new ZipfianKeyDistribution(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_thetaTooLarge() {
+        new ZipfianKeyDistribution(100, 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_thetaTooSmall() {
+        new ZipfianKeyDistribution(100, 0);
+    }
+
+    @Test
+    public void testZeta_exactForSmallItemCount() {
+        assertEquals(exactZeta(10, DEFAULT_THETA), zeta(10, DEFAULT_THETA), 0);
+        assertEquals(exactZeta(ZipfianKeyDistribution.EXACT_TERMS, 0.5), zeta(ZipfianKeyDistribution.EXACT_TERMS, 0.5), 0);
+    }
+
+    @Test
+    public void testZeta_approximatedForLargeItemCount() {
+        assertRelativeError(exactZeta(33, DEFAULT_THETA), zeta(33, DEFAULT_THETA));
+        assertRelativeError(exactZeta(1000000, DEFAULT_THETA), zeta(1000000, DEFAULT_THETA));
+        assertRelativeError(exactZeta(1000000, 0.5), zeta(1000000, 0.5));
+        assertRelativeError(exactZeta(1000000, 0.1), zeta(1000000, 0.1));
+    }
+
+    @Test
+    public void testZeta_billionsOfItems() {
+        // precomputed value of the former ScrambledZipfianGenerator for 10 billion items
+        assertRelativeError(26.46902820178302, zeta(10000000001L, DEFAULT_THETA));
+    }
+
+    @Test
+    public void testNext_inRange() {
+        ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(1000);
+
+        assertEquals(1000, distribution.getItemCount());
+        for (int i = 0; i < 100000; i++) {
+            long key = distribution.next(random);
+            assertTrue(key >= 0);
+            assertTrue(key < 1000);
+        }
+    }
+
+    @Test
+    public void testNext_singleItem() {
+        ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(1);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, distribution.next(random));
+        }
+    }
+
+    @Test
+    public void testNext_twoItems() {
+        ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(2);
+
+        for (int i = 0; i < 1000; i++) {
+            long key = distribution.next(random);
+            assertTrue(key == 0 || key == 1);
+        }
+    }
+
+    @Test
+    public void testNext_isSkewed() {
+        int itemCount = 100;
+        int samples = 1000000;
+        ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(itemCount);
+
+        int[] counts = new int[itemCount];
+        for (int i = 0; i < samples; i++) {
+            counts[(int) distribution.next(random)]++;
+        }
+
+        double zetaN = exactZeta(itemCount, DEFAULT_THETA);
+        // the algorithm is exact for the two most popular items, the tail is approximated
+        for (int rank = 0; rank < 2; rank++) {
+            double expected = samples / Math.pow(rank + 1, DEFAULT_THETA) / zetaN;
+            assertEquals(expected, counts[rank], expected * 0.02);
+        }
+        assertTrue(counts[0] > counts[10]);
+        assertTrue(counts[10] > counts[90]);
+    }
+
+    private static double exactZeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+
+    private static void assertRelativeError(double expected, double actual) {
+        assertEquals(expected, actual, expected * 1e-6);
+    }
+}
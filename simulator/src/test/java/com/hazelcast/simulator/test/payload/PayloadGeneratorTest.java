@@ -0,0 +1,125 @@
+package com.hazelcast.simulator.test.payload;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PayloadGeneratorTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testNextBytes_sizeFromDistribution() {
+        PayloadGenerator generator = new PayloadGenerator(new UniformSizeDistribution(10, 20));
+
+        for (int i = 0; i < 1000; i++) {
+            int size = generator.nextBytes(random).length;
+            assertTrue("size was " + size, size >= 10 && size <= 20);
+        }
+    }
+
+    @Test
+    public void testNextBytes_withTarget() {
+        PayloadGenerator generator = new PayloadGenerator(new FixedSizeDistribution(100));
+        byte[] target = new byte[200];
+
+        assertEquals(100, generator.nextBytes(random, target));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNextBytes_whenTargetTooSmall() {
+        PayloadGenerator generator = new PayloadGenerator(new FixedSizeDistribution(100));
+
+        generator.nextBytes(random, new byte[99]);
+    }
+
+    @Test
+    public void testNextBuffer() {
+        PayloadGenerator generator = new PayloadGenerator(new FixedSizeDistribution(100));
+
+        ByteBuffer buffer = generator.nextBuffer(random);
+
+        assertEquals(100, buffer.remaining());
+        assertTrue(buffer.isReadOnly());
+    }
+
+    @Test
+    public void testNewPool() {
+        PayloadGenerator generator = new PayloadGenerator(new FixedSizeDistribution(16));
+
+        byte[][] pool = generator.newPool(random, 10);
+
+        assertEquals(10, pool.length);
+        for (byte[] payload : pool) {
+            assertEquals(16, payload.length);
+        }
+    }
+
+    @Test
+    public void testSlab_sameSeedGeneratesSameContent() {
+        PayloadGenerator generator1 = new PayloadGenerator(new FixedSizeDistribution(100), 0.5, 8, 1);
+        PayloadGenerator generator2 = new PayloadGenerator(new FixedSizeDistribution(100), 0.5, 8, 1);
+
+        assertArrayEquals(generator1.getSlab(), generator2.getSlab());
+    }
+
+    @Test
+    public void testSlab_compressibility() {
+        double randomRatio = compressionRatio(new PayloadGenerator(new FixedSizeDistribution(100), 0, 8, 1));
+        double halfRatio = compressionRatio(new PayloadGenerator(new FixedSizeDistribution(100), 0.5, 8, 1));
+        double highRatio = compressionRatio(new PayloadGenerator(new FixedSizeDistribution(100), 0.9, 8, 1));
+
+        assertTrue("ratio was " + randomRatio, randomRatio > 0.95);
+        assertEquals(0.5, halfRatio, 0.1);
+        assertTrue("ratio was " + highRatio, highRatio < 0.2);
+    }
+
+    @Test
+    public void testSlab_entropyBits() {
+        PayloadGenerator generator = new PayloadGenerator(new FixedSizeDistribution(100), 0, 4, 1);
+
+        Set<Byte> values = new HashSet<Byte>();
+        for (byte value : generator.getSlab()) {
+            values.add(value);
+        }
+        assertEquals(16, values.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenCompressibilityIsOne() {
+        new PayloadGenerator(new FixedSizeDistribution(100), 1, 8, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenEntropyBitsZero() {
+        new PayloadGenerator(new FixedSizeDistribution(100), 0, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenEntropyBitsTooLarge() {
+        new PayloadGenerator(new FixedSizeDistribution(100), 0, 9, 1);
+    }
+
+    private static double compressionRatio(PayloadGenerator generator) {
+        byte[] slab = generator.getSlab();
+        Deflater deflater = new Deflater();
+        deflater.setInput(slab);
+        deflater.finish();
+
+        byte[] buffer = new byte[8192];
+        long compressedLength = 0;
+        while (!deflater.finished()) {
+            compressedLength += deflater.deflate(buffer);
+        }
+        deflater.end();
+        return compressedLength / (double) slab.length;
+    }
+}
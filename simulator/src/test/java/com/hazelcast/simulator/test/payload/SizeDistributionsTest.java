@@ -0,0 +1,139 @@
+package com.hazelcast.simulator.test.payload;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SizeDistributionsTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(SizeDistributions.class);
+    }
+
+    @Test
+    public void testParse_number() {
+        SizeDistribution distribution = SizeDistributions.parse(" 42 ");
+
+        assertEquals(42, distribution.next(random));
+    }
+
+    @Test
+    public void testParse_fixed() {
+        SizeDistribution distribution = SizeDistributions.parse("fixed(100)");
+
+        assertTrue(distribution instanceof FixedSizeDistribution);
+        assertEquals(100, distribution.getMinSize());
+        assertEquals(100, distribution.getMaxSize());
+        assertEquals(100, distribution.next(random));
+    }
+
+    @Test
+    public void testParse_uniform() {
+        SizeDistribution distribution = SizeDistributions.parse("uniform(5, 7)");
+
+        assertTrue(distribution instanceof UniformSizeDistribution);
+        boolean[] seen = new boolean[8];
+        for (int i = 0; i < 1000; i++) {
+            int size = distribution.next(random);
+            assertTrue("size was " + size, size >= 5 && size <= 7);
+            seen[size] = true;
+        }
+        assertTrue(seen[5] && seen[6] && seen[7]);
+    }
+
+    @Test
+    public void testParse_logNormal() {
+        SizeDistribution distribution = SizeDistributions.parse("lognormal(1000,0.5,16,65536)");
+
+        assertTrue(distribution instanceof LogNormalSizeDistribution);
+        int[] sizes = new int[10001];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = distribution.next(random);
+            assertTrue(sizes[i] >= 16 && sizes[i] <= 65536);
+        }
+        Arrays.sort(sizes);
+        assertEquals(1000, sizes[sizes.length / 2], 50);
+    }
+
+    @Test
+    public void testParse_logNormal_isClamped() {
+        SizeDistribution distribution = SizeDistributions.parse("lognormal(1000,3,500,2000)");
+
+        for (int i = 0; i < 1000; i++) {
+            int size = distribution.next(random);
+            assertTrue("size was " + size, size >= 500 && size <= 2000);
+        }
+    }
+
+    @Test
+    public void testParse_histogram() {
+        SizeDistribution distribution = SizeDistributions.parse("histogram(100:1, 1000:0, 10000:3)");
+
+        assertTrue(distribution instanceof HistogramSizeDistribution);
+        assertEquals(100, distribution.getMinSize());
+        assertEquals(10000, distribution.getMaxSize());
+
+        int smallCount = 0;
+        int iterations = 100000;
+        for (int i = 0; i < iterations; i++) {
+            int size = distribution.next(random);
+            assertTrue("size was " + size, size == 100 || size == 10000);
+            if (size == 100) {
+                smallCount++;
+            }
+        }
+        assertEquals(0.25, smallCount / (double) iterations, 0.01);
+    }
+
+    @Test
+    public void testToString_canBeParsed() {
+        String[] definitions = {"fixed(10)", "uniform(1,10)", "lognormal(100,0.5,1,1000)", "histogram(1:1.0,2:3.0)"};
+
+        for (String definition : definitions) {
+            assertEquals(definition, SizeDistributions.parse(definition).toString());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_unknownType() {
+        SizeDistributions.parse("gaussian(10)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_wrongArgumentCount() {
+        SizeDistributions.parse("uniform(10)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_invalidNumber() {
+        SizeDistributions.parse("fixed(abc)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_invalidHistogramBucket() {
+        SizeDistributions.parse("histogram(100)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUniform_whenMaxSmallerThanMin() {
+        new UniformSizeDistribution(10, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHistogram_whenAllWeightsZero() {
+        new HistogramSizeDistribution(new int[]{1, 2}, new double[]{0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFixed_whenNegative() {
+        new FixedSizeDistribution(-1);
+    }
+}
@@ -53,6 +53,15 @@ public class AnnotationFilterTest {
         assertEquals("globalPrepare", method.getName());
     }
 
+    @Test
+    public void testDistributedWarmupFilter() {
+        Method method = new AnnotatedMethodRetriever(AnnotationTestClass.class, Prepare.class)
+                .withVoidReturnType()
+                .withFilter(new PrepareFilter(true, true))
+                .find();
+        assertEquals("distributedPrepare", method.getName());
+    }
+
     @Test
     public void testLocalVerifyFilter() {
         Method method = new AnnotatedMethodRetriever(AnnotationTestClass.class, Verify.class)
@@ -95,6 +104,10 @@ public class AnnotationFilterTest {
         public void globalPrepare() {
         }
 
+        @Prepare(distributed = true)
+        public void distributedPrepare() {
+        }
+
         @Verify(global = false)
         public void localVerify() {
         }
@@ -0,0 +1,136 @@
+package com.hazelcast.simulator.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ByteArrayDatasetTest {
+
+    private File directory;
+
+    @Before
+    public void before() {
+        directory = TestUtils.createTmpDirectory();
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testGetOrCreate_generatesDataset() {
+        ByteArrayDataset dataset = ByteArrayDataset.getOrCreate(directory, 100, 10, 20, 42);
+
+        assertTrue(dataset.isGenerated());
+        assertTrue(dataset.getFile().exists());
+        assertEquals(100, dataset.size());
+        for (int i = 0; i < dataset.size(); i++) {
+            int length = dataset.length(i);
+            assertTrue("length was " + length, length >= 10 && length <= 20);
+            assertEquals(length, dataset.get(i).length);
+        }
+    }
+
+    @Test
+    public void testGetOrCreate_reusesDataset() {
+        ByteArrayDataset generated = ByteArrayDataset.getOrCreate(directory, 100, 10, 20, 42);
+        ByteArrayDataset mapped = ByteArrayDataset.getOrCreate(directory, 100, 10, 20, 42);
+
+        assertFalse(mapped.isGenerated());
+        assertEquals(generated.getFile(), mapped.getFile());
+        for (int i = 0; i < generated.size(); i++) {
+            assertArrayEquals(generated.get(i), mapped.get(i));
+        }
+    }
+
+    @Test
+    public void testGetOrCreate_sameSeedGeneratesSameData() {
+        File otherDirectory = TestUtils.createTmpDirectory();
+        try {
+            ByteArrayDataset dataset1 = ByteArrayDataset.getOrCreate(directory, 50, 0, 100, 7);
+            ByteArrayDataset dataset2 = ByteArrayDataset.getOrCreate(otherDirectory, 50, 0, 100, 7);
+
+            assertTrue(dataset2.isGenerated());
+            assertArrayEquals(dataset1.toArrays(), dataset2.toArrays());
+        } finally {
+            deleteQuiet(otherDirectory);
+        }
+    }
+
+    @Test
+    public void testGetOrCreate_differentParametersUseDifferentFiles() {
+        ByteArrayDataset dataset1 = ByteArrayDataset.getOrCreate(directory, 50, 10, 10, 1);
+        ByteArrayDataset dataset2 = ByteArrayDataset.getOrCreate(directory, 50, 10, 10, 2);
+
+        assertTrue(dataset2.isGenerated());
+        assertFalse(dataset1.getFile().equals(dataset2.getFile()));
+    }
+
+    @Test
+    public void testGetOrCreate_whenFileIsTruncated_thenGeneratedAgain() throws Exception {
+        ByteArrayDataset generated = ByteArrayDataset.getOrCreate(directory, 100, 10, 20, 42);
+        byte[][] expected = generated.toArrays();
+
+        RandomAccessFile raf = new RandomAccessFile(generated.getFile(), "rw");
+        try {
+            raf.setLength(raf.length() - 1);
+        } finally {
+            raf.close();
+        }
+
+        ByteArrayDataset dataset = ByteArrayDataset.getOrCreate(directory, 100, 10, 20, 42);
+        assertTrue(dataset.isGenerated());
+        assertArrayEquals(expected, dataset.toArrays());
+    }
+
+    @Test
+    public void testGetBuffer() {
+        ByteArrayDataset dataset = ByteArrayDataset.getOrCreate(directory, 10, 5, 15, 42);
+
+        for (int i = 0; i < dataset.size(); i++) {
+            ByteBuffer buffer = dataset.getBuffer(i);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+
+            assertTrue(buffer.isReadOnly());
+            assertArrayEquals(dataset.get(i), bytes);
+        }
+    }
+
+    @Test
+    public void testGetOrCreate_withFixedLength() {
+        ByteArrayDataset dataset = ByteArrayDataset.getOrCreate(directory, 10, 8, 8, 42);
+
+        for (int i = 0; i < dataset.size(); i++) {
+            assertEquals(8, dataset.length(i));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGet_whenIndexTooLarge() {
+        ByteArrayDataset dataset = ByteArrayDataset.getOrCreate(directory, 10, 5, 15, 42);
+
+        dataset.get(10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetOrCreate_whenMinLengthLargerThanMaxLength() {
+        ByteArrayDataset.getOrCreate(directory, 10, 20, 10, 42);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetOrCreate_whenTooLarge() {
+        ByteArrayDataset.getOrCreate(directory, Integer.MAX_VALUE, 0, 10, 42);
+    }
+}
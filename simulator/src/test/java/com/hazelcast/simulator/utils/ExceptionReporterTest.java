@@ -5,15 +5,21 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.setupFakeUserDir;
 import static com.hazelcast.simulator.TestEnvironmentUtils.teardownFakeUserDir;
+import static com.hazelcast.simulator.utils.ExceptionReporter.DUPLICATE_REPORT_INTERVAL_MILLIS;
+import static com.hazelcast.simulator.utils.ExceptionReporter.MAX_REPORTS_PER_SECOND;
 import static com.hazelcast.simulator.utils.ExceptionReporter.report;
+import static com.hazelcast.simulator.utils.ExceptionReporter.stackSignature;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -63,4 +69,156 @@ public class ExceptionReporterTest {
         // make sure no new files have been made
         assertEquals(0, getUserDir().listFiles().length);
     }
+
+    @Test
+    public void testReport_withPublisher() {
+        RecordingPublisher publisher = new RecordingPublisher(true);
+        ExceptionReporter.setPublisher(publisher);
+
+        report("testID", new RuntimeException("Expected exception"));
+
+        assertEquals(1, publisher.causes.size());
+        assertEquals("testID", publisher.testIds.get(0));
+        assertTrue(publisher.causes.get(0).contains("Expected exception"));
+        assertFalse(new File(getUserDir(), "1.exception").exists());
+    }
+
+    @Test
+    public void testReport_whenPublishFails_thenExceptionFile() {
+        RecordingPublisher publisher = new RecordingPublisher(false);
+        ExceptionReporter.setPublisher(publisher);
+
+        report("testID", new RuntimeException("Expected exception"));
+
+        assertEquals(1, publisher.causes.size());
+        assertTrue(new File(getUserDir(), "1.exception").exists());
+    }
+
+    @Test
+    public void testReport_duplicatesAreSuppressed() {
+        RecordingPublisher publisher = new RecordingPublisher(true);
+        ExceptionReporter.setPublisher(publisher);
+
+        for (int i = 0; i < 100; i++) {
+            report("testID", newException());
+        }
+
+        assertEquals(1, publisher.causes.size());
+        assertEquals(100, ExceptionReporter.getExceptionCount());
+    }
+
+    @Test
+    public void testReport_differentTestsAreNotSuppressed() {
+        RecordingPublisher publisher = new RecordingPublisher(true);
+        ExceptionReporter.setPublisher(publisher);
+
+        report("testID1", newException());
+        report("testID2", newException());
+
+        assertEquals(2, publisher.causes.size());
+    }
+
+    @Test
+    public void testReport_flushReportsSuppressedExceptions() {
+        RecordingPublisher publisher = new RecordingPublisher(true);
+        ExceptionReporter.setPublisher(publisher);
+
+        for (int i = 0; i < 10; i++) {
+            report("testID", newException());
+        }
+        ExceptionReporter.flush();
+
+        assertEquals(2, publisher.causes.size());
+        assertEquals("testID", publisher.testIds.get(1));
+        assertTrue(publisher.causes.get(1).contains("Suppressed 9 exceptions"));
+        assertTrue(publisher.causes.get(1).contains("Expected exception"));
+
+        // nothing is left to flush
+        ExceptionReporter.flush();
+        assertEquals(2, publisher.causes.size());
+    }
+
+    @Test
+    public void testSignature_tryReport() {
+        ExceptionReporter.Signature signature = newSignature();
+        long now = DUPLICATE_REPORT_INTERVAL_MILLIS * 10;
+
+        assertEquals(0, signature.tryReport(now));
+        assertEquals(-1, signature.tryReport(now + 1));
+        assertEquals(-1, signature.tryReport(now + 2));
+
+        // the next report after the interval contains the number of suppressed exceptions
+        assertEquals(2, signature.tryReport(now + DUPLICATE_REPORT_INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void testSignature_tryReport_repeatsAreRateLimited() {
+        long now = DUPLICATE_REPORT_INTERVAL_MILLIS * 10;
+        long later = now + DUPLICATE_REPORT_INTERVAL_MILLIS;
+
+        List<ExceptionReporter.Signature> signatures = new ArrayList<ExceptionReporter.Signature>();
+        for (int i = 0; i <= MAX_REPORTS_PER_SECOND; i++) {
+            ExceptionReporter.Signature signature = newSignature();
+            assertEquals(0, signature.tryReport(now));
+            signatures.add(signature);
+        }
+
+        for (int i = 0; i < MAX_REPORTS_PER_SECOND; i++) {
+            assertEquals(0, signatures.get(i).tryReport(later));
+        }
+        assertEquals(-1, signatures.get(MAX_REPORTS_PER_SECOND).tryReport(later));
+    }
+
+    @Test
+    public void testSignature_tryReport_firstOccurrenceIsNotRateLimited() {
+        long now = DUPLICATE_REPORT_INTERVAL_MILLIS * 10;
+        for (int i = 0; i < MAX_REPORTS_PER_SECOND * 2; i++) {
+            assertEquals(0, newSignature().tryReport(now));
+        }
+    }
+
+    @Test
+    public void testSignature_takeSuppressedCount() {
+        ExceptionReporter.Signature signature = newSignature();
+        long now = DUPLICATE_REPORT_INTERVAL_MILLIS * 10;
+        signature.tryReport(now);
+        signature.tryReport(now + 1);
+
+        assertEquals(1, signature.takeSuppressedCount());
+        assertEquals(0, signature.takeSuppressedCount());
+    }
+
+    @Test
+    public void testStackSignature() {
+        assertEquals(stackSignature("testID", newException()), stackSignature("testID", newException()));
+        assertNotEquals(stackSignature("testID", newException()), stackSignature("otherID", newException()));
+        assertNotEquals(stackSignature("testID", newException()),
+                stackSignature("testID", new RuntimeException("Expected exception")));
+    }
+
+    private static ExceptionReporter.Signature newSignature() {
+        return new ExceptionReporter.Signature("testID", "cause");
+    }
+
+    private static RuntimeException newException() {
+        return new RuntimeException("Expected exception");
+    }
+
+    private static class RecordingPublisher implements ExceptionReporter.Publisher {
+
+        private final List<String> testIds = new ArrayList<String>();
+        private final List<String> causes = new ArrayList<String>();
+        private final boolean published;
+
+        RecordingPublisher(boolean published) {
+            this.published = published;
+        }
+
+        @Override
+        public boolean publish(String testId, String cause) {
+            testIds.add(testId);
+            causes.add(cause);
+            return published;
+        }
+    }
 }
@@ -0,0 +1,180 @@
+package com.hazelcast.simulator.utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramHeatmapTest {
+
+    private static final long START_MILLIS = 1500000000000L;
+    private static final long INTERVAL_MILLIS = 10000;
+    private static final long FAST_NANOS = 100000;
+    private static final long SLOW_NANOS = 10000000;
+
+    private File directory;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidBucketsPerDecade() {
+        new HistogramHeatmap(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidMaxColumns() {
+        new HistogramHeatmap(10, 0);
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        // the second interval has a second, slow latency mode
+        File hdrFile = createLog(new int[]{10, 0}, new int[]{10, 5}, new int[]{10, 0});
+
+        HistogramHeatmap heatmap = new HistogramHeatmap(1, 100);
+        heatmap.load(hdrFile);
+
+        assertEquals(3, heatmap.getColumnCount());
+        // 100 us is in the bucket [100, 1000) and 10 ms in the bucket [10000, 100000)
+        assertEquals(3, heatmap.getBucketCount());
+        assertEquals(1000, heatmap.getBucketUpperBoundMicros(0), 0.001);
+        assertEquals(100000, heatmap.getBucketUpperBoundMicros(2), 0.001);
+
+        assertEquals(10, heatmap.getCount(0, 0));
+        assertEquals(0, heatmap.getCount(0, 2));
+        assertEquals(10, heatmap.getCount(1, 0));
+        assertEquals(0, heatmap.getCount(1, 1));
+        assertEquals(5, heatmap.getCount(1, 2));
+        assertEquals(0, heatmap.getCount(2, 2));
+
+        assertEquals(0, heatmap.getColumnStartSeconds(0), 0.001);
+        assertEquals(10, heatmap.getColumnStartSeconds(1), 0.001);
+    }
+
+    @Test
+    public void testLoad_moreIntervalsThanColumns() throws Exception {
+        File hdrFile = createLog(new int[]{1, 0}, new int[]{2, 0}, new int[]{3, 0}, new int[]{4, 1});
+
+        HistogramHeatmap heatmap = new HistogramHeatmap(10, 2);
+        heatmap.load(hdrFile);
+
+        assertEquals(2, heatmap.getColumnCount());
+        assertEquals(3, heatmap.getCount(0, 0));
+        assertEquals(7, heatmap.getCount(1, 0));
+        assertEquals(1, heatmap.getCount(1, heatmap.getBucketCount() - 1));
+        assertEquals(20, heatmap.getColumnStartSeconds(1), 0.001);
+    }
+
+    @Test
+    public void testLoad_emptyLog() throws Exception {
+        File hdrFile = createLog();
+
+        HistogramHeatmap heatmap = new HistogramHeatmap(10, 100);
+        heatmap.load(hdrFile);
+
+        assertEquals(0, heatmap.getColumnCount());
+        assertEquals(0, heatmap.getBucketCount());
+    }
+
+    @Test
+    public void testWriteCsv() throws Exception {
+        File hdrFile = createLog(new int[]{10, 0}, new int[]{10, 5});
+        HistogramHeatmap heatmap = new HistogramHeatmap(1, 100);
+        heatmap.load(hdrFile);
+
+        File csvFile = new File(directory, "heatmap.csv");
+        heatmap.writeCsv(csvFile);
+
+        String[] lines = fileAsText(csvFile).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("\"Time\",\"<1.00ms\",\"<10.0ms\",\"<100ms\"", lines[0]);
+        assertEquals("0.000,10,0,0", lines[1]);
+        assertEquals("10.000,10,0,5", lines[2]);
+    }
+
+    @Test
+    public void testWritePng() throws Exception {
+        File hdrFile = createLog(new int[]{10, 0}, new int[]{10, 5});
+        HistogramHeatmap heatmap = new HistogramHeatmap(10, 100);
+        heatmap.load(hdrFile);
+
+        File pngFile = new File(directory, "heatmap.png");
+        heatmap.writePng(pngFile);
+
+        BufferedImage image = ImageIO.read(pngFile);
+        assertNotNull(image);
+        assertTrue(image.getWidth() > 0);
+        assertTrue(image.getHeight() > 0);
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        File hdrFile = createLog(new int[]{10, 0}, new int[]{10, 5});
+
+        HistogramHeatmap.run(new String[]{hdrFile.getAbsolutePath()});
+
+        assertTrue(new File(directory, "test" + HistogramHeatmap.CSV_SUFFIX).isFile());
+        assertTrue(new File(directory, "test" + HistogramHeatmap.PNG_SUFFIX).isFile());
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testRun_withoutFile() throws Exception {
+        HistogramHeatmap.run(new String[0]);
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testRun_fileNotFound() throws Exception {
+        HistogramHeatmap.run(new String[]{new File(directory, "notFound.hdr").getAbsolutePath()});
+    }
+
+    // creates a log with an interval per element, with the number of fast and slow latencies of the interval
+    private File createLog(int[]... intervals) throws FileNotFoundException {
+        File file = new File(directory, "test.hdr");
+        PrintStream printStream = new PrintStream(file);
+        try {
+            HistogramLogWriter writer = new HistogramLogWriter(printStream);
+            writer.setBaseTime(START_MILLIS);
+            writer.outputStartTime(START_MILLIS);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+
+            for (int i = 0; i < intervals.length; i++) {
+                Histogram histogram = new Histogram(3);
+                for (int k = 0; k < intervals[i][0]; k++) {
+                    histogram.recordValue(FAST_NANOS);
+                }
+                for (int k = 0; k < intervals[i][1]; k++) {
+                    histogram.recordValue(SLOW_NANOS);
+                }
+                histogram.setStartTimeStamp(START_MILLIS + i * INTERVAL_MILLIS);
+                histogram.setEndTimeStamp(START_MILLIS + (i + 1) * INTERVAL_MILLIS);
+                writer.outputIntervalHistogram(histogram);
+            }
+        } finally {
+            printStream.close();
+        }
+        return file;
+    }
+}
@@ -1,13 +1,175 @@
 package com.hazelcast.simulator.utils;
 
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class HistogramLogMergerTest {
 
+    private static final long START_MILLIS = 1500000000000L;
+    private static final long INTERVAL_MILLIS = 10000;
+    private static final int MISSING = -1;
+
+    private File directory;
+    private File outputFile;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        outputFile = new File(directory, "merged.hdr");
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
     @Test
     public void testConstructor() throws Exception {
         invokePrivateConstructor(HistogramLogMerger.class);
     }
+
+    @Test
+    public void testMerge() throws Exception {
+        File log1 = createLog("worker1.hdr", START_MILLIS, 10, 20, 30);
+        File log2 = createLog("worker2.hdr", START_MILLIS, 1, 2, 3);
+
+        int windowCount = HistogramLogMerger.merge(outputFile, Arrays.asList(log1, log2), 2);
+
+        assertEquals(3, windowCount);
+        assertMergedLog(11, 22, 33);
+    }
+
+    @Test
+    public void testMerge_alignsOnTimestamps_whenWorkerStartedLate() throws Exception {
+        File log1 = createLog("worker1.hdr", START_MILLIS, 10, 20, 30);
+        File log2 = createLog("worker2.hdr", START_MILLIS + INTERVAL_MILLIS, 1, 2, 3);
+
+        HistogramLogMerger.merge(outputFile, Arrays.asList(log1, log2), 2);
+
+        assertMergedLog(10, 21, 32, 3);
+    }
+
+    @Test
+    public void testMerge_alignsOnTimestamps_whenIntervalIsMissing() throws Exception {
+        File log1 = createLog("worker1.hdr", START_MILLIS, 10, MISSING, 30, 40);
+        File log2 = createLog("worker2.hdr", START_MILLIS, 1, 2, 3, 4);
+
+        HistogramLogMerger.merge(outputFile, Arrays.asList(log1, log2), 1);
+
+        assertMergedLog(11, 2, 33, 44);
+    }
+
+    @Test
+    public void testMerge_alignsOnTimestamps_whenIntervalsAreNotAligned() throws Exception {
+        File log1 = createLog("worker1.hdr", START_MILLIS, 10, 20, 30);
+        File log2 = createLog("worker2.hdr", START_MILLIS + INTERVAL_MILLIS / 4, 1, 2, 3);
+
+        HistogramLogMerger.merge(outputFile, Arrays.asList(log1, log2), 1);
+
+        assertMergedLog(11, 22, 33);
+    }
+
+    @Test
+    public void testMerge_withMoreInputsThanThreads() throws Exception {
+        List<File> inputFiles = new ArrayList<File>();
+        for (int i = 0; i < 10; i++) {
+            inputFiles.add(createLog("worker" + i + ".hdr", START_MILLIS + (i % 3) * INTERVAL_MILLIS, 1, 1, 1, 1));
+        }
+
+        int windowCount = HistogramLogMerger.merge(outputFile, inputFiles, 3);
+
+        assertEquals(6, windowCount);
+        assertMergedLog(4, 7, 10, 10, 6, 3);
+    }
+
+    @Test
+    public void testMerge_withEmptyInput() throws Exception {
+        File log1 = createLog("worker1.hdr", START_MILLIS, 10, 20);
+        File log2 = createLog("worker2.hdr", START_MILLIS);
+
+        int windowCount = HistogramLogMerger.merge(outputFile, Arrays.asList(log1, log2), 2);
+
+        assertEquals(2, windowCount);
+        assertMergedLog(10, 20);
+    }
+
+    @Test
+    public void testMerge_withoutInputs() throws Exception {
+        int windowCount = HistogramLogMerger.merge(outputFile, Collections.<File>emptyList(), 2);
+
+        assertEquals(0, windowCount);
+        assertMergedLog();
+    }
+
+    @Test
+    public void testGetWindowMillis() throws Exception {
+        File log1 = createLog("worker1.hdr", START_MILLIS, 10);
+        HistogramLogMerger.LogInput input = new HistogramLogMerger.LogInput(log1);
+        try {
+            assertEquals(INTERVAL_MILLIS, HistogramLogMerger.getWindowMillis(Collections.singletonList(input)));
+        } finally {
+            input.close();
+        }
+    }
+
+    private File createLog(String fileName, long startMillis, int... counts) throws FileNotFoundException {
+        File file = new File(directory, fileName);
+        PrintStream printStream = new PrintStream(file);
+        try {
+            HistogramLogWriter writer = new HistogramLogWriter(printStream);
+            writer.setBaseTime(startMillis);
+            writer.outputStartTime(startMillis);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == MISSING) {
+                    continue;
+                }
+                Histogram histogram = new Histogram(3);
+                for (int k = 0; k < counts[i]; k++) {
+                    histogram.recordValue(1000 + k);
+                }
+                histogram.setStartTimeStamp(startMillis + i * INTERVAL_MILLIS);
+                histogram.setEndTimeStamp(startMillis + (i + 1) * INTERVAL_MILLIS);
+                writer.outputIntervalHistogram(histogram);
+            }
+        } finally {
+            printStream.close();
+        }
+        return file;
+    }
+
+    private void assertMergedLog(long... expectedCounts) throws FileNotFoundException {
+        HistogramLogReader reader = new HistogramLogReader(outputFile);
+        long expectedStartMillis = -1;
+        for (long expectedCount : expectedCounts) {
+            Histogram histogram = (Histogram) reader.nextIntervalHistogram();
+            assertEquals(expectedCount, histogram.getTotalCount());
+            if (expectedStartMillis != -1) {
+                assertEquals(expectedStartMillis, histogram.getStartTimeStamp());
+            }
+            assertEquals(INTERVAL_MILLIS, histogram.getEndTimeStamp() - histogram.getStartTimeStamp());
+            expectedStartMillis = histogram.getEndTimeStamp();
+        }
+        assertNull(reader.nextIntervalHistogram());
+    }
 }
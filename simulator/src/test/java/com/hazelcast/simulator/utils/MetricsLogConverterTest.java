@@ -0,0 +1,56 @@
+package com.hazelcast.simulator.utils;
+
+import com.hazelcast.simulator.worker.performance.MetricsLog;
+import com.hazelcast.simulator.worker.performance.MetricsLogWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+
+public class MetricsLogConverterTest {
+
+    private static final long START_MILLIS = 1500000000000L;
+
+    private File directory;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(MetricsLogConverter.class);
+    }
+
+    @Test
+    public void testConvert() throws Exception {
+        File metricsFile = new File(directory, MetricsLog.FILE_NAME);
+        MetricsLogWriter writer = new MetricsLogWriter(metricsFile);
+        writer.addRow(START_MILLIS + 500);
+        writer.set("operations", 1000L);
+        writer.set("throughput", 100.5);
+        writer.addRow(START_MILLIS + 1500);
+        writer.set("operations", 2000L);
+        writer.close();
+
+        File csvFile = MetricsLogConverter.convert(metricsFile);
+
+        assertEquals(new File(directory, "metrics.csv"), csvFile);
+        assertEquals("epoch,operations,throughput\n"
+                + "1500000000.500,1000,100.500\n"
+                + "1500000001.500,2000,\n", fileAsText(csvFile));
+    }
+}
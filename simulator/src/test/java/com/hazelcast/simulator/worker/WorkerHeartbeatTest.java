@@ -0,0 +1,88 @@
+package com.hazelcast.simulator.worker;
+
+import com.hazelcast.simulator.agent.operations.WorkerHeartbeatOperation;
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.utils.AssertTask;
+import com.hazelcast.simulator.worker.testcontainer.TestContainer;
+import com.hazelcast.simulator.worker.testcontainer.TestManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkerHeartbeatTest {
+
+    private Server server;
+    private TestManager testManager;
+    private WorkerHeartbeat heartbeat;
+
+    @Before
+    public void before() {
+        server = mock(Server.class);
+        testManager = mock(TestManager.class);
+    }
+
+    @After
+    public void after() {
+        if (heartbeat != null) {
+            heartbeat.close();
+        }
+    }
+
+    @Test
+    public void testCreateOperation_onlyContainsRunningTests() {
+        TestContainer running = mockContainer("running", true, 100);
+        TestContainer stopped = mockContainer("stopped", false, 200);
+        when(testManager.getContainers()).thenReturn(Arrays.asList(running, stopped));
+
+        heartbeat = new WorkerHeartbeat(server, testManager, 1);
+        Map<String, Long> iterations = heartbeat.createOperation().getIterations();
+
+        assertEquals(1, iterations.size());
+        assertEquals(100L, (long) iterations.get("running"));
+    }
+
+    @Test
+    public void testStart() {
+        heartbeat = new WorkerHeartbeat(server, testManager, 1);
+        heartbeat.start();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                verify(server, atLeastOnce()).sendAgent(any(WorkerHeartbeatOperation.class));
+            }
+        });
+    }
+
+    @Test
+    public void testStart_whenDisabled() {
+        heartbeat = new WorkerHeartbeat(server, testManager, 0);
+        heartbeat.start();
+
+        sleepMillis(100);
+
+        verify(server, never()).sendAgent(any(WorkerHeartbeatOperation.class));
+    }
+
+    private static TestContainer mockContainer(String testId, boolean isRunning, long iterations) {
+        TestContainer container = mock(TestContainer.class);
+        when(container.getTestCase()).thenReturn(new TestCase(testId));
+        when(container.isRunning()).thenReturn(isRunning);
+        when(container.iteration()).thenReturn(iterations);
+        return container;
+    }
+}
@@ -10,6 +10,7 @@ import com.hazelcast.simulator.protocol.exception.ProcessException;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.worker.operations.CreateTestOperation;
 import com.hazelcast.simulator.worker.operations.ExecuteScriptOperation;
+import com.hazelcast.simulator.worker.operations.RemoveTestOperation;
 import com.hazelcast.simulator.worker.operations.StartPhaseOperation;
 import com.hazelcast.simulator.worker.operations.StopRunOperation;
 import com.hazelcast.simulator.worker.operations.TerminateWorkerOperation;
@@ -105,6 +106,16 @@ public class WorkerOperationProcessorTest {
         assertTrue(promise.hasAnswer());
     }
 
+    @Test
+    public void test_RemoveTestOperation() throws Exception {
+        RemoveTestOperation op = new RemoveTestOperation("foo");
+
+        processor.process(op, sourceAddress, promise);
+
+        verify(testManager).removeTest(op);
+        assertTrue(promise.hasAnswer());
+    }
+
     // make sure that unhandled exceptions are trapped.
     @Test
     public void test_unhandledException() throws Exception {
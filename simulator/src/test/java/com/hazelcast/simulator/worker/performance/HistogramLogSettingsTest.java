@@ -0,0 +1,66 @@
+package com.hazelcast.simulator.worker.performance;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramLogSettingsTest {
+
+    @Test
+    public void testDefault() {
+        HistogramLogSettings settings = HistogramLogSettings.DEFAULT;
+
+        assertEquals(0, settings.getRollupSeconds().length);
+        assertTrue(settings.isIntervalLogEnabled());
+    }
+
+    @Test
+    public void testFromParameters() {
+        HistogramLogSettings settings = HistogramLogSettings.fromParameters("60, 600,3600", " 120 ");
+
+        assertArrayEquals(new int[]{60, 600, 3600}, settings.getRollupSeconds());
+        assertEquals(120, settings.getRetentionSeconds());
+        assertTrue(settings.isIntervalLogEnabled());
+    }
+
+    @Test
+    public void testFromParameters_whenMissing() {
+        HistogramLogSettings settings = HistogramLogSettings.fromParameters(null, null);
+
+        assertEquals(0, settings.getRollupSeconds().length);
+        assertEquals(-1, settings.getRetentionSeconds());
+        assertTrue(settings.isIntervalLogEnabled());
+    }
+
+    @Test
+    public void testFromParameters_whenEmpty() {
+        HistogramLogSettings settings = HistogramLogSettings.fromParameters("", "");
+
+        assertEquals(0, settings.getRollupSeconds().length);
+        assertEquals(-1, settings.getRetentionSeconds());
+    }
+
+    @Test
+    public void testFromParameters_intervalLogDisabled() {
+        HistogramLogSettings settings = HistogramLogSettings.fromParameters("60", "0");
+
+        assertFalse(settings.isIntervalLogEnabled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidResolution() {
+        new HistogramLogSettings(new int[]{60, 0}, -1);
+    }
+
+    @Test
+    public void testGetRollupSeconds_returnsCopy() {
+        HistogramLogSettings settings = HistogramLogSettings.fromParameters("60", null);
+
+        settings.getRollupSeconds()[0] = 1;
+
+        assertArrayEquals(new int[]{60}, settings.getRollupSeconds());
+    }
+}
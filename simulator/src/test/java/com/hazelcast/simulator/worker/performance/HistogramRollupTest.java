@@ -0,0 +1,114 @@
+package com.hazelcast.simulator.worker.performance;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static com.hazelcast.simulator.worker.performance.HistogramRollup.getResolution;
+import static com.hazelcast.simulator.worker.performance.HistogramRollup.getResolutionLabel;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class HistogramRollupTest {
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    private HistogramRollup rollup;
+
+    @Before
+    public void before() {
+        BufferedHistogramLogWriter writer = new BufferedHistogramLogWriter(new PrintStream(outputStream));
+        rollup = new HistogramRollup(writer, 0, 60);
+    }
+
+    @Test
+    public void testAdd_writesHistogramPerPeriod() {
+        for (int second = 0; second < 70; second += 10) {
+            rollup.add(createIntervalHistogram(second, second + 10, 2));
+        }
+        rollup.close();
+
+        HistogramLogReader reader = createReader();
+        assertHistogram(reader, 0, 60, 12);
+        assertHistogram(reader, 60, 70, 2);
+        assertNull(reader.nextIntervalHistogram());
+    }
+
+    @Test
+    public void testAdd_skipsEmptyPeriods() {
+        rollup.add(createIntervalHistogram(0, 10, 1));
+        rollup.add(createIntervalHistogram(130, 140, 3));
+        rollup.close();
+
+        HistogramLogReader reader = createReader();
+        assertHistogram(reader, 0, 10, 1);
+        assertHistogram(reader, 130, 140, 3);
+        assertNull(reader.nextIntervalHistogram());
+    }
+
+    @Test
+    public void testFlush_writesIncompletePeriod() {
+        rollup.add(createIntervalHistogram(0, 10, 1));
+        rollup.flush();
+        rollup.add(createIntervalHistogram(10, 20, 1));
+        rollup.close();
+
+        HistogramLogReader reader = createReader();
+        assertHistogram(reader, 0, 10, 1);
+        assertHistogram(reader, 10, 20, 1);
+        assertNull(reader.nextIntervalHistogram());
+    }
+
+    @Test
+    public void testClose_whenEmpty() {
+        rollup.close();
+
+        assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    public void testGetResolutionLabel() {
+        assertEquals("30s", getResolutionLabel(30));
+        assertEquals("90s", getResolutionLabel(90));
+        assertEquals("1m", getResolutionLabel(60));
+        assertEquals("10m", getResolutionLabel(600));
+        assertEquals("1h", getResolutionLabel(3600));
+        assertEquals("1d", getResolutionLabel(86400));
+    }
+
+    @Test
+    public void testGetResolution() {
+        assertEquals("1m", getResolution("MapTest-getProbe.1m.hdr"));
+        assertEquals("90s", getResolution("MapTest-getProbe.90s.hdr"));
+        assertNull(getResolution("MapTest-getProbe.hdr"));
+        assertNull(getResolution("MapTest-getProbe.hdr.1"));
+        assertNull(getResolution("MapTest-get.probe.hdr"));
+    }
+
+    private static Histogram createIntervalHistogram(int startSecond, int endSecond, int count) {
+        Histogram histogram = new Histogram(3);
+        for (int i = 1; i <= count; i++) {
+            histogram.recordValue(i * 1000);
+        }
+        histogram.setStartTimeStamp(SECONDS.toMillis(startSecond));
+        histogram.setEndTimeStamp(SECONDS.toMillis(endSecond));
+        return histogram;
+    }
+
+    private HistogramLogReader createReader() {
+        return new HistogramLogReader(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    private static void assertHistogram(HistogramLogReader reader, int startSecond, int endSecond, long totalCount) {
+        Histogram histogram = (Histogram) reader.nextIntervalHistogram();
+        assertEquals(SECONDS.toMillis(startSecond), histogram.getStartTimeStamp());
+        assertEquals(SECONDS.toMillis(endSecond), histogram.getEndTimeStamp());
+        assertEquals(totalCount, histogram.getTotalCount());
+    }
+}
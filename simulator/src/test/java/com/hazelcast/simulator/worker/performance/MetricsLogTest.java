@@ -0,0 +1,211 @@
+package com.hazelcast.simulator.worker.performance;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsLogTest {
+
+    private static final long START_MILLIS = 1500000000000L;
+    private static final double DELTA = 0.0001;
+
+    private File directory;
+    private File file;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        file = new File(directory, MetricsLog.FILE_NAME);
+    }
+
+    @After
+    public void after() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        MetricsLogWriter writer = new MetricsLogWriter(file);
+        writer.addRow(START_MILLIS);
+        writer.set("operations", 1000L);
+        writer.set("throughput", 100.5);
+        writer.addRow(START_MILLIS + 1000);
+        writer.set("operations", 900L);
+        writer.set("throughput", 90.25);
+        writer.close();
+
+        MetricsLog log = MetricsLog.read(file);
+
+        assertEquals(2, log.getRowCount());
+        assertArrayEquals(new long[]{START_MILLIS, START_MILLIS + 1000}, log.getTimestamps());
+        assertEquals(Arrays.asList("operations", "throughput"), log.getNames());
+        assertArrayEquals(new double[]{1000, 900}, log.getValues("operations"), DELTA);
+        assertArrayEquals(new double[]{100.5, 90.25}, log.getValues("throughput"), DELTA);
+        assertTrue(log.isLong("operations"));
+        assertFalse(log.isLong("throughput"));
+        assertNull(log.getValues("unknown"));
+    }
+
+    @Test
+    public void testWriteAndRead_multipleBlocks() throws Exception {
+        MetricsLogWriter writer = new MetricsLogWriter(file, 2);
+        writer.addRow(START_MILLIS);
+        writer.set("test1.operations", 10L);
+        writer.addRow(START_MILLIS + 1000);
+        writer.set("test1.operations", 20L);
+        writer.set("test2.operations", 5L);
+        // the third row starts a new block, in which test1 has completed
+        writer.addRow(START_MILLIS + 2000);
+        writer.set("test2.operations", 15L);
+        writer.close();
+
+        MetricsLog log = MetricsLog.read(file);
+
+        assertEquals(3, log.getRowCount());
+        assertArrayEquals(new double[]{10, 20, Double.NaN}, log.getValues("test1.operations"), DELTA);
+        assertArrayEquals(new double[]{Double.NaN, 5, 15}, log.getValues("test2.operations"), DELTA);
+    }
+
+    @Test
+    public void testFlush_writesIncompleteBlock() throws Exception {
+        MetricsLogWriter writer = new MetricsLogWriter(file);
+        writer.addRow(START_MILLIS);
+        writer.set("operations", 10L);
+        writer.flush();
+
+        assertEquals(1, MetricsLog.read(file).getRowCount());
+
+        writer.addRow(START_MILLIS + 1000);
+        writer.set("operations", 5L);
+        writer.close();
+
+        assertArrayEquals(new double[]{10, 5}, MetricsLog.read(file).getValues("operations"), DELTA);
+    }
+
+    @Test
+    public void testFlush_everyRow_rewritesIncompleteBlock() throws Exception {
+        File unflushedFile = new File(directory, "unflushed.bin");
+        MetricsLogWriter writer = new MetricsLogWriter(file, 2);
+        MetricsLogWriter unflushedWriter = new MetricsLogWriter(unflushedFile, 2);
+        for (int i = 0; i < 5; i++) {
+            writer.addRow(START_MILLIS + i * 1000);
+            writer.set("operations", i * 10L);
+            writer.flush();
+            unflushedWriter.addRow(START_MILLIS + i * 1000);
+            unflushedWriter.set("operations", i * 10L);
+
+            // every flushed row can be read, even before its block is full
+            MetricsLog log = MetricsLog.read(file);
+            assertEquals(i + 1, log.getRowCount());
+            assertEquals(i * 10, log.getValues("operations")[i], DELTA);
+        }
+        writer.close();
+        unflushedWriter.close();
+
+        assertArrayEquals(new double[]{0, 10, 20, 30, 40}, MetricsLog.read(file).getValues("operations"), DELTA);
+        // the incomplete blocks have been overwritten, so the flushes didn't add extra blocks
+        assertEquals(unflushedFile.length(), file.length());
+    }
+
+    @Test
+    public void testRead_incompleteBlockIsIgnored() throws Exception {
+        MetricsLogWriter writer = new MetricsLogWriter(file, 1);
+        writer.addRow(START_MILLIS);
+        writer.set("operations", 10L);
+        writer.addRow(START_MILLIS + 1000);
+        writer.set("operations", 20L);
+        writer.close();
+        truncate(file, 2);
+
+        MetricsLog log = MetricsLog.read(file);
+
+        assertEquals(1, log.getRowCount());
+        assertArrayEquals(new double[]{10}, log.getValues("operations"), DELTA);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRead_noMetricsLog() throws Exception {
+        writeText("epoch,timestamp,operations\n", file);
+
+        MetricsLog.read(file);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSet_withoutRow() {
+        MetricsLogWriter writer = new MetricsLogWriter(file);
+        try {
+            writer.set("operations", 10L);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSet_differentType() {
+        MetricsLogWriter writer = new MetricsLogWriter(file);
+        try {
+            writer.addRow(START_MILLIS);
+            writer.set("operations", 10L);
+            writer.set("operations", 10.0);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testClose_withoutRows() {
+        MetricsLogWriter writer = new MetricsLogWriter(file);
+        writer.close();
+
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testVarLong() throws Exception {
+        long[] values = {0, 1, -1, 63, -64, 300, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : values) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            MetricsLog.writeVarLong(out, MetricsLog.zigZag(value));
+            out.close();
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            assertEquals(value, MetricsLog.unZigZag(MetricsLog.readVarLong(in)));
+        }
+    }
+
+    private static void truncate(File file, int byteCount) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            in.readFully(bytes);
+        } finally {
+            in.close();
+        }
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes, 0, bytes.length - byteCount);
+        } finally {
+            out.close();
+        }
+    }
+}
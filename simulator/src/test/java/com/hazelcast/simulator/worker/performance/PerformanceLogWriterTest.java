@@ -0,0 +1,91 @@
+package com.hazelcast.simulator.worker.performance;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class PerformanceLogWriterTest {
+
+    private static final String HEADER = "epoch,timestamp,operations,operations-delta,operations/second\n";
+
+    private File directory;
+    private File file;
+    private PerformanceLogWriter writer;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        file = new File(directory, "performance.csv");
+        writer = new PerformanceLogWriter(file);
+    }
+
+    @After
+    public void after() {
+        writer.close();
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testWrite_isBufferedUntilFlush() {
+        writer.write(1500000000123L, "14/07/2017 02:40:00", 1000, 100, 99.5);
+
+        assertFalse(file.exists() && fileAsText(file).contains("1500000000.123"));
+
+        writer.flush();
+
+        assertEquals(HEADER + "1500000000.123,14/07/2017 02:40:00,1000,100,99.5\n", fileAsText(file));
+    }
+
+    @Test
+    public void testWrite_multipleLines() {
+        writer.write(1500000000000L, "t1", 1000, 1000, 1000);
+        writer.write(1500000001000L, "t2", 1500, 500, 500.1234);
+        writer.close();
+
+        assertEquals(HEADER
+                + "1500000000,t1,1000,1000,1000\n"
+                + "1500000001,t2,1500,500,500.123\n", fileAsText(file));
+    }
+
+    @Test
+    public void testWrite_afterClose() {
+        writer.write(1500000000000L, "t1", 1000, 1000, 1000);
+        writer.close();
+        writer.write(1500000001000L, "t2", 1500, 500, 500);
+
+        assertEquals(HEADER + "1500000000,t1,1000,1000,1000\n", fileAsText(file));
+    }
+
+    @Test
+    public void testFlush_whenNothingWritten() {
+        writer.flush();
+
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testAppendScaled() {
+        assertScaled("0", 0);
+        assertScaled("1", 1000);
+        assertScaled("1.5", 1500);
+        assertScaled("1.05", 1050);
+        assertScaled("1.005", 1005);
+        assertScaled("0.001", 1);
+        assertScaled("12.34", 12340);
+        assertScaled("-2.5", -2500);
+    }
+
+    private static void assertScaled(String expected, long scaledValue) {
+        StringBuilder sb = new StringBuilder();
+        PerformanceLogWriter.appendScaled(sb, scaledValue);
+        assertEquals(expected, sb.toString());
+    }
+}
@@ -3,6 +3,7 @@ package com.hazelcast.simulator.worker.performance;
 import com.hazelcast.simulator.common.TestCase;
 import com.hazelcast.simulator.common.TestPhase;
 import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.test.Gauge;
 import com.hazelcast.simulator.test.TestContext;
 import com.hazelcast.simulator.tests.DummyTest;
 import com.hazelcast.simulator.tests.SuccessTest;
@@ -15,6 +16,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -23,7 +25,12 @@ import static com.hazelcast.simulator.TestEnvironmentUtils.teardownFakeUserDir;
 import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static com.hazelcast.simulator.utils.EmptyStatement.ignore;
+import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
 import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
@@ -119,6 +126,48 @@ public class PerformanceMonitorTest {
         performanceMonitor.close();
     }
 
+    @Test
+    public void test_whenTestRunning_thenWriteGaugesToMetricsLog() {
+        performanceMonitor.start();
+
+        DummyTest test = new DummyTest();
+        TestContext testContext = addTest(test);
+        testContext.registerGauge("gauge", new Gauge() {
+            @Override
+            public double getValue() {
+                return 42;
+            }
+        });
+        testContext.registerGauge("failingGauge", new Gauge() {
+            @Override
+            public double getValue() {
+                throw new IllegalStateException("expected");
+            }
+        });
+
+        Thread runTestThread = new RunTestThread();
+        runTestThread.start();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                File file = new File(getUserDir(), MetricsLog.FILE_NAME);
+                assertTrue(file.exists());
+
+                MetricsLog metricsLog = MetricsLog.read(file);
+                double[] values = metricsLog.getValues(TEST_NAME + ".gauge");
+                assertNotNull(values);
+                assertEquals(42, values[values.length - 1], 0);
+                assertNull(metricsLog.getValues(TEST_NAME + ".failingGauge"));
+            }
+        });
+
+        testContext.stop();
+        joinThread(runTestThread);
+
+        performanceMonitor.close();
+    }
+
     private TestContext addTest(Object test) {
         return addTest(test, 0);
     }
@@ -0,0 +1,78 @@
+package com.hazelcast.simulator.worker.performance;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Pattern;
+
+import static com.hazelcast.simulator.utils.CommonUtils.await;
+import static com.hazelcast.simulator.worker.performance.StallCapture.getRunnerThreadNamePattern;
+import static com.hazelcast.simulator.worker.performance.StallCapture.getRunnerThreads;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StallCaptureTest {
+
+    @Test
+    public void testGetRunnerThreadNamePattern() {
+        Pattern pattern = getRunnerThreadNamePattern("map");
+
+        assertTrue(pattern.matcher("map-runThread-1").matches());
+        assertTrue(pattern.matcher("map-warmupThread-12").matches());
+        assertTrue(pattern.matcher("map-putGroup-runThread-3").matches());
+        assertTrue(pattern.matcher("map-Thread-1").matches());
+    }
+
+    @Test
+    public void testGetRunnerThreadNamePattern_doesNotMatchOtherTests() {
+        Pattern pattern = getRunnerThreadNamePattern("map");
+
+        assertFalse(pattern.matcher("mapfoo-runThread-1").matches());
+        assertFalse(pattern.matcher("map-foo-bar-runThread-1").matches());
+        assertFalse(pattern.matcher("map-runThread-x").matches());
+        assertFalse(pattern.matcher("map-other").matches());
+    }
+
+    @Test
+    public void testGetRunnerThreadNamePattern_quotesTestId() {
+        Pattern pattern = getRunnerThreadNamePattern("m.p");
+
+        assertTrue(pattern.matcher("m.p-runThread-1").matches());
+        assertFalse(pattern.matcher("map-runThread-1").matches());
+    }
+
+    @Test
+    public void testGetRunnerThreads_skipsThreadsOfOtherRunningTests() {
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread runnerThread = startThread("StallCaptureTest-runThread-1", latch);
+        Thread groupThread = startThread("StallCaptureTest-putGroup-runThread-1", latch);
+        Thread otherTestThread = startThread("StallCaptureTest-foo-runThread-1", latch);
+        try {
+            List<Thread> threads = getRunnerThreads("StallCaptureTest", asList("StallCaptureTest", "StallCaptureTest-foo"));
+            assertEquals(2, threads.size());
+            assertTrue(threads.contains(runnerThread));
+            assertTrue(threads.contains(groupThread));
+
+            threads = getRunnerThreads("StallCaptureTest", Collections.<String>emptyList());
+            assertEquals(3, threads.size());
+            assertTrue(threads.contains(otherTestThread));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    private static Thread startThread(String name, final CountDownLatch latch) {
+        Thread thread = new Thread(name) {
+            @Override
+            public void run() {
+                await(latch);
+            }
+        };
+        thread.start();
+        return thread;
+    }
+}
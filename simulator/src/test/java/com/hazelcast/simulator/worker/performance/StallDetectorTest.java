@@ -0,0 +1,147 @@
+package com.hazelcast.simulator.worker.performance;
+
+import com.hazelcast.simulator.utils.AssertTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.simulator.utils.CommonUtils.await;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static com.hazelcast.simulator.utils.TestUtils.createTmpDirectory;
+import static com.hazelcast.simulator.worker.performance.StallDetector.MAX_CAPTURES_PER_TEST;
+import static com.hazelcast.simulator.worker.performance.StallDetector.MIN_THROUGHPUT_INTERVALS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StallDetectorTest {
+
+    private static final String TEST_ID = "StallDetectorTest";
+    private static final int SAMPLING_PERIOD_MILLIS = 50;
+
+    private File directory;
+    private StallDetector stallDetector;
+
+    @Before
+    public void before() {
+        directory = createTmpDirectory();
+        stallDetector = new StallDetector(directory, 10, 0.5, SAMPLING_PERIOD_MILLIS);
+    }
+
+    @After
+    public void after() {
+        stallDetector.close();
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testIsEnabled() {
+        assertTrue(stallDetector.isEnabled());
+        assertFalse(new StallDetector(directory, -1, 0).isEnabled());
+    }
+
+    @Test
+    public void testCheckProgress_whenProgress() {
+        stallDetector.checkProgress(TEST_ID, 100, 0);
+        stallDetector.checkProgress(TEST_ID, 200, 9000);
+        stallDetector.checkProgress(TEST_ID, 300, 18000);
+
+        assertEquals(0, stallDetector.getCaptureCount(TEST_ID));
+    }
+
+    @Test
+    public void testCheckProgress_whenNoProgress() {
+        stallDetector.checkProgress(TEST_ID, 100, 0);
+        stallDetector.checkProgress(TEST_ID, 100, 9999);
+        assertEquals(0, stallDetector.getCaptureCount(TEST_ID));
+
+        stallDetector.checkProgress(TEST_ID, 100, 10000);
+        assertEquals(1, stallDetector.getCaptureCount(TEST_ID));
+
+        // the same stall is only captured once
+        stallDetector.checkProgress(TEST_ID, 100, 30000);
+        assertEquals(1, stallDetector.getCaptureCount(TEST_ID));
+    }
+
+    @Test
+    public void testCheckProgress_whenNoIterations_thenIgnored() {
+        stallDetector.checkProgress(TEST_ID, 0, 0);
+        stallDetector.checkProgress(TEST_ID, 0, 60000);
+
+        assertEquals(0, stallDetector.getCaptureCount(TEST_ID));
+    }
+
+    @Test
+    public void testCheckProgress_capturesAreLimited() {
+        long iterations = 100;
+        long time = 0;
+        for (int i = 0; i < MAX_CAPTURES_PER_TEST + 2; i++) {
+            stallDetector.checkProgress(TEST_ID, ++iterations, time);
+            time += 10000;
+            stallDetector.checkProgress(TEST_ID, iterations, time);
+        }
+
+        assertEquals(MAX_CAPTURES_PER_TEST, stallDetector.getCaptureCount(TEST_ID));
+    }
+
+    @Test
+    public void testCheckThroughput_whenDropped() {
+        stallDetector.checkProgress(TEST_ID, 100, 0);
+        for (int i = 0; i < MIN_THROUGHPUT_INTERVALS; i++) {
+            stallDetector.checkThroughput(TEST_ID, 1000);
+        }
+        stallDetector.checkThroughput(TEST_ID, 600);
+        assertEquals(0, stallDetector.getCaptureCount(TEST_ID));
+
+        stallDetector.checkThroughput(TEST_ID, 100);
+        stallDetector.checkThroughput(TEST_ID, 50);
+        assertEquals(1, stallDetector.getCaptureCount(TEST_ID));
+    }
+
+    @Test
+    public void testCheckThroughput_whenNotEnoughIntervals_thenIgnored() {
+        stallDetector.checkProgress(TEST_ID, 100, 0);
+        stallDetector.checkThroughput(TEST_ID, 1000);
+        stallDetector.checkThroughput(TEST_ID, 1);
+
+        assertEquals(0, stallDetector.getCaptureCount(TEST_ID));
+    }
+
+    @Test
+    public void testCapture_writesThreadDumpsAndSamples() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread runnerThread = new Thread(TEST_ID + "-runThread-1") {
+            @Override
+            public void run() {
+                await(latch);
+            }
+        };
+        runnerThread.start();
+
+        try {
+            stallDetector.checkProgress(TEST_ID, 100, 0);
+            stallDetector.checkProgress(TEST_ID, 100, 10000);
+
+            final File samplesFile = new File(directory, "stall-" + TEST_ID + "-1-samples.txt");
+            assertTrueEventually(new AssertTask() {
+                @Override
+                public void run() throws Exception {
+                    assertTrue(samplesFile.exists());
+                    assertTrue(fileAsText(samplesFile).contains("1 runner threads"));
+                }
+            });
+
+            for (int i = 1; i <= StallCapture.THREAD_DUMP_COUNT; i++) {
+                File threadDumpFile = new File(directory, "stall-" + TEST_ID + "-1-threaddump-" + i + ".txt");
+                assertTrue(fileAsText(threadDumpFile).contains(runnerThread.getName()));
+            }
+        } finally {
+            latch.countDown();
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.hazelcast.simulator.worker.testcontainer;
 
 import com.hazelcast.simulator.common.TestPhase;
+import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.test.annotations.Prepare;
 import org.junit.Test;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 
 public class TestContainer_PrepareTest extends TestContainer_AbstractTest {
 
@@ -27,12 +29,26 @@ public class TestContainer_PrepareTest extends TestContainer_AbstractTest {
 
         assertFalse(test.localPrepareCalled);
         assertTrue(test.globalPrepareCalled);
+        assertTrue(test.distributedPrepareCalled);
+    }
+
+    @Test
+    public void testGlobalWarmup_whenNotFirstWorker() throws Exception {
+        PrepareTest test = new PrepareTest();
+        testContext = new TestContextImpl("TestContainerTest", "localhost", mock(Server.class), 1, 2);
+        testContainer = createTestContainer(test);
+        testContainer.invoke(TestPhase.GLOBAL_PREPARE);
+
+        assertFalse(test.localPrepareCalled);
+        assertFalse(test.globalPrepareCalled);
+        assertTrue(test.distributedPrepareCalled);
     }
 
     private static class PrepareTest extends BaseTest {
 
         private boolean localPrepareCalled;
         private boolean globalPrepareCalled;
+        private boolean distributedPrepareCalled;
 
         @Prepare
         public void localPrepare() {
@@ -43,5 +59,10 @@ public class TestContainer_PrepareTest extends TestContainer_AbstractTest {
         public void globalPrepare() {
             globalPrepareCalled = true;
         }
+
+        @Prepare(distributed = true)
+        public void distributedPrepare() {
+            distributedPrepareCalled = true;
+        }
     }
 }
@@ -13,7 +13,12 @@ import com.hazelcast.simulator.tests.TestWithSlowSetup;
 import com.hazelcast.simulator.utils.AssertTask;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.vendors.VendorDriver;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Run;
+import com.hazelcast.simulator.test.annotations.Teardown;
 import com.hazelcast.simulator.worker.operations.CreateTestOperation;
+import com.hazelcast.simulator.worker.operations.RemoveTestOperation;
 import com.hazelcast.simulator.worker.operations.StartPhaseOperation;
 import com.hazelcast.simulator.worker.operations.StopRunOperation;
 import org.junit.After;
@@ -22,9 +27,13 @@ import org.junit.Test;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.setupFakeUserDir;
 import static com.hazelcast.simulator.TestEnvironmentUtils.teardownFakeUserDir;
+import static com.hazelcast.simulator.common.TestPhase.GLOBAL_PREPARE;
+import static com.hazelcast.simulator.common.TestPhase.GLOBAL_TEARDOWN;
+import static com.hazelcast.simulator.common.TestPhase.LOCAL_PREPARE;
 import static com.hazelcast.simulator.common.TestPhase.LOCAL_TEARDOWN;
 import static com.hazelcast.simulator.common.TestPhase.RUN;
 import static com.hazelcast.simulator.common.TestPhase.SETUP;
@@ -51,6 +60,8 @@ public class TestManagerTest {
         vendorDriver = mock(VendorDriver.class);
         when(vendorDriver.getInstance()).thenReturn(mock(HazelcastInstance.class));
         manager = new TestManager(server, vendorDriver);
+        ReuseDataTest.PREPARE_COUNT.set(0);
+        ReuseDataTest.TEARDOWN_COUNT.set(0);
     }
 
     @After
@@ -70,6 +81,19 @@ public class TestManagerTest {
         assertEquals(1, containers.size());
     }
 
+    @Test
+    public void test_createTest_withWorkerIndex() {
+        TestCase testCase = new TestCase("foo")
+                .setProperty("class", SuccessTest.class);
+        CreateTestOperation op = new CreateTestOperation(testCase, 2, 3);
+
+        manager.createTest(op);
+
+        TestContext testContext = manager.getContainers().iterator().next().getTestContext();
+        assertEquals(2, testContext.getWorkerIndex());
+        assertEquals(3, testContext.getWorkerCount());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void test_createTest_whenTestExist() {
         TestCase testCase = new TestCase("foo")
@@ -231,4 +255,112 @@ public class TestManagerTest {
     public void test_startTestPhase_whenNonExistingTest() throws Exception {
         manager.startTestPhase(new StartPhaseOperation(SETUP, "foo"), mock(Promise.class));
     }
+
+    @Test
+    public void test_removeTest() throws Exception {
+        TestCase testCase = new TestCase("foo")
+                .setProperty("class", SuccessTest.class);
+        CreateTestOperation op = new CreateTestOperation(testCase);
+
+        manager.createTest(op);
+        manager.removeTest(new RemoveTestOperation("foo"));
+
+        assertEquals(0, manager.getContainers().size());
+
+        // an aborted test can be created again on the same Worker
+        manager.createTest(op);
+        assertEquals(1, manager.getContainers().size());
+    }
+
+    @Test
+    public void test_removeTest_whenNonExistingTest() {
+        manager.removeTest(new RemoveTestOperation("foo"));
+
+        assertEquals(0, manager.getContainers().size());
+    }
+
+    @Test
+    public void test_reuseData() throws Exception {
+        runPreparesAndTeardown(reuseDataTestCase("foo", true));
+        assertEquals(2, ReuseDataTest.PREPARE_COUNT.get());
+        assertEquals(0, ReuseDataTest.TEARDOWN_COUNT.get());
+
+        // the next run of the test reuses the data, so the prepare phases are skipped
+        runPreparesAndTeardown(reuseDataTestCase("foo__1", true));
+        assertEquals(2, ReuseDataTest.PREPARE_COUNT.get());
+        assertEquals(0, ReuseDataTest.TEARDOWN_COUNT.get());
+
+        // without reuseData the test prepares and tears down its data
+        runPreparesAndTeardown(reuseDataTestCase("foo__2", false));
+        assertEquals(2, ReuseDataTest.PREPARE_COUNT.get());
+        assertEquals(2, ReuseDataTest.TEARDOWN_COUNT.get());
+
+        // so there is no data left to reuse
+        runPreparesAndTeardown(reuseDataTestCase("foo__3", true));
+        assertEquals(4, ReuseDataTest.PREPARE_COUNT.get());
+        assertEquals(2, ReuseDataTest.TEARDOWN_COUNT.get());
+    }
+
+    @Test
+    public void test_reuseData_whenTestRemoved() throws Exception {
+        runPreparesAndTeardown(reuseDataTestCase("foo", true));
+
+        manager.createTest(new CreateTestOperation(reuseDataTestCase("foo__1", true)));
+        manager.removeTest(new RemoveTestOperation("foo__1"));
+
+        // the aborted test may have left inconsistent data, so it's prepared again
+        runPreparesAndTeardown(reuseDataTestCase("foo__2", true));
+        assertEquals(4, ReuseDataTest.PREPARE_COUNT.get());
+    }
+
+    private static TestCase reuseDataTestCase(String testId, boolean reuseData) {
+        return new TestCase(testId)
+                .setProperty("class", ReuseDataTest.class)
+                .setProperty("reuseData", reuseData);
+    }
+
+    private void runPreparesAndTeardown(TestCase testCase) throws Exception {
+        manager.createTest(new CreateTestOperation(testCase));
+        for (TestPhase testPhase : new TestPhase[]{LOCAL_PREPARE, GLOBAL_PREPARE, GLOBAL_TEARDOWN, LOCAL_TEARDOWN}) {
+            StubPromise promise = new StubPromise();
+            manager.startTestPhase(new StartPhaseOperation(testPhase, testCase.getId()), promise);
+            promise.assertCompletesEventually();
+        }
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(0, manager.getContainers().size());
+            }
+        });
+    }
+
+    public static class ReuseDataTest {
+
+        static final AtomicInteger PREPARE_COUNT = new AtomicInteger();
+        static final AtomicInteger TEARDOWN_COUNT = new AtomicInteger();
+
+        @Prepare(global = false)
+        public void localPrepare() {
+            PREPARE_COUNT.incrementAndGet();
+        }
+
+        @Prepare(global = true)
+        public void globalPrepare() {
+            PREPARE_COUNT.incrementAndGet();
+        }
+
+        @Run
+        public void run() {
+        }
+
+        @Teardown(global = false)
+        public void localTearDown() {
+            TEARDOWN_COUNT.incrementAndGet();
+        }
+
+        @Teardown(global = true)
+        public void globalTearDown() {
+            TEARDOWN_COUNT.incrementAndGet();
+        }
+    }
 }
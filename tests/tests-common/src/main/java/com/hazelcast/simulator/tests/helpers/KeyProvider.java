@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.PartitionService;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.simulator.tests.helpers.KeyUtils.getTargetPartitions;
+import static com.hazelcast.simulator.utils.Preconditions.checkPositive;
+import static java.lang.String.format;
+
+/**
+ * Provides keys with a configurable {@link KeyLocality}, which are derived from an index in the range <tt>[0, keyCount)</tt>.
+ *
+ * In contrast to the key arrays of {@link KeyUtils}, the keys are not stored. A key is created from an int value, which is
+ * derived from the index:
+ * <ol>
+ * <li>SHARED: the value is the index, so all Workers use the same keys</li>
+ * <li>SINGLE_PARTITION: the value is always 0</li>
+ * <li>LOCAL, REMOTE and RANDOM: the values are scanned once from a seeded random offset and only the values whose key is
+ * mapped to one of the target partitions are taken, until every partition has its share of the keys. The taken values are
+ * stored as bit mask per block of 64 values.</li>
+ * </ol>
+ *
+ * The bit masks cost about 12 bytes per 64 <em>scanned</em> values plus 4 bytes per 64 keys. The number of scanned values is
+ * about <tt>keyCount * partitionCount / targetPartitionCount</tt>. For RANDOM this is keyCount, but for LOCAL it's about
+ * <tt>keyCount * memberCount</tt>, so on a cluster with more than about 20 members a LOCAL KeyProvider needs more memory
+ * than a plain <tt>int[]</tt> of the keys (which is still less than an object per key).
+ *
+ * A KeyProvider is immutable after construction, so it can be shared by all threads of a test.
+ *
+ * @param <K> the type of the keys
+ */
+public final class KeyProvider<K> {
+
+    static final KeyFormat<Integer> INT_KEYS = new KeyFormat<Integer>() {
+        @Override
+        public Integer toKey(int value) {
+            return value;
+        }
+
+        @Override
+        public int getMaxValue() {
+            return Integer.MAX_VALUE;
+        }
+    };
+
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final int DECIMAL_BASE = 10;
+
+    private final KeyFormat<K> keyFormat;
+    private final KeyLocality keyLocality;
+    private final int keyCount;
+    private final int offset;
+
+    // the values which have been taken per block, only used for partition-aware key localities
+    private final long[] blockMasks;
+    // the number of keys in all blocks before a block, only used for partition-aware key localities
+    private final int[] keysBeforeBlock;
+    // the block which contains the key with index (i << BLOCK_SHIFT), only used for partition-aware key localities
+    private final int[] blockOfKeyGroup;
+
+    KeyProvider(KeyFormat<K> keyFormat, int keyCount, KeyLocality keyLocality, HazelcastInstance hz, Random random) {
+        this.keyFormat = keyFormat;
+        this.keyLocality = keyLocality;
+        this.keyCount = checkPositive(keyCount, "keyCount");
+
+        switch (keyLocality) {
+            case SHARED:
+            case SINGLE_PARTITION:
+                this.offset = 0;
+                this.blockMasks = null;
+                this.keysBeforeBlock = null;
+                this.blockOfKeyGroup = null;
+                break;
+            default:
+                this.offset = randomOffset(keyFormat, random);
+                PartitionMapping mapping = new PartitionMapping(keyFormat, keyCount, keyLocality, hz, offset);
+                this.blockMasks = mapping.blockMasks;
+                this.keysBeforeBlock = mapping.keysBeforeBlock;
+                this.blockOfKeyGroup = mapping.blockOfKeyGroup;
+        }
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public KeyLocality getKeyLocality() {
+        return keyLocality;
+    }
+
+    /**
+     * Returns the key for an index.
+     *
+     * @param index the index of the key in the range <tt>[0, keyCount)</tt>
+     * @return the key
+     */
+    public K getKey(int index) {
+        return keyFormat.toKey(getValue(index));
+    }
+
+    int getValue(int index) {
+        if (index < 0 || index >= keyCount) {
+            throw new IndexOutOfBoundsException(format("index %d is not in the range [0, %d)", index, keyCount));
+        }
+
+        switch (keyLocality) {
+            case SHARED:
+                return index;
+            case SINGLE_PARTITION:
+                return 0;
+            default:
+                int block = findBlock(index);
+                long mask = blockMasks[block];
+                for (int i = index - keysBeforeBlock[block]; i > 0; i--) {
+                    // clear the lowest taken value
+                    mask &= mask - 1;
+                }
+                return offset + (block << BLOCK_SHIFT) + Long.numberOfTrailingZeros(mask);
+        }
+    }
+
+    private int findBlock(int index) {
+        // start at the block of the first key in the group of this index, the key is at most a few blocks further
+        int block = blockOfKeyGroup[index >>> BLOCK_SHIFT];
+        while (block + 1 < keysBeforeBlock.length && keysBeforeBlock[block + 1] <= index) {
+            block++;
+        }
+        return block;
+    }
+
+    /**
+     * Returns a random offset in the lower half of the values of the key format, so enough values are left to find the keys.
+     */
+    static int randomOffset(KeyFormat<?> keyFormat, Random random) {
+        return random.nextInt(keyFormat.getMaxValue() / 2 + 1);
+    }
+
+    /**
+     * Creates the key of type K for an int value.
+     *
+     * @param <K> the type of the keys
+     */
+    interface KeyFormat<K> {
+
+        K toKey(int value);
+
+        /**
+         * Returns the largest value which can be converted to a key without exceeding the key length.
+         */
+        int getMaxValue();
+    }
+
+    /**
+     * Creates string keys with a prefix, followed by the value padded with zeros to the key length.
+     */
+    static final class StringKeyFormat implements KeyFormat<String> {
+
+        private final String prefix;
+        private final int keyLength;
+
+        private final int maxValue;
+
+        StringKeyFormat(String prefix, int keyLength) {
+            if (keyLength <= prefix.length()) {
+                throw new IllegalArgumentException(format("keyLength %d has to be larger than the length %d of the prefix '%s'",
+                        keyLength, prefix.length(), prefix));
+            }
+            this.prefix = prefix;
+            this.keyLength = keyLength;
+
+            long maxValue = 0;
+            for (int digits = keyLength - prefix.length(); digits > 0 && maxValue < Integer.MAX_VALUE; digits--) {
+                maxValue = maxValue * DECIMAL_BASE + DECIMAL_BASE - 1;
+            }
+            this.maxValue = (int) Math.min(Integer.MAX_VALUE, maxValue);
+        }
+
+        @Override
+        public int getMaxValue() {
+            return maxValue;
+        }
+
+        @Override
+        public String toKey(int value) {
+            String digits = String.valueOf(value);
+            StringBuilder sb = new StringBuilder(Math.max(keyLength, prefix.length() + digits.length()));
+            sb.append(prefix);
+            for (int i = prefix.length() + digits.length(); i < keyLength; i++) {
+                sb.append('0');
+            }
+            return sb.append(digits).toString();
+        }
+    }
+
+    /**
+     * Scans the values from the offset and takes the values whose key is mapped to a target partition.
+     */
+    private static final class PartitionMapping {
+
+        private long[] blockMasks;
+        private int[] keysBeforeBlock;
+        private final int[] blockOfKeyGroup;
+
+        private <K> PartitionMapping(KeyFormat<K> keyFormat, int keyCount, KeyLocality keyLocality, HazelcastInstance hz,
+                                     int offset) {
+            PartitionService partitionService = hz.getPartitionService();
+            Set<Integer> targetPartitions = getTargetPartitions(hz, keyLocality);
+            int partitionCount = partitionService.getPartitions().size();
+            int maxKeysPerPartition = (int) Math.ceil(keyCount / (float) targetPartitions.size());
+
+            int[] remainingKeysPerPartition = new int[partitionCount];
+            for (Integer partitionId : targetPartitions) {
+                remainingKeysPerPartition[partitionId] = maxKeysPerPartition;
+            }
+
+            long expectedValues = (long) keyCount * partitionCount / targetPartitions.size();
+            int capacity = (int) Math.min(Integer.MAX_VALUE, (expectedValues >> BLOCK_SHIFT) + 1);
+            keysBeforeBlock = new int[capacity];
+            blockMasks = new long[capacity];
+            blockOfKeyGroup = new int[((keyCount - 1) >>> BLOCK_SHIFT) + 1];
+
+            int keys = 0;
+            int block = 0;
+            PartitionLookup partitionLookup = new PartitionLookup(partitionService, keyFormat);
+            try {
+                long chunkStart = offset;
+                while (keys < keyCount) {
+                    int chunkSize = (int) Math.min(partitionLookup.getChunkSize(), keyFormat.getMaxValue() - chunkStart + 1);
+                    if (chunkSize <= 0) {
+                        throw new IllegalStateException(format("Could only find %d of %d keys for keyLocality %s,"
+                                + " the key length is too short for the number of keys", keys, keyCount, keyLocality));
+                    }
+                    int[] partitionIds = partitionLookup.lookup(chunkStart, chunkSize);
+
+                    for (int i = 0; i < chunkSize && keys < keyCount; i++) {
+                        int relativeValue = (int) (chunkStart + i - offset);
+                        block = relativeValue >>> BLOCK_SHIFT;
+                        if ((relativeValue & BLOCK_MASK) == 0) {
+                            ensureCapacity(block + 1);
+                            keysBeforeBlock[block] = keys;
+                        }
+
+                        int partitionId = partitionIds[i];
+                        if (remainingKeysPerPartition[partitionId] > 0) {
+                            remainingKeysPerPartition[partitionId]--;
+                            if ((keys & BLOCK_MASK) == 0) {
+                                blockOfKeyGroup[keys >>> BLOCK_SHIFT] = block;
+                            }
+                            blockMasks[block] |= 1L << (relativeValue & BLOCK_MASK);
+                            keys++;
+                        }
+                    }
+                    chunkStart += chunkSize;
+                }
+            } finally {
+                partitionLookup.shutdown();
+            }
+
+            keysBeforeBlock = Arrays.copyOf(keysBeforeBlock, block + 1);
+            blockMasks = Arrays.copyOf(blockMasks, block + 1);
+        }
+
+        private void ensureCapacity(int blockCount) {
+            if (blockCount > blockMasks.length) {
+                int newCapacity = Math.max(blockCount, blockMasks.length + (blockMasks.length >> 1));
+                keysBeforeBlock = Arrays.copyOf(keysBeforeBlock, newCapacity);
+                blockMasks = Arrays.copyOf(blockMasks, newCapacity);
+            }
+        }
+    }
+}
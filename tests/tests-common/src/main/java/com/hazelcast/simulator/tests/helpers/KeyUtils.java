@@ -20,6 +20,7 @@ import com.hazelcast.core.Member;
 import com.hazelcast.core.Partition;
 import com.hazelcast.core.PartitionService;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -56,14 +57,8 @@ public final class KeyUtils {
         return owner.equals(instance.getLocalEndpoint());
     }
 
-    private static KeyGenerator<Integer> newIntKeyGenerator(HazelcastInstance hz, KeyLocality keyLocality, int keyCount) {
+    private static KeyGenerator<Integer> newIntKeyGenerator(KeyLocality keyLocality) {
         switch (keyLocality) {
-            case LOCAL:
-                return new BalancedIntKeyGenerator(hz, keyLocality, keyCount);
-            case REMOTE:
-                return new BalancedIntKeyGenerator(hz, keyLocality, keyCount);
-            case RANDOM:
-                return new BalancedIntKeyGenerator(hz, keyLocality, keyCount);
             case SINGLE_PARTITION:
                 return new SinglePartitionIntKeyGenerator();
             default:
@@ -98,7 +93,15 @@ public final class KeyUtils {
      * @return the created array of keys
      */
     public static int[] generateIntKeys(int keyCount, KeyLocality keyLocality, HazelcastInstance hz) {
-        KeyGenerator<Integer> keyGenerator = newIntKeyGenerator(hz, keyLocality, keyCount);
+        if (isPartitionAware(keyLocality)) {
+            int[] keys = generateBalancedValues(hz, keyLocality, keyCount, KeyProvider.INT_KEYS);
+            if (keys == null) {
+                throw new IllegalStateException(format("Could not find %d keys for keyLocality %s", keyCount, keyLocality));
+            }
+            return keys;
+        }
+
+        KeyGenerator<Integer> keyGenerator = newIntKeyGenerator(keyLocality);
 
         int[] keys = new int[keyCount];
         for (int i = 0; i < keys.length; i++) {
@@ -118,11 +121,11 @@ public final class KeyUtils {
      * @return the created array of keys
      */
     public static Integer[] generateIntegerKeys(int keyCount, KeyLocality keyLocality, HazelcastInstance hz) {
-        KeyGenerator<Integer> keyGenerator = newIntKeyGenerator(hz, keyLocality, keyCount);
+        int[] values = generateIntKeys(keyCount, keyLocality, hz);
 
         Integer[] keys = new Integer[keyCount];
         for (int i = 0; i < keys.length; i++) {
-            keys[i] = keyGenerator.next();
+            keys[i] = values[i];
         }
         return keys;
     }
@@ -185,9 +188,19 @@ public final class KeyUtils {
      */
     public static String[] generateStringKeys(String prefix, int keyCount, int keyLength, KeyLocality keyLocality,
                                               HazelcastInstance hz) {
-
-
         String[] keys = new String[keyCount];
+        if (isPartitionAware(keyLocality)) {
+            KeyProvider.KeyFormat<String> keyFormat = new KeyProvider.StringKeyFormat(prefix, keyLength);
+            int[] values = generateBalancedValues(hz, keyLocality, keyCount, keyFormat);
+            if (values != null) {
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = keyFormat.toKey(values[i]);
+                }
+                return keys;
+            }
+            // there are not enough numbers with the given key length, but random characters have a much larger range
+        }
+
         KeyGenerator<String> keyGenerator = newStringKeyGenerator(hz, keyLocality, keyCount, keyLength, prefix);
         for (int i = 0; i < keys.length; i++) {
             keys[i] = keyGenerator.next();
@@ -196,6 +209,176 @@ public final class KeyUtils {
         return keys;
     }
 
+    /**
+     * Creates a {@link KeyProvider} for int keys with a configurable keyLocality.
+     *
+     * In contrast to {@link #generateIntKeys(int, KeyLocality, HazelcastInstance)} the keys are not stored, but derived from
+     * their index. If the instance is a client, keyLocality is ignored. The same seed results in the same keys for the same
+     * cluster, so runs can be compared.
+     *
+     * @param keyCount    the number of keys
+     * @param keyLocality if the key is local/remote/random
+     * @param hz          the HazelcastInstance that is used for keyLocality
+     * @param seed        the seed for the random offset of the partition-aware keys
+     * @return the created {@link KeyProvider}
+     */
+    public static KeyProvider<Integer> newIntKeyProvider(int keyCount, KeyLocality keyLocality, HazelcastInstance hz,
+                                                         long seed) {
+        return new KeyProvider<Integer>(KeyProvider.INT_KEYS, keyCount, keyLocality, hz, new Random(seed));
+    }
+
+    /**
+     * Creates a {@link KeyProvider} for string keys with a configurable keyLocality.
+     *
+     * In contrast to {@link #generateStringKeys(String, int, int, KeyLocality, HazelcastInstance)} the keys are not stored, but
+     * derived from their index. If the instance is a client, keyLocality is ignored. The same seed results in the same keys for
+     * the same cluster, so runs can be compared.
+     *
+     * @param prefix      prefix for the keys
+     * @param keyCount    the number of keys
+     * @param keyLength   the length of each string key
+     * @param keyLocality if the key is local/remote/random
+     * @param hz          the HazelcastInstance that is used for keyLocality
+     * @param seed        the seed for the random offset of the partition-aware keys
+     * @return the created {@link KeyProvider}
+     */
+    public static KeyProvider<String> newStringKeyProvider(String prefix, int keyCount, int keyLength, KeyLocality keyLocality,
+                                                           HazelcastInstance hz, long seed) {
+        KeyProvider.KeyFormat<String> keyFormat = new KeyProvider.StringKeyFormat(prefix, keyLength);
+        return new KeyProvider<String>(keyFormat, keyCount, keyLocality, hz, new Random(seed));
+    }
+
+    private static boolean isPartitionAware(KeyLocality keyLocality) {
+        return keyLocality == KeyLocality.LOCAL || keyLocality == KeyLocality.REMOTE || keyLocality == KeyLocality.RANDOM;
+    }
+
+    /**
+     * Generates the values of balanced keys for the partitions of the given keyLocality.
+     *
+     * First a pool of values is filled per target partition, by scanning the values from a random offset. The partitions of
+     * the scanned values are looked up in parallel, which is the expensive part. Then the keys are taken round robin from the
+     * pools, so consecutive keys are owned by different partitions.
+     *
+     * @return the values of the keys, or {@code null} if the key format has not enough values to find the keys
+     */
+    private static int[] generateBalancedValues(HazelcastInstance hz, KeyLocality keyLocality, int keyCount,
+                                                KeyProvider.KeyFormat<?> keyFormat) {
+        PartitionService partitionService = hz.getPartitionService();
+        Set<Integer> targetPartitions = getTargetPartitions(hz, keyLocality);
+        int poolCount = targetPartitions.size();
+        int keysPerPartition = (int) Math.ceil(keyCount / (float) poolCount);
+
+        int[] poolOfPartition = new int[partitionService.getPartitions().size()];
+        Arrays.fill(poolOfPartition, -1);
+        int poolIndex = 0;
+        for (Integer partitionId : targetPartitions) {
+            poolOfPartition[partitionId] = poolIndex++;
+        }
+
+        int[][] pools = new int[poolCount][keysPerPartition];
+        int[] poolSizes = new int[poolCount];
+        int fullPools = 0;
+
+        PartitionLookup partitionLookup = new PartitionLookup(partitionService, keyFormat);
+        try {
+            long chunkStart = KeyProvider.randomOffset(keyFormat, new Random());
+            while (fullPools < poolCount) {
+                int chunkSize = (int) Math.min(partitionLookup.getChunkSize(), keyFormat.getMaxValue() - chunkStart + 1);
+                if (chunkSize <= 0) {
+                    return null;
+                }
+                int[] partitionIds = partitionLookup.lookup(chunkStart, chunkSize);
+
+                for (int i = 0; i < chunkSize; i++) {
+                    int pool = poolOfPartition[partitionIds[i]];
+                    if (pool != -1 && poolSizes[pool] < keysPerPartition) {
+                        pools[pool][poolSizes[pool]++] = (int) (chunkStart + i);
+                        if (poolSizes[pool] == keysPerPartition) {
+                            fullPools++;
+                        }
+                    }
+                }
+                chunkStart += chunkSize;
+            }
+        } finally {
+            partitionLookup.shutdown();
+        }
+
+        int[] values = new int[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            values[i] = pools[i % poolCount][i / poolCount];
+        }
+        return values;
+    }
+
+    /**
+     * Returns the IDs of the partitions which match the given keyLocality.
+     *
+     * If the instance is a client, keyLocality is ignored and all partitions are returned.
+     *
+     * @param hz          the HazelcastInstance that is used for keyLocality
+     * @param keyLocality LOCAL, REMOTE or RANDOM
+     * @return the set of partition IDs
+     */
+    static Set<Integer> getTargetPartitions(HazelcastInstance hz, KeyLocality keyLocality) {
+        PartitionService partitionService = hz.getPartitionService();
+        Set<Integer> targetPartitions = new HashSet<Integer>();
+        Member localMember = getLocalMember(hz);
+
+        switch (keyLocality) {
+            case LOCAL:
+                for (Partition partition : partitionService.getPartitions()) {
+                    if (localMember == null || localMember.equals(partition.getOwner())) {
+                        targetPartitions.add(partition.getPartitionId());
+                    }
+                }
+                break;
+            case REMOTE:
+                for (Partition partition : partitionService.getPartitions()) {
+                    if (localMember == null || !localMember.equals(partition.getOwner())) {
+                        targetPartitions.add(partition.getPartitionId());
+                    }
+                }
+                break;
+            case RANDOM:
+                for (Partition partition : partitionService.getPartitions()) {
+                    targetPartitions.add(partition.getPartitionId());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported keyLocality: " + keyLocality);
+        }
+
+        verifyHasPartitions(partitionService, targetPartitions);
+
+        return targetPartitions;
+    }
+
+    private static void verifyHasPartitions(PartitionService partitionService, Set<Integer> targetPartitions) {
+        if (targetPartitions.isEmpty()) {
+            Map<Member, Integer> partitionsPerMember = new HashMap<Member, Integer>();
+            for (Partition partition : partitionService.getPartitions()) {
+                Member owner = partition.getOwner();
+                if (owner == null) {
+                    throw new IllegalStateException("Owner is null for partition: " + partition);
+                }
+                Integer value = partitionsPerMember.get(owner);
+                Integer result = value == null ? 1 : value + 1;
+                partitionsPerMember.put(owner, result);
+            }
+            throw new IllegalStateException("No partitions found, partitionsPerMember: " + partitionsPerMember);
+        }
+    }
+
+    private static Member getLocalMember(HazelcastInstance hz) {
+        try {
+            return hz.getCluster().getLocalMember();
+        } catch (UnsupportedOperationException ignore) {
+            // clients throw UnsupportedOperationExceptions
+            return null;
+        }
+    }
+
     interface KeyGenerator<K> {
         K next();
     }
@@ -209,17 +392,15 @@ public final class KeyUtils {
         private final Set<K>[] keysPerPartition;
         private final PartitionService partitionService;
         private final int maxKeysPerPartition;
-        private final KeyLocality keyLocality;
 
         @SuppressWarnings("unchecked")
         BalancedKeyGenerator(HazelcastInstance hz, KeyLocality keyLocality, int keyCount) {
             this.hz = hz;
-            this.keyLocality = keyLocality;
             this.keyCount = keyCount;
 
             this.partitionService = hz.getPartitionService();
 
-            Set<Integer> targetPartitions = getTargetPartitions();
+            Set<Integer> targetPartitions = getTargetPartitions(hz, keyLocality);
             this.maxKeysPerPartition = (int) Math.ceil(keyCount / (float) targetPartitions.size());
 
             int partitionCount = partitionService.getPartitions().size();
@@ -255,64 +436,6 @@ public final class KeyUtils {
         }
 
         protected abstract K generateKey();
-
-        private Set<Integer> getTargetPartitions() {
-            Set<Integer> targetPartitions = new HashSet<Integer>();
-            Member localMember = getLocalMember(hz);
-
-            switch (keyLocality) {
-                case LOCAL:
-                    for (Partition partition : partitionService.getPartitions()) {
-                        if (localMember == null || localMember.equals(partition.getOwner())) {
-                            targetPartitions.add(partition.getPartitionId());
-                        }
-                    }
-                    break;
-                case REMOTE:
-                    for (Partition partition : partitionService.getPartitions()) {
-                        if (localMember == null || !localMember.equals(partition.getOwner())) {
-                            targetPartitions.add(partition.getPartitionId());
-                        }
-                    }
-                    break;
-                case RANDOM:
-                    for (Partition partition : partitionService.getPartitions()) {
-                        targetPartitions.add(partition.getPartitionId());
-                    }
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unsupported keyLocality: " + keyLocality);
-            }
-
-            verifyHasPartitions(targetPartitions);
-
-            return targetPartitions;
-        }
-
-        private void verifyHasPartitions(Set<Integer> targetPartitions) {
-            if (targetPartitions.isEmpty()) {
-                Map<Member, Integer> partitionsPerMember = new HashMap<Member, Integer>();
-                for (Partition partition : partitionService.getPartitions()) {
-                    Member owner = partition.getOwner();
-                    if (owner == null) {
-                        throw new IllegalStateException("Owner is null for partition: " + partition);
-                    }
-                    Integer value = partitionsPerMember.get(owner);
-                    Integer result = value == null ? 1 : value + 1;
-                    partitionsPerMember.put(owner, result);
-                }
-                throw new IllegalStateException("No partitions found, partitionsPerMember: " + partitionsPerMember);
-            }
-        }
-
-        private Member getLocalMember(HazelcastInstance hz) {
-            try {
-                return hz.getCluster().getLocalMember();
-            } catch (UnsupportedOperationException ignore) {
-                // clients throw UnsupportedOperationExceptions
-                return null;
-            }
-        }
     }
 
     private static final class SharedIntKeyGenerator implements KeyGenerator<Integer> {
@@ -335,18 +458,6 @@ public final class KeyUtils {
         }
     }
 
-    private static final class BalancedIntKeyGenerator extends BalancedKeyGenerator<Integer> {
-
-        private BalancedIntKeyGenerator(HazelcastInstance hz, KeyLocality keyLocality, int keyCount) {
-            super(hz, keyLocality, keyCount);
-        }
-
-        @Override
-        protected Integer generateKey() {
-            return random.nextInt(Integer.MAX_VALUE);
-        }
-    }
-
     private static final class BalancedStringKeyGenerator extends BalancedKeyGenerator<String> {
 
         private final int keyLength;
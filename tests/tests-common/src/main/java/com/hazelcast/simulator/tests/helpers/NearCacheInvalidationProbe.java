@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceAware;
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.simulator.test.TestContext;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.simulator.tests.icache.helpers.CacheUtils.getCache;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures the invalidation propagation delay of a client near cache, which is the time from a member-side write of a
+ * key to the eviction of that key from the near cache of the client.
+ *
+ * Every probe owns a probe key, so every invalidation thread needs its own instance. A probe first reads its key, so the
+ * current value is in the near cache. Then the key is written by an executor task on the owning member, so the write
+ * doesn't touch the near cache of the client, and the key is read every poll interval until the new value is seen. The
+ * delay is measured from the submit of the write, so an invalidation which arrives before the write has returned is not
+ * missed; it includes the time to send the write to the member.
+ *
+ * The polling reads are served by the near cache until the invalidation arrives, so they count as near cache hits.
+ */
+public abstract class NearCacheInvalidationProbe {
+
+    private static final int MAX_PROBES_PER_WORKER = 1000;
+    private static final int VERSION_BYTES = 8;
+
+    private final ILogger logger;
+    private final IExecutorService executor;
+    private final String name;
+    private final int key;
+    private final long pollNanos;
+    private final int timeoutSeconds;
+
+    private long version;
+
+    /**
+     * Creates a new probe.
+     *
+     * @param testContext    the {@link TestContext} of the test, used to create a probe key which is unique per Worker
+     * @param probeIndex     the index of the probe on this Worker
+     * @param logger         the {@link ILogger} to log timeouts to
+     * @param executor       the {@link IExecutorService} to run the member-side writes
+     * @param name           the name of the near cached data structure
+     * @param pollMicros     the interval to read the probe key until the new value is seen
+     * @param timeoutSeconds the time to wait for the invalidation
+     */
+    protected NearCacheInvalidationProbe(TestContext testContext, int probeIndex, ILogger logger, IExecutorService executor,
+                                         String name, int pollMicros, int timeoutSeconds) {
+        if (probeIndex >= MAX_PROBES_PER_WORKER) {
+            throw new IllegalArgumentException(format("There can't be more than %d invalidation probes per Worker",
+                    MAX_PROBES_PER_WORKER));
+        }
+        this.logger = logger;
+        this.executor = executor;
+        this.name = name;
+        // the probe keys are negative, so they don't collide with the keys of the test
+        this.key = -1 - (testContext.getWorkerIndex() * MAX_PROBES_PER_WORKER + probeIndex);
+        this.pollNanos = MICROSECONDS.toNanos(pollMicros);
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Reads the probe key from the near cached data structure.
+     *
+     * @param key the probe key
+     * @return the value of the probe key or {@code null} if it doesn't exist
+     */
+    protected abstract byte[] get(int key);
+
+    /**
+     * Writes the probe key from the client.
+     *
+     * @param key   the probe key
+     * @param value the value to write
+     */
+    protected abstract void put(int key, byte[] value);
+
+    /**
+     * Creates the executor task which writes the probe key on the member.
+     *
+     * @param key   the probe key
+     * @param value the value to write
+     * @return the task
+     */
+    protected abstract Callable<Object> newMemberSideWrite(int key, byte[] value);
+
+    /**
+     * Writes the initial value of the probe key.
+     */
+    public void init() {
+        put(key, toValue(version));
+    }
+
+    /**
+     * Runs a single probe.
+     *
+     * @return the invalidation delay in nanoseconds or <tt>-1</tt> if the key was not invalidated within the timeout
+     * @throws Exception if the member-side write has failed
+     */
+    public long run() throws Exception {
+        // makes sure the current value of the probe key is in the near cache
+        get(key);
+
+        long newVersion = ++version;
+        long startNanos = System.nanoTime();
+        Future<Object> future = executor.submitToKeyOwner(newMemberSideWrite(key, toValue(newVersion)), key);
+
+        long deadlineNanos = startNanos + SECONDS.toNanos(timeoutSeconds);
+        while (toVersion(get(key)) != newVersion) {
+            if (System.nanoTime() > deadlineNanos) {
+                future.get();
+                logger.warning(format("%s probe key %d was not invalidated within %d seconds",
+                        name, key, timeoutSeconds));
+                return -1;
+            }
+            sleepNanos(pollNanos);
+        }
+        long delayNanos = System.nanoTime() - startNanos;
+
+        // surfaces a failed write
+        future.get();
+        return delayNanos;
+    }
+
+    int getKey() {
+        return key;
+    }
+
+    static byte[] toValue(long version) {
+        return ByteBuffer.allocate(VERSION_BYTES).putLong(version).array();
+    }
+
+    static long toVersion(byte[] value) {
+        return value == null ? -1 : ByteBuffer.wrap(value).getLong();
+    }
+
+    /**
+     * Creates a member-side write of a probe key to an {@link com.hazelcast.core.IMap}.
+     *
+     * @param mapName the name of the map
+     * @param key     the probe key
+     * @param value   the value to write
+     * @return the task
+     */
+    public static Callable<Object> newMapWrite(String mapName, int key, byte[] value) {
+        return new MemberSideWrite(mapName, false, key, value);
+    }
+
+    /**
+     * Creates a member-side write of a probe key to an {@link com.hazelcast.cache.ICache}.
+     *
+     * @param cacheName the name of the cache
+     * @param key       the probe key
+     * @param value     the value to write
+     * @return the task
+     */
+    public static Callable<Object> newCacheWrite(String cacheName, int key, byte[] value) {
+        return new MemberSideWrite(cacheName, true, key, value);
+    }
+
+    private static final class MemberSideWrite implements Callable<Object>, HazelcastInstanceAware, Serializable {
+
+        private static final long serialVersionUID = -3414567372948113720L;
+
+        private final String name;
+        private final boolean isCache;
+        private final int key;
+        private final byte[] value;
+
+        private transient HazelcastInstance hz;
+
+        private MemberSideWrite(String name, boolean isCache, int key, byte[] value) {
+            this.name = name;
+            this.isCache = isCache;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object call() {
+            if (isCache) {
+                // the cache is looked up for every write, since a cached proxy could be closed by the test
+                getCache(hz, name).put(key, value);
+            } else {
+                hz.getMap(name).set(key, value);
+            }
+            return null;
+        }
+
+        @Override
+        public void setHazelcastInstance(HazelcastInstance hazelcastInstance) {
+            this.hz = hazelcastInstance;
+        }
+    }
+}
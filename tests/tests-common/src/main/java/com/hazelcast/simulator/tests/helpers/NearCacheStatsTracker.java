@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.simulator.test.Gauge;
+import com.hazelcast.simulator.test.TestContext;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Logs the {@link NearCacheStats} of a near cache over time.
+ *
+ * The near cache only provides a cumulative hit ratio, which hides the warm-up of the near cache and changes in the
+ * workload. {@link #maybeLog()} can be called from the timestep methods and logs the hit ratio of the last interval,
+ * together with the total hit ratio, the number of entries and the memory cost of the near cache, at most once per
+ * interval.
+ *
+ * {@link #registerGauges(TestContext)} exposes the hit ratio, the number of entries and the memory cost as gauges, so they
+ * are written to the metrics log of the Worker for every performance interval.
+ */
+public abstract class NearCacheStatsTracker {
+
+    private final ILogger logger;
+    private final String name;
+    private final long intervalMillis;
+    private final AtomicLong nextLogMillis;
+
+    private long lastHits;
+    private long lastMisses;
+
+    /**
+     * Creates a new tracker.
+     *
+     * @param logger          the {@link ILogger} to log the stats to
+     * @param name            the name of the near cached data structure
+     * @param intervalSeconds the interval to log the stats, a value smaller than 1 disables the logging
+     */
+    public NearCacheStatsTracker(ILogger logger, String name, int intervalSeconds) {
+        this.logger = logger;
+        this.name = name;
+        this.intervalMillis = SECONDS.toMillis(intervalSeconds);
+        this.nextLogMillis = new AtomicLong(currentTimeMillis() + intervalMillis);
+    }
+
+    /**
+     * Returns the current {@link NearCacheStats} of the near cache.
+     *
+     * @return the {@link NearCacheStats} or {@code null} if the data structure has no near cache
+     */
+    public abstract NearCacheStats getNearCacheStats();
+
+    /**
+     * Registers the gauges <tt>nearCache.hitRatio</tt>, <tt>nearCache.entries</tt> and <tt>nearCache.memoryCost</tt>.
+     *
+     * The hit ratio is the percentage of hits since the previous sample of the gauge, so it covers the performance interval.
+     *
+     * @param testContext the {@link TestContext} to register the gauges with
+     */
+    public void registerGauges(TestContext testContext) {
+        testContext.registerGauge("nearCache.hitRatio", new IntervalHitRatioGauge());
+        testContext.registerGauge("nearCache.entries", new Gauge() {
+            @Override
+            public double getValue() {
+                return getNearCacheStats().getOwnedEntryCount();
+            }
+        });
+        testContext.registerGauge("nearCache.memoryCost", new Gauge() {
+            @Override
+            public double getValue() {
+                return getNearCacheStats().getOwnedEntryMemoryCost();
+            }
+        });
+    }
+
+    /**
+     * Logs the stats of the last interval if the interval has passed.
+     *
+     * This method is thread-safe and cheap if the interval has not passed yet.
+     */
+    public void maybeLog() {
+        if (intervalMillis <= 0) {
+            return;
+        }
+        long nowMillis = currentTimeMillis();
+        long next = nextLogMillis.get();
+        if (nowMillis < next || !nextLogMillis.compareAndSet(next, nowMillis + intervalMillis)) {
+            return;
+        }
+        logger.info(nextIntervalReport());
+    }
+
+    /**
+     * Returns the cumulative stats of the near cache.
+     *
+     * @return the report
+     */
+    public String report() {
+        return format("%s near cache: %s", name, summary(getNearCacheStats()));
+    }
+
+    synchronized String nextIntervalReport() {
+        NearCacheStats stats = getNearCacheStats();
+        long hits = stats.getHits() - lastHits;
+        long misses = stats.getMisses() - lastMisses;
+        lastHits = stats.getHits();
+        lastMisses = stats.getMisses();
+
+        return format("%s near cache: interval hit ratio %.2f%% (%d hits, %d misses), %s",
+                name, hitRatioPercentage(hits, misses), hits, misses, summary(stats));
+    }
+
+    static double hitRatioPercentage(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : hits * 100d / total;
+    }
+
+    private static String summary(NearCacheStats stats) {
+        long hits = stats.getHits();
+        long misses = stats.getMisses();
+        return format("total hit ratio %.2f%% (%d hits, %d misses), %d entries, memory cost %d bytes, %d evictions",
+                hitRatioPercentage(hits, misses), hits, misses, stats.getOwnedEntryCount(), stats.getOwnedEntryMemoryCost(),
+                stats.getEvictions());
+    }
+
+    // keeps its own counters, so sampling the gauge doesn't change the intervals of the log
+    private final class IntervalHitRatioGauge implements Gauge {
+
+        private long lastHits;
+        private long lastMisses;
+
+        @Override
+        public synchronized double getValue() {
+            NearCacheStats stats = getNearCacheStats();
+            long hits = stats.getHits();
+            long misses = stats.getMisses();
+            double hitRatio = hitRatioPercentage(hits - lastHits, misses - lastMisses);
+            lastHits = hits;
+            lastMisses = misses;
+            return hitRatio;
+        }
+    }
+}
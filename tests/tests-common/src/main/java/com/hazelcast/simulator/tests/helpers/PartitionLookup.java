@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.core.PartitionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+
+/**
+ * Looks up the partition IDs for the keys of consecutive int values, in chunks which are split over multiple threads.
+ *
+ * Calculating the partition of a key (serialization and hashing) is the expensive part of the key generation with a
+ * {@link KeyLocality}, so this is done in parallel while the cheap bookkeeping of the taken keys stays single threaded.
+ */
+final class PartitionLookup {
+
+    static final int VALUES_PER_TASK = 1 << 16;
+
+    private final PartitionService partitionService;
+    private final KeyProvider.KeyFormat<?> keyFormat;
+    private final int threadCount;
+    private final int[] partitionIds;
+    private final ExecutorService executor;
+
+    PartitionLookup(PartitionService partitionService, KeyProvider.KeyFormat<?> keyFormat) {
+        this(partitionService, keyFormat, Runtime.getRuntime().availableProcessors());
+    }
+
+    PartitionLookup(PartitionService partitionService, KeyProvider.KeyFormat<?> keyFormat, int threadCount) {
+        this.partitionService = partitionService;
+        this.keyFormat = keyFormat;
+        this.threadCount = Math.max(1, threadCount);
+        this.partitionIds = new int[this.threadCount * VALUES_PER_TASK];
+        this.executor = (this.threadCount == 1) ? null : createFixedThreadPool(this.threadCount, PartitionLookup.class);
+    }
+
+    /**
+     * Returns the maximum number of values which are looked up by a single call of {@link #lookup(long, int)}.
+     *
+     * @return the chunk size
+     */
+    int getChunkSize() {
+        return partitionIds.length;
+    }
+
+    /**
+     * Looks up the partition IDs of the values in the range <tt>[firstValue, firstValue + length)</tt>.
+     *
+     * @param firstValue the first value
+     * @param length     the number of values, must not be larger than the chunk size
+     * @return the partition IDs, the partition ID of value <tt>firstValue + i</tt> is at index i (the array is reused by the
+     * next call)
+     */
+    int[] lookup(long firstValue, int length) {
+        if (executor == null) {
+            lookup(firstValue, 0, length);
+            return partitionIds;
+        }
+
+        List<Future<?>> futures = new ArrayList<Future<?>>(threadCount);
+        for (int from = 0; from < length; from += VALUES_PER_TASK) {
+            futures.add(executor.submit(new LookupTask(firstValue, from, Math.min(length, from + VALUES_PER_TASK))));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while looking up partitions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return partitionIds;
+    }
+
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void lookup(long firstValue, int from, int to) {
+        for (int i = from; i < to; i++) {
+            partitionIds[i] = partitionService.getPartition(keyFormat.toKey((int) (firstValue + i))).getPartitionId();
+        }
+    }
+
+    private final class LookupTask implements Callable<Object> {
+
+        private final long firstValue;
+        private final int from;
+        private final int to;
+
+        private LookupTask(long firstValue, int from, int to) {
+            this.firstValue = firstValue;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Object call() {
+            lookup(firstValue, from, to);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+import com.hazelcast.simulator.test.distribution.LatestKeyDistribution;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.test.distribution.ScrambledZipfianKeyDistribution.hashFNV64;
+import static com.hazelcast.simulator.utils.Preconditions.checkPositive;
+
+/**
+ * The key space of a YCSB workload.
+ *
+ * The keys are numbered: the first <tt>recordCount</tt> key numbers are loaded in the prepare phase, all higher key numbers
+ * are inserted during the run. Like in YCSB the key of a key number is <tt>"user"</tt> followed by the FNV hash of the key
+ * number, so popular key numbers are spread over the whole key range.
+ *
+ * Every Worker inserts its own key numbers, which are interleaved with the key numbers of the other Workers by using the
+ * index of the Worker. The requests are drawn from the loaded keys and the keys inserted by this Worker, so the
+ * {@link LatestKeyDistribution} returns the most recent inserts of this Worker.
+ *
+ * An instance is shared by all threads of a Worker.
+ */
+public final class YcsbKeySpace {
+
+    private static final String KEY_PREFIX = "user";
+
+    private final long recordCount;
+    private final int workerIndex;
+    private final int workerCount;
+    private final AtomicLong insertCount = new AtomicLong();
+
+    public YcsbKeySpace(long recordCount, TestContext testContext) {
+        this(recordCount, testContext.getWorkerIndex(), testContext.getWorkerCount());
+    }
+
+    YcsbKeySpace(long recordCount, int workerIndex, int workerCount) {
+        this.recordCount = checkPositive(recordCount, "recordCount");
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * Returns the key of a key number.
+     *
+     * @param keyNumber the key number
+     * @return the key
+     */
+    public static String keyName(long keyNumber) {
+        return KEY_PREFIX + Math.abs(hashFNV64(keyNumber));
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the number of keys which can be requested by this Worker: the loaded keys and the keys inserted by this Worker.
+     *
+     * @return the number of keys
+     */
+    public long getKeyCount() {
+        return recordCount + insertCount.get();
+    }
+
+    /**
+     * Returns the key number for the next insert of this Worker.
+     *
+     * @return the key number to insert
+     */
+    public long nextInsertKeyNumber() {
+        return toKeyNumber(recordCount + insertCount.getAndIncrement());
+    }
+
+    /**
+     * Returns the key of the next request.
+     *
+     * A {@link LatestKeyDistribution} is moved to the current key count first, so it favors the latest inserts of all
+     * threads of this Worker. Other distributions only draw from the loaded keys.
+     *
+     * @param distribution the {@link KeyDistribution} of the calling thread
+     * @param random       the {@link Random} of the calling thread
+     * @return the key
+     */
+    public String nextRequestKey(KeyDistribution distribution, Random random) {
+        if (distribution instanceof LatestKeyDistribution) {
+            LatestKeyDistribution latest = (LatestKeyDistribution) distribution;
+            long keyCount = getKeyCount();
+            while (latest.getItemCount() < keyCount) {
+                latest.nextInsert();
+            }
+        }
+        return keyName(toKeyNumber(distribution.next(random)));
+    }
+
+    /**
+     * Converts the index of a requestable key to its key number.
+     *
+     * @param index the index in the range <tt>[0, keyCount)</tt>
+     * @return the key number
+     */
+    long toKeyNumber(long index) {
+        if (index < recordCount) {
+            return index;
+        }
+        return recordCount + workerIndex + (index - recordCount) * workerCount;
+    }
+}
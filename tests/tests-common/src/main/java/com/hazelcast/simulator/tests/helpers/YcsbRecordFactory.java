@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static com.hazelcast.simulator.utils.GeneratorUtils.generateStrings;
+import static com.hazelcast.simulator.utils.Preconditions.checkPositive;
+
+/**
+ * Creates the records of a YCSB workload: a map with <tt>fieldCount</tt> fields named <tt>field0</tt>, <tt>field1</tt> and
+ * so on, with a String value of <tt>fieldLength</tt> characters each.
+ *
+ * The field values are taken from a pool which is generated upfront, so creating a record doesn't generate random content.
+ * This class is thread-safe.
+ */
+public final class YcsbRecordFactory {
+
+    private static final int DEFAULT_VALUE_POOL_SIZE = 1000;
+
+    private final String[] fieldNames;
+    private final String[] valuePool;
+
+    public YcsbRecordFactory(int fieldCount, int fieldLength) {
+        this(fieldCount, fieldLength, DEFAULT_VALUE_POOL_SIZE);
+    }
+
+    YcsbRecordFactory(int fieldCount, int fieldLength, int valuePoolSize) {
+        checkPositive(fieldCount, "fieldCount");
+        checkPositive(fieldLength, "fieldLength");
+        this.fieldNames = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fieldNames[i] = "field" + i;
+        }
+        this.valuePool = generateStrings(valuePoolSize, fieldLength);
+    }
+
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    /**
+     * Creates a new record with values from the pool.
+     *
+     * @param random the {@link Random} of the calling thread
+     * @return the record
+     */
+    public HashMap<String, String> newRecord(Random random) {
+        // sized so the map is never resized with the default load factor
+        HashMap<String, String> record = new HashMap<String, String>(fieldNames.length * 2);
+        for (String fieldName : fieldNames) {
+            record.put(fieldName, valuePool[random.nextInt(valuePool.length)]);
+        }
+        return record;
+    }
+}
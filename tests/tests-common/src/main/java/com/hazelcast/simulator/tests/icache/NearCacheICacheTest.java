@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.icache;
+
+import com.hazelcast.cache.ICache;
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.AbstractTest;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.KeyRange;
+import com.hazelcast.simulator.test.StopException;
+import com.hazelcast.simulator.test.annotations.BeforeRun;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+import com.hazelcast.simulator.test.distribution.KeyDistributionType;
+import com.hazelcast.simulator.tests.helpers.NearCacheInvalidationProbe;
+import com.hazelcast.simulator.tests.helpers.NearCacheStatsTracker;
+import com.hazelcast.simulator.worker.loadsupport.Streamer;
+import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isClient;
+import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isMemberNode;
+import static com.hazelcast.simulator.tests.helpers.NearCacheInvalidationProbe.newCacheWrite;
+import static com.hazelcast.simulator.tests.icache.helpers.CacheUtils.getCache;
+import static com.hazelcast.simulator.utils.GeneratorUtils.generateByteArray;
+import static java.lang.String.format;
+
+/**
+ * Measures the performance of a client near cache on an {@link ICache}.
+ *
+ * See {@link com.hazelcast.simulator.tests.map.NearCacheMapTest} for the timestep methods and the invalidation probes.
+ * The getMiss method relies on the default <tt>INVALIDATE</tt> local update policy of the near cache, so a local write
+ * removes the near cache entry of the client.
+ */
+public class NearCacheICacheTest extends AbstractTest {
+
+    // properties
+    public int keyCount = 10000;
+    public int valueSize = 100;
+    public KeyDistributionType keyDistribution = KeyDistributionType.UNIFORM;
+    public int statsIntervalSeconds = 10;
+    public int invalidationPollMicros = 1000;
+    public int invalidationTimeoutSeconds = 60;
+
+    private final AtomicInteger invalidationThreads = new AtomicInteger();
+    private final AtomicLong invalidationTimeouts = new AtomicLong();
+
+    private ICache<Integer, byte[]> cache;
+    private IExecutorService executor;
+    private NearCacheStatsTracker statsTracker;
+
+    @Setup
+    public void setUp() {
+        cache = getCache(targetInstance, name);
+        executor = targetInstance.getExecutorService(name + ":Invalidation");
+        statsTracker = new NearCacheStatsTracker(logger, name, statsIntervalSeconds) {
+            @Override
+            public NearCacheStats getNearCacheStats() {
+                return cache.getLocalCacheStatistics().getNearCacheStatistics();
+            }
+        };
+
+        if (isClient(targetInstance)) {
+            if (statsTracker.getNearCacheStats() == null) {
+                throw new IllegalStateException(format("No near cache is configured for cache %s on the client", name));
+            }
+            statsTracker.registerGauges(testContext);
+        }
+    }
+
+    @Prepare(distributed = true)
+    public void prepare() {
+        Random random = new Random();
+        KeyRange range = KeyRange.forWorker(testContext, keyCount);
+        Streamer<Integer, byte[]> streamer = StreamerFactory.getInstance(cache);
+        for (long key = range.getFrom(); key < range.getTo(); key++) {
+            streamer.pushEntry((int) key, generateByteArray(random, valueSize));
+        }
+        streamer.await();
+    }
+
+    @BeforeRun
+    public void beforeRun() {
+        if (isMemberNode(targetInstance)) {
+            throw new StopException();
+        }
+    }
+
+    @TimeStep(prob = -1)
+    public byte[] get(ThreadState state) {
+        statsTracker.maybeLog();
+        return cache.get(state.nextKey());
+    }
+
+    @TimeStep(prob = 0)
+    public byte[] getHit(ThreadState state, Probe probe) {
+        Integer key = state.nextKey();
+        cache.get(key);
+
+        long startNanos = System.nanoTime();
+        byte[] value = cache.get(key);
+        probe.done(startNanos);
+        return value;
+    }
+
+    @TimeStep(prob = 0)
+    public byte[] getMiss(ThreadState state, Probe probe) {
+        Integer key = state.nextKey();
+        cache.put(key, state.newValue());
+
+        long startNanos = System.nanoTime();
+        byte[] value = cache.get(key);
+        probe.done(startNanos);
+        return value;
+    }
+
+    @TimeStep(prob = 0.1)
+    public void put(ThreadState state) {
+        cache.put(state.nextKey(), state.newValue());
+    }
+
+    public class ThreadState extends BaseThreadState {
+
+        private final KeyDistribution keys = keyDistribution.newInstance(keyCount);
+
+        private Integer nextKey() {
+            return nextIntKey(keys);
+        }
+
+        private byte[] newValue() {
+            return generateByteArray(random, valueSize);
+        }
+    }
+
+    @BeforeRun(executionGroup = "invalidation")
+    public void beforeInvalidation(InvalidationState state) {
+        if (isMemberNode(targetInstance)) {
+            throw new StopException();
+        }
+        state.probe.init();
+    }
+
+    @TimeStep(executionGroup = "invalidation")
+    public void invalidation(InvalidationState state, Probe probe) throws Exception {
+        statsTracker.maybeLog();
+
+        long delayNanos = state.probe.run();
+        if (delayNanos < 0) {
+            invalidationTimeouts.incrementAndGet();
+        } else {
+            probe.recordValue(delayNanos);
+        }
+    }
+
+    public class InvalidationState extends BaseThreadState {
+
+        private final NearCacheInvalidationProbe probe = new NearCacheInvalidationProbe(testContext,
+                invalidationThreads.getAndIncrement(), logger, executor, name, invalidationPollMicros,
+                invalidationTimeoutSeconds) {
+            @Override
+            protected byte[] get(int key) {
+                return cache.get(key);
+            }
+
+            @Override
+            protected void put(int key, byte[] value) {
+                cache.put(key, value);
+            }
+
+            @Override
+            protected Callable<Object> newMemberSideWrite(int key, byte[] value) {
+                return newCacheWrite(name, key, value);
+            }
+        };
+    }
+
+    @Teardown
+    public void tearDown() {
+        if (isClient(targetInstance)) {
+            String report = format("%s, %d invalidation timeouts", statsTracker.report(), invalidationTimeouts.get());
+            logger.info(report);
+            testContext.echoCoordinator("%s", report);
+        }
+        cache.close();
+    }
+}
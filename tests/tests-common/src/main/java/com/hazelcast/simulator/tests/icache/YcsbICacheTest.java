@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.icache;
+
+import com.hazelcast.simulator.test.AbstractTest;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.KeyRange;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+import com.hazelcast.simulator.test.distribution.KeyDistributionType;
+import com.hazelcast.simulator.tests.helpers.YcsbKeySpace;
+import com.hazelcast.simulator.tests.helpers.YcsbRecordFactory;
+import com.hazelcast.simulator.worker.loadsupport.Streamer;
+import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.HashMap;
+import java.util.Random;
+
+import static com.hazelcast.simulator.tests.helpers.YcsbKeySpace.keyName;
+import static com.hazelcast.simulator.tests.icache.helpers.CacheUtils.createCacheManager;
+
+/**
+ * Implements the YCSB core workloads on a JCache, so the results can be compared with published YCSB numbers.
+ *
+ * See {@link com.hazelcast.simulator.tests.map.YcsbMapTest} for the records and the workloads. JCache doesn't support
+ * range queries, so workload E (scans) can only be run with the map test.
+ */
+public class YcsbICacheTest extends AbstractTest {
+
+    // properties
+    public int recordCount = 100000;
+    public int fieldCount = 10;
+    public int fieldLength = 100;
+    public KeyDistributionType requestDistribution = KeyDistributionType.ZIPFIAN;
+
+    private Cache<String, HashMap<String, String>> cache;
+    private YcsbKeySpace keySpace;
+    private YcsbRecordFactory recordFactory;
+
+    @Setup
+    public void setUp() {
+        CacheManager cacheManager = createCacheManager(targetInstance);
+        cache = cacheManager.getCache(name);
+        keySpace = new YcsbKeySpace(recordCount, testContext);
+        recordFactory = new YcsbRecordFactory(fieldCount, fieldLength);
+    }
+
+    @Prepare(distributed = true)
+    public void prepare() {
+        Random random = new Random();
+        KeyRange range = KeyRange.forWorker(testContext, recordCount);
+        Streamer<String, HashMap<String, String>> streamer = StreamerFactory.getInstance(cache);
+        for (long keyNumber = range.getFrom(); keyNumber < range.getTo(); keyNumber++) {
+            streamer.pushEntry(keyName(keyNumber), recordFactory.newRecord(random));
+        }
+        streamer.await();
+    }
+
+    @TimeStep(prob = 0.5)
+    public HashMap<String, String> read(ThreadState state) {
+        return cache.get(state.nextKey());
+    }
+
+    @TimeStep(prob = 0.5)
+    public void update(ThreadState state) {
+        cache.put(state.nextKey(), state.newRecord());
+    }
+
+    @TimeStep(prob = 0)
+    public void insert(ThreadState state) {
+        cache.put(keyName(keySpace.nextInsertKeyNumber()), state.newRecord());
+    }
+
+    @TimeStep(prob = 0)
+    public void readModifyWrite(ThreadState state) {
+        String key = state.nextKey();
+        cache.get(key);
+        cache.put(key, state.newRecord());
+    }
+
+    public class ThreadState extends BaseThreadState {
+
+        private final KeyDistribution keyDistribution = requestDistribution.newInstance(recordCount);
+
+        private String nextKey() {
+            return keySpace.nextRequestKey(keyDistribution, random);
+        }
+
+        private HashMap<String, String> newRecord() {
+            return recordFactory.newRecord(random);
+        }
+    }
+
+    @Teardown
+    public void tearDown() {
+        cache.close();
+    }
+}
@@ -18,18 +18,24 @@ package com.hazelcast.simulator.tests.map;
 import com.hazelcast.core.IMap;
 import com.hazelcast.simulator.test.AbstractTest;
 import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.KeyRange;
 import com.hazelcast.simulator.test.annotations.Prepare;
 import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.Teardown;
 import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.test.payload.PayloadGenerator;
+import com.hazelcast.simulator.test.payload.SizeDistribution;
+import com.hazelcast.simulator.test.payload.UniformSizeDistribution;
 import com.hazelcast.simulator.tests.helpers.KeyLocality;
+import com.hazelcast.simulator.tests.helpers.KeyProvider;
+import com.hazelcast.simulator.utils.ByteArrayDataset;
 import com.hazelcast.simulator.worker.loadsupport.Streamer;
 import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
 
 import java.util.Random;
 
-import static com.hazelcast.simulator.tests.helpers.KeyUtils.generateIntKeys;
-import static com.hazelcast.simulator.utils.GeneratorUtils.generateByteArray;
+import static com.hazelcast.simulator.tests.helpers.KeyUtils.newIntKeyProvider;
+import static java.lang.Math.max;
 
 public class IntByteMapTest extends AbstractTest {
 
@@ -44,15 +50,25 @@ public class IntByteMapTest extends AbstractTest {
     // getting them tenured. If writeKeyCount is -1, it will automatically be set to keyCount
     public int writeKeyCount = -1;
     public KeyLocality keyLocality = KeyLocality.SHARED;
+    // the seed for the partition-aware keys, so runs with the same seed and cluster use the same keys
+    public long keySeed = 0;
+    // if enabled, the values are cached in a memory-mapped file, so later runs with the same sizes and seed don't need to
+    // generate them again. The values are copied from the file when they are used, so they don't occupy the heap
+    public boolean cacheValues = false;
+    public long valueSeed = 0;
+    // the fraction of the content of the values which a compressor could remove (not used with cacheValues)
+    public double valueCompressibility = 0;
 
     private IMap<Integer, Object> map;
-    private int[] keys;
+    private KeyProvider<Integer> keys;
+    // either the generated values or the cached dataset is set
     private byte[][] values;
+    private ByteArrayDataset dataset;
 
     @Setup
     public void setUp() {
         map = targetInstance.getMap(name);
-        keys = generateIntKeys(keyCount, keyLocality, targetInstance);
+        keys = newIntKeyProvider(keyCount, keyLocality, targetInstance, keySeed);
 
         if (minSize > maxSize) {
             throw new IllegalStateException("minSize can't be larger than maxSize");
@@ -65,17 +81,27 @@ public class IntByteMapTest extends AbstractTest {
 
     @Prepare
     public void prepare() {
-        Random random = new Random();
-        values = new byte[valueCount][];
-        for (int i = 0; i < values.length; i++) {
-            int delta = maxSize - minSize;
-            int length = delta == 0 ? minSize : minSize + random.nextInt(delta);
-            values[i] = generateByteArray(random, length);
+        if (cacheValues) {
+            // the dataset uses an inclusive maximum length
+            dataset = ByteArrayDataset.getOrCreate(valueCount, minSize, max(minSize, maxSize - 1), valueSeed);
+            return;
         }
 
-        Streamer<Integer, Object> streamer = StreamerFactory.getInstance(map);
-        for (int key : keys) {
-            streamer.pushEntry(key, values[random.nextInt(values.length)]);
+        Random random = new Random();
+        SizeDistribution sizes = new UniformSizeDistribution(minSize, max(minSize, maxSize - 1));
+        values = new PayloadGenerator(sizes, valueCompressibility, 8, random.nextLong()).newPool(random, valueCount);
+    }
+
+    @Prepare(distributed = true)
+    public void loadData() {
+        Random random = new Random();
+        // only shared keys are the same on all Workers, other key localities are loaded completely by every Worker
+        KeyRange range = keyLocality == KeyLocality.SHARED
+                ? KeyRange.forWorker(testContext, keyCount)
+                : KeyRange.forWorker(0, 1, keyCount);
+        Streamer<Integer, Object> streamer = StreamerFactory.getBatchingInstance(targetInstance, map);
+        for (int i = (int) range.getFrom(); i < range.getTo(); i++) {
+            streamer.pushEntry(keys.getKey(i), getValue(random.nextInt(valueCount)));
         }
         streamer.await();
     }
@@ -98,19 +124,24 @@ public class IntByteMapTest extends AbstractTest {
 
     public class ThreadState extends BaseThreadState {
 
-        private int randomKey() {
-            return keys[randomInt(keys.length)];
+        private Integer randomKey() {
+            return keys.getKey(randomInt(keyCount));
         }
 
-        private int randomWriteKey() {
-            return keys[randomInt(writeKeyCount)];
+        private Integer randomWriteKey() {
+            return keys.getKey(randomInt(writeKeyCount));
         }
 
         private byte[] randomValue() {
-            return values[randomInt(values.length)];
+            return getValue(randomInt(valueCount));
         }
     }
 
+    private byte[] getValue(int index) {
+        // a cached value is copied from the memory-mapped dataset when it's used, so the values don't need to fit into the heap
+        return dataset == null ? values[index] : dataset.get(index);
+    }
+
     @Teardown
     public void tearDown() {
         map.destroy();
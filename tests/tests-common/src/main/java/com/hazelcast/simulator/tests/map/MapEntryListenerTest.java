@@ -25,9 +25,10 @@ import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.Teardown;
 import com.hazelcast.simulator.test.annotations.TimeStep;
 import com.hazelcast.simulator.test.annotations.Verify;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+import com.hazelcast.simulator.test.distribution.KeyDistributionType;
 import com.hazelcast.simulator.tests.map.helpers.EntryListenerImpl;
 import com.hazelcast.simulator.tests.map.helpers.EventCount;
-import com.hazelcast.simulator.tests.map.helpers.ScrambledZipfianGenerator;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -58,8 +59,6 @@ public class MapEntryListenerTest extends AbstractTest {
     public int minEntryListenerDelayMs = 0;
     public int threadCount;
 
-    private final ScrambledZipfianGenerator keysZipfian = new ScrambledZipfianGenerator(keyCount);
-
     private String[] values;
     private EntryListenerImpl<Integer, String> listener;
     private IList<EventCount> eventCounts;
@@ -183,17 +182,16 @@ public class MapEntryListenerTest extends AbstractTest {
     public class ThreadState extends BaseThreadState {
 
         private final EventCount eventCount = new EventCount();
+        private final KeyDistribution keys = randomDistributionUniform
+                ? KeyDistributionType.UNIFORM.newInstance(keyCount)
+                : KeyDistributionType.SCRAMBLED_ZIPFIAN.newInstance(keyCount);
 
         String randomValue() {
             return values[randomInt(values.length)];
         }
 
         int randomKey() {
-            if (randomDistributionUniform) {
-                return randomInt(keyCount);
-            } else {
-                return keysZipfian.nextInt();
-            }
+            return nextIntKey(keys);
         }
     }
 
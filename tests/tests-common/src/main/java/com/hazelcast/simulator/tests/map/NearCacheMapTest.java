@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.map;
+
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.core.IMap;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.AbstractTest;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.KeyRange;
+import com.hazelcast.simulator.test.StopException;
+import com.hazelcast.simulator.test.annotations.BeforeRun;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+import com.hazelcast.simulator.test.distribution.KeyDistributionType;
+import com.hazelcast.simulator.tests.helpers.NearCacheInvalidationProbe;
+import com.hazelcast.simulator.tests.helpers.NearCacheStatsTracker;
+import com.hazelcast.simulator.worker.loadsupport.Streamer;
+import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isClient;
+import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isMemberNode;
+import static com.hazelcast.simulator.tests.helpers.NearCacheInvalidationProbe.newMapWrite;
+import static com.hazelcast.simulator.utils.GeneratorUtils.generateByteArray;
+import static java.lang.String.format;
+
+/**
+ * Measures the performance of a client near cache on an {@link IMap}.
+ *
+ * The near cache has to be configured in the client config, see the <tt>NearCache*</tt> near cache in
+ * <tt>client-hazelcast.xml</tt>. The timestep methods only run on client Workers, the members just own the data.
+ * <ul>
+ * <li>get: a read with the configured {@link #keyDistribution}, which is a mix of near cache hits and misses</li>
+ * <li>getHit: a read served from the near cache, the key is read twice and only the second read is recorded</li>
+ * <li>getMiss: a read which misses the near cache, the key is written first (a local write invalidates the near cache
+ * entry of the client) and only the read is recorded</li>
+ * <li>put: a write, which invalidates the near caches of the other clients</li>
+ * <li>invalidation: the invalidation propagation delay, the time from a member-side write of a probe key to the
+ * eviction of that key from the near cache of this client</li>
+ * </ul>
+ * The invalidation probes run in the <tt>invalidation</tt> execution group, so their number of threads is configured
+ * with <tt>invalidationThreadCount</tt>. Every probe thread has its own probe key, which is written on the owning member
+ * and read every {@link #invalidationPollMicros} until the new value is seen, see {@link NearCacheInvalidationProbe}.
+ *
+ * The hit ratio of the last interval, the number of entries and the memory cost of the near cache are logged every
+ * {@link #statsIntervalSeconds}, and written to the metrics log of the Worker as the <tt>nearCache.hitRatio</tt>,
+ * <tt>nearCache.entries</tt> and <tt>nearCache.memoryCost</tt> columns of the test. The getHit, getMiss and invalidation
+ * methods also count as near cache hits and misses, so they should be disabled to measure the hit ratio of a pure get/put
+ * workload.
+ */
+public class NearCacheMapTest extends AbstractTest {
+
+    // properties
+    public int keyCount = 10000;
+    public int valueSize = 100;
+    public KeyDistributionType keyDistribution = KeyDistributionType.UNIFORM;
+    public int statsIntervalSeconds = 10;
+    public int invalidationPollMicros = 1000;
+    public int invalidationTimeoutSeconds = 60;
+
+    private final AtomicInteger invalidationThreads = new AtomicInteger();
+    private final AtomicLong invalidationTimeouts = new AtomicLong();
+
+    private IMap<Integer, byte[]> map;
+    private IExecutorService executor;
+    private NearCacheStatsTracker statsTracker;
+
+    @Setup
+    public void setUp() {
+        map = targetInstance.getMap(name);
+        executor = targetInstance.getExecutorService(name + ":Invalidation");
+        statsTracker = new NearCacheStatsTracker(logger, name, statsIntervalSeconds) {
+            @Override
+            public NearCacheStats getNearCacheStats() {
+                return map.getLocalMapStats().getNearCacheStats();
+            }
+        };
+
+        if (isClient(targetInstance)) {
+            if (statsTracker.getNearCacheStats() == null) {
+                throw new IllegalStateException(format("No near cache is configured for map %s on the client", name));
+            }
+            statsTracker.registerGauges(testContext);
+        }
+    }
+
+    @Prepare(distributed = true)
+    public void prepare() {
+        Random random = new Random();
+        KeyRange range = KeyRange.forWorker(testContext, keyCount);
+        Streamer<Integer, byte[]> streamer = StreamerFactory.getBatchingInstance(targetInstance, map);
+        for (long key = range.getFrom(); key < range.getTo(); key++) {
+            streamer.pushEntry((int) key, generateByteArray(random, valueSize));
+        }
+        streamer.await();
+    }
+
+    @BeforeRun
+    public void beforeRun() {
+        if (isMemberNode(targetInstance)) {
+            throw new StopException();
+        }
+    }
+
+    @TimeStep(prob = -1)
+    public byte[] get(ThreadState state) {
+        statsTracker.maybeLog();
+        return map.get(state.nextKey());
+    }
+
+    @TimeStep(prob = 0)
+    public byte[] getHit(ThreadState state, Probe probe) {
+        Integer key = state.nextKey();
+        map.get(key);
+
+        long startNanos = System.nanoTime();
+        byte[] value = map.get(key);
+        probe.done(startNanos);
+        return value;
+    }
+
+    @TimeStep(prob = 0)
+    public byte[] getMiss(ThreadState state, Probe probe) {
+        Integer key = state.nextKey();
+        map.set(key, state.newValue());
+
+        long startNanos = System.nanoTime();
+        byte[] value = map.get(key);
+        probe.done(startNanos);
+        return value;
+    }
+
+    @TimeStep(prob = 0.1)
+    public void put(ThreadState state) {
+        map.set(state.nextKey(), state.newValue());
+    }
+
+    public class ThreadState extends BaseThreadState {
+
+        private final KeyDistribution keys = keyDistribution.newInstance(keyCount);
+
+        private Integer nextKey() {
+            return nextIntKey(keys);
+        }
+
+        private byte[] newValue() {
+            return generateByteArray(random, valueSize);
+        }
+    }
+
+    @BeforeRun(executionGroup = "invalidation")
+    public void beforeInvalidation(InvalidationState state) {
+        if (isMemberNode(targetInstance)) {
+            throw new StopException();
+        }
+        state.probe.init();
+    }
+
+    @TimeStep(executionGroup = "invalidation")
+    public void invalidation(InvalidationState state, Probe probe) throws Exception {
+        statsTracker.maybeLog();
+
+        long delayNanos = state.probe.run();
+        if (delayNanos < 0) {
+            invalidationTimeouts.incrementAndGet();
+        } else {
+            probe.recordValue(delayNanos);
+        }
+    }
+
+    public class InvalidationState extends BaseThreadState {
+
+        private final NearCacheInvalidationProbe probe = new NearCacheInvalidationProbe(testContext,
+                invalidationThreads.getAndIncrement(), logger, executor, name, invalidationPollMicros,
+                invalidationTimeoutSeconds) {
+            @Override
+            protected byte[] get(int key) {
+                return map.get(key);
+            }
+
+            @Override
+            protected void put(int key, byte[] value) {
+                map.set(key, value);
+            }
+
+            @Override
+            protected Callable<Object> newMemberSideWrite(int key, byte[] value) {
+                return newMapWrite(name, key, value);
+            }
+        };
+    }
+
+    @Teardown
+    public void tearDown() {
+        if (isMemberNode(targetInstance)) {
+            return;
+        }
+        String report = format("%s, %d invalidation timeouts", statsTracker.report(), invalidationTimeouts.get());
+        logger.info(report);
+        testContext.echoCoordinator("%s", report);
+    }
+
+    @Teardown(global = true)
+    public void globalTearDown() {
+        map.destroy();
+    }
+}
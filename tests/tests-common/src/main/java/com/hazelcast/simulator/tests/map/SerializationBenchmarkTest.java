@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.map;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.simulator.test.AbstractTest;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.KeyRange;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.tests.map.SerializationStrategyTest.Strategy;
+import com.hazelcast.simulator.tests.map.domain.DomainObject;
+import com.hazelcast.simulator.tests.map.domain.DomainObjectFactory;
+import com.hazelcast.simulator.worker.loadsupport.Streamer;
+import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.spi.serialization.SerializationServiceSupport;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.simulator.tests.map.SerializationStrategyTest.Strategy.IDENTIFIED_DATA_SERIALIZABLE;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+
+/**
+ * Benchmarks the serialization strategies of the {@link DomainObject} implementations.
+ *
+ * The {@link #serialize(ThreadState)} and {@link #deserialize(ThreadState)} methods use the SerializationService directly,
+ * so the serialization is measured in isolation. The {@link #put(ThreadState)} and {@link #get(ThreadState)} methods
+ * measure the same objects through an {@link IMap}. By default only serialize and deserialize are run, so the IMap
+ * operations don't share the threads with them. The IMap operations are selected with their probabilities, e.g.
+ * <tt>serializeProb=0</tt>, <tt>deserializeProb=0</tt>, <tt>putProb=0.5</tt> and <tt>getProb=0.5</tt>. The throughput
+ * and latency of each operation are recorded by its probe. The size of the objects is controlled by the length of their
+ * String fields.
+ *
+ * After the run the serialized size of the objects and the average number of bytes allocated per operation are logged and
+ * send to the Coordinator. The allocated bytes are measured for every {@value #ALLOCATION_SAMPLE_INTERVAL}th operation of
+ * each thread, so the measurement doesn't slow down the other operations. They are only available on JVMs which support
+ * thread allocation accounting, like HotSpot.
+ *
+ * To compare the strategies, run a test suite with a test per strategy, object size and operation type, see
+ * <tt>tests/map/serialization-benchmark.properties</tt>.
+ */
+public class SerializationBenchmarkTest extends AbstractTest {
+
+    static final int ALLOCATION_SAMPLE_INTERVAL = 64;
+
+    private static final String[] OPERATIONS = {"serialize", "deserialize", "put", "get"};
+    private static final int SERIALIZE = 0;
+    private static final int DESERIALIZE = 1;
+    private static final int PUT = 2;
+    private static final int GET = 3;
+
+    // properties
+    public Strategy strategy = IDENTIFIED_DATA_SERIALIZABLE;
+    // the length of the String fields of the objects
+    public int stringLength = 32;
+    // the number of different objects which are used
+    public int objectCount = 1000;
+    // the number of map entries, only used by put and get
+    public int keyCount = 100000;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final AtomicLongArray allocatedBytes = new AtomicLongArray(OPERATIONS.length);
+    private final AtomicLongArray sampleCounts = new AtomicLongArray(OPERATIONS.length);
+
+    private SerializationService serializationService;
+    private IMap<Integer, DomainObject> map;
+    private DomainObject[] objects;
+    private Data[] serializedObjects;
+    private long serializedBytes;
+
+    @Setup
+    public void setUp() {
+        map = targetInstance.getMap(name);
+        serializationService = ((SerializationServiceSupport) targetInstance).getSerializationService();
+
+        Random random = new Random();
+        DomainObjectFactory objectFactory = DomainObjectFactory.newFactory(strategy);
+        objects = new DomainObject[objectCount];
+        serializedObjects = new Data[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            DomainObject object = objectFactory.newInstance();
+            object.setKey(randomAlphanumeric(stringLength));
+            object.setStringVal(randomAlphanumeric(stringLength));
+            object.setIntVal(random.nextInt());
+            object.setLongVal(random.nextLong());
+            object.setDoubleVal(random.nextDouble());
+
+            objects[i] = object;
+            serializedObjects[i] = serializationService.toData(object);
+            serializedBytes += serializedObjects[i].totalSize();
+        }
+    }
+
+    @Prepare(distributed = true)
+    public void prepare() {
+        Random random = new Random();
+        KeyRange range = KeyRange.forWorker(testContext, keyCount);
+        Streamer<Integer, DomainObject> streamer = StreamerFactory.getBatchingInstance(targetInstance, map);
+        for (int key = (int) range.getFrom(); key < range.getTo(); key++) {
+            streamer.pushEntry(key, objects[random.nextInt(objectCount)]);
+        }
+        streamer.await();
+    }
+
+    // the results are returned, so the JIT can't eliminate the (de)serialization
+    @TimeStep(prob = 0.5)
+    public Data serialize(ThreadState state) {
+        long sample = state.startSample();
+        Data data = serializationService.toData(state.randomObject());
+        state.endSample(SERIALIZE, sample);
+        return data;
+    }
+
+    @TimeStep(prob = 0.5)
+    public Object deserialize(ThreadState state) {
+        long sample = state.startSample();
+        Object object = serializationService.toObject(serializedObjects[state.randomInt(objectCount)]);
+        state.endSample(DESERIALIZE, sample);
+        return object;
+    }
+
+    @TimeStep(prob = 0)
+    public void put(ThreadState state) {
+        long sample = state.startSample();
+        // set() doesn't return the old value, so only the new value is serialized
+        map.set(state.randomInt(keyCount), state.randomObject());
+        state.endSample(PUT, sample);
+    }
+
+    @TimeStep(prob = 0)
+    public DomainObject get(ThreadState state) {
+        long sample = state.startSample();
+        DomainObject object = map.get(state.randomInt(keyCount));
+        state.endSample(GET, sample);
+        return object;
+    }
+
+    public class ThreadState extends BaseThreadState {
+
+        private int operationCount;
+
+        private DomainObject randomObject() {
+            return objects[randomInt(objectCount)];
+        }
+
+        /**
+         * Returns the allocated bytes of the current thread if this operation is sampled, -1 otherwise.
+         */
+        private long startSample() {
+            if (++operationCount % ALLOCATION_SAMPLE_INTERVAL != 0) {
+                return -1;
+            }
+            return getAllocatedBytes();
+        }
+
+        private void endSample(int operation, long startAllocatedBytes) {
+            if (startAllocatedBytes < 0) {
+                return;
+            }
+            long endAllocatedBytes = getAllocatedBytes();
+            if (endAllocatedBytes < 0) {
+                return;
+            }
+            allocatedBytes.addAndGet(operation, endAllocatedBytes - startAllocatedBytes);
+            sampleCounts.incrementAndGet(operation);
+        }
+    }
+
+    private long getAllocatedBytes() {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Teardown
+    public void tearDown() {
+        StringBuilder sb = new StringBuilder(format("%s strategy: %s, stringLength: %d, serialized bytes: %d",
+                name, strategy, stringLength, serializedBytes / objectCount));
+        for (int operation = 0; operation < OPERATIONS.length; operation++) {
+            long samples = sampleCounts.get(operation);
+            if (samples > 0) {
+                sb.append(format(", %s allocated bytes/op: %d", OPERATIONS[operation], allocatedBytes.get(operation) / samples));
+            }
+        }
+        String report = sb.toString();
+        logger.info(report);
+        testContext.echoCoordinator(report);
+    }
+
+    @Teardown(global = true)
+    public void globalTearDown() {
+        map.destroy();
+    }
+}
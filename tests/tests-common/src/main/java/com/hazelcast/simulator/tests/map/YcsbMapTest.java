@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.map;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.simulator.test.AbstractTest;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.KeyRange;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+import com.hazelcast.simulator.test.distribution.KeyDistributionType;
+import com.hazelcast.simulator.tests.helpers.YcsbKeySpace;
+import com.hazelcast.simulator.tests.helpers.YcsbRecordFactory;
+import com.hazelcast.simulator.worker.loadsupport.Streamer;
+import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.simulator.tests.helpers.YcsbKeySpace.keyName;
+
+/**
+ * Implements the YCSB core workloads on an {@link IMap}, so the results can be compared with published YCSB numbers.
+ *
+ * A record is a map of <tt>fieldCount</tt> String fields (10 fields of 100 characters by default, like YCSB). The
+ * workload is defined by the probabilities of the timestep methods and the {@link #requestDistribution}, see the
+ * workload files in <tt>tests/ycsb</tt>:
+ * <ul>
+ * <li>A: read 0.5, update 0.5</li>
+ * <li>B: read 0.95, update 0.05</li>
+ * <li>C: read 1.0</li>
+ * <li>D: read 0.95, insert 0.05 with the LATEST request distribution</li>
+ * <li>E: scan 0.95, insert 0.05</li>
+ * <li>F: read 0.5, readModifyWrite 0.5</li>
+ * </ul>
+ * An update writes a complete new record, like YCSB with <tt>writeallfields=true</tt>. A scan reads up to
+ * {@link #maxScanLength} records in key order, starting at the requested key, using a {@link PagingPredicate}.
+ */
+public class YcsbMapTest extends AbstractTest {
+
+    private static final KeyComparator KEY_COMPARATOR = new KeyComparator();
+
+    // properties
+    public int recordCount = 100000;
+    public int fieldCount = 10;
+    public int fieldLength = 100;
+    public KeyDistributionType requestDistribution = KeyDistributionType.ZIPFIAN;
+    public int maxScanLength = 100;
+
+    private IMap<String, Map<String, String>> map;
+    private YcsbKeySpace keySpace;
+    private YcsbRecordFactory recordFactory;
+
+    @Setup
+    public void setUp() {
+        map = targetInstance.getMap(name);
+        keySpace = new YcsbKeySpace(recordCount, testContext);
+        recordFactory = new YcsbRecordFactory(fieldCount, fieldLength);
+    }
+
+    @Prepare(distributed = true)
+    public void prepare() {
+        Random random = new Random();
+        KeyRange range = KeyRange.forWorker(testContext, recordCount);
+        Streamer<String, Map<String, String>> streamer = StreamerFactory.getBatchingInstance(targetInstance, map);
+        for (long keyNumber = range.getFrom(); keyNumber < range.getTo(); keyNumber++) {
+            streamer.pushEntry(keyName(keyNumber), recordFactory.newRecord(random));
+        }
+        streamer.await();
+    }
+
+    @TimeStep(prob = 0.5)
+    public Map<String, String> read(ThreadState state) {
+        return map.get(state.nextKey());
+    }
+
+    @TimeStep(prob = 0.5)
+    public void update(ThreadState state) {
+        map.set(state.nextKey(), state.newRecord());
+    }
+
+    @TimeStep(prob = 0)
+    public void insert(ThreadState state) {
+        map.set(keyName(keySpace.nextInsertKeyNumber()), state.newRecord());
+    }
+
+    @TimeStep(prob = 0)
+    @SuppressWarnings("unchecked")
+    public Set<Map.Entry<String, Map<String, String>>> scan(ThreadState state) {
+        String startKey = state.nextKey();
+        int scanLength = 1 + state.randomInt(maxScanLength);
+        PagingPredicate predicate = new PagingPredicate(Predicates.greaterEqual("__key", startKey), KEY_COMPARATOR,
+                scanLength);
+        return map.entrySet(predicate);
+    }
+
+    @TimeStep(prob = 0)
+    public void readModifyWrite(ThreadState state) {
+        String key = state.nextKey();
+        map.get(key);
+        map.set(key, state.newRecord());
+    }
+
+    public class ThreadState extends BaseThreadState {
+
+        private final KeyDistribution keyDistribution = requestDistribution.newInstance(recordCount);
+
+        private String nextKey() {
+            return keySpace.nextRequestKey(keyDistribution, random);
+        }
+
+        private HashMap<String, String> newRecord() {
+            return recordFactory.newRecord(random);
+        }
+    }
+
+    @Teardown(global = true)
+    public void tearDown() {
+        map.destroy();
+    }
+
+    /**
+     * Orders the entries of a scan by their key.
+     */
+    @SuppressWarnings("rawtypes")
+    static final class KeyComparator implements Comparator<Map.Entry>, Serializable {
+
+        @Override
+        public int compare(Map.Entry entry1, Map.Entry entry2) {
+            return ((String) entry1.getKey()).compareTo((String) entry2.getKey());
+        }
+    }
+}
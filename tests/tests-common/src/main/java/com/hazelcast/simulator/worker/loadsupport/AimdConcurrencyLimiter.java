@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of in-flight operations with an additive-increase/multiplicative-decrease (AIMD) algorithm.
+ *
+ * Every successful operation with a latency close to the best latency seen so far increases the limit by <tt>1 / limit</tt>,
+ * so the limit grows by one per window of <tt>limit</tt> operations. A failed operation or an operation which takes longer
+ * than the latency tolerance times the best latency decreases the limit by a constant factor, at most once per window. So the
+ * limit settles at the concurrency the cluster can handle without queuing up the operations.
+ */
+final class AimdConcurrencyLimiter {
+
+    static final double DECREASE_FACTOR = 0.75;
+    static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+
+    private double limit;
+    private int inFlight;
+    private int completionsSinceDecrease;
+    private long minLatencyNanos = Long.MAX_VALUE;
+
+    AimdConcurrencyLimiter(int initialLimit, int maxLimit) {
+        this(1, initialLimit, maxLimit, DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    AimdConcurrencyLimiter(int minLimit, int initialLimit, int maxLimit, double latencyTolerance) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("minLimit must be in the range [1, maxLimit], but was " + minLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Waits until the number of in-flight operations is below the current limit and registers a new in-flight operation.
+     *
+     * @param timeout  the maximum time to wait
+     * @param timeUnit the {@link TimeUnit} of the timeout
+     * @return <tt>true</tt> if the operation was registered, <tt>false</tt> if the timeout elapsed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    synchronized boolean tryAcquire(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        while (inFlight >= getLimit()) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Unregisters a completed operation and adapts the limit.
+     *
+     * @param latencyNanos the latency of the operation
+     * @param success      <tt>true</tt> if the operation was successful, <tt>false</tt> otherwise
+     */
+    synchronized void release(long latencyNanos, boolean success) {
+        inFlight--;
+        adapt(latencyNanos, success);
+        notifyAll();
+    }
+
+    /**
+     * Adapts the limit to a failed attempt of an operation which is retried, so the operation stays in-flight.
+     *
+     * @param latencyNanos the latency of the failed attempt
+     */
+    synchronized void failedAttempt(long latencyNanos) {
+        adapt(latencyNanos, false);
+    }
+
+    private void adapt(long latencyNanos, boolean success) {
+        completionsSinceDecrease++;
+
+        if (success && latencyNanos < minLatencyNanos) {
+            minLatencyNanos = latencyNanos;
+        }
+
+        boolean overloaded = !success || latencyNanos > minLatencyNanos * latencyTolerance;
+        if (overloaded) {
+            if (completionsSinceDecrease >= getLimit()) {
+                limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+                completionsSinceDecrease = 0;
+            }
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Waits until there are no in-flight operations.
+     *
+     * @param timeout  the maximum time to wait
+     * @param timeUnit the {@link TimeUnit} of the timeout
+     * @return <tt>true</tt> if all operations are completed, <tt>false</tt> if the timeout elapsed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    synchronized boolean awaitIdle(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        while (inFlight > 0) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        return true;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
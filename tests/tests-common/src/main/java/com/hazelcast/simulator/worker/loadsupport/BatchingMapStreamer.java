@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.utils.ThrottlingLogger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Batching implementation of {@link Streamer} for {@link IMap}.
+ *
+ * The entries are grouped per partition and a full batch is stored with a single {@link IMap#putAll(Map)}, so a batch is
+ * a single operation on the owner of the partition. The number of concurrent batches is adapted to the observed latency and
+ * errors by an {@link AimdConcurrencyLimiter}. The load throughput is logged on {@link #await()}.
+ *
+ * A failed batch is retried a few times with an increasing delay, since {@link IMap#putAll(Map)} is idempotent. The failed
+ * attempts decrease the concurrency limit, so an overloaded cluster gets fewer batches instead of failing the load. Only when
+ * the last attempt fails, the exception is reported and further pushes are aborted.
+ *
+ * The {@link #pushEntry(Object, Object)} method must be called by a single thread.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class BatchingMapStreamer<K, V> implements Streamer<K, V> {
+
+    static final int DEFAULT_BATCH_SIZE = 100;
+    static final int DEFAULT_MAX_CONCURRENCY = 32;
+    static final int MAX_ATTEMPTS = 3;
+    static final int RETRY_DELAY_MILLIS = 100;
+
+    private static final ILogger LOGGER = Logger.getLogger(BatchingMapStreamer.class);
+
+    private static final long DEFAULT_TIMEOUT_MINUTES = 2;
+    private static final int MAXIMUM_LOGGING_RATE_MILLIS = 5000;
+    private static final int INITIAL_CONCURRENCY = 4;
+
+    private final IMap<K, V> map;
+    private final PartitionService partitionService;
+    private final int batchSize;
+    private final int maxConcurrency;
+    private final AimdConcurrencyLimiter limiter;
+    private final ThrottlingLogger throttlingLogger;
+    private final AtomicReference<Throwable> storedException = new AtomicReference<Throwable>();
+    private final AtomicLong counter = new AtomicLong();
+
+    private Map<Integer, Map<K, V>> batches = new HashMap<Integer, Map<K, V>>();
+    private ExecutorService executor;
+    private long startNanos;
+    private long startCount;
+
+    BatchingMapStreamer(IMap<K, V> map, PartitionService partitionService, int batchSize, int maxConcurrency) {
+        this(map, partitionService, batchSize, maxConcurrency,
+                new AimdConcurrencyLimiter(Math.min(INITIAL_CONCURRENCY, maxConcurrency), maxConcurrency));
+    }
+
+    BatchingMapStreamer(IMap<K, V> map, PartitionService partitionService, int batchSize, int maxConcurrency,
+                        AimdConcurrencyLimiter limiter) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive, but was " + batchSize);
+        }
+        this.map = map;
+        this.partitionService = partitionService;
+        this.batchSize = batchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.limiter = limiter;
+        this.throttlingLogger = ThrottlingLogger.newLogger(LOGGER, MAXIMUM_LOGGING_RATE_MILLIS);
+    }
+
+    @Override
+    public void pushEntry(K key, V value) {
+        if (storedException.get() != null) {
+            throw new RuntimeException("Aborting pushEntry; problems are detected. Please check the cause",
+                    storedException.get());
+        }
+
+        Integer partitionId = partitionService.getPartition(key).getPartitionId();
+        Map<K, V> batch = batches.get(partitionId);
+        if (batch == null) {
+            batch = new HashMap<K, V>();
+            batches.put(partitionId, batch);
+        }
+        batch.put(key, value);
+
+        if (batch.size() >= batchSize) {
+            batches.remove(partitionId);
+            submit(batch);
+        }
+    }
+
+    @Override
+    public void await() {
+        for (Map<K, V> batch : batches.values()) {
+            submit(batch);
+        }
+        batches = new HashMap<Integer, Map<K, V>>();
+        boolean submitted = executor != null;
+
+        try {
+            if (!limiter.awaitIdle(DEFAULT_TIMEOUT_MINUTES, MINUTES)) {
+                throw new IllegalStateException("Timeout when waiting for in-flight batches! Completed: " + counter.get());
+            }
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        } finally {
+            shutdownExecutor();
+        }
+
+        if (submitted) {
+            logThroughput();
+        }
+        if (storedException.get() != null) {
+            throw rethrow(storedException.get());
+        }
+    }
+
+    long getCount() {
+        return counter.get();
+    }
+
+    int getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+
+    private void submit(Map<K, V> batch) {
+        if (executor == null) {
+            executor = createFixedThreadPool(maxConcurrency, BatchingMapStreamer.class);
+            startNanos = System.nanoTime();
+            startCount = counter.get();
+        }
+
+        throttlingLogger.info(format("At: %d (concurrency limit %d)", counter.get(), limiter.getLimit()));
+        try {
+            if (!limiter.tryAcquire(DEFAULT_TIMEOUT_MINUTES, MINUTES)) {
+                throw new IllegalStateException("Timeout when trying to acquire a permit! Completed: " + counter.get());
+            }
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        }
+
+        try {
+            executor.execute(new BatchTask(batch));
+        } catch (RuntimeException e) {
+            limiter.release(0, false);
+            throw e;
+        }
+    }
+
+    private void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void logThroughput() {
+        long count = counter.get() - startCount;
+        long elapsedMillis = Math.max(1, NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        double throughput = count * (double) SECONDS.toMillis(1) / elapsedMillis;
+        LOGGER.info(format("Streamed %d entries in %d ms (%.2f entries/s, batch size %d, concurrency limit %d)",
+                count, elapsedMillis, throughput, batchSize, limiter.getLimit()));
+    }
+
+    private final class BatchTask implements Runnable {
+
+        private final Map<K, V> batch;
+
+        private BatchTask(Map<K, V> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void run() {
+            for (int attempt = 1; ; attempt++) {
+                long started = System.nanoTime();
+                try {
+                    map.putAll(batch);
+                    counter.addAndGet(batch.size());
+                    limiter.release(System.nanoTime() - started, true);
+                    return;
+                } catch (Throwable t) {
+                    long latencyNanos = System.nanoTime() - started;
+                    if (attempt < MAX_ATTEMPTS && t instanceof Exception && storedException.get() == null) {
+                        // the batch keeps its permit, but the limit is decreased, so fewer batches are submitted
+                        limiter.failedAttempt(latencyNanos);
+                        throttlingLogger.warn(format("Retrying failed batch (attempt %d of %d): %s", attempt + 1,
+                                MAX_ATTEMPTS, t));
+                        sleepMillis(RETRY_DELAY_MILLIS * attempt);
+                        continue;
+                    }
+                    // only the first failure is reported, to prevent exception noise of all in-flight batches
+                    if (storedException.compareAndSet(null, t)) {
+                        ExceptionReporter.report(null, t);
+                    }
+                    limiter.release(latencyNanos, false);
+                    return;
+                }
+            }
+        }
+    }
+}
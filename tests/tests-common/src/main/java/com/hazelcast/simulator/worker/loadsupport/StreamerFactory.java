@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.worker.loadsupport;
 
 import com.hazelcast.cache.ICache;
+import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 
 import javax.cache.Cache;
@@ -28,6 +29,9 @@ import static com.hazelcast.simulator.worker.loadsupport.Streamer.DEFAULT_CONCUR
  * Creates {@link Streamer} instances for {@link IMap} and {@link Cache}.
  *
  * If possible an asynchronous variant is created, otherwise it will be synchronous.
+ *
+ * For large data sets a batching {@link Streamer} for {@link IMap} can be created, which stores the entries per partition
+ * with putAll and adapts its concurrency to the cluster.
  */
 public final class StreamerFactory {
 
@@ -52,6 +56,15 @@ public final class StreamerFactory {
         return new SyncMapStreamer<K, V>(map);
     }
 
+    public static <K, V> Streamer<K, V> getBatchingInstance(HazelcastInstance hz, IMap<K, V> map) {
+        return getBatchingInstance(hz, map, BatchingMapStreamer.DEFAULT_BATCH_SIZE, BatchingMapStreamer.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public static <K, V> Streamer<K, V> getBatchingInstance(HazelcastInstance hz, IMap<K, V> map, int batchSize,
+                                                            int maxConcurrency) {
+        return new BatchingMapStreamer<K, V>(map, hz.getPartitionService(), batchSize, maxConcurrency);
+    }
+
     public static <K, V> Streamer<K, V> getInstance(Cache<K, V> cache) {
         return getInstance(cache, DEFAULT_CONCURRENCY_LEVEL);
     }
@@ -0,0 +1,217 @@
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Partition;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.core.Hazelcast.newHazelcastInstance;
+import static com.hazelcast.simulator.tests.helpers.KeyUtils.isLocalKey;
+import static com.hazelcast.simulator.tests.helpers.KeyUtils.newIntKeyProvider;
+import static com.hazelcast.simulator.tests.helpers.KeyUtils.newStringKeyProvider;
+import static com.hazelcast.simulator.vendors.HazelcastDriver.warmupPartitions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class KeyProviderTest {
+
+    private static final int PARTITION_COUNT = 10;
+    private static final long SEED = 0;
+
+    private static HazelcastInstance hz;
+    private static HazelcastInstance client;
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config config = new Config();
+        config.setProperty("hazelcast.partition.count", "" + PARTITION_COUNT);
+
+        hz = newHazelcastInstance(config);
+        HazelcastInstance remoteInstance = newHazelcastInstance(config);
+        warmupPartitions(hz);
+        warmupPartitions(remoteInstance);
+
+        ClientConfig clientconfig = new ClientConfig();
+        clientconfig.setProperty("hazelcast.partition.count", "" + PARTITION_COUNT);
+
+        client = HazelcastClient.newHazelcastClient(clientconfig);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        HazelcastClient.shutdownAll();
+        Hazelcast.shutdownAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidKeyCount() {
+        newIntKeyProvider(0, KeyLocality.SHARED, null, SEED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_keyLengthNotLargerThanPrefix() {
+        newStringKeyProvider("prefix", 10, 6, KeyLocality.LOCAL, hz, SEED);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetKey_indexTooLarge() {
+        newIntKeyProvider(10, KeyLocality.SHARED, null, SEED).getKey(10);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetKey_negativeIndex() {
+        newIntKeyProvider(10, KeyLocality.RANDOM, hz, SEED).getKey(-1);
+    }
+
+    @Test
+    public void testIntKeys_whenShared() {
+        KeyProvider<Integer> keys = newIntKeyProvider(100, KeyLocality.SHARED, null, SEED);
+
+        assertEquals(100, keys.getKeyCount());
+        assertEquals(KeyLocality.SHARED, keys.getKeyLocality());
+        for (int i = 0; i < keys.getKeyCount(); i++) {
+            assertEquals(i, (int) keys.getKey(i));
+        }
+    }
+
+    @Test
+    public void testIntKeys_whenSinglePartition() {
+        KeyProvider<Integer> keys = newIntKeyProvider(10, KeyLocality.SINGLE_PARTITION, null, SEED);
+
+        for (int i = 0; i < keys.getKeyCount(); i++) {
+            assertEquals(0, (int) keys.getKey(i));
+        }
+    }
+
+    @Test
+    public void testIntKeys_whenLocal_equalDistributionOverPartitions() {
+        Map<Integer, Integer> countsPerPartition = new HashMap<Integer, Integer>();
+        for (Partition partition : hz.getPartitionService().getPartitions()) {
+            if (partition.getOwner().localMember()) {
+                countsPerPartition.put(partition.getPartitionId(), 0);
+            }
+        }
+
+        int keysPerPartition = 100;
+        int keyCount = countsPerPartition.size() * keysPerPartition;
+        KeyProvider<Integer> keys = newIntKeyProvider(keyCount, KeyLocality.LOCAL, hz, SEED);
+
+        Set<Integer> distinctKeys = new HashSet<Integer>();
+        for (int i = 0; i < keyCount; i++) {
+            Integer key = keys.getKey(i);
+            distinctKeys.add(key);
+            assertTrue(isLocalKey(hz, key));
+
+            Partition partition = hz.getPartitionService().getPartition(key);
+            Integer count = countsPerPartition.get(partition.getPartitionId());
+            assertNotNull(count);
+            countsPerPartition.put(partition.getPartitionId(), count + 1);
+        }
+
+        assertEquals(keyCount, distinctKeys.size());
+        for (int count : countsPerPartition.values()) {
+            assertEquals(keysPerPartition, count);
+        }
+    }
+
+    @Test
+    public void testIntKeys_whenRemote() {
+        KeyProvider<Integer> keys = newIntKeyProvider(1000, KeyLocality.REMOTE, hz, SEED);
+
+        Set<Integer> distinctKeys = new HashSet<Integer>();
+        for (int i = 0; i < keys.getKeyCount(); i++) {
+            Integer key = keys.getKey(i);
+            distinctKeys.add(key);
+            assertFalse(isLocalKey(hz, key));
+        }
+        assertEquals(1000, distinctKeys.size());
+    }
+
+    @Test
+    public void testIntKeys_whenRandom_equalDistributionOverPartitions() {
+        int keysPerPartition = 100;
+        int keyCount = keysPerPartition * PARTITION_COUNT;
+        KeyProvider<Integer> keys = newIntKeyProvider(keyCount, KeyLocality.RANDOM, hz, SEED);
+
+        int[] countPerPartition = new int[PARTITION_COUNT];
+        for (int i = 0; i < keyCount; i++) {
+            Partition partition = hz.getPartitionService().getPartition(keys.getKey(i));
+            countPerPartition[partition.getPartitionId()]++;
+        }
+
+        for (int count : countPerPartition) {
+            assertEquals(keysPerPartition, count);
+        }
+    }
+
+    @Test
+    public void testIntKeys_whenLocal_client() {
+        KeyProvider<Integer> keys = newIntKeyProvider(2, KeyLocality.LOCAL, client, SEED);
+
+        assertEquals(2, keys.getKeyCount());
+        assertTrue(keys.getKey(0) < keys.getKey(1));
+    }
+
+    @Test
+    public void testIntKeys_isReproducibleWithSameSeed() {
+        KeyProvider<Integer> keys1 = newIntKeyProvider(1000, KeyLocality.RANDOM, hz, 42);
+        KeyProvider<Integer> keys2 = newIntKeyProvider(1000, KeyLocality.RANDOM, hz, 42);
+
+        for (int i = 0; i < keys1.getKeyCount(); i++) {
+            assertEquals(keys1.getKey(i), keys2.getKey(i));
+        }
+    }
+
+    @Test
+    public void testStringKeys_isReproducibleWithSameSeed() {
+        KeyProvider<String> keys1 = newStringKeyProvider("prefix", 100, 16, KeyLocality.LOCAL, hz, 42);
+        KeyProvider<String> keys2 = newStringKeyProvider("prefix", 100, 16, KeyLocality.LOCAL, hz, 42);
+
+        for (int i = 0; i < keys1.getKeyCount(); i++) {
+            assertEquals(keys1.getKey(i), keys2.getKey(i));
+        }
+    }
+
+    @Test
+    public void testStringKeys_whenShared() {
+        KeyProvider<String> keys = newStringKeyProvider("prefix", 100, 10, KeyLocality.SHARED, null, SEED);
+
+        assertEquals("prefix0000", keys.getKey(0));
+        assertEquals("prefix0042", keys.getKey(42));
+    }
+
+    @Test
+    public void testStringKeys_whenSinglePartition() {
+        KeyProvider<String> keys = newStringKeyProvider("prefix", 10, 10, KeyLocality.SINGLE_PARTITION, null, SEED);
+
+        for (int i = 0; i < keys.getKeyCount(); i++) {
+            assertEquals("prefix0000", keys.getKey(i));
+        }
+    }
+
+    @Test
+    public void testStringKeys_whenLocal() {
+        KeyProvider<String> keys = newStringKeyProvider("", 100, 12, KeyLocality.LOCAL, hz, SEED);
+
+        Set<String> distinctKeys = new HashSet<String>();
+        for (int i = 0; i < keys.getKeyCount(); i++) {
+            String key = keys.getKey(i);
+            distinctKeys.add(key);
+            assertEquals(12, key.length());
+            assertTrue(isLocalKey(hz, key));
+        }
+        assertEquals(100, distinctKeys.size());
+    }
+}
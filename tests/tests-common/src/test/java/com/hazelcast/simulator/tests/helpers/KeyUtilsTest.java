@@ -21,13 +21,16 @@ import com.hazelcast.config.Config;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
 import org.apache.log4j.Logger;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static com.hazelcast.core.Hazelcast.newHazelcastInstance;
 import static com.hazelcast.simulator.tests.helpers.KeyUtils.generateIntKeys;
@@ -167,6 +170,22 @@ public class KeyUtilsTest {
         assertEquals(2, keys.length);
     }
 
+    @Test
+    public void testGenerateIntKeys_whenLocal_uniqueKeysRoundRobinOverPartitions() {
+        int keyCount = 10000;
+        int[] keys = generateIntKeys(keyCount, KeyLocality.LOCAL, hz);
+
+        Set<Integer> distinctKeys = new HashSet<Integer>();
+        for (int key : keys) {
+            distinctKeys.add(key);
+        }
+        assertEquals(keyCount, distinctKeys.size());
+
+        PartitionService partitionService = hz.getPartitionService();
+        assertNotEquals(partitionService.getPartition(keys[0]).getPartitionId(),
+                partitionService.getPartition(keys[1]).getPartitionId());
+    }
+
     @Test
     public void testGenerateIntKeys_whenShared() {
         int[] keys = generateIntKeys(100, KeyLocality.SHARED, null);
@@ -438,6 +457,34 @@ public class KeyUtilsTest {
         }
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testGenerateStringKeys_whenLocal_keyLengthNotLargerThanPrefix() {
+        generateStringKeys("prefix", 10, 6, KeyLocality.LOCAL, hz);
+    }
+
+    @Test
+    public void testGenerateStringKeys_whenRandom_tooFewNumbersForKeyLength() {
+        // with a key length of 3 there are only 100 numbers for the 200 keys, so random characters are used instead
+        int keysPerPartition = 20;
+        int keyCount = keysPerPartition * PARTITION_COUNT;
+        String[] keys = generateStringKeys("p", keyCount, 3, KeyLocality.RANDOM, hz);
+
+        assertEquals(keyCount, keys.length);
+
+        Set<String> distinctKeys = new HashSet<String>();
+        int[] countPerPartition = new int[PARTITION_COUNT];
+        for (String key : keys) {
+            assertTrue(key.startsWith("p"));
+            assertEquals(3, key.length());
+            distinctKeys.add(key);
+            countPerPartition[hz.getPartitionService().getPartition(key).getPartitionId()]++;
+        }
+        assertEquals(keyCount, distinctKeys.size());
+        for (int count : countPerPartition) {
+            assertEquals(keysPerPartition, count);
+        }
+    }
+
     @Test
     public void testGenerateStringKeys_whenShared() {
         String[] keys = generateStringKeys("prefix", 12, 10, KeyLocality.SHARED, null);
@@ -0,0 +1,126 @@
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.simulator.test.TestContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.simulator.tests.helpers.NearCacheInvalidationProbe.newMapWrite;
+import static com.hazelcast.simulator.tests.helpers.NearCacheInvalidationProbe.toValue;
+import static com.hazelcast.simulator.tests.helpers.NearCacheInvalidationProbe.toVersion;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NearCacheInvalidationProbeTest {
+
+    private TestContext testContext;
+    private IExecutorService executor;
+    private Future future;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        testContext = mock(TestContext.class);
+        when(testContext.getWorkerIndex()).thenReturn(1);
+
+        future = mock(Future.class);
+        executor = mock(IExecutorService.class);
+        when(executor.submitToKeyOwner(any(Callable.class), any())).thenReturn(future);
+    }
+
+    @Test
+    public void testProbeKey() {
+        TestProbe probe = new TestProbe(2, 10);
+
+        assertEquals(-1003, probe.getKey());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenTooManyProbes() {
+        new TestProbe(1000, 10);
+    }
+
+    @Test
+    public void testInit() {
+        TestProbe probe = new TestProbe(0, 10);
+
+        probe.init();
+
+        assertEquals(0, toVersion(probe.values.get(probe.getKey())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRun() throws Exception {
+        TestProbe probe = new TestProbe(0, 10);
+        probe.init();
+        // the new value is seen by the third read after the write
+        probe.invalidateAfterReads = 3;
+
+        long delayNanos = probe.run();
+
+        assertTrue(delayNanos >= 0);
+        assertEquals(1, toVersion(probe.values.get(probe.getKey())));
+        verify(executor).submitToKeyOwner(any(Callable.class), any());
+        verify(future).get();
+    }
+
+    @Test
+    public void testRun_whenTimeout() throws Exception {
+        TestProbe probe = new TestProbe(0, 0);
+        probe.init();
+        probe.invalidateAfterReads = Integer.MAX_VALUE;
+
+        assertEquals(-1, probe.run());
+    }
+
+    @Test
+    public void testToValue() {
+        assertEquals(42, toVersion(toValue(42)));
+        assertEquals(-1, toVersion(null));
+    }
+
+    private final class TestProbe extends NearCacheInvalidationProbe {
+
+        private final Map<Integer, byte[]> values = new HashMap<Integer, byte[]>();
+        private byte[] pendingValue;
+        private int invalidateAfterReads;
+        private int reads;
+
+        private TestProbe(int probeIndex, int timeoutSeconds) {
+            super(testContext, probeIndex, mock(ILogger.class), executor, "test", 1, timeoutSeconds);
+        }
+
+        @Override
+        protected byte[] get(int key) {
+            if (pendingValue != null && ++reads > invalidateAfterReads) {
+                values.put(key, pendingValue);
+                pendingValue = null;
+            }
+            return values.get(key);
+        }
+
+        @Override
+        protected void put(int key, byte[] value) {
+            values.put(key, value);
+        }
+
+        @Override
+        protected Callable<Object> newMemberSideWrite(int key, byte[] value) {
+            // the write becomes visible after some reads, like a delayed invalidation
+            pendingValue = value;
+            reads = 0;
+            return newMapWrite("test", key, value);
+        }
+    }
+}
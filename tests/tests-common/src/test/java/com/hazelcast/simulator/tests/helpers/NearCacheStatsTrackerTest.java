@@ -0,0 +1,155 @@
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.simulator.test.Gauge;
+import com.hazelcast.simulator.test.TestContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.simulator.tests.helpers.NearCacheStatsTracker.hitRatioPercentage;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NearCacheStatsTrackerTest {
+
+    private static final double DELTA = 0.0001;
+
+    private ILogger logger;
+    private NearCacheStats stats;
+    private NearCacheStatsTracker tracker;
+
+    @Before
+    public void before() {
+        logger = mock(ILogger.class);
+        stats = mock(NearCacheStats.class);
+        tracker = newTracker(60);
+    }
+
+    @Test
+    public void testHitRatioPercentage() {
+        assertEquals(75.0, hitRatioPercentage(3, 1), DELTA);
+        assertEquals(100.0, hitRatioPercentage(5, 0), DELTA);
+        assertEquals(0.0, hitRatioPercentage(0, 5), DELTA);
+    }
+
+    @Test
+    public void testHitRatioPercentage_whenNoAccess() {
+        assertEquals(0.0, hitRatioPercentage(0, 0), DELTA);
+    }
+
+    @Test
+    public void testNextIntervalReport() {
+        when(stats.getHits()).thenReturn(30L);
+        when(stats.getMisses()).thenReturn(10L);
+        tracker.nextIntervalReport();
+
+        when(stats.getHits()).thenReturn(39L);
+        when(stats.getMisses()).thenReturn(11L);
+        String report = tracker.nextIntervalReport();
+
+        assertTrue(report, report.contains("(9 hits, 1 misses)"));
+        assertTrue(report, report.contains("(39 hits, 11 misses)"));
+    }
+
+    @Test
+    public void testReport() {
+        when(stats.getHits()).thenReturn(39L);
+        when(stats.getMisses()).thenReturn(11L);
+        when(stats.getOwnedEntryCount()).thenReturn(25L);
+        when(stats.getOwnedEntryMemoryCost()).thenReturn(2048L);
+
+        String report = tracker.report();
+
+        assertTrue(report, report.startsWith("test near cache:"));
+        assertTrue(report, report.contains("25 entries"));
+        assertTrue(report, report.contains("memory cost 2048 bytes"));
+    }
+
+    @Test
+    public void testMaybeLog_whenIntervalNotPassed() {
+        tracker.maybeLog();
+
+        verify(logger, never()).info(anyString());
+    }
+
+    @Test
+    public void testMaybeLog_whenDisabled() {
+        tracker = newTracker(0);
+
+        tracker.maybeLog();
+
+        verify(logger, never()).info(anyString());
+    }
+
+    @Test
+    public void testRegisterGauges() {
+        Map<String, Gauge> gauges = registerGauges();
+
+        assertEquals(3, gauges.size());
+
+        when(stats.getOwnedEntryCount()).thenReturn(25L);
+        when(stats.getOwnedEntryMemoryCost()).thenReturn(2048L);
+
+        assertEquals(25, gauges.get("nearCache.entries").getValue(), DELTA);
+        assertEquals(2048, gauges.get("nearCache.memoryCost").getValue(), DELTA);
+    }
+
+    @Test
+    public void testHitRatioGauge() {
+        Gauge hitRatio = registerGauges().get("nearCache.hitRatio");
+
+        when(stats.getHits()).thenReturn(30L);
+        when(stats.getMisses()).thenReturn(10L);
+        assertEquals(75.0, hitRatio.getValue(), DELTA);
+
+        when(stats.getHits()).thenReturn(39L);
+        when(stats.getMisses()).thenReturn(11L);
+        assertEquals(90.0, hitRatio.getValue(), DELTA);
+    }
+
+    @Test
+    public void testHitRatioGauge_isIndependentOfLog() {
+        Gauge hitRatio = registerGauges().get("nearCache.hitRatio");
+
+        when(stats.getHits()).thenReturn(30L);
+        when(stats.getMisses()).thenReturn(10L);
+        tracker.nextIntervalReport();
+
+        assertEquals(75.0, hitRatio.getValue(), DELTA);
+    }
+
+    private Map<String, Gauge> registerGauges() {
+        TestContext testContext = mock(TestContext.class);
+        tracker.registerGauges(testContext);
+
+        ArgumentCaptor<String> names = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Gauge> gauges = ArgumentCaptor.forClass(Gauge.class);
+        verify(testContext, atLeastOnce()).registerGauge(names.capture(), gauges.capture());
+
+        Map<String, Gauge> result = new HashMap<String, Gauge>();
+        for (int i = 0; i < names.getAllValues().size(); i++) {
+            result.put(names.getAllValues().get(i), gauges.getAllValues().get(i));
+        }
+        return result;
+    }
+
+    private NearCacheStatsTracker newTracker(int intervalSeconds) {
+        return new NearCacheStatsTracker(logger, "test", intervalSeconds) {
+            @Override
+            public NearCacheStats getNearCacheStats() {
+                return stats;
+            }
+        };
+    }
+}
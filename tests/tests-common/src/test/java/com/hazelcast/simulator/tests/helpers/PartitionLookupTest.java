@@ -0,0 +1,80 @@
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PartitionLookupTest {
+
+    private static final int PARTITION_COUNT = 271;
+
+    private PartitionService partitionService;
+
+    @Before
+    public void before() {
+        final Partition[] partitions = new Partition[PARTITION_COUNT];
+        for (int partitionId = 0; partitionId < PARTITION_COUNT; partitionId++) {
+            partitions[partitionId] = mock(Partition.class);
+            when(partitions[partitionId].getPartitionId()).thenReturn(partitionId);
+        }
+
+        partitionService = mock(PartitionService.class);
+        when(partitionService.getPartition(any())).thenAnswer(new Answer<Partition>() {
+            @Override
+            public Partition answer(InvocationOnMock invocation) throws Throwable {
+                Object key = invocation.getArguments()[0];
+                return partitions[key.hashCode() % PARTITION_COUNT];
+            }
+        });
+    }
+
+    @Test
+    public void testLookup_singleThread() {
+        PartitionLookup partitionLookup = new PartitionLookup(partitionService, KeyProvider.INT_KEYS, 1);
+        try {
+            assertEquals(PartitionLookup.VALUES_PER_TASK, partitionLookup.getChunkSize());
+            assertPartitionIds(partitionLookup.lookup(1000, 500), 1000, 500);
+        } finally {
+            partitionLookup.shutdown();
+        }
+    }
+
+    @Test
+    public void testLookup_multipleThreads() {
+        PartitionLookup partitionLookup = new PartitionLookup(partitionService, KeyProvider.INT_KEYS, 3);
+        try {
+            int chunkSize = partitionLookup.getChunkSize();
+            assertEquals(3 * PartitionLookup.VALUES_PER_TASK, chunkSize);
+            assertPartitionIds(partitionLookup.lookup(42, chunkSize), 42, chunkSize);
+            assertPartitionIds(partitionLookup.lookup(chunkSize + 42, 100), chunkSize + 42, 100);
+        } finally {
+            partitionLookup.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookup_exceptionIsPropagated() {
+        when(partitionService.getPartition(any())).thenThrow(new IllegalArgumentException("expected"));
+
+        PartitionLookup partitionLookup = new PartitionLookup(partitionService, KeyProvider.INT_KEYS, 2);
+        try {
+            partitionLookup.lookup(0, partitionLookup.getChunkSize());
+        } finally {
+            partitionLookup.shutdown();
+        }
+    }
+
+    private static void assertPartitionIds(int[] partitionIds, int firstValue, int length) {
+        for (int i = 0; i < length; i++) {
+            assertEquals((firstValue + i) % PARTITION_COUNT, partitionIds[i]);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.simulator.test.distribution.LatestKeyDistribution;
+import com.hazelcast.simulator.test.distribution.UniformKeyDistribution;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.simulator.tests.helpers.YcsbKeySpace.keyName;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class YcsbKeySpaceTest {
+
+    private final Random random = new Random();
+
+    @Test
+    public void testKeyName() {
+        // FNV-1a 64 bit hash of the key number, like the YCSB hashed key names
+        assertEquals("user" + Math.abs(0xA8C7F832281A39C5L), keyName(0));
+        assertTrue(keyName(1).startsWith("user"));
+    }
+
+    @Test
+    public void testNextInsertKeyNumber_isInterleavedBetweenWorkers() {
+        YcsbKeySpace worker0 = new YcsbKeySpace(100, 0, 3);
+        YcsbKeySpace worker2 = new YcsbKeySpace(100, 2, 3);
+
+        assertEquals(100, worker0.nextInsertKeyNumber());
+        assertEquals(103, worker0.nextInsertKeyNumber());
+        assertEquals(102, worker2.nextInsertKeyNumber());
+        assertEquals(105, worker2.nextInsertKeyNumber());
+        assertEquals(102, worker0.getKeyCount());
+    }
+
+    @Test
+    public void testNextInsertKeyNumber_isUniqueForAllWorkers() {
+        int workerCount = 4;
+        Set<Long> keyNumbers = new HashSet<Long>();
+        for (int workerIndex = 0; workerIndex < workerCount; workerIndex++) {
+            YcsbKeySpace keySpace = new YcsbKeySpace(10, workerIndex, workerCount);
+            for (int i = 0; i < 100; i++) {
+                long keyNumber = keySpace.nextInsertKeyNumber();
+                assertTrue(keyNumber >= 10);
+                assertTrue(keyNumbers.add(keyNumber));
+            }
+        }
+    }
+
+    @Test
+    public void testNextRequestKey_withUniformDistribution_onlyReturnsLoadedKeys() {
+        YcsbKeySpace keySpace = new YcsbKeySpace(10, 0, 1);
+        keySpace.nextInsertKeyNumber();
+
+        Set<String> loadedKeys = new HashSet<String>();
+        for (int i = 0; i < 10; i++) {
+            loadedKeys.add(keyName(i));
+        }
+        UniformKeyDistribution distribution = new UniformKeyDistribution(10);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(loadedKeys.contains(keySpace.nextRequestKey(distribution, random)));
+        }
+    }
+
+    @Test
+    public void testNextRequestKey_withLatestDistribution_followsInserts() {
+        YcsbKeySpace keySpace = new YcsbKeySpace(10, 1, 2);
+        LatestKeyDistribution distribution = new LatestKeyDistribution(10);
+
+        long keyNumber = 0;
+        for (int i = 0; i < 5; i++) {
+            keyNumber = keySpace.nextInsertKeyNumber();
+        }
+        String latestKey = keyName(keyNumber);
+
+        int latestCount = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (latestKey.equals(keySpace.nextRequestKey(distribution, random))) {
+                latestCount++;
+            }
+        }
+        assertEquals(15, distribution.getItemCount());
+        assertTrue("latestCount was " + latestCount, latestCount > 200);
+    }
+
+    @Test
+    public void testToKeyNumber() {
+        YcsbKeySpace keySpace = new YcsbKeySpace(10, 1, 2);
+
+        assertEquals(9, keySpace.toKeyNumber(9));
+        assertEquals(11, keySpace.toKeyNumber(10));
+        assertEquals(13, keySpace.toKeyNumber(11));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenRecordCountZero() {
+        new YcsbKeySpace(0, 0, 1);
+    }
+}
@@ -0,0 +1,34 @@
+package com.hazelcast.simulator.tests.helpers;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class YcsbRecordFactoryTest {
+
+    @Test
+    public void testNewRecord() {
+        YcsbRecordFactory factory = new YcsbRecordFactory(10, 100);
+
+        Map<String, String> record = factory.newRecord(new Random());
+
+        assertEquals(10, factory.getFieldCount());
+        assertEquals(10, record.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(100, record.get("field" + i).length());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenFieldCountZero() {
+        new YcsbRecordFactory(0, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenFieldLengthZero() {
+        new YcsbRecordFactory(10, 0);
+    }
+}
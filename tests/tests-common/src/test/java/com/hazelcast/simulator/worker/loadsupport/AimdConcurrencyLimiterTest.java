@@ -0,0 +1,135 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AimdConcurrencyLimiterTest {
+
+    private static final long LATENCY_NANOS = 1000;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidMinLimit() {
+        new AimdConcurrencyLimiter(0, 1, 10, 2.0);
+    }
+
+    @Test
+    public void testConstructor_initialLimitIsCapped() {
+        assertEquals(10, new AimdConcurrencyLimiter(20, 10).getLimit());
+        assertEquals(2, new AimdConcurrencyLimiter(2, 1, 10, 2.0).getLimit());
+    }
+
+    @Test
+    public void testTryAcquire_timeoutWhenLimitReached() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 10);
+
+        assertTrue(limiter.tryAcquire(1, MILLISECONDS));
+        assertTrue(limiter.tryAcquire(1, MILLISECONDS));
+        assertFalse(limiter.tryAcquire(1, MILLISECONDS));
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testRelease_additiveIncrease() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 10);
+
+        // every fast operation increases the limit by 1 / limit, so about one per window
+        complete(limiter, LATENCY_NANOS, true);
+        complete(limiter, LATENCY_NANOS, true);
+        assertEquals(2, limiter.getLimit());
+        complete(limiter, LATENCY_NANOS, true);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    public void testRelease_additiveIncreaseIsCapped() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(1, 3);
+
+        for (int i = 0; i < 100; i++) {
+            complete(limiter, LATENCY_NANOS, true);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    public void testRelease_multiplicativeDecreaseOnFailure() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 10);
+        for (int i = 0; i < 8; i++) {
+            complete(limiter, LATENCY_NANOS, true);
+        }
+        assertEquals(8, limiter.getLimit());
+
+        complete(limiter, LATENCY_NANOS, false);
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    public void testRelease_multiplicativeDecreaseOnHighLatency() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 10);
+        for (int i = 0; i < 4; i++) {
+            complete(limiter, LATENCY_NANOS, true);
+        }
+        int limit = limiter.getLimit();
+
+        complete(limiter, 10 * LATENCY_NANOS, true);
+        assertTrue(limiter.getLimit() < limit);
+    }
+
+    @Test
+    public void testRelease_decreaseOncePerWindow() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 10);
+        for (int i = 0; i < 8; i++) {
+            complete(limiter, LATENCY_NANOS, true);
+        }
+
+        complete(limiter, LATENCY_NANOS, false);
+        int limit = limiter.getLimit();
+        complete(limiter, LATENCY_NANOS, false);
+        assertEquals(limit, limiter.getLimit());
+    }
+
+    @Test
+    public void testRelease_neverBelowMinLimit() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 2, 10, 2.0);
+
+        for (int i = 0; i < 100; i++) {
+            complete(limiter, LATENCY_NANOS, false);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testFailedAttempt_decreasesLimitAndKeepsInFlight() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 10);
+        for (int i = 0; i < 8; i++) {
+            complete(limiter, LATENCY_NANOS, true);
+        }
+        assertTrue(limiter.tryAcquire(1, MILLISECONDS));
+
+        limiter.failedAttempt(LATENCY_NANOS);
+
+        assertEquals(6, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+        assertFalse(limiter.awaitIdle(1, MILLISECONDS));
+    }
+
+    @Test
+    public void testAwaitIdle() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 10);
+        assertTrue(limiter.awaitIdle(1, MILLISECONDS));
+
+        assertTrue(limiter.tryAcquire(1, MILLISECONDS));
+        assertFalse(limiter.awaitIdle(1, MILLISECONDS));
+
+        limiter.release(LATENCY_NANOS, true);
+        assertTrue(limiter.awaitIdle(1, MILLISECONDS));
+    }
+
+    private static void complete(AimdConcurrencyLimiter limiter, long latencyNanos, boolean success) throws Exception {
+        assertTrue(limiter.tryAcquire(1, MILLISECONDS));
+        limiter.release(latencyNanos, success);
+    }
+}
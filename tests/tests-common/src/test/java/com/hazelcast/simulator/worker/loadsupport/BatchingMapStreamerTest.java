@@ -0,0 +1,216 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.simulator.TestEnvironmentUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchingMapStreamerTest {
+
+    private static final int DEFAULT_TIMEOUT = 30000;
+    private static final int PARTITION_COUNT = 10;
+
+    private final Map<Integer, String> stored = new ConcurrentHashMap<Integer, String>();
+
+    @SuppressWarnings("unchecked")
+    private final IMap<Integer, String> map = mock(IMap.class);
+    private final PartitionService partitionService = mock(PartitionService.class);
+
+    @Before
+    public void before() {
+        TestEnvironmentUtils.setupFakeUserDir();
+
+        final Partition[] partitions = new Partition[PARTITION_COUNT];
+        for (int partitionId = 0; partitionId < PARTITION_COUNT; partitionId++) {
+            partitions[partitionId] = mock(Partition.class);
+            when(partitions[partitionId].getPartitionId()).thenReturn(partitionId);
+        }
+        when(partitionService.getPartition(any())).thenAnswer(new Answer<Partition>() {
+            @Override
+            public Partition answer(InvocationOnMock invocation) throws Throwable {
+                Integer key = (Integer) invocation.getArguments()[0];
+                return partitions[key % PARTITION_COUNT];
+            }
+        });
+
+        doAnswer(getStoreAnswer()).when(map).putAll(anyMap());
+    }
+
+    @After
+    public void after() {
+        TestEnvironmentUtils.teardownFakeUserDir();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidBatchSize() {
+        new BatchingMapStreamer<Integer, String>(map, partitionService, 0, 1);
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testPushEntry_batchesArePerPartition() {
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 3, 1);
+
+        // partition 1 gets a full batch, partition 2 not
+        streamer.pushEntry(1, "value1");
+        streamer.pushEntry(2, "value2");
+        streamer.pushEntry(11, "value11");
+        streamer.pushEntry(21, "value21");
+        streamer.await();
+
+        verify(map, times(2)).putAll(anyMap());
+        assertEquals(4, stored.size());
+        assertEquals(4, streamer.getCount());
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testAwait() {
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 10, 4);
+
+        for (int i = 0; i < 5000; i++) {
+            streamer.pushEntry(i, "value" + i);
+        }
+        streamer.await();
+
+        assertEquals(5000, stored.size());
+        assertEquals("value42", stored.get(42));
+        assertEquals(5000, streamer.getCount());
+        assertTrue(streamer.getConcurrencyLimit() >= 1);
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testAwait_canBeReused() {
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 10, 4);
+
+        streamer.pushEntry(1, "value1");
+        streamer.await();
+        streamer.pushEntry(2, "value2");
+        streamer.await();
+
+        assertEquals(2, stored.size());
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testAwait_whenEmpty() {
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 10, 4);
+
+        streamer.await();
+
+        verify(map, never()).putAll(anyMap());
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT, expected = IllegalArgumentException.class)
+    public void testAwait_withExceptionInPutAll() {
+        doThrow(new IllegalArgumentException("expected exception")).when(map).putAll(anyMap());
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 1, 1);
+
+        streamer.pushEntry(1, "value");
+        streamer.await();
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testAwait_retriesFailedBatch() {
+        final Answer storeAnswer = getStoreAnswer();
+        doAnswer(new Answer() {
+            private boolean failed;
+
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("expected exception");
+                }
+                return storeAnswer.answer(invocation);
+            }
+        }).when(map).putAll(anyMap());
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 1, 1);
+
+        streamer.pushEntry(1, "value1");
+        streamer.pushEntry(2, "value2");
+        streamer.await();
+
+        verify(map, times(3)).putAll(anyMap());
+        assertEquals(2, stored.size());
+        assertEquals(2, streamer.getCount());
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testAwait_givesUpAfterMaxAttempts() {
+        doThrow(new IllegalArgumentException("expected exception")).when(map).putAll(anyMap());
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 1, 1);
+
+        streamer.pushEntry(1, "value");
+        try {
+            streamer.await();
+            fail("Expected await() to fail after the last attempt");
+        } catch (IllegalArgumentException expected) {
+            verify(map, times(BatchingMapStreamer.MAX_ATTEMPTS)).putAll(anyMap());
+        }
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testPushEntry_abortsAfterException() {
+        doThrow(new IllegalArgumentException("expected exception")).when(map).putAll(anyMap());
+        BatchingMapStreamer<Integer, String> streamer = new BatchingMapStreamer<Integer, String>(map, partitionService, 1, 1);
+
+        try {
+            for (int i = 0; i < 1000; i++) {
+                streamer.pushEntry(i, "value");
+            }
+            fail("Expected pushEntry() to abort after the failed batch");
+        } catch (RuntimeException expected) {
+            assertTrue(expected.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testGetBatchingInstance() {
+        HazelcastInstance hz = mock(HazelcastInstance.class);
+        when(hz.getPartitionService()).thenReturn(partitionService);
+
+        Streamer<Integer, String> streamer = StreamerFactory.getBatchingInstance(hz, map);
+
+        assertTrue(streamer instanceof BatchingMapStreamer);
+    }
+
+    // stores the batch and verifies that it only contains keys of a single partition
+    private Answer getStoreAnswer() {
+        return new Answer() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                Map<Integer, String> batch = (Map<Integer, String>) invocation.getArguments()[0];
+                Integer partitionId = null;
+                for (Integer key : batch.keySet()) {
+                    if (partitionId != null && partitionId != key % PARTITION_COUNT) {
+                        throw new AssertionError("batch contains keys of multiple partitions: " + batch.keySet());
+                    }
+                    partitionId = key % PARTITION_COUNT;
+                }
+                stored.putAll(batch);
+                return null;
+            }
+        };
+    }
+}